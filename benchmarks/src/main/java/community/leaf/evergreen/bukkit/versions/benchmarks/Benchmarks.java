@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks, accepting the standard JMH command line options.
+ *
+ * <p>Unless another format or file is specified (with {@code -rf} or {@code -rff}),
+ * results are written as JSON to {@value #DEFAULT_RESULT_FILE}, so that
+ * runs on different commits can be compared.</p>
+ */
+public final class Benchmarks
+{
+    private Benchmarks() { throw new UnsupportedOperationException(); }
+    
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException
+    {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        
+        if (commandLine.shouldHelp())
+        {
+            commandLine.showHelp();
+            return;
+        }
+        
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        
+        if (!commandLine.getResultFormat().hasValue()) { options.resultFormat(ResultFormatType.JSON); }
+        if (!commandLine.getResult().hasValue() && !commandLine.getResultFormat().hasValue()) { options.result(DEFAULT_RESULT_FILE); }
+        
+        new Runner(options.build()).run();
+    }
+}
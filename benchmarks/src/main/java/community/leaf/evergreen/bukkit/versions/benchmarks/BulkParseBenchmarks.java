@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.BulkVersionParser;
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a large newline-delimited log of versions: as bytes, or decoded into strings first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BulkParseBenchmarks
+{
+    private static final int LINES = 1_000_000;
+    
+    private byte[] bytes = new byte[0];
+    private long[] into = new long[LINES];
+    
+    @Setup
+    public void setup()
+    {
+        StringBuilder log = new StringBuilder();
+        
+        for (int i = 0; i < LINES; i++)
+        {
+            log.append("[12:00:00 INFO]: Player").append(i).append(" joined using 1.").append(8 + i % 13).append('.').append(i % 5).append('\n');
+        }
+        
+        bytes = log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Benchmark
+    public int parseLinesIntoArray()
+    {
+        return BulkVersionParser.parseLines(ByteBuffer.wrap(bytes), into, 0);
+    }
+    
+    @Benchmark
+    public long[] parseLinesInParallel()
+    {
+        return BulkVersionParser.parseLinesInParallel(ByteBuffer.wrap(bytes), ForkJoinPool.commonPool());
+    }
+    
+    // Baseline: decoding every line into a string first.
+    @Benchmark
+    public int parseDecodedStrings() throws IOException
+    {
+        int parsed = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)))
+        {
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+                into[parsed++] = MinecraftVersion.parseMinecraftVersion(line).map(MinecraftVersion::packed).orElse(-1L);
+            }
+        }
+        
+        return parsed;
+    }
+}
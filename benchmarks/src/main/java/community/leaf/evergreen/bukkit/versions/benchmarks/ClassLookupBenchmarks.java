@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.CraftBukkitVersion;
+import community.leaf.evergreen.bukkit.versions.stubs.StubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building CraftBukkit and Minecraft class names, and looking up their classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClassLookupBenchmarks
+{
+    private CraftBukkitVersion version = new CraftBukkitVersion(1, 20, 3);
+    
+    @Setup
+    public void setup()
+    {
+        StubServer.install();
+        version = CraftBukkitVersion.server();
+    }
+    
+    @Benchmark
+    public String craftBukkitClass() { return version.craftBukkitClass("entity.CraftPlayer"); }
+    
+    @Benchmark
+    public String minecraftClass() { return version.minecraftClass("server.level.ServerPlayer"); }
+    
+    @Benchmark
+    public Optional<Class<?>> findCraftBukkitClass() { return version.findCraftBukkitClass("entity.CraftPlayer"); }
+    
+    @Benchmark
+    public Optional<Class<?>> findMinecraftClassWithFallback()
+    {
+        return version.findMinecraftClass("server.level.EntityPlayer", "server.level.ServerPlayer");
+    }
+    
+    @Benchmark
+    public Optional<Class<?>> findMissingClass() { return version.findCraftBukkitClass("entity.CraftDoesNotExist"); }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.ClientVersions;
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-player client version checks while players join and quit, in the
+ * client version store compared to a concurrent hash map of versions.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClientVersionBenchmarks
+{
+    private static final int PLAYERS = 500;
+    
+    private static final MinecraftVersion v1_20_2 = new MinecraftVersion(1, 20, 2);
+    private static final long v1_20_2_PACKED = v1_20_2.packed();
+    
+    private final ClientVersions clients = new ClientVersions(PLAYERS);
+    private final Map<UUID, MinecraftVersion> map = new ConcurrentHashMap<>();
+    private UUID[] online = new UUID[0];
+    
+    @Setup
+    public void setup()
+    {
+        online = new UUID[PLAYERS];
+        
+        for (int i = 0; i < PLAYERS; i++)
+        {
+            UUID player = UUID.randomUUID();
+            MinecraftVersion version = new MinecraftVersion(1, 8 + i % 13, i % 5);
+            online[i] = player;
+            clients.put(player, version);
+            map.put(player, version);
+        }
+    }
+    
+    private UUID anyOnline() { return online[ThreadLocalRandom.current().nextInt(online.length)]; }
+    
+    @Benchmark
+    @Group("clientVersions")
+    @GroupThreads(3)
+    public boolean clientVersionsAtLeast() { return clients.atLeast(anyOnline(), v1_20_2_PACKED); }
+    
+    @Benchmark
+    @Group("clientVersions")
+    @GroupThreads(1)
+    public void clientVersionsJoinAndQuit()
+    {
+        UUID player = UUID.randomUUID();
+        clients.put(player, v1_20_2_PACKED);
+        clients.remove(player);
+    }
+    
+    @Benchmark
+    @Group("concurrentHashMap")
+    @GroupThreads(3)
+    public boolean concurrentHashMapAtLeast()
+    {
+        MinecraftVersion version = map.get(anyOnline());
+        return version != null && version.atLeast(v1_20_2);
+    }
+    
+    @Benchmark
+    @Group("concurrentHashMap")
+    @GroupThreads(1)
+    public void concurrentHashMapJoinAndQuit()
+    {
+        UUID player = UUID.randomUUID();
+        map.put(player, v1_20_2);
+        map.remove(player);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import community.leaf.evergreen.bukkit.versions.VersionSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing versions, as version-dependent code paths do on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ComparisonBenchmarks
+{
+    // Non-final fields so the JIT can't constant-fold the comparisons away.
+    public MinecraftVersion server = new MinecraftVersion(1, 20, 4);
+    public MinecraftVersion other = new MinecraftVersion(1, 17, 1);
+    public int major = 1;
+    public int minor = 17;
+    public int patch = 1;
+    
+    public List<MinecraftVersion> supportedList = List.of(
+        new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 12, 2), new MinecraftVersion(1, 16, 5),
+        new MinecraftVersion(1, 17, 1), new MinecraftVersion(1, 18, 2), new MinecraftVersion(1, 19, 4),
+        new MinecraftVersion(1, 20, 1), new MinecraftVersion(1, 20, 2), new MinecraftVersion(1, 20, 4)
+    );
+    
+    public VersionSet supportedSet = VersionSet.of(supportedList.toArray(MinecraftVersion[]::new));
+    
+    @Benchmark
+    public int compareTo() { return server.compareTo(other); }
+    
+    @Benchmark
+    public boolean atLeastVersion() { return server.atLeast(other); }
+    
+    @Benchmark
+    public boolean atLeastNumbers() { return server.atLeast(major, minor, patch); }
+    
+    @Benchmark
+    public boolean lessThanVersion() { return server.lessThan(other); }
+    
+    @Benchmark
+    public boolean lessThanNumbers() { return server.lessThan(major, minor, patch); }
+    
+    @Benchmark
+    public boolean isWithinRange() { return server.atLeast(major, minor, patch) && server.lessThan(1, 21, 0); }
+    
+    @Benchmark
+    public boolean supportedByListScan() { return supportedList.contains(server); }
+    
+    @Benchmark
+    public boolean supportedBySet() { return supportedSet.contains(server); }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.KnownReleases;
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import community.leaf.evergreen.bukkit.versions.VersionIntMap;
+import community.leaf.evergreen.bukkit.versions.VersionMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versions as hash map keys, looked up with equal but not identical instances,
+ * compared to array-backed version maps indexed by release ordinals.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HashMapBenchmarks
+{
+    private final Map<MinecraftVersion, Integer> map = new HashMap<>();
+    private MinecraftVersion[] keys = new MinecraftVersion[0];
+    private VersionMap<Integer> versionMap = VersionMap.<Integer>builder().build();
+    private VersionIntMap versionIntMap = VersionIntMap.builder().build();
+    
+    @Setup
+    public void setup()
+    {
+        // Every patch release of 1.8 to 1.20, like a table of version-specific values.
+        for (int minor = 8; minor <= 20; minor++)
+        {
+            for (int patch = 0; patch <= 6; patch++) { map.put(new MinecraftVersion(1, minor, patch), minor * 10 + patch); }
+        }
+        
+        // Fresh instances, so lookups exercise equals() rather than identity.
+        keys = map.keySet().stream()
+            .map(version -> new MinecraftVersion(version.major(), version.minor(), version.patch()))
+            .toArray(MinecraftVersion[]::new);
+        
+        // The same table, keeping only known releases (others fall back to the nearest lower one).
+        VersionMap.Builder<Integer> versionMapBuilder = VersionMap.builder();
+        VersionIntMap.Builder versionIntMapBuilder = VersionIntMap.builder();
+        
+        map.forEach((version, value) ->
+        {
+            if (KnownReleases.bundled().ordinal(version) == KnownReleases.UNKNOWN_ORDINAL) { return; }
+            versionMapBuilder.since(version, value);
+            versionIntMapBuilder.since(version, value);
+        });
+        
+        versionMap = versionMapBuilder.build();
+        versionIntMap = versionIntMapBuilder.build();
+    }
+    
+    @Benchmark
+    public void get(Blackhole blackhole)
+    {
+        for (MinecraftVersion key : keys) { blackhole.consume(map.get(key)); }
+    }
+    
+    @Benchmark
+    public void versionMapGet(Blackhole blackhole)
+    {
+        for (MinecraftVersion key : keys) { blackhole.consume(versionMap.get(key)); }
+    }
+    
+    @Benchmark
+    public void versionIntMapGet(Blackhole blackhole)
+    {
+        for (MinecraftVersion key : keys) { blackhole.consume(versionIntMap.get(key)); }
+    }
+    
+    @Benchmark
+    public void hashCodes(Blackhole blackhole)
+    {
+        for (MinecraftVersion key : keys) { blackhole.consume(key.hashCode()); }
+    }
+    
+    @Benchmark
+    public Map<MinecraftVersion, Integer> build()
+    {
+        Map<MinecraftVersion, Integer> built = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) { built.put(keys[i], i); }
+        return built;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.CraftBukkitVersion;
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing versions out of the strings servers actually report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmarks
+{
+    // Separate states so each benchmark only runs with its own inputs.
+    
+    @State(Scope.Benchmark)
+    public static class BukkitVersions
+    {
+        @Param({"1.20.4-R0.1-SNAPSHOT", "git-Paper-496 (MC: 1.20.4)", "1.8.8-R0.1-SNAPSHOT"})
+        public String text = "";
+    }
+    
+    @State(Scope.Benchmark)
+    public static class ExactVersions
+    {
+        @Param({"1.20.4", "1.8"})
+        public String text = "";
+    }
+    
+    @State(Scope.Benchmark)
+    public static class ServerClassNames
+    {
+        @Param({"org.bukkit.craftbukkit.v1_20_R3.CraftServer", "org.bukkit.craftbukkit.v1_8_R3.CraftServer"})
+        public String text = "";
+    }
+    
+    @Benchmark
+    public Optional<MinecraftVersion> parseMinecraftVersion(BukkitVersions input)
+    {
+        return MinecraftVersion.parseMinecraftVersion(input.text);
+    }
+    
+    @Benchmark
+    public Optional<MinecraftVersion> parseExactMinecraftVersion(ExactVersions input)
+    {
+        return MinecraftVersion.parseExactMinecraftVersion(input.text);
+    }
+    
+    @Benchmark
+    public Optional<CraftBukkitVersion> parseCraftBukkitVersion(ServerClassNames input)
+    {
+        return CraftBukkitVersion.parseCraftBukkitVersion(input.text);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import community.leaf.evergreen.bukkit.versions.CraftBukkitVersion;
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import community.leaf.evergreen.bukkit.versions.stubs.StubServer;
+import org.bukkit.Bukkit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accessing the server's version from every available thread at once,
+ * like async tasks and region threads do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(Threads.MAX)
+public class ServerBenchmarks
+{
+    @Setup
+    public void setup()
+    {
+        StubServer.install();
+    }
+    
+    @Benchmark
+    public MinecraftVersion minecraftServer() { return MinecraftVersion.server(); }
+    
+    @Benchmark
+    public CraftBukkitVersion craftBukkitServer() { return CraftBukkitVersion.server(); }
+    
+    @Benchmark
+    public boolean minecraftServerAtLeast() { return MinecraftVersion.server().atLeast(1, 17); }
+    
+    // Baseline: what resolving the version on every access would cost.
+    @Benchmark
+    public Optional<MinecraftVersion> parseOnEveryAccess()
+    {
+        return MinecraftVersion.parseMinecraftVersion(Bukkit.getBukkitVersion());
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+/**
+ * JMH benchmarks for bukkit-server-version, run against a stubbed Bukkit server.
+ */
+@NonNullPackage
+package community.leaf.evergreen.bukkit.versions.benchmarks;
+
+import pl.tlinkowski.annotation.basic.NonNullPackage;
@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.gates;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an element as only available on Minecraft versions at least this version (inclusive).
+ *
+ * <p>The {@link VersionGateProcessor} generates a {@code static final boolean}
+ * gate for every annotated element, which is {@code true} if the server's
+ * version satisfies every version annotation on the element and its enclosing types.</p>
+ *
+ * @see UntilMinecraft
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.CONSTRUCTOR, ElementType.FIELD})
+public @interface SinceMinecraft
+{
+    /**
+     * The lowest supported version (inclusive), like: {@code 1.17} or {@code 1.20.4}.
+     *
+     * @return the lowest supported version
+     */
+    String value();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.gates;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an element as only available on Minecraft versions before this version (exclusive).
+ *
+ * <p>Combined with {@link SinceMinecraft}, this forms a half-open range,
+ * just like {@link community.leaf.evergreen.bukkit.versions.VersionRangeMap}.</p>
+ *
+ * @see SinceMinecraft
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.CONSTRUCTOR, ElementType.FIELD})
+public @interface UntilMinecraft
+{
+    /**
+     * The first unsupported version (exclusive), like: {@code 1.20.5}.
+     *
+     * @return the first unsupported version
+     */
+    String value();
+}
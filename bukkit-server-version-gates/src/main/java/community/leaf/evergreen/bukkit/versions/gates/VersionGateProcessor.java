@@ -0,0 +1,315 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.gates;
+
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates version gate classes for elements annotated with
+ * {@link SinceMinecraft} and {@link UntilMinecraft}.
+ *
+ * <p>For every top-level type {@code Foo} containing annotated elements,
+ * a {@code FooVersionGates} class is generated in the same package with one
+ * {@code public static final boolean} per annotated element, named after the
+ * element in {@code UPPER_SNAKE_CASE}: a method {@code sendTitle()} becomes
+ * {@code SEND_TITLE}, a nested type's method {@code Inner.send()} becomes
+ * {@code INNER_SEND}, and a constructor becomes {@code NEW}.</p>
+ *
+ * <p>Gates are evaluated once, from {@link MinecraftVersion#server()}, when the
+ * gate class is first used. Since they're {@code static final}, the JIT treats
+ * them as constants and removes branches that can never be taken, unlike
+ * repeatedly calling {@code atLeast(...)} on a version instance.</p>
+ *
+ * <p>Version literals are validated at compile time with the same grammar as
+ * {@link MinecraftVersion#parseExactMinecraftVersion(CharSequence)}, and
+ * ranges that can never be satisfied are rejected. Like version ranges,
+ * gates follow the total order of versions: {@code @SinceMinecraft("1.21")}
+ * is closed on {@code 1.21-pre1}, while {@code @SinceMinecraft("1.21-pre1")}
+ * is open from that pre-release onwards.</p>
+ */
+@SupportedAnnotationTypes({
+    "community.leaf.evergreen.bukkit.versions.gates.SinceMinecraft",
+    "community.leaf.evergreen.bukkit.versions.gates.UntilMinecraft"
+})
+public final class VersionGateProcessor extends AbstractProcessor
+{
+    static final String GATES_SUFFIX = "VersionGates";
+    
+    private static final String GENERATED_ANNOTATION = "javax.annotation.processing.Generated";
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round)
+    {
+        Set<Element> annotated = new LinkedHashSet<>();
+        annotated.addAll(round.getElementsAnnotatedWith(SinceMinecraft.class));
+        annotated.addAll(round.getElementsAnnotatedWith(UntilMinecraft.class));
+        
+        Map<TypeElement, Map<String, Gate>> gatesByType = new LinkedHashMap<>();
+        
+        for (Element element : annotated)
+        {
+            @NullOr Gate gate = gate(element);
+            if (gate == null) { continue; }
+            
+            TypeElement topLevel = topLevelType(element);
+            Map<String, Gate> gates = gatesByType.computeIfAbsent(topLevel, k -> new LinkedHashMap<>());
+            String name = gateName(element, topLevel);
+            @NullOr Gate existing = gates.get(name);
+            
+            if (existing == null) { gates.put(name, gate); }
+            else if (Objects.equals(existing.since, gate.since) && Objects.equals(existing.until, gate.until)) { existing.elements.add(element); }
+            else { error(element, null, "Conflicting version gates are both named " + name + ": rename one of the elements"); }
+        }
+        
+        gatesByType.forEach(this::write);
+        return true;
+    }
+    
+    private void error(Element element, @NullOr AnnotationMirror mirror, String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element, mirror);
+    }
+    
+    private static @NullOr AnnotationMirror mirror(Element element, Class<? extends Annotation> type)
+    {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+        {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(type.getCanonicalName())) { return mirror; }
+        }
+        return null;
+    }
+    
+    // Parses a version literal, reporting an error and returning null if invalid.
+    private @NullOr MinecraftVersion parse(Element element, Class<? extends Annotation> type, String literal)
+    {
+        Optional<MinecraftVersion> version = MinecraftVersion.parseExactMinecraftVersion(literal);
+        
+        if (version.isEmpty())
+        {
+            error(element, mirror(element, type),
+                "Invalid Minecraft version in @" + type.getSimpleName() + ": \"" + literal + "\" " +
+                "(expected {major}.{minor}.{patch}, optionally followed by -pre{n}, -rc{n}, or -snapshot-{n}, " +
+                "or a weekly snapshot, like: 1.20.4, 1.21-pre1, or 24w14a)"
+            );
+            return null;
+        }
+        
+        return version.get();
+    }
+    
+    // Combines the element's version annotations with those of its enclosing types.
+    private @NullOr Gate gate(Element element)
+    {
+        Gate gate = new Gate(element);
+        boolean isValid = true;
+        
+        for (@NullOr Element current = element; current != null; current = current.getEnclosingElement())
+        {
+            @NullOr SinceMinecraft since = current.getAnnotation(SinceMinecraft.class);
+            @NullOr UntilMinecraft until = current.getAnnotation(UntilMinecraft.class);
+            
+            if (since != null)
+            {
+                @NullOr MinecraftVersion version = parse(current, SinceMinecraft.class, since.value());
+                if (version == null) { isValid = false; }
+                else if (gate.since == null || version.greaterThan(gate.since)) { gate.since = version; }
+            }
+            
+            if (until != null)
+            {
+                @NullOr MinecraftVersion version = parse(current, UntilMinecraft.class, until.value());
+                if (version == null) { isValid = false; }
+                else if (gate.until == null || version.lessThan(gate.until)) { gate.until = version; }
+            }
+        }
+        
+        if (isValid && gate.since != null && gate.until != null && gate.since.atLeast(gate.until))
+        {
+            error(element, null, "Version gate can never be satisfied: " + gate.describe());
+            return null;
+        }
+        
+        return (isValid) ? gate : null;
+    }
+    
+    private static TypeElement topLevelType(Element element)
+    {
+        Element current = element;
+        while (current.getEnclosingElement().getKind() != ElementKind.PACKAGE) { current = current.getEnclosingElement(); }
+        return (TypeElement) current;
+    }
+    
+    static String gateName(Element element, TypeElement topLevel)
+    {
+        List<String> parts = new ArrayList<>();
+        
+        for (Element current = element; !current.equals(topLevel); current = current.getEnclosingElement())
+        {
+            parts.add(0, (current.getKind() == ElementKind.CONSTRUCTOR) ? "new" : current.getSimpleName().toString());
+        }
+        
+        if (parts.isEmpty()) { parts.add(topLevel.getSimpleName().toString()); }
+        
+        StringBuilder name = new StringBuilder();
+        
+        for (String part : parts)
+        {
+            if (name.length() > 0) { name.append('_'); }
+            name.append(upperSnakeCase(part));
+        }
+        
+        return name.toString();
+    }
+    
+    static String upperSnakeCase(String camelCase)
+    {
+        StringBuilder snake = new StringBuilder(camelCase.length() + 4);
+        
+        for (int i = 0; i < camelCase.length(); i++)
+        {
+            char c = camelCase.charAt(i);
+            
+            if (i > 0 && Character.isUpperCase(c))
+            {
+                char previous = camelCase.charAt(i - 1);
+                boolean isNextLower = i + 1 < camelCase.length() && Character.isLowerCase(camelCase.charAt(i + 1));
+                
+                // Split "sendTitle" into SEND_TITLE and "NMSHandler" into NMS_HANDLER.
+                if (Character.isLowerCase(previous) || Character.isDigit(previous) || (Character.isUpperCase(previous) && isNextLower))
+                {
+                    if (snake.charAt(snake.length() - 1) != '_') { snake.append('_'); }
+                }
+            }
+            
+            snake.append(Character.toUpperCase(c));
+        }
+        
+        return snake.toString();
+    }
+    
+    private void write(TypeElement topLevel, Map<String, Gate> gates)
+    {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(topLevel);
+        String packageName = pkg.getQualifiedName().toString();
+        String className = topLevel.getSimpleName() + GATES_SUFFIX;
+        String qualifiedName = (packageName.isEmpty()) ? className : packageName + "." + className;
+        
+        List<Element> originating = new ArrayList<>();
+        gates.values().forEach(gate -> originating.addAll(gate.elements));
+        
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, originating.toArray(Element[]::new)).openWriter())
+        {
+            writer.write(source(topLevel, packageName, className, gates));
+        }
+        catch (IOException e)
+        {
+            error(topLevel, null, "Could not generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+    
+    private String source(TypeElement topLevel, String packageName, String className, Map<String, Gate> gates)
+    {
+        boolean isGeneratedAvailable = processingEnv.getElementUtils().getTypeElement(GENERATED_ANNOTATION) != null;
+        StringBuilder source = new StringBuilder();
+        
+        if (!packageName.isEmpty()) { source.append("package ").append(packageName).append(";\n\n"); }
+        
+        source.append("import community.leaf.evergreen.bukkit.versions.MinecraftVersion;\n\n");
+        source.append("/**\n");
+        source.append(" * Version gates for {@code ").append(topLevel.getQualifiedName()).append("},\n");
+        source.append(" * resolved once from {@link MinecraftVersion#server()}.\n");
+        source.append(" */\n");
+        
+        if (isGeneratedAvailable)
+        {
+            source.append("@").append(GENERATED_ANNOTATION).append("(\"").append(getClass().getName()).append("\")\n");
+        }
+        
+        source.append("public final class ").append(className).append("\n{\n");
+        source.append("    private ").append(className).append("() { throw new UnsupportedOperationException(); }\n");
+        source.append("    \n");
+        source.append("    private static final MinecraftVersion SERVER = MinecraftVersion.server();\n");
+        
+        gates.forEach((name, gate) ->
+        {
+            source.append("    \n");
+            source.append("    /**\n");
+            source.append("     * {@code ").append(gate.elements.get(0).getSimpleName()).append("}: ").append(gate.describe()).append(".\n");
+            source.append("     */\n");
+            source.append("    public static final boolean ").append(name).append(" = ").append(gate.expression()).append(";\n");
+        });
+        
+        return source.append("}\n").toString();
+    }
+    
+    // Releases compare with version numbers, which skips parsing the version when the gate is evaluated.
+    private static String arguments(MinecraftVersion version)
+    {
+        return (version.isRelease())
+            ? version.major() + ", " + version.minor() + ", " + version.patch()
+            : "MinecraftVersion.parseExactMinecraftVersion(\"" + version + "\").orElseThrow()";
+    }
+    
+    // A half-open version range, where null means unbounded.
+    private static final class Gate
+    {
+        final List<Element> elements = new ArrayList<>();
+        @NullOr MinecraftVersion since;
+        @NullOr MinecraftVersion until;
+        
+        Gate(Element element)
+        {
+            elements.add(element);
+        }
+        
+        String describe()
+        {
+            if (since != null && until != null) { return "since " + since + ", until " + until; }
+            return (since != null) ? "since " + since : "until " + until;
+        }
+        
+        String expression()
+        {
+            if (since != null && until != null)
+            {
+                return "SERVER.atLeast(" + arguments(since) + ") && SERVER.lessThan(" + arguments(until) + ")";
+            }
+            return (since != null) ? "SERVER.atLeast(" + arguments(since) + ")" : "SERVER.lessThan(" + arguments(Objects.requireNonNull(until)) + ")";
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+/**
+ * Evergreen micro-library: bukkit-server-version-gates.
+ */
+@NonNullPackage
+package community.leaf.evergreen.bukkit.versions.gates;
+
+import pl.tlinkowski.annotation.basic.NonNullPackage;
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.gates;
+
+import community.leaf.evergreen.bukkit.versions.MinecraftVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionGateProcessorTests
+{
+    private static final class Result
+    {
+        final boolean isSuccessful;
+        final List<String> errors;
+        final Path generated;
+        
+        Result(boolean isSuccessful, List<String> errors, Path generated)
+        {
+            this.isSuccessful = isSuccessful;
+            this.errors = errors;
+            this.generated = generated;
+        }
+        
+        String source(String name) throws IOException
+        {
+            return Files.readString(generated.resolve("example").resolve(name + ".java"));
+        }
+    }
+    
+    // Surefire and IDE launchers don't reliably expose the test classpath, so locate the classes directly.
+    private static String classpath(Class<?> ... classes)
+    {
+        return Arrays.stream(classes)
+            .map(clazz -> {
+                try { return Path.of(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toString(); }
+                catch (URISyntaxException e) { throw new IllegalStateException(e); }
+            })
+            .collect(Collectors.joining(File.pathSeparator));
+    }
+    
+    private static Result compile(Path directory, String name, String source) throws IOException
+    {
+        Path sources = Files.createDirectories(directory.resolve("src").resolve("example"));
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        Path generated = Files.createDirectories(directory.resolve("generated"));
+        Path file = Files.writeString(sources.resolve(name + ".java"), source);
+        
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8))
+        {
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null, files, diagnostics,
+                List.of(
+                    "-classpath", classpath(SinceMinecraft.class, MinecraftVersion.class),
+                    "-d", classes.toString(),
+                    "-s", generated.toString()
+                ),
+                null,
+                files.getJavaFileObjects(file)
+            );
+            
+            task.setProcessors(List.of(new VersionGateProcessor()));
+            boolean isSuccessful = task.call();
+            
+            List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+            
+            return new Result(isSuccessful, errors, generated);
+        }
+    }
+    
+    @Test
+    public void testGeneratedGates(@TempDir Path directory) throws IOException
+    {
+        Result result = compile(directory, "TitleSender",
+            "package example;\n" +
+            "import community.leaf.evergreen.bukkit.versions.gates.*;\n" +
+            "@UntilMinecraft(\"1.21\")\n" +
+            "public class TitleSender {\n" +
+            "    @SinceMinecraft(\"1.17\") public void sendTitle() {}\n" +
+            "    @SinceMinecraft(\"1.17\") public void sendTitle(String title) {}\n" +
+            "    @SinceMinecraft(\"1.8.8\") @UntilMinecraft(\"1.20.5\") public TitleSender() {}\n" +
+            "    @SinceMinecraft(\"1.13\") static class NMSHandler { @UntilMinecraft(\"1.16.5\") void sendPacket() {} }\n" +
+            "}\n"
+        );
+        
+        assertThat(result.errors).isEmpty();
+        assertThat(result.isSuccessful).isTrue();
+        
+        assertThat(result.source("TitleSenderVersionGates"))
+            .contains("public final class TitleSenderVersionGates")
+            .contains("@javax.annotation.processing.Generated(\"" + VersionGateProcessor.class.getName() + "\")")
+            .contains("private static final MinecraftVersion SERVER = MinecraftVersion.server();")
+            .contains("public static final boolean TITLE_SENDER = SERVER.lessThan(1, 21, 0);")
+            .contains("public static final boolean SEND_TITLE = SERVER.atLeast(1, 17, 0) && SERVER.lessThan(1, 21, 0);")
+            .contains("public static final boolean NEW = SERVER.atLeast(1, 8, 8) && SERVER.lessThan(1, 20, 5);")
+            .contains("public static final boolean NMS_HANDLER = SERVER.atLeast(1, 13, 0) && SERVER.lessThan(1, 21, 0);")
+            .contains("public static final boolean NMS_HANDLER_SEND_PACKET = SERVER.atLeast(1, 13, 0) && SERVER.lessThan(1, 16, 5);");
+    }
+    
+    @Test
+    public void testInvalidVersionLiterals(@TempDir Path directory) throws IOException
+    {
+        Result result = compile(directory, "Broken",
+            "package example;\n" +
+            "import community.leaf.evergreen.bukkit.versions.gates.*;\n" +
+            "public class Broken {\n" +
+            "    @SinceMinecraft(\"1.17-beta1\") void a() {}\n" +
+            "    @UntilMinecraft(\"one point twenty\") void b() {}\n" +
+            "    @SinceMinecraft(\"1.99999.0\") void c() {}\n" +
+            "}\n"
+        );
+        
+        assertThat(result.isSuccessful).isFalse();
+        assertThat(result.errors)
+            .hasSize(3)
+            .allSatisfy(error -> assertThat(error).startsWith("Invalid Minecraft version"));
+    }
+    
+    @Test
+    public void testQualifiedGates(@TempDir Path directory) throws IOException
+    {
+        Result result = compile(directory, "Previews",
+            "package example;\n" +
+            "import community.leaf.evergreen.bukkit.versions.gates.*;\n" +
+            "@SinceMinecraft(\"1.20.4\")\n" +
+            "public class Previews {\n" +
+            "    @SinceMinecraft(\"1.20.5-rc1\") void components() {}\n" +
+            "    @UntilMinecraft(\"24w14a\") void legacy() {}\n" +
+            "    @SinceMinecraft(\"1.20.3\") void older() {}\n" +
+            "    @SinceMinecraft(\"1.20.5\") static class Release {\n" +
+            "        @SinceMinecraft(\"1.20.5-pre1\") void preview() {}\n" +
+            "    }\n" +
+            "}\n"
+        );
+        
+        assertThat(result.errors).isEmpty();
+        assertThat(result.isSuccessful).isTrue();
+        
+        // Pre-releases come before their release, so the release is the tighter bound.
+        assertThat(result.source("PreviewsVersionGates"))
+            .contains("public static final boolean PREVIEWS = SERVER.atLeast(1, 20, 4);")
+            .contains("public static final boolean COMPONENTS = SERVER.atLeast(MinecraftVersion.parseExactMinecraftVersion(\"1.20.5-rc1\").orElseThrow());")
+            .contains("public static final boolean LEGACY = SERVER.atLeast(1, 20, 4) && SERVER.lessThan(MinecraftVersion.parseExactMinecraftVersion(\"24w14a\").orElseThrow());")
+            .contains("public static final boolean OLDER = SERVER.atLeast(1, 20, 4);")
+            .contains("public static final boolean RELEASE_PREVIEW = SERVER.atLeast(1, 20, 5);")
+            .contains("{@code components}: since 1.20.5-rc1.");
+        
+        Result unsatisfiable = compile(directory.resolve("unsatisfiable"), "Previews",
+            "package example;\n" +
+            "import community.leaf.evergreen.bukkit.versions.gates.*;\n" +
+            "@SinceMinecraft(\"1.20.5-pre1\")\n" +
+            "public class Previews {\n" +
+            "    @UntilMinecraft(\"24w14a\") void legacy() {}\n" +
+            "}\n"
+        );
+        
+        assertThat(unsatisfiable.isSuccessful).isFalse();
+        assertThat(unsatisfiable.errors).singleElement().asString()
+            .startsWith("Version gate can never be satisfied: since 1.20.5-pre1, until 24w14a");
+    }
+    
+    @Test
+    public void testUnsatisfiableAndConflictingGates(@TempDir Path directory) throws IOException
+    {
+        Result result = compile(directory, "Conflicts",
+            "package example;\n" +
+            "import community.leaf.evergreen.bukkit.versions.gates.*;\n" +
+            "@SinceMinecraft(\"1.18\")\n" +
+            "public class Conflicts {\n" +
+            "    @UntilMinecraft(\"1.18\") void never() {}\n" +
+            "    @SinceMinecraft(\"1.19\") void send() {}\n" +
+            "    @SinceMinecraft(\"1.20\") void send(int times) {}\n" +
+            "}\n"
+        );
+        
+        assertThat(result.isSuccessful).isFalse();
+        assertThat(result.errors).hasSize(2);
+        assertThat(result.errors).anySatisfy(error ->
+            assertThat(error).startsWith("Version gate can never be satisfied: since 1.18.0, until 1.18.0")
+        );
+        assertThat(result.errors).anySatisfy(error ->
+            assertThat(error).startsWith("Conflicting version gates are both named SEND")
+        );
+    }
+    
+    @Test
+    public void testUpperSnakeCase()
+    {
+        assertThat(VersionGateProcessor.upperSnakeCase("sendTitle")).isEqualTo("SEND_TITLE");
+        assertThat(VersionGateProcessor.upperSnakeCase("NMSHandler")).isEqualTo("NMS_HANDLER");
+        assertThat(VersionGateProcessor.upperSnakeCase("v1_17Adapter")).isEqualTo("V1_17_ADAPTER");
+        assertThat(VersionGateProcessor.upperSnakeCase("MAX_PING")).isEqualTo("MAX_PING");
+    }
+}
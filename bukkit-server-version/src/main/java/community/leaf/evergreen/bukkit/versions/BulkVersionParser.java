@@ -0,0 +1,408 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Parses Minecraft versions in bulk, straight from newline-delimited
+ * ASCII (or UTF-8) bytes, without decoding them into strings.
+ *
+ * <p>Every line yields exactly one result: the packed key of the first
+ * version found anywhere in the line, exactly like
+ * {@link MinecraftVersion#parseMinecraftVersion(CharSequence)}, or
+ * {@link #NO_VERSION} if the line doesn't contain a (valid) version.
+ * Lines are separated by {@code '\n'}, a trailing newline doesn't start
+ * another line, and empty input has no lines.</p>
+ *
+ * <p>Results are written into a {@code long[]} or passed to a
+ * {@link LineVersionConsumer}: nothing is allocated per line. Packed keys
+ * can be compared directly, or turned back into versions with
+ * {@link MinecraftVersion#unpack(long)}.</p>
+ *
+ * <p>Buffers are read with absolute indexes between their position and
+ * limit, so their position is never changed.</p>
+ */
+@SuppressWarnings("unused")
+public final class BulkVersionParser
+{
+    private BulkVersionParser() { throw new UnsupportedOperationException(); }
+    
+    /**
+     * The result for a line without a valid version.
+     */
+    public static final long NO_VERSION = -1;
+    
+    // Inputs smaller than this aren't worth splitting across threads.
+    static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 20;
+    
+    /**
+     * Receives the result for each line.
+     */
+    @FunctionalInterface
+    public interface LineVersionConsumer
+    {
+        /**
+         * Accepts the result for a line.
+         *
+         * @param line      zero-based line number
+         * @param packed    packed version key, or {@link #NO_VERSION}
+         */
+        void accept(long line, long packed);
+    }
+    
+    private static int lineEnd(ByteBuffer bytes, int index, int end)
+    {
+        while (index < end && bytes.get(index) != '\n') { index++; }
+        return index;
+    }
+    
+    private static long scanLine(ByteBuffer bytes, int start, int end)
+    {
+        long packed = VersionScanner.scanMinecraftVersion(bytes, start, end);
+        return (packed >= 0) ? packed : NO_VERSION;
+    }
+    
+    private static int countLines(ByteBuffer bytes, int start, int end)
+    {
+        int lines = 0;
+        for (int index = start; index < end; index = lineEnd(bytes, index, end) + 1) { lines++; }
+        return lines;
+    }
+    
+    // Parses lines until out of input or room, returning the number of lines parsed.
+    private static int parseLines(ByteBuffer bytes, int start, int end, long[] into, int offset, int limit)
+    {
+        int parsed = 0;
+        
+        for (int index = start; index < end && parsed < limit; parsed++)
+        {
+            int lineEnd = lineEnd(bytes, index, end);
+            into[offset + parsed] = scanLine(bytes, index, lineEnd);
+            index = lineEnd + 1;
+        }
+        
+        return parsed;
+    }
+    
+    /**
+     * Counts the lines in the buffer.
+     *
+     * @param bytes     input bytes
+     *
+     * @return number of lines
+     */
+    public static int countLines(ByteBuffer bytes)
+    {
+        return countLines(bytes, bytes.position(), bytes.limit());
+    }
+    
+    /**
+     * Parses every line in the buffer.
+     *
+     * @param bytes     input bytes
+     *
+     * @return packed version keys (or {@link #NO_VERSION}) in line order
+     */
+    public static long[] parseLines(ByteBuffer bytes)
+    {
+        long[] packed = new long[countLines(bytes)];
+        parseLines(bytes, packed, 0);
+        return packed;
+    }
+    
+    /**
+     * Parses every line in the byte array.
+     *
+     * @param bytes     input bytes
+     *
+     * @return packed version keys (or {@link #NO_VERSION}) in line order
+     */
+    public static long[] parseLines(byte[] bytes)
+    {
+        return parseLines(ByteBuffer.wrap(bytes));
+    }
+    
+    /**
+     * Parses lines from the buffer into an existing array, stopping
+     * once either the input or the array runs out.
+     *
+     * @param bytes     input bytes
+     * @param into      output array
+     * @param offset    index of the output array to start writing at
+     *
+     * @return number of lines parsed
+     * @throws IndexOutOfBoundsException if the offset is outside of the output array
+     */
+    public static int parseLines(ByteBuffer bytes, long[] into, int offset)
+    {
+        Objects.checkFromToIndex(offset, into.length, into.length);
+        return parseLines(bytes, bytes.position(), bytes.limit(), into, offset, into.length - offset);
+    }
+    
+    /**
+     * Parses every line in the buffer, passing each result to the consumer in line order.
+     *
+     * @param bytes     input bytes
+     * @param consumer  receives each line's result
+     */
+    public static void forEachLine(ByteBuffer bytes, LineVersionConsumer consumer)
+    {
+        forEachLine(bytes, bytes.position(), bytes.limit(), 0, consumer);
+    }
+    
+    /**
+     * Parses every line in the byte array, passing each result to the consumer in line order.
+     *
+     * @param bytes     input bytes
+     * @param consumer  receives each line's result
+     */
+    public static void forEachLine(byte[] bytes, LineVersionConsumer consumer)
+    {
+        forEachLine(ByteBuffer.wrap(bytes), consumer);
+    }
+    
+    // Returns the number of lines parsed.
+    private static long forEachLine(ByteBuffer bytes, int start, int end, long firstLine, LineVersionConsumer consumer)
+    {
+        long line = firstLine;
+        
+        for (int index = start; index < end; line++)
+        {
+            int lineEnd = lineEnd(bytes, index, end);
+            consumer.accept(line, scanLine(bytes, index, lineEnd));
+            index = lineEnd + 1;
+        }
+        
+        return line - firstLine;
+    }
+    
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException
+    {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+    
+    private static MappedByteBuffer mapEntirely(FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("File is too large to map at once (" + size + " bytes): use forEachLine instead");
+        }
+        
+        return map(channel, 0, size);
+    }
+    
+    /**
+     * Parses every line in a memory-mapped file.
+     *
+     * @param file  the file
+     *
+     * @return packed version keys (or {@link #NO_VERSION}) in line order
+     * @throws IOException if the file cannot be read or is larger than 2 GiB
+     */
+    public static long[] parseLines(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return parseLines(mapEntirely(channel));
+        }
+    }
+    
+    /**
+     * Parses every line in a file of any size, memory-mapping it in windows,
+     * and passing each result to the consumer in line order.
+     *
+     * @param file      the file
+     * @param consumer  receives each line's result
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public static void forEachLine(Path file, LineVersionConsumer consumer) throws IOException
+    {
+        forEachLine(file, Integer.MAX_VALUE, consumer);
+    }
+    
+    // Windows end after their last complete line, growing to fit lines longer than the window.
+    static void forEachLine(Path file, int windowSize, LineVersionConsumer consumer) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            long position = 0;
+            long line = 0;
+            int length = windowSize;
+            
+            while (position < size)
+            {
+                long remaining = size - position;
+                length = (int) Math.min(remaining, length);
+                MappedByteBuffer window = map(channel, position, length);
+                int end = length;
+                
+                if (length < remaining)
+                {
+                    int lastNewline = length - 1;
+                    while (lastNewline >= 0 && window.get(lastNewline) != '\n') { lastNewline--; }
+                    
+                    if (lastNewline >= 0) { end = lastNewline + 1; }
+                    else if (length < Integer.MAX_VALUE)
+                    {
+                        // Not even one complete line: retry with a larger window.
+                        length = (int) Math.min(Integer.MAX_VALUE, (long) length * 2);
+                        continue;
+                    }
+                }
+                
+                line += forEachLine(window, 0, end, line, consumer);
+                position += end;
+                length = windowSize;
+            }
+        }
+    }
+    
+    /**
+     * Parses every line in the buffer, splitting large inputs into
+     * chunks parsed concurrently by the provided pool.
+     *
+     * @param bytes     input bytes
+     * @param pool      the pool to parse chunks with
+     *
+     * @return packed version keys (or {@link #NO_VERSION}) in line order
+     */
+    public static long[] parseLinesInParallel(ByteBuffer bytes, ForkJoinPool pool)
+    {
+        return parseLinesInParallel(bytes, pool, MIN_PARALLEL_CHUNK_SIZE);
+    }
+    
+    static long[] parseLinesInParallel(ByteBuffer bytes, ForkJoinPool pool, int minChunkSize)
+    {
+        int[] bounds = chunkBounds(bytes, bytes.position(), bytes.limit(), pool.getParallelism(), minChunkSize);
+        int chunks = bounds.length - 1;
+        
+        if (chunks <= 1) { return parseLines(bytes); }
+        
+        // Each chunk is parsed once into its own growing array, then they're concatenated in order.
+        long[][] results = new long[chunks][];
+        int[] counts = new int[chunks];
+        
+        pool.invoke(new ChunkAction(0, chunks, chunk ->
+        {
+            int start = bounds[chunk];
+            int end = bounds[chunk + 1];
+            long[] into = new long[Math.max(16, (end - start) / 32)];
+            int count = 0;
+            
+            for (int index = start; index < end; count++)
+            {
+                if (count == into.length) { into = Arrays.copyOf(into, count * 2); }
+                int lineEnd = lineEnd(bytes, index, end);
+                into[count] = scanLine(bytes, index, lineEnd);
+                index = lineEnd + 1;
+            }
+            
+            results[chunk] = into;
+            counts[chunk] = count;
+        }));
+        
+        int total = 0;
+        for (int count : counts) { total += count; }
+        
+        long[] packed = new long[total];
+        
+        for (int chunk = 0, offset = 0; chunk < chunks; offset += counts[chunk++])
+        {
+            System.arraycopy(results[chunk], 0, packed, offset, counts[chunk]);
+        }
+        
+        return packed;
+    }
+    
+    /**
+     * Parses every line in a memory-mapped file, splitting large files
+     * into chunks parsed concurrently by the provided pool.
+     *
+     * @param file  the file
+     * @param pool  the pool to parse chunks with
+     *
+     * @return packed version keys (or {@link #NO_VERSION}) in line order
+     * @throws IOException if the file cannot be read or is larger than 2 GiB
+     */
+    public static long[] parseLinesInParallel(Path file, ForkJoinPool pool) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return parseLinesInParallel(mapEntirely(channel), pool);
+        }
+    }
+    
+    // Splits the input into roughly equal chunks ending on line boundaries.
+    static int[] chunkBounds(ByteBuffer bytes, int start, int end, int parallelism, int minChunkSize)
+    {
+        int length = end - start;
+        int chunks = (int) Math.max(1, Math.min((long) parallelism * 4, length / minChunkSize));
+        int chunkSize = length / chunks;
+        
+        List<Integer> bounds = new ArrayList<>(chunks + 1);
+        bounds.add(start);
+        
+        for (int index = start; bounds.size() < chunks && end - index > chunkSize; )
+        {
+            int boundary = lineEnd(bytes, index + chunkSize, end) + 1;
+            if (boundary >= end) { break; }
+            bounds.add(boundary);
+            index = boundary;
+        }
+        
+        bounds.add(end);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    // Runs an action for every index in [from, to), splitting in halves down to single indexes.
+    static final class ChunkAction extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+        
+        ChunkAction(int from, int to, IntConsumer action)
+        {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if (to - from == 1)
+            {
+                action.accept(from);
+                return;
+            }
+            
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkAction(from, middle, action), new ChunkAction(middle, to, action));
+        }
+    }
+}
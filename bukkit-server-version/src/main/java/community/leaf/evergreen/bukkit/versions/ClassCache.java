@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrently caches class lookups by name, remembering both the classes
+ * that were found and the names that don't exist.
+ *
+ * <p>Classes are looked up without being initialized. Names are cached
+ * as provided, so a cache scoped to a package can look classes up by their
+ * relative names without building the fully-qualified name again.
+ * Names known to be missing from an installed {@link ResolutionCache}
+ * aren't looked up at all. Caches of the server's classes also share
+ * their lookups through the {@link SharedRegistry}, once joined.</p>
+ */
+final class ClassCache
+{
+    private final ConcurrentHashMap<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+    
+    private final UnaryOperator<String> qualifier;
+    private final @NullOr ClassLoader loader;
+    private final boolean isShared;
+    
+    ClassCache(UnaryOperator<String> qualifier, @NullOr ClassLoader loader)
+    {
+        this(qualifier, loader, false);
+    }
+    
+    ClassCache(UnaryOperator<String> qualifier, @NullOr ClassLoader loader, boolean isShared)
+    {
+        this.qualifier = qualifier;
+        this.loader = loader;
+        this.isShared = isShared;
+    }
+    
+    private Optional<Class<?>> load(String className)
+    {
+        String qualified = qualifier.apply(className);
+        if (!isShared) { return loadUnshared(qualified); }
+        
+        String key = ResolutionCache.classKey(qualified);
+        @NullOr Optional<Class<?>> shared = SharedRegistry.get(key);
+        if (shared != null) { return shared; }
+        
+        // Plugins' own classes are never shared, only the server's (or that a class doesn't exist).
+        Optional<Class<?>> loaded = loadUnshared(qualified);
+        return (loaded.isEmpty() || SharedRegistry.isServerClass(loaded.get())) ? SharedRegistry.share(key, loaded) : loaded;
+    }
+    
+    private Optional<Class<?>> loadUnshared(String qualified)
+    {
+        @NullOr ResolutionCache persistent = ResolutionCache.installedOrNull();
+        
+        // Shared caches only look up names in the server's packages, which only the server jar provides.
+        // Otherwise, misses could be a plugin's classes, unless looked up from the server's class loader.
+        if (persistent == null || !(isShared || persistent.covers(loader))) { return load(qualified, loader); }
+        
+        String key = ResolutionCache.classKey(qualified);
+        
+        if (persistent.isKnownMissing(key))
+        {
+            VersionMetrics.increment(VersionMetrics.Counter.KNOWN_MISSES_SKIPPED);
+            return Optional.empty();
+        }
+        
+        Optional<Class<?>> loaded = load(qualified, loader);
+        if (loaded.isEmpty() || persistent.covers(loaded.get().getClassLoader())) { persistent.record(key, loaded.isPresent()); }
+        return loaded;
+    }
+    
+    private static Optional<Class<?>> load(String qualified, @NullOr ClassLoader loader)
+    {
+        VersionEvents.ClassLookup event = new VersionEvents.ClassLookup();
+        event.begin();
+        long startTime = VersionMetrics.startTime();
+        
+        Optional<Class<?>> loaded;
+        try { loaded = Optional.of(Class.forName(qualified, false, loader)); }
+        catch (ClassNotFoundException | LinkageError e) { loaded = Optional.empty(); }
+        
+        VersionMetrics.stopTime(VersionMetrics.Timer.CLASS_LOOKUP, startTime);
+        VersionMetrics.increment(VersionMetrics.Counter.CLASS_LOOKUPS);
+        if (loaded.isEmpty()) { VersionMetrics.increment(VersionMetrics.Counter.CLASS_LOOKUP_FAILURES); }
+        
+        event.commit(qualified, loaded.isPresent());
+        return loaded;
+    }
+    
+    /**
+     * Finds a class by name.
+     *
+     * @param className     class name
+     *
+     * @return the class if it exists, otherwise empty
+     */
+    Optional<Class<?>> find(String className)
+    {
+        // Plain reads first: computeIfAbsent may lock even when the key is present.
+        @NullOr Optional<Class<?>> existing = classes.get(className);
+        
+        if (existing != null)
+        {
+            VersionMetrics.increment(VersionMetrics.Counter.CLASS_CACHE_HITS);
+            return existing;
+        }
+        
+        return classes.computeIfAbsent(className, this::load);
+    }
+    
+    /**
+     * Finds the first class that exists out of the provided names.
+     *
+     * @param className     class name
+     * @param fallbacks     fallback class names, in order
+     *
+     * @return the first class that exists, otherwise empty
+     */
+    Optional<Class<?>> find(String className, String ... fallbacks)
+    {
+        Optional<Class<?>> found = find(className);
+        
+        for (int i = 0; found.isEmpty() && i < fallbacks.length; i++)
+        {
+            found = find(fallbacks[i]);
+        }
+        
+        return found;
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The client version of every connected player, for servers behind a
+ * protocol translator (like ViaVersion), where each player's client can
+ * be a different version than the server.
+ *
+ * <p>Versions are stored {@link MinecraftVersion#packed() packed}, keyed
+ * by the two halves of each player's {@link UUID}, in open-addressing
+ * tables split into independently locked stripes. Looking up a player is
+ * an optimistic, lock-free read that doesn't allocate, so it's cheap
+ * enough to check on every packet:</p>
+ *
+ * <pre>{@code
+ * private static final long v1_20_2 = MinecraftVersion.pack(1, 20, 2);
+ *
+ * if (CLIENTS.atLeast(player.getUniqueId(), v1_20_2)) { sendConfigurationPacket(player); }
+ * }</pre>
+ *
+ * <p>Storing and removing players (like on join and quit) only locks one
+ * stripe, so players joining and leaving concurrently rarely contend.</p>
+ */
+@SuppressWarnings("unused")
+public final class ClientVersions
+{
+    /**
+     * The packed version of a player whose client version isn't stored.
+     */
+    public static final long UNKNOWN = -1;
+    
+    private static final int DEFAULT_EXPECTED_PLAYERS = 256;
+    private static final int MIN_STRIPE_CAPACITY = 8;
+    
+    // Each slot is three longs: the UUID's halves, then the packed version (negative if empty).
+    private static final int SLOT_SIZE = 3;
+    
+    private static int stripeCount()
+    {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Math.min(64, Integer.highestOneBit(Math.max(1, cpus) * 4 - 1) << 1);
+    }
+    
+    static long hash(long most, long least)
+    {
+        // UUIDs are mostly random already: spread them so both halves affect every bit.
+        long hash = (most ^ Long.rotateLeft(least, 32)) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+    
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    
+    /**
+     * Constructs an empty store, sized for a typical server.
+     */
+    public ClientVersions()
+    {
+        this(DEFAULT_EXPECTED_PLAYERS);
+    }
+    
+    /**
+     * Constructs an empty store, sized to hold the expected number of
+     * players without growing.
+     *
+     * @param expectedPlayers   expected number of players
+     *
+     * @throws IllegalArgumentException if the expected number of players is negative
+     */
+    public ClientVersions(int expectedPlayers)
+    {
+        if (expectedPlayers < 0) { throw new IllegalArgumentException("Negative expected players: " + expectedPlayers); }
+        
+        this.stripes = new Stripe[stripeCount()];
+        this.stripeMask = stripes.length - 1;
+        
+        int perStripe = Math.max(MIN_STRIPE_CAPACITY, Integer.highestOneBit(Math.max(1, expectedPlayers * 2 / stripes.length)) << 1);
+        for (int i = 0; i < stripes.length; i++) { stripes[i] = new Stripe(perStripe); }
+    }
+    
+    private Stripe stripe(long hash) { return stripes[(int) (hash >>> 32) & stripeMask]; }
+    
+    /**
+     * Stores a player's client version, replacing any previous version.
+     *
+     * @param player    the player's unique ID
+     * @param version   the player's client version
+     */
+    public void put(UUID player, MinecraftVersion version)
+    {
+        put(player, version.packed());
+    }
+    
+    /**
+     * Stores a player's packed client version, replacing any previous version.
+     *
+     * @param player    the player's unique ID
+     * @param packed    the player's packed client version
+     *
+     * @throws IllegalArgumentException if the key isn't a valid packed version
+     */
+    public void put(UUID player, long packed)
+    {
+        if (!MinecraftVersion.isPacked(packed)) { throw new IllegalArgumentException("Invalid packed version: " + packed); }
+        
+        long most = player.getMostSignificantBits();
+        long least = player.getLeastSignificantBits();
+        long hash = hash(most, least);
+        stripe(hash).put(most, least, (int) hash, packed);
+    }
+    
+    /**
+     * Removes a player's client version, like when they quit.
+     *
+     * @param player    the player's unique ID
+     *
+     * @return {@code true} if the player's version was stored
+     */
+    public boolean remove(UUID player)
+    {
+        long most = player.getMostSignificantBits();
+        long least = player.getLeastSignificantBits();
+        long hash = hash(most, least);
+        return stripe(hash).remove(most, least, (int) hash);
+    }
+    
+    /**
+     * Gets a player's packed client version, without allocating.
+     *
+     * @param player    the player's unique ID
+     *
+     * @return the player's packed client version, or {@link #UNKNOWN} if not stored
+     */
+    public long getPacked(UUID player)
+    {
+        long most = player.getMostSignificantBits();
+        long least = player.getLeastSignificantBits();
+        long hash = hash(most, least);
+        return stripe(hash).get(most, least, (int) hash);
+    }
+    
+    /**
+     * Gets a player's packed client version, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param otherwise the packed version to return if not stored, like the server's
+     *
+     * @return the player's packed client version, or {@code otherwise} if not stored
+     */
+    public long getPacked(UUID player, long otherwise)
+    {
+        long packed = getPacked(player);
+        return (packed >= 0) ? packed : otherwise;
+    }
+    
+    /**
+     * Gets a player's client version.
+     *
+     * @param player    the player's unique ID
+     *
+     * @return the player's client version if stored, otherwise empty
+     */
+    public Optional<MinecraftVersion> get(UUID player)
+    {
+        long packed = getPacked(player);
+        return (packed >= 0) ? Optional.of(MinecraftVersion.interned(packed)) : Optional.empty();
+    }
+    
+    /**
+     * Checks if a player's client version is stored.
+     *
+     * @param player    the player's unique ID
+     *
+     * @return {@code true} if stored
+     */
+    public boolean contains(UUID player) { return getPacked(player) >= 0; }
+    
+    /**
+     * Checks if a player's client is at least the packed version, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param packed    the packed version
+     *
+     * @return {@code true} if the player's version is stored and at least the version
+     */
+    public boolean atLeast(UUID player, long packed) { return getPacked(player) >= packed; }
+    
+    /**
+     * Checks if a player's client is at least the version, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param version   the version
+     *
+     * @return {@code true} if the player's version is stored and at least the version
+     */
+    public boolean atLeast(UUID player, MinecraftVersion version) { return atLeast(player, version.packed()); }
+    
+    /**
+     * Checks if a player's client is older than the packed version, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param packed    the packed version
+     *
+     * @return {@code true} if the player's version is stored and less than the version
+     */
+    public boolean lessThan(UUID player, long packed)
+    {
+        long client = getPacked(player);
+        return client >= 0 && client < packed;
+    }
+    
+    /**
+     * Checks if a player's client is older than the version, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param version   the version
+     *
+     * @return {@code true} if the player's version is stored and less than the version
+     */
+    public boolean lessThan(UUID player, MinecraftVersion version) { return lessThan(player, version.packed()); }
+    
+    /**
+     * Checks if a player's client version is in a range, without allocating.
+     *
+     * @param player    the player's unique ID
+     * @param range     the range of versions
+     *
+     * @return {@code true} if the player's version is stored and in the range
+     */
+    public boolean in(UUID player, VersionRange range)
+    {
+        long client = getPacked(player);
+        return client >= 0 && range.contains(client);
+    }
+    
+    /**
+     * Counts the stored players. Concurrent changes may or may not be counted.
+     *
+     * @return number of stored players
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes) { size += stripe.size(); }
+        return size;
+    }
+    
+    /**
+     * Removes every player's client version.
+     */
+    public void clear()
+    {
+        for (Stripe stripe : stripes) { stripe.clear(); }
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ClientVersions{size=" + size() + "}";
+    }
+    
+    // An open-addressing (linear probing) table, read optimistically without locking.
+    private static final class Stripe
+    {
+        private final StampedLock lock = new StampedLock();
+        private final int initialCapacity;
+        
+        // Only replaced or written while write-locked.
+        private long[] slots;
+        private int size;
+        
+        Stripe(int capacity)
+        {
+            this.initialCapacity = capacity;
+            this.slots = emptySlots(capacity);
+        }
+        
+        private static long[] emptySlots(int capacity)
+        {
+            long[] slots = new long[capacity * SLOT_SIZE];
+            for (int i = SLOT_SIZE - 1; i < slots.length; i += SLOT_SIZE) { slots[i] = UNKNOWN; }
+            return slots;
+        }
+        
+        // Probes for the key's slot: either the key's own, or the empty slot ending its probe sequence.
+        // Reads may be torn while optimistic, so probing is bounded by the table's own size.
+        private static int find(long[] slots, long most, long least, int hash)
+        {
+            int mask = slots.length / SLOT_SIZE - 1;
+            
+            for (int probes = 0, index = hash & mask; probes <= mask; probes++, index = (index + 1) & mask)
+            {
+                int slot = index * SLOT_SIZE;
+                if (slots[slot + 2] < 0 || (slots[slot] == most && slots[slot + 1] == least)) { return slot; }
+            }
+            
+            return -1;
+        }
+        
+        private static long valueOf(long[] slots, long most, long least, int hash)
+        {
+            int slot = find(slots, most, least, hash);
+            return (slot < 0) ? UNKNOWN : slots[slot + 2];
+        }
+        
+        long get(long most, long least, int hash)
+        {
+            long stamp = lock.tryOptimisticRead();
+            
+            if (stamp != 0)
+            {
+                long packed = valueOf(slots, most, least, hash);
+                if (lock.validate(stamp)) { return packed; }
+            }
+            
+            // A write raced the optimistic read: read again, blocking writes this time.
+            stamp = lock.readLock();
+            try { return valueOf(slots, most, least, hash); }
+            finally { lock.unlockRead(stamp); }
+        }
+        
+        void put(long most, long least, int hash, long packed)
+        {
+            long stamp = lock.writeLock();
+            
+            try
+            {
+                int slot = find(slots, most, least, hash);
+                
+                if (slot >= 0 && slots[slot + 2] >= 0)
+                {
+                    slots[slot + 2] = packed;
+                    return;
+                }
+                
+                // Keeps the load factor at most one half, so probe sequences stay short.
+                if ((size + 1) * 2 > slots.length / SLOT_SIZE)
+                {
+                    resize(slots.length / SLOT_SIZE * 2);
+                    slot = find(slots, most, least, hash);
+                }
+                
+                slots[slot] = most;
+                slots[slot + 1] = least;
+                slots[slot + 2] = packed;
+                size++;
+            }
+            finally
+            {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        boolean remove(long most, long least, int hash)
+        {
+            long stamp = lock.writeLock();
+            
+            try
+            {
+                int slot = find(slots, most, least, hash);
+                if (slot < 0 || slots[slot + 2] < 0) { return false; }
+                
+                delete(slot);
+                size--;
+                return true;
+            }
+            finally
+            {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        // Backward-shift deletion: moves later entries of the probe sequence into the gap, so no tombstones are needed.
+        private void delete(int slot)
+        {
+            int mask = slots.length / SLOT_SIZE - 1;
+            int gap = slot / SLOT_SIZE;
+            
+            for (int index = (gap + 1) & mask; ; index = (index + 1) & mask)
+            {
+                int next = index * SLOT_SIZE;
+                if (slots[next + 2] < 0) { break; }
+                
+                int home = (int) hash(slots[next], slots[next + 1]) & mask;
+                
+                // Entries whose home is cyclically within (gap, index] can't move before it.
+                boolean isStuck = (gap <= index) ? (gap < home && home <= index) : (gap < home || home <= index);
+                if (isStuck) { continue; }
+                
+                System.arraycopy(slots, next, slots, gap * SLOT_SIZE, SLOT_SIZE);
+                gap = index;
+            }
+            
+            slots[gap * SLOT_SIZE + 2] = UNKNOWN;
+        }
+        
+        private void resize(int capacity)
+        {
+            long[] resized = emptySlots(capacity);
+            
+            for (int slot = 0; slot < slots.length; slot += SLOT_SIZE)
+            {
+                if (slots[slot + 2] < 0) { continue; }
+                
+                long most = slots[slot];
+                long least = slots[slot + 1];
+                int into = find(resized, most, least, (int) hash(most, least));
+                System.arraycopy(slots, slot, resized, into, SLOT_SIZE);
+            }
+            
+            slots = resized;
+        }
+        
+        int size()
+        {
+            long stamp = lock.tryOptimisticRead();
+            int current = size;
+            if (lock.validate(stamp)) { return current; }
+            
+            stamp = lock.readLock();
+            try { return size; }
+            finally { lock.unlockRead(stamp); }
+        }
+        
+        void clear()
+        {
+            long stamp = lock.writeLock();
+            
+            try
+            {
+                slots = emptySlots(initialCapacity);
+                size = 0;
+            }
+            finally
+            {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
@@ -12,73 +12,172 @@ import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents the internal package version of a Bukkit-based server.
+ *
+ * <p>Servers that no longer relocate CraftBukkit into a versioned package
+ * (like newer Paper builds) are represented by an
+ * {@link #isRelocated() unrelocated} version, whose packages are simply
+ * {@code org.bukkit.craftbukkit} and {@code net.minecraft}.</p>
  */
 @SuppressWarnings("unused")
 public class CraftBukkitVersion extends MinecraftVersion
 {
-    private static final Pattern VERSION_PATTERN =
-        Pattern.compile("v(?<release>\\d+)_(?<major>\\d+)_R(?<revision>\\d+)");
+    private static final VersionInterner<CraftBukkitVersion> INTERNER = new VersionInterner<>(CraftBukkitVersion::new);
+    
+    // Resolved on first access rather than in a static initializer, so a failure can be retried.
+    private static final ServerVersionSeed<CraftBukkitVersion> SERVER_SEED = new ServerVersionSeed<>(CraftBukkitVersion.class);
+    
+    // Set once the seed holds the version, after which server() only reads the holder's constant.
+    // A plain field: threads that don't observe it yet just take the slower path through the seed.
+    private static boolean isServerKnown;
+    
+    // Lazy holder: only loaded once the seed holds the version, so its initializer can't fail.
+    // Its constant lets the JIT fold the server version into hot version checks.
+    static final class ServerHolder
+    {
+        static final CraftBukkitVersion SERVER = SERVER_SEED.known();
+    }
     
-    private static final Pattern PACKAGE_VERSION_PATTERN =
-        Pattern.compile("org\\.bukkit\\.craftbukkit\\.(?<version>" + VERSION_PATTERN + ")\\.");
+    private static final String CRAFTBUKKIT_PACKAGE = "org.bukkit.craftbukkit";
     
-    private static @NullOr CraftBukkitVersion SERVER;
+    private static CraftBukkitVersion resolveServer()
+    {
+        if (Bukkit.getServer() == null) { return resolveWithoutServer(MinecraftVersion.server()); }
+        return resolveServer(Bukkit.getServer().getClass().getCanonicalName(), MinecraftVersion::server);
+    }
+    
+    // Without a server to inspect, the versioned package can't be derived from the (possibly seeded) game version:
+    // package versions don't follow game versions. Since 1.20.5, servers (like Paper) may not relocate at all.
+    static CraftBukkitVersion resolveWithoutServer(MinecraftVersion gameVersion)
+    {
+        if (gameVersion.atLeast(1, 20, 5)) { return unrelocated(gameVersion); }
+        
+        throw new IllegalStateException(
+            "Cannot resolve version: no server is available to find the CraftBukkit package of " + gameVersion
+                + " (seed it instead, like with ServerJar#seedServer())"
+        );
+    }
+    
+    static CraftBukkitVersion resolveServer(String serverClassName, Supplier<MinecraftVersion> gameVersion)
+    {
+        long packed = VersionScanner.scanCraftBukkitPackage(serverClassName);
+        
+        if (packed == VersionScanner.OUT_OF_RANGE)
+        {
+            throw new IllegalStateException("Cannot resolve version: " + serverClassName);
+        }
+        
+        if (packed >= 0) { return INTERNER.intern(packed); }
+        
+        // CraftBukkit without a versioned package: it was never relocated.
+        return (serverClassName.startsWith(CRAFTBUKKIT_PACKAGE + "."))
+            ? unrelocated(gameVersion.get())
+            : INTERNER.intern(gameVersion.get().packed());
+    }
     
     /**
      * Gets the internal package version of the server.
      *
+     * <p>Like {@link MinecraftVersion#server()}, the version is resolved
+     * once and is safe to use from any thread, and a failure to resolve
+     * it isn't remembered.</p>
+     *
+     * <p>Without a running server, the versioned package can't be known:
+     * the version is {@link #unrelocated(MinecraftVersion) unrelocated}
+     * for game versions since 1.20.5, and can't be resolved for older
+     * versions unless {@link #seedServer(CraftBukkitVersion) seeded}
+     * (for example, by {@link ServerJar#seedServer()}).</p>
+     *
      * @return the server's internal package version
+     * @throws IllegalStateException if the version cannot be resolved
      */
     public static CraftBukkitVersion server()
     {
-        if (SERVER == null)
-        {
-            String serverClassName = Bukkit.getServer().getClass().getCanonicalName();
-            Matcher matcher = PACKAGE_VERSION_PATTERN.matcher(serverClassName);
-            
-            SERVER = (matcher.find())
-                ? parseCraftBukkitVersion(matcher.group("version"))
-                    .orElseThrow(() ->
-                        new IllegalStateException("Cannot resolve version: " + matcher.group("version"))
-                    )
-                : new CraftBukkitVersion(MinecraftVersion.server());
-        }
+        if (isServerKnown) { return ServerHolder.SERVER; }
         
-        return SERVER;
+        // Resolves (or fails) before the holder is loaded, so a failure is never part of its initialization.
+        SERVER_SEED.get(CraftBukkitVersion::resolveServer);
+        isServerKnown = true;
+        return ServerHolder.SERVER;
+    }
+    
+    /**
+     * Seeds the internal package version of the server, which is returned by
+     * {@link #server()} instead of resolving the version from the server.
+     * Seeding has to happen before the version is first accessed.
+     *
+     * @param version   the server's internal package version
+     *
+     * @throws IllegalStateException if a different version was already seeded or resolved
+     */
+    public static void seedServer(CraftBukkitVersion version)
+    {
+        SERVER_SEED.seed(version);
+    }
+    
+    /**
+     * Gets the internal version of a server that doesn't relocate CraftBukkit
+     * into a versioned package, which is otherwise equal to the provided version.
+     *
+     * @param version   the server's game version
+     *
+     * @return a new unrelocated version
+     * @see #isRelocated()
+     */
+    public static CraftBukkitVersion unrelocated(MinecraftVersion version)
+    {
+        return new CraftBukkitVersion(version.packed(), false);
     }
     
     /**
      * Parses the input text into a Minecraft version.
      *
-     * <p>A valid version is: {@code v{major}_{minor}_R{patch}}, like: {@code v1_18_R1}.</p>
+     * <p>A valid version is: {@code v{major}_{minor}_R{patch}}, like: {@code v1_18_R1}.
+     * The first version found anywhere in the text is used.</p>
+     *
+     * <p>Parsing doesn't allocate: equal versions resolve to one shared,
+     * canonical instance held in a small bounded cache.</p>
      *
      * @param text  input text
      *
      * @return the parsed version if successful, otherwise empty
      */
-    public static Optional<CraftBukkitVersion> parseCraftBukkitVersion(String text)
+    public static Optional<CraftBukkitVersion> parseCraftBukkitVersion(CharSequence text)
     {
         Objects.requireNonNull(text, "text");
         
-        Matcher matcher = VERSION_PATTERN.matcher(text);
-        
-        return (matcher.find())
-            ? Optional.of(new CraftBukkitVersion(
-                intOrZero(matcher.group("release")),
-                intOrZero(matcher.group("major")),
-                intOrZero(matcher.group("revision"))
-            ))
-            : Optional.empty();
+        long packed = VersionScanner.scanCraftBukkitVersion(text, 0, text.length());
+        VersionMetrics.parsed(packed);
+        return (packed >= 0) ? INTERNER.optional(packed) : Optional.empty();
     }
     
-    private final String packageVersion;
-    private final String craftBukkitPackage;
-    private final String minecraftPackage;
+    /**
+     * Parses the input text into a CraftBukkit version, exactly like
+     * {@link #parseCraftBukkitVersion(CharSequence)}. Kept so code compiled against
+     * this {@code String} signature keeps linking.
+     *
+     * @param text  input text
+     *
+     * @return the parsed version if successful, otherwise empty
+     */
+    public static Optional<CraftBukkitVersion> parseCraftBukkitVersion(String text)
+    {
+        return parseCraftBukkitVersion((CharSequence) text);
+    }
+    
+    // Lazily built: strings are immutable, so a racy single-check is safe and at worst builds a duplicate.
+    private @NullOr String packageVersion;
+    private @NullOr String craftBukkitPackage;
+    private @NullOr String minecraftPackage;
+    private @NullOr ClassCache craftBukkitClasses;
+    private @NullOr ClassCache minecraftClasses;
+    private @NullOr ClassCache mappedClasses;
+    
+    private final boolean isRelocated;
     
     /**
      * Constructs.
@@ -91,9 +190,7 @@ public class CraftBukkitVersion extends MinecraftVersion
     public CraftBukkitVersion(int release, int major, int revision)
     {
         super(release, major, revision);
-        this.packageVersion = "v" + release + "_" + major + "_R" + revision;
-        this.craftBukkitPackage = "org.bukkit.craftbukkit." + packageVersion;
-        this.minecraftPackage = (atLeast(1, 17)) ? "net.minecraft" : "net.minecraft.server." + packageVersion;
+        this.isRelocated = true;
     }
     
     public CraftBukkitVersion(MinecraftVersion version)
@@ -101,12 +198,54 @@ public class CraftBukkitVersion extends MinecraftVersion
         this(version.major(), version.minor(), version.patch());
     }
     
+    // Trusts that the packed key was already validated.
+    CraftBukkitVersion(long packed)
+    {
+        this(packed, true);
+    }
+    
+    private CraftBukkitVersion(long packed, boolean isRelocated)
+    {
+        super(packed);
+        this.isRelocated = isRelocated;
+    }
+    
+    /**
+     * Checks whether CraftBukkit is relocated into a versioned package,
+     * like {@code org.bukkit.craftbukkit.v1_20_R3}. Relocated and unrelocated
+     * versions are never equal, although they compare equal when their numbers are.
+     *
+     * @return {@code true} if packages are versioned, otherwise {@code false}
+     */
+    public boolean isRelocated() { return isRelocated; }
+    
+    private String packageVersion()
+    {
+        @NullOr String version = packageVersion;
+        if (version == null)
+        {
+            version = "v" + major() + "_" + minor() + "_R" + patch();
+            packageVersion = version;
+        }
+        return version;
+    }
+    
     /**
-     * Gets the {@code org.bukkit.craftbukkit} package for this version.
+     * Gets the {@code org.bukkit.craftbukkit} package for this version,
+     * or simply {@code org.bukkit.craftbukkit} if not relocated.
      *
      * @return versioned craftbukkit package
      */
-    public String craftBukkitPackage() { return craftBukkitPackage; }
+    public String craftBukkitPackage()
+    {
+        @NullOr String pkg = craftBukkitPackage;
+        if (pkg == null)
+        {
+            pkg = (isRelocated) ? CRAFTBUKKIT_PACKAGE + "." + packageVersion() : CRAFTBUKKIT_PACKAGE;
+            craftBukkitPackage = pkg;
+        }
+        return pkg;
+    }
     
     /**
      * Creates a fully-qualified class name from this version's {@code org.bukkit.craftbukkit} package.
@@ -115,14 +254,24 @@ public class CraftBukkitVersion extends MinecraftVersion
      *
      * @return fully-qualified class name within the versioned craftbukkit package
      */
-    public String craftBukkitClass(String className) { return craftBukkitPackage + "." + className; }
+    public String craftBukkitClass(String className) { return craftBukkitPackage() + "." + className; }
     
     /**
-     * Gets the NMS package for this version, or simply {@code net.minecraft} if 1.17 or above.
+     * Gets the NMS package for this version, or simply {@code net.minecraft}
+     * if 1.17 or above or not relocated.
      *
      * @return versioned NMS package
      */
-    public String minecraftPackage() { return minecraftPackage; }
+    public String minecraftPackage()
+    {
+        @NullOr String pkg = minecraftPackage;
+        if (pkg == null)
+        {
+            pkg = (atLeast(1, 17) || !isRelocated) ? "net.minecraft" : "net.minecraft.server." + packageVersion();
+            minecraftPackage = pkg;
+        }
+        return pkg;
+    }
     
     /**
      * Creates a fully-qualified class name from this version's {@code net.minecraft} (NMS) package.
@@ -131,11 +280,161 @@ public class CraftBukkitVersion extends MinecraftVersion
      *
      * @return fully-qualified class name within the versioned NMS package
      */
-    public String minecraftClass(String className) { return minecraftPackage + "." + className; }
+    public String minecraftClass(String className) { return minecraftPackage() + "." + className; }
+    
+    /**
+     * Creates a fully-qualified class name from this version's {@code net.minecraft} (NMS)
+     * package, then maps it to the server's runtime name, like from
+     * Mojang-mapped to Spigot-mapped names.
+     *
+     * @param className     class name (with any required subpackages)
+     * @param mappings      mappings from the provided name to the runtime name
+     *
+     * @return fully-qualified runtime class name
+     * @see MappingIndex#remapClass(String)
+     */
+    public String minecraftClass(String className, MappingIndex mappings)
+    {
+        return mappings.remapClass(minecraftClass(className));
+    }
+    
+    private ClassCache craftBukkitClasses()
+    {
+        @NullOr ClassCache classes = craftBukkitClasses;
+        if (classes == null)
+        {
+            classes = new ClassCache(this::craftBukkitClass, CraftBukkitVersion.class.getClassLoader(), true);
+            craftBukkitClasses = classes;
+        }
+        return classes;
+    }
+    
+    private ClassCache minecraftClasses()
+    {
+        @NullOr ClassCache classes = minecraftClasses;
+        if (classes == null)
+        {
+            classes = new ClassCache(this::minecraftClass, CraftBukkitVersion.class.getClassLoader(), true);
+            minecraftClasses = classes;
+        }
+        return classes;
+    }
+    
+    /**
+     * Finds a class within this version's {@code org.bukkit.craftbukkit} package.
+     *
+     * <p>Lookups are cached, whether or not the class exists, so repeated
+     * lookups cost a single map probe and never build the class name again.
+     * Classes are loaded but not initialized.</p>
+     *
+     * @param className     class name (with any required subpackages)
+     *
+     * @return the class if it exists, otherwise empty
+     * @see #craftBukkitClass(String)
+     */
+    public Optional<Class<?>> findCraftBukkitClass(String className)
+    {
+        return craftBukkitClasses().find(className);
+    }
+    
+    /**
+     * Finds the first existing class out of the provided names within
+     * this version's {@code org.bukkit.craftbukkit} package.
+     *
+     * @param className     class name (with any required subpackages)
+     * @param fallbacks     fallback class names to try in order, like names used by other versions
+     *
+     * @return the first class that exists, otherwise empty
+     * @see #findCraftBukkitClass(String)
+     */
+    public Optional<Class<?>> findCraftBukkitClass(String className, String ... fallbacks)
+    {
+        return craftBukkitClasses().find(className, fallbacks);
+    }
+    
+    private ClassCache mappedClasses()
+    {
+        @NullOr ClassCache classes = mappedClasses;
+        if (classes == null)
+        {
+            classes = new ClassCache(UnaryOperator.identity(), CraftBukkitVersion.class.getClassLoader(), true);
+            mappedClasses = classes;
+        }
+        return classes;
+    }
+    
+    /**
+     * Finds a class within this version's {@code net.minecraft} (NMS) package.
+     *
+     * <p>Lookups are cached, whether or not the class exists, so repeated
+     * lookups cost a single map probe and never build the class name again.
+     * Classes are loaded but not initialized.</p>
+     *
+     * @param className     class name (with any required subpackages)
+     *
+     * @return the class if it exists, otherwise empty
+     * @see #minecraftClass(String)
+     */
+    public Optional<Class<?>> findMinecraftClass(String className)
+    {
+        return minecraftClasses().find(className);
+    }
+    
+    /**
+     * Finds the first existing class out of the provided names within
+     * this version's {@code net.minecraft} (NMS) package.
+     *
+     * @param className     class name (with any required subpackages)
+     * @param fallbacks     fallback class names to try in order, like names used by other versions
+     *
+     * @return the first class that exists, otherwise empty
+     * @see #findMinecraftClass(String)
+     */
+    public Optional<Class<?>> findMinecraftClass(String className, String ... fallbacks)
+    {
+        return minecraftClasses().find(className, fallbacks);
+    }
+    
+    /**
+     * Finds a class within this version's {@code net.minecraft} (NMS) package
+     * by its mapped runtime name.
+     *
+     * <p>Lookups of runtime names are cached, like those of
+     * {@link #findMinecraftClass(String)}, while the mapping itself is a
+     * binary search of the index.</p>
+     *
+     * @param className     class name (with any required subpackages)
+     * @param mappings      mappings from the provided name to the runtime name
+     *
+     * @return the class if it exists, otherwise empty
+     * @see #minecraftClass(String, MappingIndex)
+     */
+    public Optional<Class<?>> findMinecraftClass(String className, MappingIndex mappings)
+    {
+        return mappedClasses().find(minecraftClass(className, mappings));
+    }
     
+    @Override
+    public boolean equals(@NullOr Object o)
+    {
+        return super.equals(o) && isRelocated == ((CraftBukkitVersion) o).isRelocated;
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + Boolean.hashCode(isRelocated);
+    }
+    
+    /**
+     * Gets the package version, like {@code v1_20_R3}, or the
+     * game version if CraftBukkit isn't relocated, like {@code 1.20.6}.
+     *
+     * @return the version as a string
+     */
     @Override
     public String toString()
     {
-        return packageVersion;
+        return (isRelocated) ? packageVersion() : super.toString();
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A registry of known release versions, each with a dense ordinal:
+ * the oldest release is ordinal zero, the next is one, and so on.
+ *
+ * <p>Ordinals index plain arrays of per-version data, like
+ * {@link VersionMap} and {@link VersionIntMap}. Versions that aren't
+ * known releases, such as releases newer than the registry, have a
+ * {@link #floorOrdinal(long) floor ordinal}: the ordinal of the nearest
+ * known release below them. Snapshots, pre-releases, and release
+ * candidates have the floor ordinal of the last release before them.
+ * Finding an ordinal is a binary search, {@code O(log n)}, and the
+ * server's ordinal is found only once.</p>
+ *
+ * <p>The {@link #bundled() bundled} registry is generated from the
+ * releases of the {@link ProtocolVersions#bundled() bundled protocol table}.</p>
+ */
+@SuppressWarnings("unused")
+public final class KnownReleases
+{
+    /**
+     * Returned for versions without an ordinal.
+     */
+    public static final int UNKNOWN_ORDINAL = -1;
+    
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+    
+    // Lazy holder: the JVM loads it exactly once, on first access, safely published to every thread.
+    private static final class Bundled
+    {
+        static final KnownReleases RELEASES = new KnownReleases(ProtocolVersions.bundled().packedReleases().clone());
+    }
+    
+    /**
+     * Gets the registry of releases bundled with this library, which is loaded once on first access.
+     *
+     * @return the bundled registry
+     */
+    public static KnownReleases bundled()
+    {
+        return Bundled.RELEASES;
+    }
+    
+    /**
+     * Creates a registry of the provided releases.
+     *
+     * @param releases  the releases, in any order (duplicates are ignored)
+     *
+     * @return a new registry
+     */
+    public static KnownReleases of(MinecraftVersion ... releases)
+    {
+        long[] packed = Arrays.stream(releases).mapToLong(MinecraftVersion::packed).sorted().distinct().toArray();
+        return new KnownReleases(packed);
+    }
+    
+    private final long[] releases;
+    
+    // Like String.hashCode(): racy but idempotent, so it's safe without synchronization.
+    private int serverOrdinal = UNRESOLVED;
+    
+    private KnownReleases(long[] releases)
+    {
+        this.releases = releases;
+    }
+    
+    /**
+     * Gets the number of known releases, which is one more than the highest ordinal.
+     *
+     * @return number of releases
+     */
+    public int size() { return releases.length; }
+    
+    /**
+     * Gets the ordinal of a known release.
+     *
+     * @param packed    packed version
+     *
+     * @return the release's ordinal, or {@link #UNKNOWN_ORDINAL} if it isn't a known release
+     * @see MinecraftVersion#packed()
+     */
+    public int ordinal(long packed)
+    {
+        int index = Arrays.binarySearch(releases, packed);
+        return (index >= 0) ? index : UNKNOWN_ORDINAL;
+    }
+    
+    /**
+     * Gets the ordinal of a known release.
+     *
+     * @param version   the version
+     *
+     * @return the release's ordinal, or {@link #UNKNOWN_ORDINAL} if it isn't a known release
+     */
+    public int ordinal(MinecraftVersion version) { return ordinal(version.packed()); }
+    
+    /**
+     * Gets the ordinal of the newest known release at or below the version.
+     *
+     * @param packed    packed version
+     *
+     * @return the nearest release's ordinal, or {@link #UNKNOWN_ORDINAL}
+     *         if the version is older than every known release
+     * @see MinecraftVersion#packed()
+     */
+    public int floorOrdinal(long packed)
+    {
+        int index = Arrays.binarySearch(releases, packed);
+        return (index >= 0) ? index : -index - 2;
+    }
+    
+    /**
+     * Gets the ordinal of the newest known release at or below the version.
+     *
+     * @param version   the version
+     *
+     * @return the nearest release's ordinal, or {@link #UNKNOWN_ORDINAL}
+     *         if the version is older than every known release
+     */
+    public int floorOrdinal(MinecraftVersion version) { return floorOrdinal(version.packed()); }
+    
+    /**
+     * Gets the {@link #floorOrdinal(MinecraftVersion) floor ordinal}
+     * of the {@link MinecraftVersion#server() server's version}, which is
+     * found once and remembered.
+     *
+     * @return the server's floor ordinal
+     */
+    public int serverOrdinal()
+    {
+        int ordinal = serverOrdinal;
+        if (ordinal == UNRESOLVED) { serverOrdinal = ordinal = floorOrdinal(MinecraftVersion.server()); }
+        return ordinal;
+    }
+    
+    /**
+     * Gets the release with the ordinal.
+     *
+     * @param ordinal   the ordinal
+     *
+     * @return the release
+     * @throws IndexOutOfBoundsException if there's no release with the ordinal
+     */
+    public MinecraftVersion release(int ordinal)
+    {
+        Objects.checkIndex(ordinal, releases.length);
+        return MinecraftVersion.interned(releases[ordinal]);
+    }
+    
+    /**
+     * Gets every known release in ordinal (ascending) order.
+     *
+     * @return the releases
+     */
+    public List<MinecraftVersion> releases()
+    {
+        List<MinecraftVersion> versions = new ArrayList<>(releases.length);
+        for (long packed : releases) { versions.add(MinecraftVersion.interned(packed)); }
+        return List.copyOf(versions);
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "KnownReleases{size=" + releases.length +
+            ((releases.length > 0) ? ", oldest=" + release(0) + ", newest=" + release(releases.length - 1) : "") + "}";
+    }
+}
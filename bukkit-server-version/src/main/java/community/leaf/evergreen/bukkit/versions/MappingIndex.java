@@ -0,0 +1,593 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable index of class and member name mappings, like those between
+ * Mojang-mapped and Spigot-mapped (or obfuscated) names.
+ *
+ * <p>Mapping files are read through memory-mapped I/O, and stored as a single
+ * sorted table of UTF-8 names plus an array of offsets into it: far more compact
+ * than a map of strings. Lookups are a binary search over the table,
+ * {@code O(log n)}, comparing names in place.</p>
+ *
+ * <p>Supported formats are ProGuard (as published by Mojang, mapping the
+ * names on the left to those on the right) and Tiny v1 or v2 (mapping
+ * between any two of the file's namespaces). Class names are always
+ * dot-separated, like {@code net.minecraft.server.level.ServerPlayer},
+ * and method parameter types are written as in Java source, like
+ * {@code int} or {@code java.lang.String[]}, using names from the
+ * namespace being mapped from.</p>
+ *
+ * @see CraftBukkitVersion#minecraftClass(String, MappingIndex)
+ */
+@SuppressWarnings("unused")
+public final class MappingIndex
+{
+    private static final MappingIndex EMPTY = new MappingIndex(new byte[0], new int[] {0});
+    
+    /**
+     * Gets an index without any mappings, which maps every name to itself.
+     *
+     * @return an empty index
+     */
+    public static MappingIndex empty() { return EMPTY; }
+    
+    private static ByteBuffer map(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) { throw new IOException("Mappings file is too large: " + size + " bytes"); }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+    
+    /**
+     * Loads a mappings file, detecting its format. Tiny files are mapped
+     * from their first namespace to their second.
+     *
+     * @param file  the mappings file
+     *
+     * @return the loaded index
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static MappingIndex load(Path file) throws IOException
+    {
+        ByteBuffer bytes = map(file);
+        Lines lines = new Lines(bytes);
+        @NullOr String header = lines.next();
+        
+        if (header != null && (header.startsWith("tiny\t") || header.startsWith("v1\t")))
+        {
+            String[] namespaces = Tiny.namespaces(header);
+            return Tiny.parse(bytes, namespaces[0], namespaces[1]);
+        }
+        
+        return ProGuard.parse(bytes);
+    }
+    
+    /**
+     * Loads a ProGuard mappings file, mapping the names on the left to those on the right.
+     *
+     * @param file  the mappings file
+     *
+     * @return the loaded index
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static MappingIndex loadProGuard(Path file) throws IOException
+    {
+        return ProGuard.parse(map(file));
+    }
+    
+    /**
+     * Loads a Tiny (v1 or v2) mappings file, mapping between two of its namespaces.
+     *
+     * @param file  the mappings file
+     * @param from  namespace of the names being looked up
+     * @param to    namespace of the resulting names
+     *
+     * @return the loaded index
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed or lacks either namespace
+     */
+    public static MappingIndex loadTiny(Path file, String from, String to) throws IOException
+    {
+        return Tiny.parse(map(file), from, to);
+    }
+    
+    private static String fieldKey(String owner, String field)
+    {
+        return owner + "#" + field;
+    }
+    
+    private static String methodKey(String owner, String method, String parameterTypes)
+    {
+        return owner + "#" + method + "(" + parameterTypes + ")";
+    }
+    
+    // Sorted keys and their values, alternating, in one UTF-8 table:
+    // entry i's key spans offsets[2i] to offsets[2i + 1], and its value up to offsets[2i + 2].
+    private final byte[] table;
+    private final int[] offsets;
+    
+    private MappingIndex(byte[] table, int[] offsets)
+    {
+        this.table = table;
+        this.offsets = offsets;
+    }
+    
+    // Compares the key to a name in the table, as unsigned UTF-8 bytes (which order like code points).
+    private int compare(byte[] key, int start, int end)
+    {
+        int length = Math.min(key.length, end - start);
+        
+        for (int i = 0; i < length; i++)
+        {
+            int difference = (key[i] & 0xFF) - (table[start + i] & 0xFF);
+            if (difference != 0) { return difference; }
+        }
+        
+        return key.length - (end - start);
+    }
+    
+    private @NullOr String get(String key)
+    {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size() - 1;
+        
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(bytes, offsets[2 * middle], offsets[2 * middle + 1]);
+            
+            if (comparison > 0) { low = middle + 1; }
+            else if (comparison < 0) { high = middle - 1; }
+            else
+            {
+                int start = offsets[2 * middle + 1];
+                return new String(table, start, offsets[2 * middle + 2] - start, StandardCharsets.UTF_8);
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Gets the number of mappings.
+     *
+     * @return number of mapped classes, fields, and methods
+     */
+    public int size() { return offsets.length / 2; }
+    
+    /**
+     * Maps a class name.
+     *
+     * @param className     fully-qualified, dot-separated class name
+     *
+     * @return the mapped class name if there's a mapping, otherwise empty
+     */
+    public Optional<String> mapClass(String className)
+    {
+        return Optional.ofNullable(get(Objects.requireNonNull(className, "className")));
+    }
+    
+    /**
+     * Maps a class name, or keeps it as-is if there's no mapping.
+     *
+     * @param className     fully-qualified, dot-separated class name
+     *
+     * @return the mapped class name, or the provided class name
+     */
+    public String remapClass(String className)
+    {
+        @NullOr String mapped = get(Objects.requireNonNull(className, "className"));
+        return (mapped != null) ? mapped : className;
+    }
+    
+    /**
+     * Maps a field name.
+     *
+     * @param owner     fully-qualified name of the class declaring the field (unmapped)
+     * @param field     field name
+     *
+     * @return the mapped field name if there's a mapping, otherwise empty
+     */
+    public Optional<String> mapField(String owner, String field)
+    {
+        return Optional.ofNullable(get(fieldKey(owner, field)));
+    }
+    
+    /**
+     * Maps a method name.
+     *
+     * @param owner             fully-qualified name of the class declaring the method (unmapped)
+     * @param method            method name
+     * @param parameterTypes    parameter type names as written in Java source (unmapped)
+     *
+     * @return the mapped method name if there's a mapping, otherwise empty
+     */
+    public Optional<String> mapMethod(String owner, String method, String ... parameterTypes)
+    {
+        return Optional.ofNullable(get(methodKey(owner, method, String.join(",", parameterTypes))));
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "MappingIndex{mappings=" + size() + ", bytes=" + table.length + "}";
+    }
+    
+    // Decodes lines from mapped bytes one at a time, reusing a single buffer.
+    private static final class Lines
+    {
+        private final ByteBuffer bytes;
+        private byte[] line = new byte[256];
+        private int index;
+        
+        Lines(ByteBuffer bytes)
+        {
+            this.bytes = bytes;
+            this.index = bytes.position();
+        }
+        
+        @NullOr String next()
+        {
+            int end = bytes.limit();
+            if (index >= end) { return null; }
+            
+            int length = 0;
+            
+            for (; index < end; index++)
+            {
+                byte b = bytes.get(index);
+                if (b == '\n') { break; }
+                if (length == line.length) { line = Arrays.copyOf(line, length * 2); }
+                line[length++] = b;
+            }
+            
+            index++; // Skip the newline.
+            if (length > 0 && line[length - 1] == '\r') { length--; }
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+    
+    // Collects mappings, then sorts and packs them into an index.
+    private static final class Builder
+    {
+        private byte[] table = new byte[1 << 16];
+        private int[] offsets = new int[1 << 10];
+        private int size = 0;
+        private int count = 0;
+        
+        private void append(String text)
+        {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > table.length) { table = Arrays.copyOf(table, Math.max(table.length * 2, size + bytes.length)); }
+            System.arraycopy(bytes, 0, table, size, bytes.length);
+            size += bytes.length;
+        }
+        
+        private void offset(int offset)
+        {
+            if (count == offsets.length) { offsets = Arrays.copyOf(offsets, count * 2); }
+            offsets[count++] = offset;
+        }
+        
+        private void put(String key, String value)
+        {
+            offset(size);
+            append(key);
+            offset(size);
+            append(value);
+        }
+        
+        // Identity mappings don't need storing.
+        
+        void add(String className, String mapped)
+        {
+            if (!className.equals(mapped)) { put(className, mapped); }
+        }
+        
+        void addField(String owner, String field, String mapped)
+        {
+            if (!field.equals(mapped)) { put(fieldKey(owner, field), mapped); }
+        }
+        
+        void addMethod(String owner, String method, String parameterTypes, String mapped)
+        {
+            if (!method.equals(mapped)) { put(methodKey(owner, method, parameterTypes), mapped); }
+        }
+        
+        private int end(int entry) { return (2 * entry + 2 < count) ? offsets[2 * entry + 2] : size; }
+        
+        private int compareKeys(int a, int b)
+        {
+            return Arrays.compareUnsigned(
+                table, offsets[2 * a], offsets[2 * a + 1],
+                table, offsets[2 * b], offsets[2 * b + 1]
+            );
+        }
+        
+        MappingIndex build()
+        {
+            int entries = count / 2;
+            int[] sorted = IntStream.range(0, entries).boxed().sorted(this::compareKeys).mapToInt(Integer::intValue).toArray();
+            
+            byte[] packed = new byte[size];
+            int[] packedOffsets = new int[entries * 2 + 1];
+            int packedSize = 0;
+            int packedEntries = 0;
+            
+            for (int i = 0; i < entries; i++)
+            {
+                int entry = sorted[i];
+                
+                // The first mapping for a key wins.
+                if (i > 0 && compareKeys(sorted[i - 1], entry) == 0) { continue; }
+                
+                int start = offsets[2 * entry];
+                int valueStart = offsets[2 * entry + 1];
+                int end = end(entry);
+                
+                packedOffsets[2 * packedEntries] = packedSize;
+                packedOffsets[2 * packedEntries + 1] = packedSize + (valueStart - start);
+                System.arraycopy(table, start, packed, packedSize, end - start);
+                packedSize += end - start;
+                packedEntries++;
+            }
+            
+            packedOffsets[2 * packedEntries] = packedSize;
+            
+            return new MappingIndex(
+                Arrays.copyOf(packed, packedSize),
+                Arrays.copyOf(packedOffsets, 2 * packedEntries + 1)
+            );
+        }
+    }
+    
+    private static final class ProGuard
+    {
+        private static IllegalArgumentException malformed(int lineNumber, String line)
+        {
+            return new IllegalArgumentException("Malformed ProGuard mappings (line " + lineNumber + "): " + line);
+        }
+        
+        static MappingIndex parse(ByteBuffer bytes)
+        {
+            Builder builder = new Builder();
+            Lines lines = new Lines(bytes);
+            @NullOr String owner = null;
+            int lineNumber = 0;
+            
+            for (@NullOr String line = lines.next(); line != null; line = lines.next())
+            {
+                lineNumber++;
+                
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) { continue; }
+                
+                int arrow = trimmed.indexOf(" -> ");
+                if (arrow < 0) { throw malformed(lineNumber, line); }
+                
+                String mapped = trimmed.substring(arrow + 4);
+                boolean isMember = Character.isWhitespace(line.charAt(0));
+                
+                if (!isMember)
+                {
+                    // Class: "{name} -> {mapped}:"
+                    if (!mapped.endsWith(":")) { throw malformed(lineNumber, line); }
+                    owner = trimmed.substring(0, arrow);
+                    builder.add(owner, mapped.substring(0, mapped.length() - 1));
+                    continue;
+                }
+                
+                if (owner == null) { throw malformed(lineNumber, line); }
+                
+                // Member: "[{first}:{last}:]{type} {name}[({parameters})][:{first}:{last}] -> {mapped}"
+                String member = trimmed.substring(0, arrow);
+                int start = 0;
+                while (start < member.length() && (VersionScanner.isDigit(member.charAt(start)) || member.charAt(start) == ':')) { start++; }
+                
+                int space = member.indexOf(' ', start);
+                if (space < 0) { throw malformed(lineNumber, line); }
+                
+                int open = member.indexOf('(', space);
+                
+                if (open < 0)
+                {
+                    builder.addField(owner, member.substring(space + 1), mapped);
+                }
+                else
+                {
+                    int close = member.indexOf(')', open);
+                    if (close < 0) { throw malformed(lineNumber, line); }
+                    builder.addMethod(owner, member.substring(space + 1, open), member.substring(open + 1, close), mapped);
+                }
+            }
+            
+            return builder.build();
+        }
+    }
+    
+    private static final class Tiny
+    {
+        private static IllegalArgumentException malformed(String reason)
+        {
+            return new IllegalArgumentException("Malformed Tiny mappings: " + reason);
+        }
+        
+        static String[] namespaces(String header)
+        {
+            String[] columns = header.split("\t");
+            
+            // v2: "tiny 2 {minor} {namespaces...}", v1: "v1 {namespaces...}"
+            int first = (columns[0].equals("tiny")) ? 3 : 1;
+            if (columns.length < first + 2) { throw malformed("expected at least two namespaces: " + header); }
+            return Arrays.copyOfRange(columns, first, columns.length);
+        }
+        
+        private static int namespace(String[] namespaces, String name)
+        {
+            int index = List.of(namespaces).indexOf(name);
+            if (index < 0) { throw malformed("unknown namespace: " + name + " (available: " + String.join(", ", namespaces) + ")"); }
+            return index;
+        }
+        
+        private static String dotted(String internalName) { return internalName.replace('/', '.'); }
+        
+        // Name in a namespace column, where an empty name means it's the same as in the first namespace.
+        private static String name(String[] columns, int first, int namespace)
+        {
+            int column = first + namespace;
+            String name = (column < columns.length) ? columns[column] : "";
+            return (name.isEmpty()) ? columns[first] : name;
+        }
+        
+        // Converts a method descriptor's parameters to Java source types, remapping classes from the first namespace.
+        static String parameterTypes(String descriptor, Map<String, String> classes)
+        {
+            StringBuilder types = new StringBuilder();
+            int index = descriptor.indexOf('(') + 1;
+            
+            while (index < descriptor.length() && descriptor.charAt(index) != ')')
+            {
+                int dimensions = 0;
+                while (descriptor.charAt(index) == '[') { dimensions++; index++; }
+                
+                String type;
+                char c = descriptor.charAt(index);
+                
+                if (c == 'L')
+                {
+                    int end = descriptor.indexOf(';', index);
+                    if (end < 0) { throw malformed("invalid descriptor: " + descriptor); }
+                    String className = dotted(descriptor.substring(index + 1, end));
+                    type = classes.getOrDefault(className, className);
+                    index = end + 1;
+                }
+                else
+                {
+                    switch (c)
+                    {
+                        case 'B': type = "byte"; break;
+                        case 'C': type = "char"; break;
+                        case 'D': type = "double"; break;
+                        case 'F': type = "float"; break;
+                        case 'I': type = "int"; break;
+                        case 'J': type = "long"; break;
+                        case 'S': type = "short"; break;
+                        case 'Z': type = "boolean"; break;
+                        default: throw malformed("invalid descriptor: " + descriptor);
+                    }
+                    index++;
+                }
+                
+                if (types.length() > 0) { types.append(','); }
+                types.append(type);
+                for (int i = 0; i < dimensions; i++) { types.append("[]"); }
+            }
+            
+            return types.toString();
+        }
+        
+        static MappingIndex parse(ByteBuffer bytes, String from, String to)
+        {
+            Lines lines = new Lines(bytes);
+            @NullOr String header = lines.next();
+            if (header == null) { throw malformed("empty file"); }
+            
+            boolean isV2 = header.startsWith("tiny\t2\t");
+            if (!isV2 && !header.startsWith("v1\t")) { throw malformed("unsupported header: " + header); }
+            
+            String[] namespaces = namespaces(header);
+            int source = namespace(namespaces, from);
+            int target = namespace(namespaces, to);
+            
+            // Owners and descriptors name classes in the first namespace: a temporary map, discarded once loaded.
+            Map<String, String> classes = new HashMap<>();
+            
+            if (source != 0)
+            {
+                for (@NullOr String line = lines.next(); line != null; line = lines.next())
+                {
+                    String[] columns = line.split("\t", -1);
+                    
+                    if (isV2 && columns[0].equals("c")) { classes.put(dotted(columns[1]), dotted(name(columns, 1, source))); }
+                    else if (!isV2 && columns[0].equals("CLASS")) { classes.put(dotted(columns[1]), dotted(name(columns, 1, source))); }
+                }
+                
+                lines = new Lines(bytes);
+                lines.next();
+            }
+            
+            Builder builder = new Builder();
+            @NullOr String owner = null;
+            
+            for (@NullOr String line = lines.next(); line != null; line = lines.next())
+            {
+                String[] columns = line.split("\t", -1);
+                
+                if (isV2)
+                {
+                    if (columns[0].equals("c"))
+                    {
+                        owner = dotted(name(columns, 1, source));
+                        builder.add(owner, dotted(name(columns, 1, target)));
+                    }
+                    else if (columns.length >= 5 && columns[0].isEmpty() && owner != null)
+                    {
+                        // Members are indented once; deeper lines (parameters, comments) are ignored.
+                        if (columns[1].equals("f")) { builder.addField(owner, name(columns, 3, source), name(columns, 3, target)); }
+                        else if (columns[1].equals("m"))
+                        {
+                            builder.addMethod(owner, name(columns, 3, source), parameterTypes(columns[2], classes), name(columns, 3, target));
+                        }
+                    }
+                }
+                else if (columns[0].equals("CLASS"))
+                {
+                    builder.add(dotted(name(columns, 1, source)), dotted(name(columns, 1, target)));
+                }
+                else if (columns[0].equals("FIELD") || columns[0].equals("METHOD"))
+                {
+                    if (columns.length < 5) { throw malformed("expected owner, descriptor, and names: " + line); }
+                    
+                    String memberOwner = classes.getOrDefault(dotted(columns[1]), dotted(columns[1]));
+                    
+                    if (columns[0].equals("FIELD")) { builder.addField(memberOwner, name(columns, 3, source), name(columns, 3, target)); }
+                    else
+                    {
+                        builder.addMethod(memberOwner, name(columns, 3, source), parameterTypes(columns[2], classes), name(columns, 3, target));
+                    }
+                }
+            }
+            
+            return builder.build();
+        }
+    }
+}
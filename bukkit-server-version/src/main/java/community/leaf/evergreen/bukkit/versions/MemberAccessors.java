@@ -0,0 +1,459 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves {@link MemberDescriptor member descriptions} into fast accessors:
+ * method handles, var handles, or functional interface instances.
+ *
+ * <p>Resolved accessors (and members that don't exist) are cached per owner
+ * class with a {@link ClassValue}, so they're stored with the owner class and
+ * live as long as it does. Cached accessors may reference this library's own
+ * classes, so caching members of a server class keeps the class loader of the
+ * plugin shading this library alive until the server stops. For near-direct
+ * call performance, store resolved accessors in {@code static final} fields:
+ * the JIT then inlines straight through them.</p>
+ *
+ * <p>Member names known to be missing from an installed {@link ResolutionCache}
+ * are skipped, going straight to the name known to resolve. Handles to the
+ * server's members are shared with other plugins through the
+ * {@link SharedRegistry}, once joined.</p>
+ *
+ * <p>Members are described by their exact types, like {@code getHandle()},
+ * which returns the server's own player class. Adapt the handle with
+ * {@link MethodHandle#asType(MethodType)} to call it without that class:</p>
+ *
+ * <pre>{@code
+ * private static final MethodHandle GET_HANDLE = findGetHandle();
+ *
+ * private static MethodHandle findGetHandle()
+ * {
+ *     CraftBukkitVersion server = CraftBukkitVersion.server();
+ *     Class<?> craftPlayer = server.findCraftBukkitClass("entity.CraftPlayer").orElseThrow();
+ *     Class<?> serverPlayer = server.findMinecraftClass("server.level.ServerPlayer", "server.level.EntityPlayer").orElseThrow();
+ *
+ *     return MemberAccessors.findHandle(craftPlayer, MemberDescriptor.method(MethodType.methodType(serverPlayer), "getHandle"))
+ *         .orElseThrow()
+ *         .asType(MethodType.methodType(Object.class, Player.class));
+ * }
+ * }</pre>
+ */
+@SuppressWarnings("unused")
+public final class MemberAccessors
+{
+    private MemberAccessors() { throw new UnsupportedOperationException(); }
+    
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    
+    private static final int FULL_ACCESS = MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.MODULE;
+    
+    private static final ClassValue<Members> MEMBERS = new ClassValue<>()
+    {
+        @Override
+        protected Members computeValue(Class<?> type) { return new Members(type); }
+    };
+    
+    /**
+     * Finds a method handle for the described member:
+     * an invoker for methods, a factory for constructors,
+     * or a getter for fields.
+     *
+     * <p>Instance members take the receiver as their first argument.</p>
+     *
+     * @param owner     class declaring the member
+     * @param member    member description
+     *
+     * @return the method handle if the member exists, otherwise empty
+     * @throws IllegalStateException if the member exists but cannot be accessed
+     */
+    public static Optional<MethodHandle> findHandle(Class<?> owner, MemberDescriptor member)
+    {
+        Objects.requireNonNull(member, "member");
+        return MEMBERS.get(owner).handle(member);
+    }
+    
+    /**
+     * Finds a setter method handle for the described field.
+     *
+     * @param owner     class declaring the field
+     * @param field     field description
+     *
+     * @return the setter if the field exists and isn't final, otherwise empty
+     * @throws IllegalArgumentException if the member isn't a field
+     * @throws IllegalStateException    if the member exists but cannot be accessed
+     */
+    public static Optional<MethodHandle> findSetter(Class<?> owner, MemberDescriptor field)
+    {
+        requireField(field);
+        return MEMBERS.get(owner).setter(field);
+    }
+    
+    /**
+     * Finds a var handle for the described field,
+     * supporting plain, opaque, acquire/release, and volatile access.
+     *
+     * @param owner     class declaring the field
+     * @param field     field description
+     *
+     * @return the var handle if the field exists, otherwise empty
+     * @throws IllegalArgumentException if the member isn't a field
+     * @throws IllegalStateException    if the member exists but cannot be accessed
+     */
+    public static Optional<VarHandle> findVarHandle(Class<?> owner, MemberDescriptor field)
+    {
+        requireField(field);
+        return MEMBERS.get(owner).varHandle(field);
+    }
+    
+    /**
+     * Finds the described member and implements a functional interface with it.
+     *
+     * <p>Methods and constructors are spun into lambdas with
+     * {@link LambdaMetafactory}, which perform like direct calls once
+     * inlined. Fields, and members the metafactory can't access, are
+     * implemented with a slower {@link MethodHandleProxies proxy} instead.
+     * Interfaces from {@code java.util.function} are visible to every class
+     * loader and so work best.</p>
+     *
+     * @param owner     class declaring the member
+     * @param member    member description
+     * @param function  functional interface type
+     * @param <F>       functional interface type
+     *
+     * @return the functional interface instance if the member exists, otherwise empty
+     * @throws IllegalArgumentException if the member is incompatible with the functional interface
+     * @throws IllegalStateException    if the member exists but cannot be accessed
+     */
+    public static <F> Optional<F> findFunction(Class<?> owner, MemberDescriptor member, Class<F> function)
+    {
+        Objects.requireNonNull(member, "member");
+        Objects.requireNonNull(function, "function");
+        return MEMBERS.get(owner).function(member, function).map(function::cast);
+    }
+    
+    private static void requireField(MemberDescriptor member)
+    {
+        if (!member.kind().isField()) { throw new IllegalArgumentException("Not a field: " + member); }
+    }
+    
+    private static MethodHandles.Lookup lookupIn(Class<?> owner)
+    {
+        try { return MethodHandles.privateLookupIn(owner, LOOKUP); }
+        catch (IllegalAccessException | SecurityException e) { return LOOKUP; }
+    }
+    
+    private static Method singleAbstractMethod(Class<?> function)
+    {
+        if (!function.isInterface()) { throw new IllegalArgumentException("Not an interface: " + function); }
+        
+        @NullOr Method single = null;
+        
+        for (Method method : function.getMethods())
+        {
+            if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) { continue; }
+            if (single != null) { throw new IllegalArgumentException("Not a functional interface: " + function); }
+            single = method;
+        }
+        
+        if (single == null) { throw new IllegalArgumentException("Not a functional interface: " + function); }
+        return single;
+    }
+    
+    private static boolean isObjectMethod(Method method)
+    {
+        try
+        {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        }
+        catch (NoSuchMethodException e) { return false; }
+    }
+    
+    private static Class<?> wrap(Class<?> type)
+    {
+        return (type.isPrimitive()) ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+    
+    // Specializes the erased interface signature with the member's own types, as lambdas do.
+    private static MethodType instantiate(MethodType sam, MethodType impl)
+    {
+        Class<?>[] parameters = new Class<?>[sam.parameterCount()];
+        
+        for (int i = 0; i < parameters.length; i++)
+        {
+            Class<?> samType = sam.parameterType(i);
+            parameters[i] = (samType.isPrimitive()) ? samType : wrap(impl.parameterType(i));
+        }
+        
+        Class<?> samReturn = sam.returnType();
+        Class<?> implReturn = impl.returnType();
+        
+        Class<?> returns = (samReturn.isPrimitive() || implReturn == void.class) ? samReturn : wrap(implReturn);
+        return MethodType.methodType(returns, parameters);
+    }
+    
+    private static boolean isVisible(Class<?> type, @NullOr ClassLoader loader)
+    {
+        try { return Class.forName(type.getName(), false, loader) == type; }
+        catch (ClassNotFoundException | LinkageError e) { return false; }
+    }
+    
+    @FunctionalInterface
+    private interface Resolver<T>
+    {
+        T resolve(String name) throws NoSuchMethodException, NoSuchFieldException, IllegalAccessException;
+    }
+    
+    // All cached accessors of one owner class.
+    private static final class Members
+    {
+        private final ConcurrentHashMap<MemberDescriptor, Optional<MethodHandle>> handles = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<MemberDescriptor, Optional<MethodHandle>> setters = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<MemberDescriptor, Optional<VarHandle>> varHandles = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<List<Object>, Optional<Object>> functions = new ConcurrentHashMap<>();
+        
+        private final Class<?> owner;
+        private final MethodHandles.Lookup lookup;
+        
+        Members(Class<?> owner)
+        {
+            this.owner = owner;
+            this.lookup = lookupIn(owner);
+        }
+        
+        private static <T> T hit(T existing)
+        {
+            VersionMetrics.increment(VersionMetrics.Counter.MEMBER_CACHE_HITS);
+            return existing;
+        }
+        
+        Optional<MethodHandle> handle(MemberDescriptor member)
+        {
+            @NullOr Optional<MethodHandle> existing = handles.get(member);
+            return (existing != null) ? hit(existing) : handles.computeIfAbsent(member, m -> shared("h:", m, this::resolveHandle));
+        }
+        
+        Optional<MethodHandle> setter(MemberDescriptor field)
+        {
+            @NullOr Optional<MethodHandle> existing = setters.get(field);
+            return (existing != null) ? hit(existing) : setters.computeIfAbsent(field, f -> shared("s:", f, this::resolveSetter));
+        }
+        
+        Optional<VarHandle> varHandle(MemberDescriptor field)
+        {
+            @NullOr Optional<VarHandle> existing = varHandles.get(field);
+            return (existing != null) ? hit(existing) : varHandles.computeIfAbsent(field, f -> shared("v:", f, this::resolveVarHandle));
+        }
+        
+        // Only handles are shared: functions may implement a plugin's own interfaces.
+        private <T> Optional<T> shared(String prefix, MemberDescriptor member, Function<MemberDescriptor, Optional<T>> resolver)
+        {
+            if (!SharedRegistry.isServerClass(owner)) { return resolver.apply(member); }
+            
+            String key = prefix + ResolutionCache.memberKey(
+                owner, member.kind(), String.join("|", member.names()), member.type().toMethodDescriptorString()
+            );
+            
+            @NullOr Optional<T> existing = SharedRegistry.get(key);
+            return (existing != null) ? existing : SharedRegistry.share(key, resolver.apply(member));
+        }
+        
+        Optional<Object> function(MemberDescriptor member, Class<?> function)
+        {
+            List<Object> key = List.of(member, function);
+            @NullOr Optional<Object> existing = functions.get(key);
+            return (existing != null) ? hit(existing) : functions.computeIfAbsent(key, k -> resolveFunction(member, function));
+        }
+        
+        private <T> Optional<T> resolve(MemberDescriptor member, Resolver<T> resolver)
+        {
+            VersionEvents.MemberLookup event = new VersionEvents.MemberLookup();
+            event.begin();
+            long startTime = VersionMetrics.startTime();
+            
+            Optional<T> resolved = resolveNames(member, resolver);
+            
+            VersionMetrics.stopTime(VersionMetrics.Timer.MEMBER_LOOKUP, startTime);
+            VersionMetrics.increment(VersionMetrics.Counter.MEMBER_LOOKUPS);
+            if (resolved.isEmpty()) { VersionMetrics.increment(VersionMetrics.Counter.MEMBER_LOOKUP_FAILURES); }
+            
+            event.commit(owner, member, resolved.isPresent());
+            return resolved;
+        }
+        
+        // Tries each name in order, skipping names known to be missing from an installed resolution cache
+        // (which only covers the server's classes). Members that exist but can't be accessed aren't missing:
+        // they fail unless another name resolves.
+        private <T> Optional<T> resolveNames(MemberDescriptor member, Resolver<T> resolver)
+        {
+            @NullOr ResolutionCache persistent = ResolutionCache.installedOrNull();
+            if (persistent != null && !persistent.covers(owner.getClassLoader())) { persistent = null; }
+            String descriptor = member.type().toMethodDescriptorString();
+            @NullOr IllegalAccessException inaccessible = null;
+            
+            for (String name : member.names())
+            {
+                @NullOr String key = (persistent == null) ? null : ResolutionCache.memberKey(owner, member.kind(), name, descriptor);
+                
+                if (persistent != null && key != null && persistent.isKnownMissing(key))
+                {
+                    VersionMetrics.increment(VersionMetrics.Counter.KNOWN_MISSES_SKIPPED);
+                    continue;
+                }
+                
+                try
+                {
+                    T resolved = resolver.resolve(name);
+                    if (persistent != null && key != null) { persistent.record(key, true); }
+                    return Optional.of(resolved);
+                }
+                catch (NoSuchMethodException | NoSuchFieldException e)
+                {
+                    if (persistent != null && key != null) { persistent.record(key, false); }
+                }
+                catch (IllegalAccessException e)
+                {
+                    if (inaccessible == null) { inaccessible = e; }
+                    else { inaccessible.addSuppressed(e); }
+                }
+            }
+            
+            if (inaccessible != null)
+            {
+                throw new IllegalStateException("Cannot access " + member + " of " + owner.getName(), inaccessible);
+            }
+            
+            return Optional.empty();
+        }
+        
+        private Optional<MethodHandle> resolveHandle(MemberDescriptor member)
+        {
+            MethodType type = member.type();
+            
+            return resolve(member, name ->
+            {
+                switch (member.kind())
+                {
+                    case METHOD: return lookup.findVirtual(owner, name, type);
+                    case STATIC_METHOD: return lookup.findStatic(owner, name, type);
+                    case CONSTRUCTOR: return lookup.findConstructor(owner, type);
+                    case FIELD: return lookup.findGetter(owner, name, type.returnType());
+                    case STATIC_FIELD: return lookup.findStaticGetter(owner, name, type.returnType());
+                    default: throw new IllegalStateException("Unknown kind: " + member.kind());
+                }
+            });
+        }
+        
+        private Optional<MethodHandle> resolveSetter(MemberDescriptor field)
+        {
+            Class<?> type = field.type().returnType();
+            boolean isInstance = field.kind() == MemberDescriptor.Kind.FIELD;
+            
+            // Final fields exist but have no setter, which isn't an access failure.
+            return resolve(field, name ->
+            {
+                VarHandle handle = (isInstance) ? lookup.findVarHandle(owner, name, type) : lookup.findStaticVarHandle(owner, name, type);
+                if (!handle.isAccessModeSupported(VarHandle.AccessMode.SET)) { return Optional.<MethodHandle>empty(); }
+                return Optional.of((isInstance) ? lookup.findSetter(owner, name, type) : lookup.findStaticSetter(owner, name, type));
+            }).flatMap(setter -> setter);
+        }
+        
+        private Optional<VarHandle> resolveVarHandle(MemberDescriptor field)
+        {
+            Class<?> type = field.type().returnType();
+            
+            return resolve(field, name ->
+                (field.kind() == MemberDescriptor.Kind.FIELD)
+                    ? lookup.findVarHandle(owner, name, type)
+                    : lookup.findStaticVarHandle(owner, name, type)
+            );
+        }
+        
+        private Optional<Object> resolveFunction(MemberDescriptor member, Class<?> function)
+        {
+            Method sam = singleAbstractMethod(function);
+            Optional<MethodHandle> resolved = handle(member);
+            if (resolved.isEmpty()) { return Optional.empty(); }
+            
+            MethodHandle impl = resolved.get();
+            MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+            
+            if (samType.parameterCount() != impl.type().parameterCount())
+            {
+                throw new IllegalArgumentException(
+                    "Member " + member + " takes " + impl.type().parameterCount() + " argument(s) but " +
+                    function.getName() + "." + sam.getName() + " takes " + samType.parameterCount()
+                );
+            }
+            
+            if (!member.kind().isField())
+            {
+                @NullOr Object spun = spin(sam, samType, impl, function);
+                if (spun != null) { return Optional.of(spun); }
+            }
+            
+            try { return Optional.of(MethodHandleProxies.asInterfaceInstance(function, impl)); }
+            catch (WrongMethodTypeException e) { throw new IllegalArgumentException("Incompatible member: " + member, e); }
+        }
+        
+        private @NullOr Object spin(Method sam, MethodType samType, MethodHandle impl, Class<?> function)
+        {
+            // Public members are spun next to this library (which can see the interface), others next to the
+            // owner, which requires full privilege access to the owner and the owner being able to see the interface.
+            MethodHandles.Lookup caller;
+            
+            try
+            {
+                MethodHandleInfo info = lookup.revealDirect(impl);
+                boolean isPublic = Modifier.isPublic(info.getModifiers()) && Modifier.isPublic(owner.getModifiers());
+                
+                boolean isFullAccess = (lookup.lookupModes() & FULL_ACCESS) == FULL_ACCESS;
+                
+                if (isPublic && isVisible(function, LOOKUP.lookupClass().getClassLoader())) { caller = LOOKUP; }
+                else if (isFullAccess && isVisible(function, owner.getClassLoader())) { caller = lookup; }
+                else { return null; }
+                
+                return LambdaMetafactory.metafactory(
+                    caller,
+                    sam.getName(),
+                    MethodType.methodType(function),
+                    samType,
+                    impl,
+                    instantiate(samType, impl.type())
+                ).getTarget().invoke();
+            }
+            catch (LambdaConversionException | IllegalArgumentException e)
+            {
+                return null;
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException("Could not spin " + function.getName() + " for " + impl, e);
+            }
+        }
+    }
+}
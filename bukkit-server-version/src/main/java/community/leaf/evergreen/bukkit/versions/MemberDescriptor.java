@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes a method, constructor, or field that may be named differently across versions.
+ *
+ * <p>Names are tried in order until one exists, so a description can list
+ * every name a member has had (for example: Spigot-mapped, Mojang-mapped, or
+ * obfuscated names) and resolve correctly on any of those versions.</p>
+ *
+ * @see MemberAccessors
+ */
+@SuppressWarnings("unused")
+public final class MemberDescriptor
+{
+    /**
+     * The kind of member being described.
+     */
+    public enum Kind
+    {
+        METHOD,
+        STATIC_METHOD,
+        CONSTRUCTOR,
+        FIELD,
+        STATIC_FIELD;
+        
+        /**
+         * Checks if this kind of member is a field.
+         *
+         * @return {@code true} if a field
+         */
+        public boolean isField() { return this == FIELD || this == STATIC_FIELD; }
+    }
+    
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    
+    private static List<String> names(String name, String ... fallbacks)
+    {
+        List<String> names = new ArrayList<>(fallbacks.length + 1);
+        names.add(Objects.requireNonNull(name, "name"));
+        for (String fallback : fallbacks) { names.add(Objects.requireNonNull(fallback, "fallback")); }
+        return Collections.unmodifiableList(names);
+    }
+    
+    /**
+     * Describes an instance method.
+     *
+     * @param type      method type (excluding the receiver)
+     * @param name      method name
+     * @param fallbacks fallback method names, in order
+     *
+     * @return a method description
+     */
+    public static MemberDescriptor method(MethodType type, String name, String ... fallbacks)
+    {
+        return new MemberDescriptor(Kind.METHOD, type, names(name, fallbacks));
+    }
+    
+    /**
+     * Describes a static method.
+     *
+     * @param type      method type
+     * @param name      method name
+     * @param fallbacks fallback method names, in order
+     *
+     * @return a static method description
+     */
+    public static MemberDescriptor staticMethod(MethodType type, String name, String ... fallbacks)
+    {
+        return new MemberDescriptor(Kind.STATIC_METHOD, type, names(name, fallbacks));
+    }
+    
+    /**
+     * Describes a constructor.
+     *
+     * @param parameterTypes    constructor parameter types
+     *
+     * @return a constructor description
+     */
+    public static MemberDescriptor constructor(Class<?> ... parameterTypes)
+    {
+        return new MemberDescriptor(Kind.CONSTRUCTOR, MethodType.methodType(void.class, parameterTypes), List.of(CONSTRUCTOR_NAME));
+    }
+    
+    /**
+     * Describes an instance field.
+     *
+     * @param type      field type
+     * @param name      field name
+     * @param fallbacks fallback field names, in order
+     *
+     * @return a field description
+     */
+    public static MemberDescriptor field(Class<?> type, String name, String ... fallbacks)
+    {
+        return new MemberDescriptor(Kind.FIELD, MethodType.methodType(type), names(name, fallbacks));
+    }
+    
+    /**
+     * Describes a static field.
+     *
+     * @param type      field type
+     * @param name      field name
+     * @param fallbacks fallback field names, in order
+     *
+     * @return a static field description
+     */
+    public static MemberDescriptor staticField(Class<?> type, String name, String ... fallbacks)
+    {
+        return new MemberDescriptor(Kind.STATIC_FIELD, MethodType.methodType(type), names(name, fallbacks));
+    }
+    
+    private final Kind kind;
+    private final MethodType type;
+    private final List<String> names;
+    
+    private MemberDescriptor(Kind kind, MethodType type, List<String> names)
+    {
+        this.kind = kind;
+        this.type = Objects.requireNonNull(type, "type");
+        this.names = names;
+    }
+    
+    /**
+     * Gets the kind of member.
+     *
+     * @return member kind
+     */
+    public Kind kind() { return kind; }
+    
+    /**
+     * Gets the member's type: the method type for methods and constructors,
+     * or a method type returning the field's type for fields.
+     *
+     * @return member type
+     */
+    public MethodType type() { return type; }
+    
+    /**
+     * Gets the names to try, in order.
+     *
+     * @return unmodifiable list of names
+     */
+    public List<String> names() { return names; }
+    
+    @Override
+    public boolean equals(@NullOr Object o)
+    {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        MemberDescriptor that = (MemberDescriptor) o;
+        return kind == that.kind && type.equals(that.type) && names.equals(that.names);
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return (31 * kind.hashCode() + type.hashCode()) * 31 + names.hashCode();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return kind + " " + String.join("|", names) + type;
+    }
+}
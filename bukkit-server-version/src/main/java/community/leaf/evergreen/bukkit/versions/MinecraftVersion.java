@@ -12,74 +12,438 @@ import pl.tlinkowski.annotation.basic.NullOr;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Represents a released version of Minecraft.
+ * Represents a version of Minecraft: a release, or a snapshot, pre-release,
+ * or release candidate leading up to one.
+ *
+ * <p>Versions are totally ordered. Every snapshot, pre-release, and
+ * release candidate of a release sorts after the previous release and
+ * before the release itself, in that order, like:
+ * {@code 1.20.4 < 24w14a < 1.20.5-pre1 < 1.20.5-rc1 < 1.20.5}.
+ * Weekly snapshots (like {@code 24w14a}) don't name their release, so
+ * they're placed from a bundled table of every weekly snapshot series.</p>
+ *
+ * <p>Every version, qualifier included, is packed into a single key
+ * (see {@link #packed()}), so comparing, sorting, and hashing snapshots
+ * and pre-releases is exactly as cheap as it is for releases.</p>
+ *
+ * <p>Comparisons with plain version numbers, like {@link #atLeast(int, int)},
+ * compare against the release with those numbers: {@code 1.21-pre1} is
+ * less than {@code 1, 21}.</p>
  */
 @SuppressWarnings("unused")
 public class MinecraftVersion implements Comparable<MinecraftVersion>
 {
-    private static final Pattern VERSION_PATTERN =
-        Pattern.compile("(?<major>\\d+)(\\.(?<minor>\\d+))?(\\.(?<patch>\\d+))?");
+    /**
+     * The largest value any single version number may hold.
+     */
+    public static final int MAX_COMPONENT = 0xFFFF;
+    
+    /**
+     * The largest number a snapshot, pre-release, or release candidate may have.
+     */
+    public static final int MAX_STAGE_NUMBER = 0x7FF;
+    
+    /**
+     * Stages of development leading up to (and including) a release, in order.
+     */
+    public enum Stage
+    {
+        /**
+         * A snapshot, like {@code 24w14a} or {@code 26.1-snapshot-1}.
+         */
+        SNAPSHOT(0x6000),
+        
+        /**
+         * A pre-release, like {@code 1.21-pre1}.
+         */
+        PRE_RELEASE(0x6800),
+        
+        /**
+         * A release candidate, like {@code 1.20.5-rc2}.
+         */
+        RELEASE_CANDIDATE(0x7000),
+        
+        /**
+         * A release, like {@code 1.20.5}.
+         */
+        RELEASE(0x7800);
+        
+        // The lowest qualifier of the stage: numbered stages add their number.
+        final int qualifier;
+        
+        Stage(int qualifier) { this.qualifier = qualifier; }
+    }
+    
+    private static final int COMPONENT_BITS = 16;
+    
+    // The qualifier is packed below the version numbers, so versions with equal numbers sort by qualifier:
+    // zero (the floor, before every version with those numbers), then weekly snapshots by ordinal,
+    // then numbered snapshots, pre-releases, and release candidates, and finally the release.
+    static final int QUALIFIER_BITS = 15;
+    static final long QUALIFIER_MASK = (1L << QUALIFIER_BITS) - 1;
+    static final int FLOOR = 0;
+    
+    private static final int PATCH_SHIFT = QUALIFIER_BITS;
+    private static final int MINOR_SHIFT = PATCH_SHIFT + COMPONENT_BITS;
+    private static final int MAJOR_SHIFT = MINOR_SHIFT + COMPONENT_BITS;
+    
+    private static final VersionInterner<MinecraftVersion> INTERNER = new VersionInterner<>(MinecraftVersion::new);
+    
+    // Resolved on first access rather than in a static initializer, so a failure can be retried.
+    private static final ServerVersionSeed<MinecraftVersion> SERVER_SEED = new ServerVersionSeed<>(MinecraftVersion.class);
+    
+    // Set once the seed holds the version, after which server() only reads the holder's constant.
+    // A plain field: threads that don't observe it yet just take the slower path through the seed.
+    private static boolean isServerKnown;
+    
+    // Lazy holder: only loaded once the seed holds the version, so its initializer can't fail.
+    // Its constant lets the JIT fold the server version into hot version checks.
+    static final class ServerHolder
+    {
+        static final MinecraftVersion SERVER = SERVER_SEED.known();
+    }
     
-    private static @NullOr MinecraftVersion SERVER;
+    private static MinecraftVersion resolveServer()
+    {
+        if (Bukkit.getServer() == null)
+        {
+            throw new IllegalStateException("Cannot resolve version: no server is available (seed it instead)");
+        }
+        
+        String bukkitVersion = Bukkit.getBukkitVersion();
+        long packed = VersionScanner.scanMinecraftVersion(bukkitVersion, 0, bukkitVersion.length());
+        if (packed < 0) { throw new IllegalStateException("Cannot resolve version: " + bukkitVersion); }
+        return INTERNER.intern(packed);
+    }
     
     /**
      * Gets the Minecraft game version of the server.
      *
+     * <p>The version is resolved once, on first access, and is safe to
+     * use from any thread (including async and region threads). Afterwards,
+     * this returns a constant, which the JIT can fold into hot version checks.
+     * Resolution happens on-demand, but can be triggered eagerly by calling
+     * this method when a plugin is enabled.</p>
+     *
+     * <p>A failure to resolve the version (for example, calling this without
+     * a running server) isn't remembered: a later call tries again. Use
+     * {@link #seedServer(MinecraftVersion)} beforehand to provide the version
+     * when there's no server to resolve it from.</p>
+     *
      * @return the server's game version
+     * @throws IllegalStateException if the version cannot be resolved
      */
     public static MinecraftVersion server()
     {
-        if (SERVER == null)
-        {
-            SERVER = parseMinecraftVersion(Bukkit.getBukkitVersion()).orElseThrow(() ->
-                new IllegalStateException("Cannot resolve version: " + Bukkit.getBukkitVersion())
-            );
-        }
-        return SERVER;
+        if (isServerKnown) { return ServerHolder.SERVER; }
+        
+        // Resolves (or fails) before the holder is loaded, so a failure is never part of its initialization.
+        SERVER_SEED.get(MinecraftVersion::resolveServer);
+        isServerKnown = true;
+        return ServerHolder.SERVER;
     }
     
-    static int intOrZero(@NullOr String input)
+    /**
+     * Seeds the Minecraft game version of the server, which is returned by
+     * {@link #server()} instead of resolving the version from the server.
+     * Seeding has to happen before the version is first accessed.
+     *
+     * @param version   the server's game version
+     *
+     * @throws IllegalStateException if a different version was already seeded or resolved
+     */
+    public static void seedServer(MinecraftVersion version)
     {
-        return (input == null) ? 0 : Integer.parseInt(input);
+        SERVER_SEED.seed(version);
     }
     
     /**
      * Parses the input text into a Minecraft version.
      *
-     * <p>A valid version is: {@code {major}.{minor}.{patch}}, like: {@code 1.18.1}.</p>
+     * <p>A valid version is: {@code {major}.{minor}.{patch}}, like: {@code 1.18.1},
+     * optionally followed by a snapshot, pre-release, or release candidate
+     * number, like: {@code 1.21-pre1}, {@code 1.20.5-rc2}, or {@code 26.1-snapshot-1}.
+     * Weekly snapshots, like {@code 24w14a}, are also valid. The first version
+     * found anywhere in the text is used, and omitted minor or patch version
+     * numbers default to zero.</p>
+     *
+     * <p>Parsing doesn't allocate: equal versions resolve to one shared,
+     * canonical instance held in a small bounded cache.</p>
+     *
+     * @param text  input text
+     *
+     * @return the parsed version if successful, otherwise empty
+     */
+    public static Optional<MinecraftVersion> parseMinecraftVersion(CharSequence text)
+    {
+        Objects.requireNonNull(text, "text");
+        
+        long packed = VersionScanner.scanMinecraftVersion(text, 0, text.length());
+        VersionMetrics.parsed(packed);
+        return (packed >= 0) ? INTERNER.optional(packed) : Optional.empty();
+    }
+    
+    /**
+     * Parses the input text into a Minecraft version, exactly like
+     * {@link #parseMinecraftVersion(CharSequence)}. Kept so code compiled against
+     * this {@code String} signature keeps linking.
      *
      * @param text  input text
      *
      * @return the parsed version if successful, otherwise empty
      */
     public static Optional<MinecraftVersion> parseMinecraftVersion(String text)
+    {
+        return parseMinecraftVersion((CharSequence) text);
+    }
+    
+    /**
+     * Parses the entire input text as a Minecraft version.
+     *
+     * <p>Unlike {@link #parseMinecraftVersion(CharSequence)}, the text must
+     * consist of nothing but the version, like: {@code 1.18.1}, {@code 1.18},
+     * {@code 1.21-pre1}, or {@code 24w14a}.
+     * This suits strictly validating configured versions rather than
+     * extracting versions from longer strings.</p>
+     *
+     * @param text  input text
+     *
+     * @return the parsed version if the entire text is a valid version, otherwise empty
+     */
+    public static Optional<MinecraftVersion> parseExactMinecraftVersion(CharSequence text)
     {
         Objects.requireNonNull(text, "text");
         
-        Matcher matcher = VERSION_PATTERN.matcher(text);
+        long packed = VersionScanner.scanExactMinecraftVersion(text, 0, text.length());
+        VersionMetrics.parsed(packed);
+        return (packed >= 0) ? INTERNER.optional(packed) : Optional.empty();
+    }
+    
+    static MinecraftVersion interned(long packed)
+    {
+        return INTERNER.intern(packed);
+    }
+    
+    /**
+     * Gets the version represented by a packed key, such as those
+     * produced by {@link #pack(int, int, int)}, {@link #pack(int, int, int, Stage, int)},
+     * or {@link BulkVersionParser}.
+     * Equal keys resolve to one shared, canonical instance.
+     *
+     * @param packed    packed version key
+     *
+     * @return the version
+     * @throws IllegalArgumentException if the key isn't a valid packed version
+     * @see #packed()
+     */
+    public static MinecraftVersion unpack(long packed)
+    {
+        if (!isPacked(packed)) { throw new IllegalArgumentException("Invalid packed version: " + packed); }
+        return INTERNER.intern(packed);
+    }
+    
+    // Checks if the key is a valid packed version, without unpacking it.
+    static boolean isPacked(long packed)
+    {
+        if (packed < 0) { return false; }
+        
+        int qualifier = qualifier(packed);
+        if (qualifier >= Stage.RELEASE.qualifier) { return qualifier == Stage.RELEASE.qualifier; }
+        if (qualifier >= Stage.SNAPSHOT.qualifier) { return (qualifier & MAX_STAGE_NUMBER) != 0; }
         
-        return (matcher.find())
-            ? Optional.of(new MinecraftVersion(
-                intOrZero(matcher.group("major")),
-                intOrZero(matcher.group("minor")),
-                intOrZero(matcher.group("patch"))
-            ))
-            : Optional.empty();
+        // Weekly snapshots are only valid before the release they lead up to.
+        return qualifier != FLOOR && WeeklySnapshots.release(qualifier) == release(packed);
     }
     
-    private static int onlyIfPositive(int number, String name)
+    static int qualifier(long packed) { return (int) (packed & QUALIFIER_MASK); }
+    
+    // The packed release with the same version numbers.
+    static long release(long packed) { return (packed & ~QUALIFIER_MASK) | Stage.RELEASE.qualifier; }
+    
+    // The key before every version with the same version numbers.
+    static long floor(long packed) { return packed & ~QUALIFIER_MASK; }
+    
+    private static int onlyIfInRange(int number, String name)
     {
         if (number < 0) { throw new IllegalArgumentException(name + " is negative: " + number); }
+        if (number > MAX_COMPONENT) { throw new IllegalArgumentException(name + " is too large: " + number); }
         return number;
     }
     
-    private final int major;
-    private final int minor;
-    private final int patch;
+    // Trusts that every number is in range and that the qualifier is valid.
+    static long packUnchecked(long major, long minor, long patch, int qualifier)
+    {
+        return (major << MAJOR_SHIFT) | (minor << MINOR_SHIFT) | (patch << PATCH_SHIFT) | qualifier;
+    }
+    
+    /**
+     * Packs the provided major, minor, and patch version numbers of a release into a single key.
+     * Packed keys sort exactly like their versions, so they can be compared with
+     * plain numeric operators and used as primitive map keys.
+     *
+     * @param major     major version number
+     * @param minor     minor version number
+     * @param patch     patch version number
+     *
+     * @return packed version key
+     * @throws IllegalArgumentException if any version number is negative or
+     *                                  greater than {@link #MAX_COMPONENT}
+     * @see #packed()
+     */
+    public static long pack(int major, int minor, int patch)
+    {
+        return packUnchecked(
+            onlyIfInRange(major, "major"),
+            onlyIfInRange(minor, "minor"),
+            onlyIfInRange(patch, "patch"),
+            Stage.RELEASE.qualifier
+        );
+    }
+    
+    /**
+     * Packs the provided version numbers and stage into a single key, like
+     * {@code pack(1, 21, 0, Stage.PRE_RELEASE, 1)} for {@code 1.21-pre1}.
+     * Snapshots packed this way are numbered, like {@code 26.1-snapshot-1}:
+     * weekly snapshots can only be {@link #parseMinecraftVersion(CharSequence) parsed}.
+     *
+     * @param major     major version number
+     * @param minor     minor version number
+     * @param patch     patch version number
+     * @param stage     the stage
+     * @param number    the snapshot, pre-release, or release candidate number, or zero for releases
+     *
+     * @return packed version key
+     * @throws IllegalArgumentException if any version number is negative or greater than
+     *                                  {@link #MAX_COMPONENT}, or if the stage number is out
+     *                                  of range (from one to {@link #MAX_STAGE_NUMBER}, or zero for releases)
+     * @see #packed()
+     */
+    public static long pack(int major, int minor, int patch, Stage stage, int number)
+    {
+        Objects.requireNonNull(stage, "stage");
+        
+        if (stage == Stage.RELEASE)
+        {
+            if (number != 0) { throw new IllegalArgumentException("Releases aren't numbered: " + number); }
+        }
+        else if (number < 1 || number > MAX_STAGE_NUMBER)
+        {
+            throw new IllegalArgumentException("Stage number is out of range: " + number);
+        }
+        
+        return packUnchecked(
+            onlyIfInRange(major, "major"),
+            onlyIfInRange(minor, "minor"),
+            onlyIfInRange(patch, "patch"),
+            stage.qualifier + number
+        );
+    }
+    
+    /**
+     * Packs the provided major and minor version numbers into a single key.
+     *
+     * @param major     major version number
+     * @param minor     minor version number
+     *
+     * @return packed version key
+     * @see #pack(int, int, int)
+     */
+    public static long pack(int major, int minor) { return pack(major, minor, 0); }
+    
+    /**
+     * Packs the provided major version number into a single key.
+     *
+     * @param major     major version number
+     *
+     * @return packed version key
+     * @see #pack(int, int, int)
+     */
+    public static long pack(int major) { return pack(major, 0, 0); }
+    
+    /**
+     * Extracts the major version number from a packed key.
+     *
+     * @param packed    packed version key
+     *
+     * @return major version number
+     */
+    public static int major(long packed) { return (int) (packed >>> MAJOR_SHIFT) & MAX_COMPONENT; }
+    
+    /**
+     * Extracts the minor version number from a packed key.
+     *
+     * @param packed    packed version key
+     *
+     * @return minor version number
+     */
+    public static int minor(long packed) { return (int) (packed >>> MINOR_SHIFT) & MAX_COMPONENT; }
+    
+    /**
+     * Extracts the patch version number from a packed key.
+     *
+     * @param packed    packed version key
+     *
+     * @return patch version number
+     */
+    public static int patch(long packed) { return (int) (packed >>> PATCH_SHIFT) & MAX_COMPONENT; }
+    
+    /**
+     * Extracts the stage from a packed key.
+     *
+     * @param packed    packed version key
+     *
+     * @return the stage
+     */
+    public static Stage stage(long packed)
+    {
+        int qualifier = qualifier(packed);
+        
+        if (qualifier >= Stage.RELEASE.qualifier) { return Stage.RELEASE; }
+        if (qualifier >= Stage.RELEASE_CANDIDATE.qualifier) { return Stage.RELEASE_CANDIDATE; }
+        return (qualifier >= Stage.PRE_RELEASE.qualifier) ? Stage.PRE_RELEASE : Stage.SNAPSHOT;
+    }
+    
+    /**
+     * Extracts the snapshot, pre-release, or release candidate number from a packed key.
+     *
+     * @param packed    packed version key
+     *
+     * @return the stage number, or zero for releases and weekly snapshots
+     */
+    public static int stageNumber(long packed)
+    {
+        int qualifier = qualifier(packed);
+        return (qualifier >= Stage.SNAPSHOT.qualifier && qualifier < Stage.RELEASE.qualifier) ? qualifier & MAX_STAGE_NUMBER : 0;
+    }
+    
+    /**
+     * Checks if a packed key is a release, rather than a snapshot, pre-release, or release candidate.
+     *
+     * @param packed    packed version key
+     *
+     * @return {@code true} if a release
+     */
+    public static boolean isRelease(long packed) { return qualifier(packed) == Stage.RELEASE.qualifier; }
+    
+    static String toString(long packed)
+    {
+        int qualifier = qualifier(packed);
+        if (qualifier > FLOOR && qualifier < Stage.SNAPSHOT.qualifier) { return WeeklySnapshots.name(qualifier); }
+        
+        String numbers = major(packed) + "." + minor(packed) + "." + patch(packed);
+        
+        switch (stage(packed))
+        {
+            case SNAPSHOT: return numbers + "-snapshot-" + stageNumber(packed);
+            case PRE_RELEASE: return numbers + "-pre" + stageNumber(packed);
+            case RELEASE_CANDIDATE: return numbers + "-rc" + stageNumber(packed);
+            default: return numbers;
+        }
+    }
+    
+    private final long packed;
     
     /**
      * Constructs.
@@ -87,12 +451,36 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      * @param major     major version number
      * @param minor     minor version number
      * @param patch     patch version number
+     *
+     * @throws IllegalArgumentException if any version number is negative or
+     *                                  greater than {@link #MAX_COMPONENT}
      */
     public MinecraftVersion(int major, int minor, int patch)
     {
-        this.major = onlyIfPositive(major, "major");
-        this.minor = onlyIfPositive(minor, "minor");
-        this.patch = onlyIfPositive(patch, "patch");
+        this.packed = pack(major, minor, patch);
+    }
+    
+    /**
+     * Constructs a snapshot, pre-release, release candidate, or release.
+     *
+     * @param major     major version number
+     * @param minor     minor version number
+     * @param patch     patch version number
+     * @param stage     the stage
+     * @param number    the snapshot, pre-release, or release candidate number, or zero for releases
+     *
+     * @throws IllegalArgumentException if any number is out of range
+     * @see #pack(int, int, int, Stage, int)
+     */
+    public MinecraftVersion(int major, int minor, int patch, Stage stage, int number)
+    {
+        this.packed = pack(major, minor, patch, stage, number);
+    }
+    
+    // Trusts that the packed key was already validated.
+    MinecraftVersion(long packed)
+    {
+        this.packed = packed;
     }
     
     /**
@@ -100,21 +488,59 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      *
      * @return major version number
      */
-    public int major() { return major; }
+    public int major() { return major(packed); }
     
     /**
      * Gets the minor version number.
      *
      * @return minor version number.
      */
-    public int minor() { return minor; }
+    public int minor() { return minor(packed); }
     
     /**
      * Gets the patch version number.
      *
      * @return patch version number.
      */
-    public int patch() { return patch; }
+    public int patch() { return patch(packed); }
+    
+    /**
+     * Gets the stage: snapshot, pre-release, release candidate, or release.
+     *
+     * @return the stage
+     */
+    public Stage stage() { return stage(packed); }
+    
+    /**
+     * Gets the snapshot, pre-release, or release candidate number,
+     * like {@code 2} for {@code 1.20.5-rc2}.
+     *
+     * @return the stage number, or zero for releases and weekly snapshots
+     */
+    public int stageNumber() { return stageNumber(packed); }
+    
+    /**
+     * Checks if this version is a release, rather than a snapshot, pre-release, or release candidate.
+     *
+     * @return {@code true} if a release
+     */
+    public boolean isRelease() { return isRelease(packed); }
+    
+    /**
+     * Gets the release this version leads up to: itself if it's a release,
+     * like {@code 1.21} for {@code 1.21-pre1}.
+     *
+     * @return the release
+     */
+    public MinecraftVersion release() { return (isRelease()) ? this : INTERNER.intern(release(packed)); }
+    
+    /**
+     * Gets this version packed into a single key.
+     *
+     * @return packed version key
+     * @see #pack(int, int, int)
+     */
+    public long packed() { return packed; }
     
     /**
      * Checks if this version is greater than the provided version.
@@ -123,7 +549,7 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      *
      * @return {@code true} if this version is greater than the provided version
      */
-    public boolean greaterThan(MinecraftVersion version) { return compareTo(version) > 0; }
+    public boolean greaterThan(MinecraftVersion version) { return packed > version.packed; }
     
     /**
      * Checks if this version is greater than the provided major version number.
@@ -162,7 +588,7 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      *
      * @return {@code true} if this version is at least the provided version
      */
-    public boolean atLeast(MinecraftVersion version) { return compareTo(version) >= 0; }
+    public boolean atLeast(MinecraftVersion version) { return packed >= version.packed; }
     
     /**
      * Checks if this version is greater than or equal to the provided major version number.
@@ -201,7 +627,7 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      *
      * @return {@code true} if this version is at most the provided version
      */
-    public boolean atMost(MinecraftVersion version) { return compareTo(version) <= 0; }
+    public boolean atMost(MinecraftVersion version) { return packed <= version.packed; }
     
     /**
      * Checks if this version is less than or equal to the provided major version number.
@@ -240,7 +666,7 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      *
      * @return {@code true} if this version is less than the provided version
      */
-    public boolean lessThan(MinecraftVersion version) { return compareTo(version) < 0; }
+    public boolean lessThan(MinecraftVersion version) { return packed < version.packed; }
     
     /**
      * Checks if this version is less than the provided major version number.
@@ -273,7 +699,11 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
     public boolean lessThan(int major, int minor, int patch) { return compareTo(major, minor, patch) < 0; }
     
     /**
-     * Compares this version with the provided major, minor, and patch version numbers.
+     * Compares this version with the release of the provided major, minor, and patch version
+     * numbers, so snapshots, pre-releases, and release candidates compare less than the release
+     * they lead up to ({@code 1.21-pre1} is less than {@code 1, 21, 0}). Version numbers outside
+     * the range of {@code 0} to {@link #MAX_COMPONENT} compare below or above every version with
+     * the numbers before them, so open-ended bounds like {@link Integer#MAX_VALUE} work as expected.
      *
      * @param major     major version number
      * @param minor     minor version number
@@ -284,25 +714,33 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
      */
     public int compareTo(int major, int minor, int patch)
     {
-        int diffMajor = this.major - major;
+        if (((major | minor | patch) & ~MAX_COMPONENT) == 0)
+        {
+            return Long.compare(packed, packUnchecked(major, minor, patch, Stage.RELEASE.qualifier));
+        }
+        
+        // Out of range numbers can't be packed (clamping them would make 65535 equal to 70000),
+        // but no version holds them, so they decide the comparison as soon as they're reached.
+        int diffMajor = Integer.compare(major(packed), major);
         if (diffMajor != 0) { return diffMajor; }
         
-        int diffMinor = this.minor - minor;
+        int diffMinor = Integer.compare(minor(packed), minor);
         if (diffMinor != 0) { return diffMinor; }
         
-        return this.patch - patch;
+        int diffPatch = Integer.compare(patch(packed), patch);
+        return (diffPatch != 0 || isRelease()) ? diffPatch : -1;
     }
     
     @Override
     public int compareTo(MinecraftVersion version)
     {
-        return compareTo(version.major, version.minor, version.patch);
+        return Long.compare(packed, version.packed);
     }
     
     @Override
     public String toString()
     {
-        return major + "." + minor + "." + patch;
+        return toString(packed);
     }
     
     @Override
@@ -311,12 +749,12 @@ public class MinecraftVersion implements Comparable<MinecraftVersion>
         if (this == o) { return true; }
         if (o == null || getClass() != o.getClass()) { return false; }
         MinecraftVersion that = (MinecraftVersion) o;
-        return major == that.major && minor == that.minor && patch == that.patch;
+        return packed == that.packed;
     }
     
     @Override
     public int hashCode()
     {
-        return Objects.hash(major, minor, patch);
+        return Long.hashCode(packed);
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+/**
+ * Whether a plugin loads on the server versions it's checked against,
+ * according to the {@code api-version} of its descriptor.
+ *
+ * <p>Servers since 1.13 refuse to load plugins declaring an
+ * {@code api-version} newer than themselves, and load plugins without an
+ * {@code api-version} in legacy mode. Older servers ignore it.</p>
+ *
+ * @see PluginJar#compatibility(VersionRange)
+ * @see PluginCompatibilityReport
+ */
+@SuppressWarnings("unused")
+public enum PluginCompatibility
+{
+    /**
+     * Loads on every version.
+     */
+    COMPATIBLE,
+    
+    /**
+     * Loads on every version, but without an {@code api-version}:
+     * in legacy mode on 1.13 and above.
+     */
+    LEGACY,
+    
+    /**
+     * Loads on some versions, but its {@code api-version} is too new for the others.
+     */
+    PARTIAL,
+    
+    /**
+     * Doesn't load on any version: its {@code api-version} is too new.
+     */
+    INCOMPATIBLE,
+    
+    /**
+     * Has an {@code api-version} that isn't a version.
+     */
+    UNKNOWN,
+    
+    /**
+     * Isn't a readable plugin jar: it's malformed or has no plugin descriptor.
+     */
+    UNREADABLE;
+    
+    /**
+     * Checks if this means the plugin loads on every version.
+     *
+     * @return {@code true} if {@link #COMPATIBLE} or {@link #LEGACY}
+     */
+    public boolean loads() { return this == COMPATIBLE || this == LEGACY; }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks every plugin jar in a directory, like a server's {@code plugins}
+ * folder, against a target server version or range of versions: for
+ * example, before upgrading or restarting a server.
+ *
+ * <p>Jars are {@link PluginJar#read(Path) read} concurrently, each by
+ * mapping it and decoding only its plugin descriptor. Jars that can't be
+ * read are reported as {@link PluginCompatibility#UNREADABLE unreadable}
+ * rather than failing the whole report.</p>
+ *
+ * <pre>{@code
+ * PluginCompatibilityReport report = PluginCompatibilityReport.scan(Path.of("plugins"), new MinecraftVersion(1, 20, 4));
+ *
+ * if (!report.loadsAll()) { System.out.println(report); }
+ * }</pre>
+ */
+@SuppressWarnings("unused")
+public final class PluginCompatibilityReport
+{
+    /**
+     * Checks every plugin jar in a directory against a server version,
+     * reading jars concurrently in the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param directory the directory containing plugin jars (not searched recursively)
+     * @param server    the target server version
+     *
+     * @return the report, ordered by file name
+     * @throws IOException if the directory cannot be listed
+     */
+    public static PluginCompatibilityReport scan(Path directory, MinecraftVersion server) throws IOException
+    {
+        return scan(directory, VersionRange.exactly(server), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Checks every plugin jar in a directory against a range of server versions,
+     * reading jars concurrently in the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param directory the directory containing plugin jars (not searched recursively)
+     * @param servers   the target server versions
+     *
+     * @return the report, ordered by file name
+     * @throws IOException if the directory cannot be listed
+     */
+    public static PluginCompatibilityReport scan(Path directory, VersionRange servers) throws IOException
+    {
+        return scan(directory, servers, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Checks every plugin jar in a directory against a range of server versions,
+     * reading jars concurrently in the provided pool.
+     *
+     * @param directory the directory containing plugin jars (not searched recursively)
+     * @param servers   the target server versions
+     * @param pool      the pool to read jars with
+     *
+     * @return the report, ordered by file name
+     * @throws IOException if the directory cannot be listed
+     */
+    public static PluginCompatibilityReport scan(Path directory, VersionRange servers, ForkJoinPool pool) throws IOException
+    {
+        Objects.requireNonNull(servers, "servers");
+        Objects.requireNonNull(pool, "pool");
+        
+        List<Path> jars = new ArrayList<>();
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.jar"))
+        {
+            for (Path file : files) { if (Files.isRegularFile(file)) { jars.add(file); } }
+        }
+        
+        jars.sort(Path::compareTo);
+        
+        Entry[] entries = new Entry[jars.size()];
+        
+        if (!jars.isEmpty())
+        {
+            pool.invoke(new BulkVersionParser.ChunkAction(0, entries.length, index -> entries[index] = Entry.read(jars.get(index), servers)));
+        }
+        
+        return new PluginCompatibilityReport(servers, List.of(entries));
+    }
+    
+    private final VersionRange servers;
+    private final List<Entry> entries;
+    
+    private PluginCompatibilityReport(VersionRange servers, List<Entry> entries)
+    {
+        this.servers = servers;
+        this.entries = entries;
+    }
+    
+    /**
+     * Gets the server versions plugins were checked against.
+     *
+     * @return the target server versions
+     */
+    public VersionRange servers() { return servers; }
+    
+    /**
+     * Gets every checked plugin jar.
+     *
+     * @return every entry, ordered by file name
+     */
+    public List<Entry> entries() { return entries; }
+    
+    /**
+     * Gets the checked plugin jars with a compatibility.
+     *
+     * @param compatibility the compatibility
+     *
+     * @return the matching entries, ordered by file name
+     */
+    public List<Entry> entries(PluginCompatibility compatibility)
+    {
+        List<Entry> matching = new ArrayList<>();
+        for (Entry entry : entries) { if (entry.compatibility == compatibility) { matching.add(entry); } }
+        return Collections.unmodifiableList(matching);
+    }
+    
+    /**
+     * Counts the checked plugin jars of each compatibility.
+     *
+     * @return counts of every compatibility (including zeros)
+     */
+    public Map<PluginCompatibility, Integer> counts()
+    {
+        Map<PluginCompatibility, Integer> counts = new EnumMap<>(PluginCompatibility.class);
+        for (PluginCompatibility compatibility : PluginCompatibility.values()) { counts.put(compatibility, 0); }
+        for (Entry entry : entries) { counts.merge(entry.compatibility, 1, Integer::sum); }
+        return Collections.unmodifiableMap(counts);
+    }
+    
+    /**
+     * Checks if every plugin loads on every target server version.
+     *
+     * @return {@code true} if every plugin {@link PluginCompatibility#loads() loads}
+     */
+    public boolean loadsAll()
+    {
+        for (Entry entry : entries) { if (!entry.compatibility.loads()) { return false; } }
+        return true;
+    }
+    
+    /**
+     * Formats the report: a summary line, followed by a line for every plugin jar.
+     *
+     * @return the formatted report
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder report = new StringBuilder("Plugin compatibility with ").append(servers).append(": ");
+        
+        boolean isFirst = true;
+        
+        for (Map.Entry<PluginCompatibility, Integer> count : counts().entrySet())
+        {
+            if (count.getValue() == 0) { continue; }
+            if (!isFirst) { report.append(", "); }
+            report.append(count.getValue()).append(' ').append(count.getKey());
+            isFirst = false;
+        }
+        
+        if (isFirst) { report.append("no plugins"); }
+        for (Entry entry : entries) { report.append(System.lineSeparator()).append("  ").append(entry); }
+        return report.toString();
+    }
+    
+    /**
+     * A checked plugin jar.
+     */
+    public static final class Entry
+    {
+        private static Entry read(Path path, VersionRange servers)
+        {
+            try
+            {
+                PluginJar plugin = PluginJar.read(path);
+                return new Entry(path, plugin, null, plugin.compatibility(servers));
+            }
+            catch (IOException e)
+            {
+                return new Entry(path, null, e, PluginCompatibility.UNREADABLE);
+            }
+        }
+        
+        private final Path path;
+        private final @NullOr PluginJar plugin;
+        private final @NullOr IOException error;
+        private final PluginCompatibility compatibility;
+        
+        private Entry(Path path, @NullOr PluginJar plugin, @NullOr IOException error, PluginCompatibility compatibility)
+        {
+            this.path = path;
+            this.plugin = plugin;
+            this.error = error;
+            this.compatibility = compatibility;
+        }
+        
+        /**
+         * Gets the path of the plugin jar.
+         *
+         * @return the jar's path
+         */
+        public Path path() { return path; }
+        
+        /**
+         * Gets the plugin jar's descriptor.
+         *
+         * @return the descriptor if the jar could be read, otherwise empty
+         */
+        public Optional<PluginJar> plugin() { return Optional.ofNullable(plugin); }
+        
+        /**
+         * Gets the error reading the plugin jar.
+         *
+         * @return the error if the jar couldn't be read, otherwise empty
+         */
+        public Optional<IOException> error() { return Optional.ofNullable(error); }
+        
+        /**
+         * Gets the plugin's compatibility with the target server versions.
+         *
+         * @return the plugin's compatibility
+         */
+        public PluginCompatibility compatibility() { return compatibility; }
+        
+        @Override
+        public String toString()
+        {
+            StringBuilder entry = new StringBuilder().append(compatibility).append(": ").append(path.getFileName());
+            
+            if (error != null) { return entry.append(" (").append(error.getMessage()).append(")").toString(); }
+            if (plugin == null || plugin.descriptor().isEmpty()) { return entry.append(" (no plugin descriptor)").toString(); }
+            
+            entry.append(" (").append(plugin.name().orElse("?"));
+            plugin.version().ifPresent(version -> entry.append(' ').append(version));
+            entry.append(", api-version: ").append(plugin.apiVersionText().orElse("none")).append(")");
+            return entry.toString();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The descriptor of a plugin jar, read without loading the plugin:
+ * for offline tooling, like checking every plugin before upgrading a server.
+ *
+ * <p>Like {@link ServerJar}, the jar is memory-mapped and its ZIP central
+ * directory is read in place: only the plugin descriptor is ever decoded.
+ * Only its top-level {@code name}, {@code version}, and {@code api-version}
+ * are read, without parsing the rest of the YAML.</p>
+ *
+ * @see PluginCompatibilityReport
+ */
+@SuppressWarnings("unused")
+public final class PluginJar
+{
+    /**
+     * Plugin descriptor files.
+     */
+    public enum Descriptor
+    {
+        /**
+         * A Bukkit plugin's {@code plugin.yml}.
+         */
+        PLUGIN_YML("plugin.yml"),
+        
+        /**
+         * A Paper plugin's {@code paper-plugin.yml}, which Paper loads instead of any {@code plugin.yml}.
+         */
+        PAPER_PLUGIN_YML("paper-plugin.yml");
+        
+        private final String fileName;
+        private final byte[] name;
+        
+        Descriptor(String fileName)
+        {
+            this.fileName = fileName;
+            this.name = ZipDirectory.ascii(fileName);
+        }
+        
+        /**
+         * Gets the descriptor's file name, at the root of the jar.
+         *
+         * @return the file name
+         */
+        public String fileName() { return fileName; }
+    }
+    
+    // Descriptors are decoded whole: they're tiny, anything larger is malformed.
+    private static final int MAX_DECODED_SIZE = 1 << 20;
+    
+    // Servers before 1.13 ignore api-version entirely.
+    private static final long API_VERSIONS_SINCE = MinecraftVersion.pack(1, 13);
+    
+    private static final VersionRange API_VERSIONS_CHECKED = VersionRange.of(API_VERSIONS_SINCE, VersionRangeMap.UNBOUNDED_END);
+    
+    private static final byte[] NAME_KEY = ZipDirectory.ascii("name");
+    private static final byte[] VERSION_KEY = ZipDirectory.ascii("version");
+    private static final byte[] API_VERSION_KEY = ZipDirectory.ascii("api-version");
+    
+    /**
+     * Reads the descriptor of a plugin jar.
+     *
+     * @param jar   the plugin jar
+     *
+     * @return the plugin jar's descriptor
+     * @throws IOException  if the jar cannot be read or isn't a valid ZIP file
+     */
+    public static PluginJar read(Path jar) throws IOException
+    {
+        Objects.requireNonNull(jar, "jar");
+        
+        ByteBuffer zip = ZipDirectory.map(jar);
+        byte[][] found = new byte[Descriptor.values().length][];
+        
+        ZipDirectory.forEachEntry(zip, (entry, name, nameLength) ->
+        {
+            for (Descriptor descriptor : Descriptor.values())
+            {
+                if (found[descriptor.ordinal()] == null && ZipDirectory.equals(zip, name, nameLength, descriptor.name))
+                {
+                    found[descriptor.ordinal()] = ZipDirectory.decode(zip, entry, MAX_DECODED_SIZE);
+                }
+            }
+            
+            return found[Descriptor.PAPER_PLUGIN_YML.ordinal()] == null;
+        });
+        
+        @NullOr Descriptor descriptor = null;
+        @NullOr byte[] yaml = null;
+        
+        // Paper plugins take precedence, as they do on Paper.
+        for (int i = found.length - 1; i >= 0 && yaml == null; i--)
+        {
+            descriptor = Descriptor.values()[i];
+            yaml = found[i];
+        }
+        
+        if (yaml == null) { return new PluginJar(jar, null, null, null, null, null); }
+        
+        @NullOr String name = Yaml.string(yaml, NAME_KEY);
+        @NullOr String version = Yaml.string(yaml, VERSION_KEY);
+        @NullOr String apiVersionText = Yaml.string(yaml, API_VERSION_KEY);
+        @NullOr MinecraftVersion apiVersion = null;
+        
+        if (apiVersionText != null)
+        {
+            int[] value = Objects.requireNonNull(Yaml.value(yaml, API_VERSION_KEY));
+            long packed = VersionScanner.scanMinecraftVersion(ByteBuffer.wrap(yaml), value[0], value[1]);
+            VersionMetrics.parsed(packed);
+            if (packed >= 0) { apiVersion = MinecraftVersion.interned(packed); }
+        }
+        
+        return new PluginJar(jar, descriptor, name, version, apiVersionText, apiVersion);
+    }
+    
+    private final Path path;
+    private final @NullOr Descriptor descriptor;
+    private final @NullOr String name;
+    private final @NullOr String version;
+    private final @NullOr String apiVersionText;
+    private final @NullOr MinecraftVersion apiVersion;
+    
+    private PluginJar(
+        Path path,
+        @NullOr Descriptor descriptor,
+        @NullOr String name,
+        @NullOr String version,
+        @NullOr String apiVersionText,
+        @NullOr MinecraftVersion apiVersion
+    )
+    {
+        this.path = path;
+        this.descriptor = descriptor;
+        this.name = name;
+        this.version = version;
+        this.apiVersionText = apiVersionText;
+        this.apiVersion = apiVersion;
+    }
+    
+    /**
+     * Gets the path of the plugin jar.
+     *
+     * @return the jar's path
+     */
+    public Path path() { return path; }
+    
+    /**
+     * Gets the plugin descriptor that was read, preferring
+     * {@code paper-plugin.yml} over {@code plugin.yml}.
+     *
+     * @return the descriptor if the jar has one, otherwise empty
+     */
+    public Optional<Descriptor> descriptor() { return Optional.ofNullable(descriptor); }
+    
+    /**
+     * Gets the plugin's name.
+     *
+     * @return the name if declared, otherwise empty
+     */
+    public Optional<String> name() { return Optional.ofNullable(name); }
+    
+    /**
+     * Gets the plugin's own version.
+     *
+     * @return the plugin's version if declared, otherwise empty
+     */
+    public Optional<String> version() { return Optional.ofNullable(version); }
+    
+    /**
+     * Gets the {@code api-version} exactly as declared.
+     *
+     * @return the declared {@code api-version} if any, otherwise empty
+     */
+    public Optional<String> apiVersionText() { return Optional.ofNullable(apiVersionText); }
+    
+    /**
+     * Gets the {@code api-version}: the oldest server version the plugin loads on.
+     *
+     * @return the {@code api-version} if declared and valid, otherwise empty
+     */
+    public Optional<MinecraftVersion> apiVersion() { return Optional.ofNullable(apiVersion); }
+    
+    /**
+     * Checks if the plugin loads on a server version.
+     *
+     * @param server    the server version
+     *
+     * @return the plugin's compatibility with the version
+     */
+    public PluginCompatibility compatibility(MinecraftVersion server)
+    {
+        return compatibility(VersionRange.exactly(server));
+    }
+    
+    /**
+     * Checks if the plugin loads on a range of server versions.
+     *
+     * @param servers   the server versions
+     *
+     * @return the plugin's compatibility with the versions
+     */
+    public PluginCompatibility compatibility(VersionRange servers)
+    {
+        if (descriptor == null) { return PluginCompatibility.UNREADABLE; }
+        
+        if (apiVersionText == null)
+        {
+            return (servers.intersects(API_VERSIONS_CHECKED)) ? PluginCompatibility.LEGACY : PluginCompatibility.COMPATIBLE;
+        }
+        
+        if (apiVersion == null) { return PluginCompatibility.UNKNOWN; }
+        if (apiVersion.packed() <= API_VERSIONS_SINCE) { return PluginCompatibility.COMPATIBLE; }
+        
+        // Checked, but too old for the api-version.
+        VersionRange rejecting = VersionRange.of(API_VERSIONS_SINCE, apiVersion.packed());
+        
+        if (!rejecting.intersects(servers)) { return PluginCompatibility.COMPATIBLE; }
+        return (rejecting.encloses(servers)) ? PluginCompatibility.INCOMPATIBLE : PluginCompatibility.PARTIAL;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "PluginJar{path=" + path + ", descriptor=" + descriptor + ", name=" + name +
+            ", version=" + version + ", apiVersion=" + apiVersionText + "}";
+    }
+    
+    // Just enough YAML to read top-level scalar values from plugin descriptors.
+    private static final class Yaml
+    {
+        private static boolean isBlank(byte b) { return b == ' ' || b == '\t' || b == '\r'; }
+        
+        // The start and end of a top-level key's value, without quotes or a trailing comment.
+        static int @NullOr [] value(byte[] yaml, byte[] key)
+        {
+            // Skips a byte order mark.
+            int line = (yaml.length >= 3 && yaml[0] == (byte) 0xEF && yaml[1] == (byte) 0xBB && yaml[2] == (byte) 0xBF) ? 3 : 0;
+            
+            for (; line < yaml.length; line++)
+            {
+                int lineEnd = line;
+                while (lineEnd < yaml.length && yaml[lineEnd] != '\n') { lineEnd++; }
+                
+                int index = line;
+                line = lineEnd;
+                
+                if (lineEnd - index <= key.length || !matches(yaml, index, key)) { continue; }
+                
+                index += key.length;
+                while (index < lineEnd && isBlank(yaml[index])) { index++; }
+                if (index >= lineEnd || yaml[index] != ':') { continue; }
+                
+                int start = index + 1;
+                while (start < lineEnd && isBlank(yaml[start])) { start++; }
+                
+                if (start < lineEnd && (yaml[start] == '"' || yaml[start] == '\''))
+                {
+                    int end = start + 1;
+                    while (end < lineEnd && yaml[end] != yaml[start]) { end++; }
+                    return new int[] { start + 1, end };
+                }
+                
+                int end = start;
+                while (end < lineEnd && !(yaml[end] == '#' && end > start && isBlank(yaml[end - 1]))) { end++; }
+                while (end > start && isBlank(yaml[end - 1])) { end--; }
+                return new int[] { start, end };
+            }
+            
+            return null;
+        }
+        
+        private static boolean matches(byte[] yaml, int index, byte[] key)
+        {
+            for (int i = 0; i < key.length; i++) { if (yaml[index + i] != key[i]) { return false; } }
+            return true;
+        }
+        
+        static @NullOr String string(byte[] yaml, byte[] key)
+        {
+            int @NullOr [] value = value(yaml, key);
+            return (value == null) ? null : new String(yaml, value[0], value[1] - value[0], StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+/**
+ * A table of network protocol versions and the Minecraft versions using them.
+ *
+ * <p>Looking up the version of a protocol is a single array access
+ * into a dense table indexed by protocol number, and returns results
+ * built when the table was loaded: nothing is allocated per lookup,
+ * so it's suitable for per-connection code. Looking up the protocol
+ * of a version is a binary search: {@code O(log n)}.</p>
+ *
+ * <p>Releases sharing a protocol (like 1.20.3 and 1.20.4) all map to
+ * that protocol, while the protocol maps to the newest of them.
+ * Snapshot protocols ({@link #SNAPSHOT_PROTOCOL_BASE} and above) map to
+ * the snapshot, pre-release, or release candidate using them.</p>
+ *
+ * <p>A table is bundled with this library (see {@link #bundled()}), and
+ * newer tables in the same format can be loaded with {@link #load(Reader)}.
+ * The bundled table covers every release since 1.7.2, but only the few
+ * snapshot protocols it can name exactly: other snapshot protocols are
+ * unknown unless a table listing them is loaded.</p>
+ */
+@SuppressWarnings("unused")
+public final class ProtocolVersions
+{
+    /**
+     * Returned by primitive lookups for unknown protocols.
+     */
+    public static final int UNKNOWN_PROTOCOL = -1;
+    
+    /**
+     * Returned by primitive lookups for unknown versions.
+     */
+    public static final long UNKNOWN_VERSION = -1;
+    
+    /**
+     * Snapshot protocol numbers are this base plus the snapshot's number.
+     */
+    public static final int SNAPSHOT_PROTOCOL_BASE = 0x40000000;
+    
+    /**
+     * The largest protocol (or snapshot) number a table may contain,
+     * which bounds the size of its dense lookup arrays.
+     */
+    public static final int MAX_PROTOCOL = 0xFFFF;
+    
+    /**
+     * The table format version this class reads.
+     */
+    static final int FORMAT = 1;
+    
+    private static final String BUNDLED_RESOURCE = "protocol-versions.txt";
+    
+    // Lazy holder: the JVM loads it exactly once, on first access, safely published to every thread.
+    private static final class Bundled
+    {
+        static final ProtocolVersions TABLE = loadBundled();
+    }
+    
+    private static ProtocolVersions loadBundled()
+    {
+        @NullOr InputStream resource = ProtocolVersions.class.getResourceAsStream(BUNDLED_RESOURCE);
+        if (resource == null) { throw new IllegalStateException("Missing bundled resource: " + BUNDLED_RESOURCE); }
+        
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8))
+        {
+            return load(reader);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not read bundled resource: " + BUNDLED_RESOURCE, e);
+        }
+    }
+    
+    /**
+     * Gets the protocol table bundled with this library, which is loaded once on first access.
+     * It lists releases since 1.7.2 and only the 1.16.4 pre-release and release candidate
+     * snapshot protocols.
+     *
+     * @return the bundled protocol table
+     */
+    public static ProtocolVersions bundled()
+    {
+        return Bundled.TABLE;
+    }
+    
+    private static IllegalArgumentException malformed(int lineNumber, String line, String reason)
+    {
+        return new IllegalArgumentException("Malformed protocol table (line " + lineNumber + ": \"" + line + "\"): " + reason);
+    }
+    
+    private static int protocolNumber(int lineNumber, String line, String text)
+    {
+        int number;
+        
+        try { number = Integer.parseInt(text); }
+        catch (NumberFormatException e) { throw malformed(lineNumber, line, "invalid number: " + text); }
+        
+        if (number < 0 || number > MAX_PROTOCOL) { throw malformed(lineNumber, line, "number out of range: " + text); }
+        return number;
+    }
+    
+    private static long packedVersion(int lineNumber, String line, String text)
+    {
+        long packed = VersionScanner.scanExactMinecraftVersion(text, 0, text.length());
+        if (packed < 0) { throw malformed(lineNumber, line, "invalid version: " + text); }
+        return packed;
+    }
+    
+    /**
+     * Loads a protocol table.
+     *
+     * <p>The table is line-based: blank lines and lines starting with
+     * {@code #} are ignored, the first line must be {@code format 1},
+     * and every other line is either {@code {protocol} {version}} for a
+     * release or {@code snapshot {number} {version}} for a snapshot,
+     * pre-release, or release candidate. Snapshot numbers may also be a
+     * range, {@code {first}-{last}}, of numbers sharing a version.</p>
+     *
+     * @param reader    reads the table
+     *
+     * @return the loaded table
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the table is malformed
+     */
+    public static ProtocolVersions load(Reader reader) throws IOException
+    {
+        TreeMap<Long, Integer> protocolsByVersion = new TreeMap<>();
+        long[] snapshots = new long[MAX_PROTOCOL + 1];
+        Arrays.fill(snapshots, UNKNOWN_VERSION);
+        
+        int maxSnapshot = -1;
+        boolean isFormatKnown = false;
+        int lineNumber = 0;
+        
+        BufferedReader lines = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+        
+        for (@NullOr String line = lines.readLine(); line != null; line = lines.readLine())
+        {
+            lineNumber++;
+            
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) { continue; }
+            
+            String[] parts = trimmed.split("\\s+");
+            
+            if (!isFormatKnown)
+            {
+                if (parts.length != 2 || !parts[0].equals("format") || !parts[1].equals(String.valueOf(FORMAT)))
+                {
+                    throw malformed(lineNumber, line, "expected: format " + FORMAT);
+                }
+                isFormatKnown = true;
+            }
+            else if (parts[0].equals("snapshot"))
+            {
+                if (parts.length != 3) { throw malformed(lineNumber, line, "expected: snapshot {number} {version}"); }
+                
+                int dash = parts[1].indexOf('-');
+                int first = protocolNumber(lineNumber, line, (dash < 0) ? parts[1] : parts[1].substring(0, dash));
+                int last = (dash < 0) ? first : protocolNumber(lineNumber, line, parts[1].substring(dash + 1));
+                long packed = packedVersion(lineNumber, line, parts[2]);
+                
+                if (first > last) { throw malformed(lineNumber, line, "empty range: " + parts[1]); }
+                
+                for (int snapshot = first; snapshot <= last; snapshot++)
+                {
+                    if (snapshots[snapshot] != UNKNOWN_VERSION) { throw malformed(lineNumber, line, "duplicate snapshot: " + snapshot); }
+                    snapshots[snapshot] = packed;
+                }
+                
+                maxSnapshot = Math.max(maxSnapshot, last);
+            }
+            else
+            {
+                if (parts.length != 2) { throw malformed(lineNumber, line, "expected: {protocol} {version}"); }
+                
+                int protocol = protocolNumber(lineNumber, line, parts[0]);
+                long packed = packedVersion(lineNumber, line, parts[1]);
+                
+                if (protocolsByVersion.put(packed, protocol) != null)
+                {
+                    throw malformed(lineNumber, line, "duplicate version: " + parts[1]);
+                }
+            }
+        }
+        
+        if (!isFormatKnown) { throw new IllegalArgumentException("Malformed protocol table: empty"); }
+        
+        return new ProtocolVersions(protocolsByVersion, Arrays.copyOf(snapshots, maxSnapshot + 1));
+    }
+    
+    private static Optional<MinecraftVersion>[] optionals(long[] packed)
+    {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<MinecraftVersion>[] optionals = new Optional[packed.length];
+        
+        for (int i = 0; i < packed.length; i++)
+        {
+            optionals[i] = (packed[i] == UNKNOWN_VERSION) ? Optional.empty() : Optional.of(MinecraftVersion.interned(packed[i]));
+        }
+        
+        return optionals;
+    }
+    
+    // Sorted by version, for reverse lookups.
+    private final long[] versions;
+    private final int[] protocols;
+    
+    // Dense, indexed by protocol (or snapshot) number.
+    private final long[] releasesByProtocol;
+    private final long[] snapshotsByNumber;
+    private final Optional<MinecraftVersion>[] releaseOptionals;
+    private final Optional<MinecraftVersion>[] snapshotOptionals;
+    
+    private ProtocolVersions(TreeMap<Long, Integer> protocolsByVersion, long[] snapshotsByNumber)
+    {
+        this.versions = protocolsByVersion.keySet().stream().mapToLong(Long::longValue).toArray();
+        this.protocols = protocolsByVersion.values().stream().mapToInt(Integer::intValue).toArray();
+        
+        int maxProtocol = Arrays.stream(protocols).max().orElse(-1);
+        this.releasesByProtocol = new long[maxProtocol + 1];
+        Arrays.fill(releasesByProtocol, UNKNOWN_VERSION);
+        
+        // Versions are ascending, so the newest version sharing a protocol is written last.
+        for (int i = 0; i < versions.length; i++) { releasesByProtocol[protocols[i]] = versions[i]; }
+        
+        this.snapshotsByNumber = snapshotsByNumber;
+        this.releaseOptionals = optionals(releasesByProtocol);
+        this.snapshotOptionals = optionals(snapshotsByNumber);
+    }
+    
+    /**
+     * Checks if the protocol number is a snapshot protocol.
+     *
+     * @param protocol  protocol number
+     *
+     * @return {@code true} if a snapshot protocol
+     */
+    public static boolean isSnapshot(int protocol)
+    {
+        return (protocol & SNAPSHOT_PROTOCOL_BASE) != 0 && protocol > 0;
+    }
+    
+    /**
+     * Gets the packed version of the protocol without allocating.
+     *
+     * @param protocol  protocol number
+     *
+     * @return packed version key, or {@link #UNKNOWN_VERSION} if the protocol is unknown
+     * @see MinecraftVersion#unpack(long)
+     */
+    public long packedVersion(int protocol)
+    {
+        if (isSnapshot(protocol))
+        {
+            int number = protocol - SNAPSHOT_PROTOCOL_BASE;
+            return (number < snapshotsByNumber.length) ? snapshotsByNumber[number] : UNKNOWN_VERSION;
+        }
+        
+        return (protocol >= 0 && protocol < releasesByProtocol.length) ? releasesByProtocol[protocol] : UNKNOWN_VERSION;
+    }
+    
+    /**
+     * Gets the newest version using the protocol, which for snapshot
+     * protocols is a snapshot, pre-release, or release candidate.
+     * Lookups never allocate.
+     *
+     * @param protocol  protocol number
+     *
+     * @return the version if the protocol is known, otherwise empty
+     */
+    public Optional<MinecraftVersion> version(int protocol)
+    {
+        if (isSnapshot(protocol))
+        {
+            int number = protocol - SNAPSHOT_PROTOCOL_BASE;
+            return (number < snapshotOptionals.length) ? snapshotOptionals[number] : Optional.empty();
+        }
+        
+        return (protocol >= 0 && protocol < releaseOptionals.length) ? releaseOptionals[protocol] : Optional.empty();
+    }
+    
+    /**
+     * Gets the protocol number of a release version without allocating.
+     *
+     * @param version   the version
+     *
+     * @return the protocol number, or {@link #UNKNOWN_PROTOCOL} if the version is unknown
+     */
+    public int protocol(MinecraftVersion version)
+    {
+        Objects.requireNonNull(version, "version");
+        
+        int index = Arrays.binarySearch(versions, version.packed());
+        return (index >= 0) ? protocols[index] : UNKNOWN_PROTOCOL;
+    }
+    
+    /**
+     * Gets the protocol number of a release version.
+     *
+     * @param version   the version
+     *
+     * @return the protocol number if the version is known, otherwise empty
+     */
+    public OptionalInt findProtocol(MinecraftVersion version)
+    {
+        int protocol = protocol(version);
+        return (protocol == UNKNOWN_PROTOCOL) ? OptionalInt.empty() : OptionalInt.of(protocol);
+    }
+    
+    // Every release version, sorted ascending: not copied, so don't modify.
+    long[] packedReleases() { return versions; }
+    
+    /**
+     * Gets the number of release versions in the table.
+     *
+     * @return number of release versions
+     */
+    public int size() { return versions.length; }
+    
+    /**
+     * Gets the newest release version in the table.
+     *
+     * @return the newest release, if any
+     */
+    public Optional<MinecraftVersion> newestRelease()
+    {
+        return (versions.length > 0)
+            ? Optional.of(MinecraftVersion.interned(versions[versions.length - 1]))
+            : Optional.empty();
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ProtocolVersions{releases=" + versions.length + ", snapshots=" +
+            Arrays.stream(snapshotsByNumber).filter(packed -> packed != UNKNOWN_VERSION).count() + "}";
+    }
+}
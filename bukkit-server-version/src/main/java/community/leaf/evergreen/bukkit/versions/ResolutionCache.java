@@ -0,0 +1,490 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.bukkit.Bukkit;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An on-disk record of which versioned class and member names resolved,
+ * and which didn't, reused across server restarts.
+ *
+ * <p>While {@link #install(ResolutionCache) installed}, class lookups
+ * (like {@link CraftBukkitVersion#findCraftBukkitClass(String)}) and
+ * {@link MemberAccessors member lookups} skip names already known to be
+ * missing, going straight to the names known to resolve. Known names are
+ * still loaded normally; only failed attempts are avoided.</p>
+ *
+ * <p>The cache file is a compact sorted table, read once when opened and
+ * searched in place. It isn't memory-mapped, so saving can replace the file
+ * while it's open (which a mapping would prevent on Windows). It's keyed by the server's {@link CraftBukkitVersion}
+ * and a fingerprint of the server jar, so it's invalidated automatically
+ * whenever the server is updated. For the same reason, it only records
+ * lookups of the server's own classes (and the JDK's): a plugin's classes
+ * can change while the server jar doesn't.</p>
+ *
+ * <pre>{@code
+ * ResolutionCache.install(ResolutionCache.forServer(getDataFolder().toPath().resolve("resolutions.bin")));
+ * // ... resolve classes and members ...
+ * ResolutionCache.installed().ifPresent(ResolutionCache::saveQuietly);
+ * }</pre>
+ */
+@SuppressWarnings("unused")
+public final class ResolutionCache
+{
+    /**
+     * The current file format, which is part of the file header.
+     */
+    public static final int FORMAT = 2;
+    
+    private static final int MAGIC = 0x45565243; // "EVRC"
+    
+    // Magic, format, packed version, relocation, fingerprint, entry count.
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES + 1 + Long.BYTES + Integer.BYTES;
+    
+    // The ZIP central directory, listing every entry's size and checksum, is at the end of a jar.
+    private static final int FINGERPRINT_TAIL_SIZE = 64 * 1024;
+    
+    private static final byte FOUND = 1;
+    
+    private static final byte MISSING = 0;
+    
+    private static final byte UNKNOWN = -1;
+    
+    private static final Table NO_ENTRIES = new Table(ByteBuffer.allocate(0), 0);
+    
+    private static volatile @NullOr ResolutionCache installed;
+    
+    /**
+     * Installs a cache, which all subsequent class and member lookups consult and update.
+     * Lookups that were already cached in memory aren't affected.
+     *
+     * @param cache     the cache to install
+     */
+    public static void install(ResolutionCache cache)
+    {
+        installed = Objects.requireNonNull(cache, "cache");
+    }
+    
+    /**
+     * Uninstalls the currently installed cache, if any.
+     */
+    public static void uninstall()
+    {
+        installed = null;
+    }
+    
+    /**
+     * Gets the currently installed cache.
+     *
+     * @return the installed cache if any, otherwise empty
+     */
+    public static Optional<ResolutionCache> installed()
+    {
+        return Optional.ofNullable(installed);
+    }
+    
+    static @NullOr ResolutionCache installedOrNull() { return installed; }
+    
+    static String classKey(String className) { return "c:" + className; }
+    
+    static String memberKey(Class<?> owner, MemberDescriptor.Kind kind, String name, String descriptor)
+    {
+        return "m:" + owner.getName() + "#" + kind + ":" + name + descriptor;
+    }
+    
+    /**
+     * Fingerprints a file from its size, modification time,
+     * and the contents of its end (a jar's central directory).
+     *
+     * @param file  the file
+     *
+     * @return the file's fingerprint
+     * @throws IOException if the file cannot be read
+     */
+    static long fingerprint(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            int tail = (int) Math.min(size, FINGERPRINT_TAIL_SIZE);
+            ByteBuffer bytes = ByteBuffer.allocate(tail);
+            
+            while (bytes.hasRemaining() && channel.read(bytes, size - tail + bytes.position()) >= 0) {}
+            
+            // FNV-1a (64-bit).
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < tail; i++) { hash = (hash ^ (bytes.get(i) & 0xFF)) * 0x100000001b3L; }
+            
+            hash = (hash ^ size) * 0x100000001b3L;
+            return (hash ^ Files.getLastModifiedTime(file).toMillis()) * 0x100000001b3L;
+        }
+    }
+    
+    private static ClassLoader serverLoader()
+    {
+        return (Bukkit.getServer() != null) ? Bukkit.getServer().getClass().getClassLoader() : ClassLoader.getSystemClassLoader();
+    }
+    
+    /**
+     * Opens the cache file for a server version and server jar, recording
+     * lookups of classes loaded by the running server's class loader (or
+     * the system class loader without a server).
+     *
+     * @param file          the cache file
+     * @param version       the server's internal version
+     * @param serverJar     the server jar
+     *
+     * @return the opened cache
+     * @throws IOException if the server jar or an existing cache file cannot be read
+     * @see #open(Path, CraftBukkitVersion, Path, ClassLoader)
+     */
+    public static ResolutionCache open(Path file, CraftBukkitVersion version, Path serverJar) throws IOException
+    {
+        return open(file, version, serverJar, serverLoader());
+    }
+    
+    /**
+     * Opens the cache file for a server version and server jar. If the file
+     * doesn't exist, or was saved for a different version or jar, the cache
+     * starts out empty and overwrites the file when saved.
+     *
+     * @param file          the cache file
+     * @param version       the server's internal version
+     * @param serverJar     the server jar
+     * @param serverLoader  the class loader of the server jar's classes, whose lookups are recorded
+     *
+     * @return the opened cache
+     * @throws IOException if the server jar or an existing cache file cannot be read
+     */
+    public static ResolutionCache open(Path file, CraftBukkitVersion version, Path serverJar, @NullOr ClassLoader serverLoader)
+        throws IOException
+    {
+        ResolutionCache cache = new ResolutionCache(file, version.packed(), version.isRelocated(), fingerprint(serverJar), serverLoader);
+        cache.saved = cache.read();
+        return cache;
+    }
+    
+    /**
+     * Opens the cache file for the running server.
+     *
+     * @param file  the cache file
+     *
+     * @return the opened cache
+     * @throws IOException              if the server jar or an existing cache file cannot be read
+     * @throws IllegalStateException    if there's no server or its jar cannot be located
+     * @see #open(Path, CraftBukkitVersion, Path)
+     */
+    public static ResolutionCache forServer(Path file) throws IOException
+    {
+        if (Bukkit.getServer() == null) { throw new IllegalStateException("No server"); }
+        
+        @NullOr CodeSource source = Bukkit.getServer().getClass().getProtectionDomain().getCodeSource();
+        if (source == null) { throw new IllegalStateException("Cannot locate server jar"); }
+        
+        try { return open(file, CraftBukkitVersion.server(), Path.of(source.getLocation().toURI()), serverLoader()); }
+        catch (URISyntaxException | IllegalArgumentException e)
+        {
+            throw new IllegalStateException("Cannot locate server jar: " + source.getLocation(), e);
+        }
+    }
+    
+    private final ConcurrentHashMap<String, Boolean> recorded = new ConcurrentHashMap<>();
+    
+    private final Path file;
+    private final long packedVersion;
+    private final boolean isRelocated;
+    private final long fingerprint;
+    private final @NullOr ClassLoader serverLoader;
+    
+    private volatile Table saved = NO_ENTRIES;
+    
+    private ResolutionCache(Path file, long packedVersion, boolean isRelocated, long fingerprint, @NullOr ClassLoader serverLoader)
+    {
+        this.file = file;
+        this.packedVersion = packedVersion;
+        this.isRelocated = isRelocated;
+        this.fingerprint = fingerprint;
+        this.serverLoader = serverLoader;
+    }
+    
+    // Reads the existing file if it's valid and matches, otherwise returns no entries.
+    private Table read() throws IOException
+    {
+        ByteBuffer bytes;
+        
+        try { bytes = ByteBuffer.wrap(Files.readAllBytes(file)); }
+        catch (NoSuchFileException e) { return NO_ENTRIES; }
+        
+        if (bytes.limit() < HEADER_SIZE) { return NO_ENTRIES; }
+        
+        if (bytes.getInt(0) != MAGIC || bytes.getInt(4) != FORMAT) { return NO_ENTRIES; }
+        if (bytes.getLong(8) != packedVersion || (bytes.get(16) == 1) != isRelocated) { return NO_ENTRIES; }
+        if (bytes.getLong(17) != fingerprint) { return NO_ENTRIES; }
+        
+        int count = bytes.getInt(25);
+        int offsetsEnd = HEADER_SIZE + (count + 1) * Integer.BYTES;
+        if (count < 0 || offsetsEnd > bytes.limit()) { return NO_ENTRIES; }
+        
+        // Entries must be in bounds and non-empty: validated once, so lookups can trust them.
+        int previous = offsetsEnd;
+        
+        for (int i = 0; i <= count; i++)
+        {
+            int offset = bytes.getInt(HEADER_SIZE + i * Integer.BYTES);
+            if (offset < previous || offset > bytes.limit() || (i > 0 && offset == previous)) { return NO_ENTRIES; }
+            previous = offset;
+        }
+        
+        return new Table(bytes, count);
+    }
+    
+    private byte outcome(String key)
+    {
+        @NullOr Boolean found = recorded.get(key);
+        if (found != null) { return (found) ? FOUND : MISSING; }
+        return saved.outcome(key);
+    }
+    
+    /**
+     * Checks if lookups of classes from the class loader are recorded: only the server's
+     * classes (and the JDK's) are invalidated along with the server jar.
+     *
+     * @param loader    the class loader (or {@code null} for the bootstrap class loader)
+     *
+     * @return {@code true} if it's the server's class loader or one of the JDK's
+     */
+    boolean covers(@NullOr ClassLoader loader)
+    {
+        return loader == null || loader == serverLoader || loader == ClassLoader.getPlatformClassLoader();
+    }
+    
+    /**
+     * Checks if the name is known to not resolve.
+     *
+     * @param key   resolution key
+     *
+     * @return {@code true} if known to be missing
+     */
+    boolean isKnownMissing(String key) { return outcome(key) == MISSING; }
+    
+    /**
+     * Records whether a name resolved.
+     *
+     * @param key       resolution key
+     * @param found     whether the name resolved
+     */
+    void record(String key, boolean found)
+    {
+        if (outcome(key) != ((found) ? FOUND : MISSING)) { recorded.put(key, found); }
+    }
+    
+    /**
+     * Gets the number of known resolutions, both saved and recorded since opening.
+     *
+     * @return number of known names
+     */
+    public int size()
+    {
+        Table table = saved;
+        int added = 0;
+        for (String key : recorded.keySet()) { if (table.outcome(key) == UNKNOWN) { added++; } }
+        return table.count + added;
+    }
+    
+    /**
+     * Checks if there are recorded resolutions that haven't been saved.
+     *
+     * @return {@code true} if the file is out of date
+     */
+    public boolean hasUnsavedChanges() { return !recorded.isEmpty(); }
+    
+    /**
+     * Saves all known resolutions, replacing the file atomically. Resolutions
+     * saved to the same file by others (like other plugins) since this cache
+     * was opened are kept, unless they conflict with this cache's.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save() throws IOException
+    {
+        if (recorded.isEmpty()) { return; }
+        
+        Map<String, Boolean> all = new TreeMap<>((a, b) -> Arrays.compareUnsigned(
+            a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8)
+        ));
+        
+        read().readInto(all);
+        saved.readInto(all);
+        
+        Map<String, Boolean> snapshot = Map.copyOf(recorded);
+        all.putAll(snapshot);
+        
+        byte[][] keys = new byte[all.size()][];
+        int poolSize = 0;
+        int index = 0;
+        
+        for (String key : all.keySet())
+        {
+            keys[index] = key.getBytes(StandardCharsets.UTF_8);
+            poolSize += keys[index++].length + 1;
+        }
+        
+        int offsetsEnd = HEADER_SIZE + (keys.length + 1) * Integer.BYTES;
+        ByteBuffer bytes = ByteBuffer.allocate(offsetsEnd + poolSize);
+        
+        bytes.putInt(MAGIC).putInt(FORMAT).putLong(packedVersion).put((byte) ((isRelocated) ? 1 : 0)).putLong(fingerprint);
+        bytes.putInt(keys.length);
+        
+        int offset = offsetsEnd;
+        
+        for (byte[] key : keys)
+        {
+            bytes.putInt(offset);
+            offset += key.length + 1;
+        }
+        
+        bytes.putInt(offset);
+        
+        index = 0;
+        
+        for (boolean found : all.values())
+        {
+            bytes.put((found) ? FOUND : MISSING).put(keys[index++]);
+        }
+        
+        bytes.flip();
+        
+        @NullOr Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) { Files.createDirectories(parent); }
+        
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        
+        try
+        {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE))
+            {
+                while (bytes.hasRemaining()) { channel.write(bytes); }
+            }
+            
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+        
+        // Saved entries now live in the file: read it and forget them,
+        // unless they were recorded again with a different outcome while saving.
+        saved = read();
+        snapshot.forEach((key, found) -> recorded.remove(key, found));
+    }
+    
+    /**
+     * Saves all known resolutions, ignoring any failure:
+     * the cache is only an optimization.
+     *
+     * @return {@code true} if saved, otherwise {@code false}
+     * @see #save()
+     */
+    public boolean saveQuietly()
+    {
+        try
+        {
+            save();
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return false;
+        }
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ResolutionCache{file=" + file + ", entries=" + size() + "}";
+    }
+    
+    // Saved entries, as read from the file: sorted, each an outcome byte followed by its UTF-8 key.
+    private static final class Table
+    {
+        final ByteBuffer bytes;
+        final int count;
+        
+        Table(ByteBuffer bytes, int count)
+        {
+            this.bytes = bytes;
+            this.count = count;
+        }
+        
+        private int offset(int index) { return bytes.getInt(HEADER_SIZE + index * Integer.BYTES); }
+        
+        private int compare(byte[] key, int start, int end)
+        {
+            int length = Math.min(key.length, end - start);
+            
+            for (int i = 0; i < length; i++)
+            {
+                int difference = (key[i] & 0xFF) - (bytes.get(start + i) & 0xFF);
+                if (difference != 0) { return difference; }
+            }
+            
+            return key.length - (end - start);
+        }
+        
+        byte outcome(String key)
+        {
+            byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = count - 1;
+            
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                int start = offset(middle);
+                int comparison = compare(utf8, start + 1, offset(middle + 1));
+                
+                if (comparison > 0) { low = middle + 1; }
+                else if (comparison < 0) { high = middle - 1; }
+                else { return bytes.get(start); }
+            }
+            
+            return UNKNOWN;
+        }
+        
+        void readInto(Map<String, Boolean> entries)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                int start = offset(i);
+                byte[] key = new byte[offset(i + 1) - start - 1];
+                for (int j = 0; j < key.length; j++) { key[j] = bytes.get(start + 1 + j); }
+                entries.put(new String(key, StandardCharsets.UTF_8), bytes.get(start) == FOUND);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.bukkit.Bukkit;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable snapshot of the platform features a server has,
+ * like whether it's Paper or Folia, or provides Adventure.
+ *
+ * <p>Capabilities are detected by probing for classes, all at once,
+ * concurrently. Afterwards, every query is a single bit test.</p>
+ *
+ * @see ServerCapability
+ */
+@SuppressWarnings("unused")
+public final class ServerCapabilities
+{
+    private static final int MAX_PROBE_THREADS = 4;
+    
+    // Probed on first access rather than in a static initializer, so a failure can be retried.
+    // Racy single-check: capabilities are immutable, so at worst a duplicate is probed.
+    private static volatile @NullOr ServerCapabilities server;
+    
+    /**
+     * Gets the capabilities of the server.
+     *
+     * <p>Like {@link MinecraftVersion#server()}, capabilities are probed
+     * once, on first access, and are safe to use from any thread.
+     * Without a running server, classes are probed from the class loader of
+     * this library instead. A failure to probe isn't remembered.</p>
+     *
+     * @return the server's capabilities
+     * @throws IllegalStateException if probing fails
+     */
+    public static ServerCapabilities server()
+    {
+        @NullOr ServerCapabilities capabilities = server;
+        if (capabilities != null) { return capabilities; }
+        
+        capabilities = probe(serverClassLoader());
+        server = capabilities;
+        return capabilities;
+    }
+    
+    private static @NullOr ClassLoader serverClassLoader()
+    {
+        return (Bukkit.getServer() == null)
+            ? ServerCapabilities.class.getClassLoader()
+            : Bukkit.getServer().getClass().getClassLoader();
+    }
+    
+    /**
+     * Probes for every capability in a class loader, concurrently.
+     *
+     * @param loader    the class loader (or {@code null} for the bootstrap class loader)
+     *
+     * @return the detected capabilities
+     */
+    public static ServerCapabilities probe(@NullOr ClassLoader loader)
+    {
+        int threads = Math.min(MAX_PROBE_THREADS, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        
+        try { return probe(loader, pool); }
+        finally { pool.shutdown(); }
+    }
+    
+    /**
+     * Probes for every capability in a class loader, concurrently, using the provided executor.
+     *
+     * @param loader    the class loader (or {@code null} for the bootstrap class loader)
+     * @param executor  executor running the probes
+     *
+     * @return the detected capabilities
+     */
+    public static ServerCapabilities probe(@NullOr ClassLoader loader, ExecutorService executor)
+    {
+        ClassCache classes = new ClassCache(UnaryOperator.identity(), loader);
+        return probe(className -> classes.find(className).isPresent(), executor);
+    }
+    
+    static ServerCapabilities probe(Predicate<String> classExists, ExecutorService executor)
+    {
+        Objects.requireNonNull(executor, "executor");
+        
+        ServerCapability[] capabilities = ServerCapability.values();
+        List<Callable<Boolean>> probes = new ArrayList<>(capabilities.length);
+        
+        for (ServerCapability capability : capabilities)
+        {
+            probes.add(() -> capability.classNames().stream().anyMatch(classExists));
+        }
+        
+        long bits = 0;
+        
+        try
+        {
+            List<Future<Boolean>> results = executor.invokeAll(probes);
+            
+            for (int i = 0; i < capabilities.length; i++)
+            {
+                if (results.get(i).get()) { bits |= 1L << capabilities[i].ordinal(); }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while probing server capabilities", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Could not probe server capabilities", e.getCause());
+        }
+        
+        return new ServerCapabilities(bits);
+    }
+    
+    /**
+     * Creates capabilities from a known set, rather than by probing.
+     *
+     * @param capabilities  the capabilities
+     *
+     * @return capabilities containing exactly the provided ones
+     */
+    public static ServerCapabilities of(ServerCapability ... capabilities)
+    {
+        long bits = 0;
+        for (ServerCapability capability : capabilities) { bits |= 1L << capability.ordinal(); }
+        return new ServerCapabilities(bits);
+    }
+    
+    private final long bits;
+    
+    private ServerCapabilities(long bits)
+    {
+        this.bits = bits;
+    }
+    
+    /**
+     * Checks if the server has a capability.
+     *
+     * @param capability    the capability
+     *
+     * @return {@code true} if the server has the capability
+     */
+    public boolean has(ServerCapability capability)
+    {
+        return (bits & (1L << capability.ordinal())) != 0;
+    }
+    
+    /**
+     * Checks if the server is Spigot or any of its forks.
+     *
+     * @return {@code true} if Spigot
+     */
+    public boolean isSpigot() { return has(ServerCapability.SPIGOT); }
+    
+    /**
+     * Checks if the server is Paper or any of its forks.
+     *
+     * @return {@code true} if Paper
+     */
+    public boolean isPaper() { return has(ServerCapability.PAPER); }
+    
+    /**
+     * Checks if the server is Folia, with regionized multithreading.
+     *
+     * @return {@code true} if Folia
+     */
+    public boolean isFolia() { return has(ServerCapability.FOLIA); }
+    
+    /**
+     * Checks if the server is Purpur or any of its forks.
+     *
+     * @return {@code true} if Purpur
+     */
+    public boolean isPurpur() { return has(ServerCapability.PURPUR); }
+    
+    /**
+     * Checks if the server natively provides Adventure.
+     *
+     * @return {@code true} if Adventure is available
+     */
+    public boolean hasAdventure() { return has(ServerCapability.ADVENTURE); }
+    
+    /**
+     * Checks if the server provides Brigadier.
+     *
+     * @return {@code true} if Brigadier is available
+     */
+    public boolean hasBrigadier() { return has(ServerCapability.BRIGADIER); }
+    
+    /**
+     * Gets every capability the server has.
+     *
+     * @return a new set of the server's capabilities
+     */
+    public Set<ServerCapability> toSet()
+    {
+        Set<ServerCapability> capabilities = EnumSet.noneOf(ServerCapability.class);
+        for (ServerCapability capability : ServerCapability.values()) { if (has(capability)) { capabilities.add(capability); } }
+        return capabilities;
+    }
+    
+    @Override
+    public boolean equals(@NullOr Object o)
+    {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        ServerCapabilities that = (ServerCapabilities) o;
+        return bits == that.bits;
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(bits);
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ServerCapabilities" + toSet();
+    }
+}
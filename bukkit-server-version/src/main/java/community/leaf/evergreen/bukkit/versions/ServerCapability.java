@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.util.List;
+
+/**
+ * Platform features a server may have, detected by the presence of classes.
+ *
+ * @see ServerCapabilities
+ */
+@SuppressWarnings("unused")
+public enum ServerCapability
+{
+    /**
+     * Spigot or any of its forks.
+     */
+    SPIGOT("org.spigotmc.SpigotConfig"),
+    
+    /**
+     * Paper or any of its forks.
+     */
+    PAPER("io.papermc.paper.configuration.Configuration", "com.destroystokyo.paper.PaperConfig"),
+    
+    /**
+     * Folia's regionized multithreading.
+     */
+    FOLIA("io.papermc.paper.threadedregions.RegionizedServer"),
+    
+    /**
+     * Purpur or any of its forks.
+     */
+    PURPUR("org.purpurmc.purpur.PurpurConfig", "net.pl3x.purpur.PurpurConfig"),
+    
+    /**
+     * Paper plugins, with bootstrappers and loaders.
+     */
+    PAPER_PLUGINS("io.papermc.paper.plugin.bootstrap.PluginBootstrap"),
+    
+    /**
+     * The Adventure text and audience API, provided natively by the server.
+     */
+    ADVENTURE("net.kyori.adventure.audience.Audience"),
+    
+    /**
+     * Adventure's MiniMessage format, provided natively by the server.
+     */
+    MINI_MESSAGE("net.kyori.adventure.text.minimessage.MiniMessage"),
+    
+    /**
+     * Mojang's Brigadier command library.
+     */
+    BRIGADIER("com.mojang.brigadier.CommandDispatcher"),
+    
+    /**
+     * Mojang-mapped names for server internals at runtime, rather than Spigot-mapped names.
+     */
+    MOJANG_MAPPINGS("net.minecraft.server.level.ServerPlayer");
+    
+    private final List<String> classNames;
+    
+    ServerCapability(String ... classNames)
+    {
+        this.classNames = List.of(classNames);
+    }
+    
+    /**
+     * Gets the names of classes indicating this capability: any one of them existing is enough.
+     *
+     * @return fully-qualified class names
+     */
+    public List<String> classNames() { return classNames; }
+}
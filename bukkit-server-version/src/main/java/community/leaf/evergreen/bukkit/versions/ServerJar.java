@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+/**
+ * Versions read directly from a server jar, without a running server:
+ * for offline tooling, like world converters or pre-start checks.
+ *
+ * <p>The jar is memory-mapped and its ZIP central directory is read in
+ * place. Only {@code version.json} and the manifest are ever decoded, and
+ * the CraftBukkit package is found from entry names alone, so reading even
+ * a large jar only touches a few pages of it. Paperclip jars are supported:
+ * the server jar nested inside is read the same way, provided it's stored
+ * without compression.</p>
+ *
+ * <p>The game version is read from {@code version.json} (the {@code name},
+ * then the {@code id}, if either is an exact version), or otherwise the manifest (the {@code (MC: ...)}
+ * part of the {@code Implementation-Version}, then the
+ * {@code Specification-Version}).</p>
+ */
+@SuppressWarnings("unused")
+public final class ServerJar
+{
+    // Entries are decoded whole: version files are tiny, anything larger is malformed.
+    private static final int MAX_DECODED_SIZE = 1 << 20;
+    
+    private static final byte[] VERSION_JSON = ZipDirectory.ascii("version.json");
+    private static final byte[] MANIFEST = ZipDirectory.ascii("META-INF/MANIFEST.MF");
+    private static final byte[] CRAFTBUKKIT_PREFIX = ZipDirectory.ascii("org/bukkit/craftbukkit/");
+    private static final byte[] CRAFT_SERVER_SUFFIX = ZipDirectory.ascii("/CraftServer.class");
+    private static final byte[] VERSIONS_PREFIX = ZipDirectory.ascii("META-INF/versions/");
+    private static final byte[] JAR_SUFFIX = ZipDirectory.ascii(".jar");
+    
+    /**
+     * Reads the versions of a server jar.
+     *
+     * @param jar   the server jar
+     *
+     * @return the versions found in the jar
+     * @throws IOException  if the jar cannot be read or isn't a valid ZIP file
+     */
+    public static ServerJar read(Path jar) throws IOException
+    {
+        Objects.requireNonNull(jar, "jar");
+        
+        Entries entries = new Entries(ZipDirectory.map(jar));
+        
+        // Paperclip jars only contain the server's classes in a nested jar.
+        if (entries.craftServerClass == null && entries.nestedJar != null) { entries.scanNested(); }
+        
+        @NullOr MinecraftVersion minecraftVersion = null;
+        int protocolVersion = -1;
+        
+        if (entries.versionJson != null)
+        {
+            String json = new String(entries.versionJson, StandardCharsets.UTF_8);
+            minecraftVersion = parseExactVersion(Json.string(json, "name"));
+            if (minecraftVersion == null) { minecraftVersion = parseExactVersion(Json.string(json, "id")); }
+            protocolVersion = Json.integer(json, "protocol_version");
+        }
+        
+        if (minecraftVersion == null && entries.manifest != null)
+        {
+            Attributes attributes = new Manifest(new ByteArrayInputStream(entries.manifest)).getMainAttributes();
+            @NullOr String implementation = attributes.getValue(Attributes.Name.IMPLEMENTATION_VERSION);
+            int marker = (implementation == null) ? -1 : implementation.indexOf("(MC: ");
+            
+            if (marker >= 0) { minecraftVersion = parseVersion(implementation.substring(marker)); }
+            if (minecraftVersion == null) { minecraftVersion = parseVersion(attributes.getValue(Attributes.Name.SPECIFICATION_VERSION)); }
+        }
+        
+        return new ServerJar(jar, minecraftVersion, craftBukkitVersion(entries.craftServerClass, minecraftVersion), protocolVersion);
+    }
+    
+    private static @NullOr MinecraftVersion parseVersion(@NullOr String text)
+    {
+        return (text == null) ? null : MinecraftVersion.parseMinecraftVersion(text).orElse(null);
+    }
+    
+    // Unknown names (like snapshots newer than the bundled table) aren't misread: falls back to the manifest.
+    private static @NullOr MinecraftVersion parseExactVersion(@NullOr String text)
+    {
+        return (text == null) ? null : MinecraftVersion.parseExactMinecraftVersion(text).orElse(null);
+    }
+    
+    private static @NullOr CraftBukkitVersion craftBukkitVersion(@NullOr String craftServerClass, @NullOr MinecraftVersion minecraftVersion)
+    {
+        if (craftServerClass == null) { return null; }
+        
+        // Unrelocated packages are the same for every version, so they need the game version.
+        long packed = VersionScanner.scanCraftBukkitPackage(craftServerClass);
+        if (packed == VersionScanner.OUT_OF_RANGE || (packed == VersionScanner.NO_MATCH && minecraftVersion == null)) { return null; }
+        
+        return CraftBukkitVersion.resolveServer(craftServerClass, () -> Objects.requireNonNull(minecraftVersion));
+    }
+    
+    private final Path path;
+    private final @NullOr MinecraftVersion minecraftVersion;
+    private final @NullOr CraftBukkitVersion craftBukkitVersion;
+    private final int protocolVersion;
+    
+    private ServerJar(Path path, @NullOr MinecraftVersion minecraftVersion, @NullOr CraftBukkitVersion craftBukkitVersion, int protocolVersion)
+    {
+        this.path = path;
+        this.minecraftVersion = minecraftVersion;
+        this.craftBukkitVersion = craftBukkitVersion;
+        this.protocolVersion = protocolVersion;
+    }
+    
+    /**
+     * Gets the path of the server jar.
+     *
+     * @return the jar's path
+     */
+    public Path path() { return path; }
+    
+    /**
+     * Gets the Minecraft game version of the server jar.
+     *
+     * @return the game version if found, otherwise empty
+     */
+    public Optional<MinecraftVersion> minecraftVersion() { return Optional.ofNullable(minecraftVersion); }
+    
+    /**
+     * Gets the internal package version of the server jar.
+     *
+     * @return the internal version if the jar contains CraftBukkit, otherwise empty
+     */
+    public Optional<CraftBukkitVersion> craftBukkitVersion() { return Optional.ofNullable(craftBukkitVersion); }
+    
+    /**
+     * Gets the network protocol version from the jar's {@code version.json}.
+     *
+     * @return the protocol version if found, otherwise empty
+     */
+    public OptionalInt protocolVersion() { return (protocolVersion >= 0) ? OptionalInt.of(protocolVersion) : OptionalInt.empty(); }
+    
+    /**
+     * Seeds every version found in the jar as the server's version, so that
+     * {@link MinecraftVersion#server()} and {@link CraftBukkitVersion#server()}
+     * work without a running server.
+     *
+     * @throws IllegalStateException if a different version was already seeded or resolved
+     */
+    public void seedServer()
+    {
+        if (minecraftVersion != null) { MinecraftVersion.seedServer(minecraftVersion); }
+        if (craftBukkitVersion != null) { CraftBukkitVersion.seedServer(craftBukkitVersion); }
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ServerJar{path=" + path + ", minecraftVersion=" + minecraftVersion +
+            ", craftBukkitVersion=" + craftBukkitVersion + ", protocolVersion=" + protocolVersion + "}";
+    }
+    
+    // Finds the wanted entries in the central directory of a (possibly nested) ZIP file.
+    private static final class Entries
+    {
+        @NullOr byte[] versionJson;
+        @NullOr byte[] manifest;
+        @NullOr String craftServerClass;
+        @NullOr ByteBuffer nestedJar;
+        
+        Entries(ByteBuffer zip) throws IOException
+        {
+            scan(zip, true);
+        }
+        
+        void scanNested() throws IOException
+        {
+            ByteBuffer nested = Objects.requireNonNull(nestedJar);
+            nestedJar = null;
+            scan(nested, false);
+        }
+        
+        private void scan(ByteBuffer zip, boolean isOuter) throws IOException
+        {
+            ZipDirectory.forEachEntry(zip, (entry, name, nameLength) ->
+            {
+                if (isOuter && versionJson == null && ZipDirectory.equals(zip, name, nameLength, VERSION_JSON))
+                {
+                    versionJson = ZipDirectory.decode(zip, entry, MAX_DECODED_SIZE);
+                }
+                else if (isOuter && manifest == null && ZipDirectory.equals(zip, name, nameLength, MANIFEST))
+                {
+                    manifest = ZipDirectory.decode(zip, entry, MAX_DECODED_SIZE);
+                }
+                else if (craftServerClass == null && isCraftServer(zip, name, nameLength))
+                {
+                    String path = ZipDirectory.name(zip, name, nameLength);
+                    craftServerClass = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+                }
+                else if (isOuter && nestedJar == null && ZipDirectory.method(zip, entry) == ZipDirectory.STORED
+                    && ZipDirectory.startsWith(zip, name, nameLength, VERSIONS_PREFIX) && ZipDirectory.endsWith(zip, name, nameLength, JAR_SUFFIX))
+                {
+                    nestedJar = ZipDirectory.data(zip, entry);
+                }
+                
+                return true;
+            });
+        }
+        
+        // org/bukkit/craftbukkit/CraftServer.class or org/bukkit/craftbukkit/{package}/CraftServer.class
+        private static boolean isCraftServer(ByteBuffer zip, int name, int length)
+        {
+            if (!ZipDirectory.startsWith(zip, name, length, CRAFTBUKKIT_PREFIX) || !ZipDirectory.endsWith(zip, name, length, CRAFT_SERVER_SUFFIX)) { return false; }
+            
+            int slashes = 0;
+            for (int i = CRAFTBUKKIT_PREFIX.length; i < length; i++) { if (zip.get(name + i) == '/') { slashes++; } }
+            return slashes <= 1;
+        }
+    }
+    
+    // Just enough JSON to read top-level string and number values from version.json.
+    private static final class Json
+    {
+        private static int valueStart(String json, String key)
+        {
+            String quoted = "\"" + key + "\"";
+            
+            for (int index = json.indexOf(quoted); index >= 0; index = json.indexOf(quoted, index + 1))
+            {
+                int colon = index + quoted.length();
+                while (colon < json.length() && Character.isWhitespace(json.charAt(colon))) { colon++; }
+                if (colon >= json.length() || json.charAt(colon) != ':') { continue; }
+                
+                int value = colon + 1;
+                while (value < json.length() && Character.isWhitespace(json.charAt(value))) { value++; }
+                return value;
+            }
+            
+            return -1;
+        }
+        
+        static @NullOr String string(String json, String key)
+        {
+            int start = valueStart(json, key);
+            if (start < 0 || start >= json.length() || json.charAt(start) != '"') { return null; }
+            
+            int end = json.indexOf('"', start + 1);
+            return (end < 0) ? null : json.substring(start + 1, end);
+        }
+        
+        static int integer(String json, String key)
+        {
+            int start = valueStart(json, key);
+            if (start < 0) { return -1; }
+            
+            int end = start;
+            while (end < json.length() && VersionScanner.isDigit(json.charAt(end))) { end++; }
+            
+            try { return (end > start) ? Integer.parseInt(json.substring(start, end)) : -1; }
+            catch (NumberFormatException e) { return -1; }
+        }
+    }
+}
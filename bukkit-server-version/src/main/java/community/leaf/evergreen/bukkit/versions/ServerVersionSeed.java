@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates the single server version shared by lazy resolution and any explicit seeding.
+ *
+ * <p>Whichever comes first, a seed or a resolution, wins, and every later
+ * caller observes that same instance. Seeding an equal version again is
+ * harmless, but seeding a different version afterwards is an error. A
+ * failed resolution isn't recorded, so the next caller simply tries again.</p>
+ *
+ * @param <V>   version type
+ */
+final class ServerVersionSeed<V extends MinecraftVersion>
+{
+    private final AtomicReference<@NullOr V> version = new AtomicReference<>();
+    
+    private final Class<V> type;
+    
+    ServerVersionSeed(Class<V> type)
+    {
+        this.type = type;
+    }
+    
+    /**
+     * Seeds the version if it hasn't been seeded or resolved yet.
+     *
+     * @param version   the server version
+     *
+     * @throws IllegalStateException if a different version was already seeded or resolved
+     */
+    void seed(V version)
+    {
+        Objects.requireNonNull(version, "version");
+        
+        @NullOr V existing = this.version.compareAndExchange(null, version);
+        
+        if (existing != null && !existing.equals(version))
+        {
+            throw new IllegalStateException(
+                "Server version is already " + existing + " and cannot be seeded as: " + version
+            );
+        }
+    }
+    
+    /**
+     * Gets the seeded or resolved version: once known, this is a single volatile read.
+     *
+     * @param resolver  resolves the version when it wasn't seeded or resolved yet
+     *
+     * @return the server version
+     */
+    V get(Supplier<V> resolver)
+    {
+        @NullOr V existing = version.get();
+        return (existing != null) ? existing : resolve(resolver);
+    }
+    
+    /**
+     * Gets the version that was already seeded or resolved.
+     *
+     * @return the server version
+     *
+     * @throws IllegalStateException if the version wasn't seeded or resolved yet
+     */
+    V known()
+    {
+        @NullOr V existing = version.get();
+        if (existing == null) { throw new IllegalStateException("Server version isn't known yet"); }
+        return existing;
+    }
+    
+    /**
+     * Gets the seeded version, or resolves and records it otherwise.
+     *
+     * @param resolver  resolves the version when it wasn't seeded
+     *
+     * @return the server version
+     */
+    V resolve(Supplier<V> resolver)
+    {
+        VersionEvents.ServerVersionResolution event = new VersionEvents.ServerVersionResolution();
+        event.begin();
+        
+        @NullOr V existing = version.get();
+        
+        if (existing != null)
+        {
+            event.commit(type, existing, true);
+            return existing;
+        }
+        
+        long startTime = VersionMetrics.startTime();
+        V resolved = Objects.requireNonNull(resolver.get(), "resolved");
+        VersionMetrics.stopTime(VersionMetrics.Timer.SERVER_RESOLUTION, startTime);
+        
+        existing = version.compareAndExchange(null, resolved);
+        event.commit(type, (existing != null) ? existing : resolved, existing != null);
+        return (existing != null) ? existing : resolved;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An opt-in registry shared by every copy of this library on a server,
+ * even when each plugin shades and relocates its own copy.
+ *
+ * <p>The first copy to {@link #join(Plugin) join} publishes the registry
+ * through Bukkit's {@link ServicesManager}, and every later copy reuses it:
+ * the server's versions are resolved once, and lookups of the server's
+ * classes, methods, and fields are resolved once and shared.</p>
+ *
+ * <p>Relocation renames this library's types in each copy, so the registry
+ * is only made of JDK types: it's published as a {@link ConcurrentMap} of
+ * string keys, marked by {@link #MARKER_KEY}, holding version strings,
+ * classes, and method and var handles. Only classes and members of the
+ * server's own class loader are ever shared, so a plugin's classes are
+ * never leaked to other plugins. The format is versioned: copies with an
+ * incompatible format simply publish a registry of their own.</p>
+ */
+@SuppressWarnings("unused")
+public final class SharedRegistry
+{
+    private SharedRegistry() { throw new UnsupportedOperationException(); }
+    
+    /**
+     * The key marking the registry among other registered maps, mapped to its format.
+     */
+    public static final String MARKER_KEY = "community.leaf.evergreen.SharedRegistry";
+    
+    /**
+     * The registry format version this class shares.
+     */
+    static final int FORMAT = 1;
+    
+    static final String MINECRAFT_VERSION_KEY = "server.minecraft-version";
+    
+    static final String CRAFTBUKKIT_PACKAGE_KEY = "server.craftbukkit-package";
+    
+    private static volatile @NullOr ConcurrentMap<String, Object> registry;
+    private static volatile @NullOr ClassLoader serverLoader;
+    private static volatile boolean isOwner;
+    
+    /**
+     * Joins the shared registry, or publishes it when no other copy has yet.
+     * Call this from a plugin's {@code onLoad()} or {@code onEnable()}, before
+     * resolving versions or looking up server classes.
+     *
+     * <p>Joining resolves the server's versions: joining a registry published
+     * by another copy {@link MinecraftVersion#seedServer(MinecraftVersion) seeds}
+     * them from the registry, unless this copy already seeded or resolved them.
+     * Joining again does nothing.</p>
+     *
+     * @param plugin    the plugin shading this copy
+     *
+     * @return {@code true} if this copy published the registry,
+     *         or {@code false} if it joined another copy's
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static synchronized boolean join(Plugin plugin)
+    {
+        Objects.requireNonNull(plugin, "plugin");
+        if (registry != null) { return isOwner; }
+        
+        ServicesManager services = plugin.getServer().getServicesManager();
+        List<Object> providers = new ArrayList<>();
+        
+        for (RegisteredServiceProvider<ConcurrentMap> registration : services.getRegistrations(ConcurrentMap.class))
+        {
+            providers.add(registration.getProvider());
+        }
+        
+        @NullOr ConcurrentMap<String, Object> existing = find(providers);
+        ConcurrentMap<String, Object> joined = (existing != null) ? existing : create();
+        
+        if (existing == null) { services.register(ConcurrentMap.class, joined, plugin, ServicePriority.Normal); }
+        
+        use(joined, plugin.getServer().getClass().getClassLoader());
+        isOwner = existing == null;
+        exchangeVersions(joined);
+        return isOwner;
+    }
+    
+    /**
+     * Checks if this copy joined the shared registry.
+     *
+     * @return {@code true} if joined
+     */
+    public static boolean isJoined() { return registry != null; }
+    
+    /**
+     * Checks if this copy published the shared registry that other copies join.
+     *
+     * @return {@code true} if this copy owns the registry
+     */
+    public static boolean isOwner() { return registry != null && isOwner; }
+    
+    static ConcurrentMap<String, Object> create()
+    {
+        ConcurrentMap<String, Object> created = new ConcurrentHashMap<>();
+        created.put(MARKER_KEY, FORMAT);
+        return created;
+    }
+    
+    // Finds a registry of the same format among registered maps (of any kind, from any plugin).
+    @SuppressWarnings("unchecked")
+    static @NullOr ConcurrentMap<String, Object> find(Collection<?> providers)
+    {
+        for (Object provider : providers)
+        {
+            if (provider instanceof ConcurrentMap && Integer.valueOf(FORMAT).equals(((ConcurrentMap<?, ?>) provider).get(MARKER_KEY)))
+            {
+                return (ConcurrentMap<String, Object>) provider;
+            }
+        }
+        
+        return null;
+    }
+    
+    // Uses the registry for lookups (or stops using any registry if null).
+    static void use(@NullOr ConcurrentMap<String, Object> shared, @NullOr ClassLoader loader)
+    {
+        serverLoader = loader;
+        registry = shared;
+        isOwner = false;
+    }
+    
+    private static void exchangeVersions(ConcurrentMap<String, Object> shared)
+    {
+        @NullOr Object minecraftVersion = shared.get(MINECRAFT_VERSION_KEY);
+        @NullOr Object craftBukkitPackage = shared.get(CRAFTBUKKIT_PACKAGE_KEY);
+        
+        // Seeding fails if this copy already has a different version, which it then keeps.
+        if (minecraftVersion instanceof String)
+        {
+            try { MinecraftVersion.parseExactMinecraftVersion((String) minecraftVersion).ifPresent(MinecraftVersion::seedServer); }
+            catch (IllegalStateException ignored) {}
+        }
+        
+        if (craftBukkitPackage instanceof String)
+        {
+            try { CraftBukkitVersion.seedServer(CraftBukkitVersion.resolveServer(craftBukkitPackage + ".CraftServer", MinecraftVersion::server)); }
+            catch (IllegalStateException ignored) {}
+        }
+        
+        shared.putIfAbsent(MINECRAFT_VERSION_KEY, MinecraftVersion.server().toString());
+        shared.putIfAbsent(CRAFTBUKKIT_PACKAGE_KEY, CraftBukkitVersion.server().craftBukkitPackage());
+    }
+    
+    /**
+     * Checks if a class belongs to the server (or the JDK), rather than a plugin,
+     * which makes it safe to share with other plugins.
+     *
+     * @param type  the class
+     *
+     * @return {@code true} if joined and the class was loaded by the server's class loader
+     */
+    static boolean isServerClass(Class<?> type)
+    {
+        if (registry == null) { return false; }
+        @NullOr ClassLoader loader = type.getClassLoader();
+        return loader == null || loader == serverLoader;
+    }
+    
+    /**
+     * Gets a shared lookup result.
+     *
+     * @param key   the lookup's key
+     * @param <T>   result type
+     *
+     * @return the shared result, or {@code null} if not joined or not yet shared
+     */
+    @SuppressWarnings("unchecked")
+    static <T> @NullOr Optional<T> get(String key)
+    {
+        @NullOr ConcurrentMap<String, Object> shared = registry;
+        if (shared == null) { return null; }
+        
+        @NullOr Object existing = shared.get(key);
+        if (!(existing instanceof Optional)) { return null; }
+        
+        VersionMetrics.increment(VersionMetrics.Counter.SHARED_REGISTRY_HITS);
+        return (Optional<T>) existing;
+    }
+    
+    /**
+     * Shares a lookup result, unless another copy shared its result first.
+     *
+     * @param key       the lookup's key
+     * @param resolved  the resolved result
+     * @param <T>       result type
+     *
+     * @return the result shared first, or the provided result if not joined
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Optional<T> share(String key, Optional<T> resolved)
+    {
+        @NullOr ConcurrentMap<String, Object> shared = registry;
+        if (shared == null) { return resolved; }
+        
+        @NullOr Object existing = shared.putIfAbsent(key, resolved);
+        return (existing instanceof Optional) ? (Optional<T>) existing : resolved;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Loads the one implementation of a service (an "adapter") that matches
+ * the server's {@link CraftBukkitVersion}, out of adapters compiled
+ * separately for each supported version.
+ *
+ * <p>Adapters are declared by descriptors, much like {@link java.util.ServiceLoader}:
+ * a resource named {@code META-INF/evergreen/adapters/} followed by the
+ * service's binary name, listing one adapter per line as
+ * {@code {version} = {implementation class}}. Versions are CraftBukkit
+ * package versions, like {@code v1_20_R3}, or game versions, like
+ * {@code 1.20.6}, for servers that no longer relocate CraftBukkit. The
+ * two never match each other, even when their numbers are the same, like
+ * {@code v1_21_R1} and {@code 1.21.1}.
+ * Blank lines and anything after {@code #} are ignored.</p>
+ *
+ * <pre>{@code
+ * # META-INF/evergreen/adapters/com.example.PlayerPings
+ * v1_16_R3 = com.example.v1_16_R3.PlayerPings_v1_16_R3
+ * v1_20_R3 = com.example.v1_20_R3.PlayerPings_v1_20_R3
+ * }</pre>
+ *
+ * <pre>{@code
+ * private static final VersionAdapters<PlayerPings> PINGS = VersionAdapters.of(PlayerPings.class);
+ *
+ * int ping = PINGS.get().ping(player);
+ * }</pre>
+ *
+ * <p>Descriptors are only read on first use, and only the matching adapter
+ * is loaded, initialized, and constructed (once, with its public no-arg
+ * constructor). Adapters of other versions are never loaded, so they never
+ * take up metaspace, are never verified, and never fail to link against
+ * classes that don't exist on the running server.</p>
+ *
+ * @param <T>   service type
+ */
+@SuppressWarnings("unused")
+public final class VersionAdapters<T> implements Supplier<T>
+{
+    /**
+     * The resource directory containing adapter descriptors, named after their services.
+     */
+    public static final String DESCRIPTOR_DIRECTORY = "META-INF/evergreen/adapters/";
+    
+    /**
+     * Creates adapters of a service, declared by descriptors visible to the service's class loader.
+     *
+     * @param service   the service type
+     * @param <T>       service type
+     *
+     * @return adapters of the service
+     */
+    public static <T> VersionAdapters<T> of(Class<T> service)
+    {
+        return of(service, service.getClassLoader());
+    }
+    
+    /**
+     * Creates adapters of a service, declared by descriptors visible to the provided class loader.
+     *
+     * @param service   the service type
+     * @param loader    loads descriptors and adapters
+     * @param <T>       service type
+     *
+     * @return adapters of the service
+     */
+    public static <T> VersionAdapters<T> of(Class<T> service, ClassLoader loader)
+    {
+        return new VersionAdapters<>(service, loader, CraftBukkitVersion::server);
+    }
+    
+    private final Class<T> service;
+    private final ClassLoader loader;
+    private final Supplier<CraftBukkitVersion> serverVersion;
+    
+    // Both lazily resolved once, under this instance's lock.
+    private volatile @NullOr Map<CraftBukkitVersion, Declaration> declarations;
+    private volatile @NullOr Optional<T> server;
+    
+    VersionAdapters(Class<T> service, ClassLoader loader, Supplier<CraftBukkitVersion> serverVersion)
+    {
+        this.service = Objects.requireNonNull(service, "service");
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.serverVersion = serverVersion;
+    }
+    
+    /**
+     * Gets the service type.
+     *
+     * @return the service type
+     */
+    public Class<T> service() { return service; }
+    
+    /**
+     * Gets the name of the descriptor resource declaring adapters of the service.
+     *
+     * @return the descriptor's resource name
+     */
+    public String descriptor() { return DESCRIPTOR_DIRECTORY + service.getName(); }
+    
+    /**
+     * Gets the versions with a declared adapter, without loading any adapters.
+     *
+     * @return declared versions, in declaration order
+     * @throws IllegalStateException    if a descriptor is malformed
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     */
+    public List<CraftBukkitVersion> versions()
+    {
+        List<CraftBukkitVersion> versions = new ArrayList<>();
+        for (Declaration declaration : declarations().values()) { versions.add(declaration.version); }
+        return Collections.unmodifiableList(versions);
+    }
+    
+    /**
+     * Checks if an adapter is declared for a version, without loading it.
+     *
+     * @param version   the version
+     *
+     * @return {@code true} if an adapter is declared for the version
+     * @throws IllegalStateException    if a descriptor is malformed
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     */
+    public boolean supports(CraftBukkitVersion version)
+    {
+        return declarations().containsKey(version);
+    }
+    
+    /**
+     * Gets the name of the adapter class declared for a version, without loading it.
+     *
+     * @param version   the version
+     *
+     * @return the adapter's class name if declared, otherwise empty
+     * @throws IllegalStateException    if a descriptor is malformed
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     */
+    public Optional<String> adapterClassName(CraftBukkitVersion version)
+    {
+        @NullOr Declaration declaration = declarations().get(version);
+        return (declaration == null) ? Optional.empty() : Optional.of(declaration.className);
+    }
+    
+    /**
+     * Gets the adapter matching the {@link CraftBukkitVersion#server() server's version},
+     * which is loaded and constructed on first access. Every later access returns
+     * the same adapter instance.
+     *
+     * @return the server's adapter if declared, otherwise empty
+     * @throws IllegalStateException    if a descriptor is malformed or the adapter cannot be loaded
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     */
+    public Optional<T> server()
+    {
+        @NullOr Optional<T> adapter = server;
+        if (adapter != null) { return adapter; }
+        
+        synchronized (this)
+        {
+            adapter = server;
+            
+            if (adapter == null)
+            {
+                adapter = create(serverVersion.get());
+                server = adapter;
+            }
+            
+            return adapter;
+        }
+    }
+    
+    /**
+     * Gets the adapter matching the {@link CraftBukkitVersion#server() server's version}.
+     *
+     * @return the server's adapter
+     * @throws IllegalStateException    if no adapter is declared for the server's version,
+     *                                  a descriptor is malformed, or the adapter cannot be loaded
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     * @see #server()
+     */
+    @Override
+    public T get()
+    {
+        return server().orElseThrow(() -> new IllegalStateException(
+            "No " + service.getName() + " adapter for server version " + serverVersion.get() + ", only for: " + versions()
+        ));
+    }
+    
+    /**
+     * Loads and constructs a new instance of the adapter declared for a version.
+     * Unlike {@link #server()}, a new instance is created every time.
+     *
+     * @param version   the version
+     *
+     * @return a new adapter if declared, otherwise empty
+     * @throws IllegalStateException    if a descriptor is malformed or the adapter cannot be loaded
+     * @throws UncheckedIOException     if a descriptor cannot be read
+     */
+    public Optional<T> create(CraftBukkitVersion version)
+    {
+        @NullOr Declaration declaration = declarations().get(version);
+        return (declaration == null) ? Optional.empty() : Optional.of(instantiate(declaration));
+    }
+    
+    private T instantiate(Declaration declaration)
+    {
+        try
+        {
+            Class<?> type = Class.forName(declaration.className, false, loader);
+            
+            if (!service.isAssignableFrom(type))
+            {
+                throw new IllegalStateException(
+                    "Adapter " + type.getName() + " for " + declaration.key + " is not a " + service.getName()
+                );
+            }
+            
+            return service.cast(type.getConstructor().newInstance());
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new IllegalStateException("Adapter " + declaration.className + " failed to construct", e.getCause());
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            throw new IllegalStateException("Cannot load adapter " + declaration.className + " for " + declaration.key, e);
+        }
+    }
+    
+    private Map<CraftBukkitVersion, Declaration> declarations()
+    {
+        @NullOr Map<CraftBukkitVersion, Declaration> declared = declarations;
+        if (declared != null) { return declared; }
+        
+        synchronized (this)
+        {
+            declared = declarations;
+            
+            if (declared == null)
+            {
+                declared = readDescriptors();
+                declarations = declared;
+            }
+            
+            return declared;
+        }
+    }
+    
+    private Map<CraftBukkitVersion, Declaration> readDescriptors()
+    {
+        Map<CraftBukkitVersion, Declaration> declared = new LinkedHashMap<>();
+        String name = descriptor();
+        
+        try
+        {
+            Enumeration<URL> resources = loader.getResources(name);
+            
+            while (resources.hasMoreElements())
+            {
+                URL resource = resources.nextElement();
+                
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)))
+                {
+                    read(resource, reader, declared);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not read adapter descriptor: " + name, e);
+        }
+        
+        return Collections.unmodifiableMap(declared);
+    }
+    
+    private static IllegalStateException malformed(URL resource, int lineNumber, String line, String reason)
+    {
+        return new IllegalStateException("Malformed adapter descriptor (" + resource + " line " + lineNumber + ": \"" + line + "\"): " + reason);
+    }
+    
+    private static void read(URL resource, BufferedReader reader, Map<CraftBukkitVersion, Declaration> declared) throws IOException
+    {
+        int lineNumber = 0;
+        
+        for (@NullOr String line = reader.readLine(); line != null; line = reader.readLine())
+        {
+            lineNumber++;
+            
+            int comment = line.indexOf('#');
+            String content = ((comment >= 0) ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) { continue; }
+            
+            int separator = content.indexOf('=');
+            if (separator < 0) { throw malformed(resource, lineNumber, line, "expected {version} = {class}"); }
+            
+            String key = content.substring(0, separator).trim();
+            String className = content.substring(separator + 1).trim();
+            
+            if (className.isEmpty() || !isBinaryName(className))
+            {
+                throw malformed(resource, lineNumber, line, "invalid class name: " + className);
+            }
+            
+            @NullOr CraftBukkitVersion version = version(key).orElse(null);
+            if (version == null) { throw malformed(resource, lineNumber, line, "invalid version: " + key); }
+            
+            Declaration declaration = new Declaration(key, version, className);
+            @NullOr Declaration existing = declared.putIfAbsent(version, declaration);
+            
+            // The same declaration may be visible through multiple class loaders or jars.
+            if (existing != null && !existing.className.equals(className))
+            {
+                throw malformed(resource, lineNumber, line, "already declared as " + existing.className);
+            }
+        }
+    }
+    
+    private static Optional<CraftBukkitVersion> version(String key)
+    {
+        if (key.startsWith("v"))
+        {
+            return CraftBukkitVersion.parseCraftBukkitVersion(key).filter(version -> version.toString().equals(key));
+        }
+        
+        return MinecraftVersion.parseExactMinecraftVersion(key).map(CraftBukkitVersion::unrelocated);
+    }
+    
+    private static boolean isBinaryName(String className)
+    {
+        for (String part : className.split("\\.", -1))
+        {
+            if (part.isEmpty() || !Character.isJavaIdentifierStart(part.charAt(0))) { return false; }
+            
+            for (int i = 1; i < part.length(); i++)
+            {
+                if (!Character.isJavaIdentifierPart(part.charAt(i))) { return false; }
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "VersionAdapters{service=" + service.getName() + "}";
+    }
+    
+    private static final class Declaration
+    {
+        final String key;
+        final CraftBukkitVersion version;
+        final String className;
+        
+        Declaration(String key, CraftBukkitVersion version, String className)
+        {
+            this.key = key;
+            this.version = version;
+            this.className = className;
+        }
+    }
+}
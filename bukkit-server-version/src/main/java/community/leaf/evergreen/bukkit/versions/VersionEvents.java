@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * JDK Flight Recorder events for version resolution and versioned reflection.
+ *
+ * <p>Events are created and committed unconditionally: while not being
+ * recorded, committing does nothing, and the JIT eliminates the event.</p>
+ *
+ * @see VersionMetrics
+ */
+final class VersionEvents
+{
+    private VersionEvents() { throw new UnsupportedOperationException(); }
+    
+    private static final String CATEGORY = "Evergreen";
+    
+    @Name("community.leaf.evergreen.ServerVersionResolution")
+    @Label("Server Version Resolution")
+    @Description("Resolution of the server's version, which happens once per version type")
+    @Category(CATEGORY)
+    static final class ServerVersionResolution extends Event
+    {
+        @Label("Version Type")
+        @NullOr String type;
+        
+        @Label("Version")
+        @NullOr String version;
+        
+        @Label("Seeded")
+        @Description("Whether the version was seeded rather than resolved from the server")
+        boolean seeded;
+        
+        void commit(Class<?> type, MinecraftVersion version, boolean seeded)
+        {
+            if (!shouldCommit()) { return; }
+            this.type = type.getSimpleName();
+            this.version = version.toString();
+            this.seeded = seeded;
+            commit();
+        }
+    }
+    
+    @Name("community.leaf.evergreen.ClassLookup")
+    @Label("Versioned Class Lookup")
+    @Description("A class looked up by name, which wasn't cached")
+    @Category(CATEGORY)
+    static final class ClassLookup extends Event
+    {
+        @Label("Class Name")
+        @NullOr String className;
+        
+        @Label("Found")
+        boolean found;
+        
+        void commit(String className, boolean found)
+        {
+            if (!shouldCommit()) { return; }
+            this.className = className;
+            this.found = found;
+            commit();
+        }
+    }
+    
+    @Name("community.leaf.evergreen.MemberLookup")
+    @Label("Versioned Member Lookup")
+    @Description("A method, constructor, or field looked up by its names, which wasn't cached")
+    @Category(CATEGORY)
+    static final class MemberLookup extends Event
+    {
+        @Label("Owner")
+        @NullOr Class<?> owner;
+        
+        @Label("Member")
+        @NullOr String member;
+        
+        @Label("Found")
+        boolean found;
+        
+        void commit(Class<?> owner, MemberDescriptor member, boolean found)
+        {
+            if (!shouldCommit()) { return; }
+            this.owner = owner;
+            this.member = member.toString();
+            this.found = found;
+            commit();
+        }
+    }
+    
+    @Name("community.leaf.evergreen.VersionMetrics")
+    @Label("Version Metrics")
+    @Description("Totals of version parsing and versioned reflection metrics, when enabled")
+    @Category(CATEGORY)
+    @Period("everyChunk")
+    @StackTrace(false)
+    static final class Metrics extends Event
+    {
+        @Label("Parses")
+        long parses;
+        
+        @Label("Parse Failures")
+        long parseFailures;
+        
+        @Label("Mean Server Resolution Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long serverResolutionMeanNanos;
+        
+        @Label("Class Cache Hits")
+        long classCacheHits;
+        
+        @Label("Class Lookups")
+        long classLookups;
+        
+        @Label("Class Lookup Failures")
+        long classLookupFailures;
+        
+        @Label("Mean Class Lookup Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long classLookupMeanNanos;
+        
+        @Label("Member Cache Hits")
+        long memberCacheHits;
+        
+        @Label("Member Lookups")
+        long memberLookups;
+        
+        @Label("Member Lookup Failures")
+        long memberLookupFailures;
+        
+        @Label("Mean Member Lookup Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long memberLookupMeanNanos;
+        
+        @Label("Known Misses Skipped")
+        long knownMissesSkipped;
+        
+        @Label("Shared Registry Hits")
+        long sharedRegistryHits;
+        
+        void commit(VersionMetrics.Snapshot snapshot)
+        {
+            parses = snapshot.count(VersionMetrics.Counter.PARSES);
+            parseFailures = snapshot.count(VersionMetrics.Counter.PARSE_FAILURES);
+            serverResolutionMeanNanos = (long) snapshot.latency(VersionMetrics.Timer.SERVER_RESOLUTION).meanNanos();
+            classCacheHits = snapshot.count(VersionMetrics.Counter.CLASS_CACHE_HITS);
+            classLookups = snapshot.count(VersionMetrics.Counter.CLASS_LOOKUPS);
+            classLookupFailures = snapshot.count(VersionMetrics.Counter.CLASS_LOOKUP_FAILURES);
+            classLookupMeanNanos = (long) snapshot.latency(VersionMetrics.Timer.CLASS_LOOKUP).meanNanos();
+            memberCacheHits = snapshot.count(VersionMetrics.Counter.MEMBER_CACHE_HITS);
+            memberLookups = snapshot.count(VersionMetrics.Counter.MEMBER_LOOKUPS);
+            memberLookupFailures = snapshot.count(VersionMetrics.Counter.MEMBER_LOOKUP_FAILURES);
+            memberLookupMeanNanos = (long) snapshot.latency(VersionMetrics.Timer.MEMBER_LOOKUP).meanNanos();
+            knownMissesSkipped = snapshot.count(VersionMetrics.Counter.KNOWN_MISSES_SKIPPED);
+            sharedRegistryHits = snapshot.count(VersionMetrics.Counter.SHARED_REGISTRY_HITS);
+            commit();
+        }
+    }
+}
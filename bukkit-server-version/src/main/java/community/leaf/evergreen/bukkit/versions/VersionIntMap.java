@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.util.Objects;
+
+/**
+ * An immutable map of releases to {@code int} values, like {@link VersionMap}
+ * but without boxing: values are stored in a plain {@code int} array indexed by
+ * {@link KnownReleases known release} ordinals.
+ *
+ * <p>A value mapped to a release also applies to every later release,
+ * until the next mapped release. Versions that aren't known releases get
+ * the value of the nearest known release below them, and versions without
+ * any value get the map's {@link Builder#orElse(int) default value}.</p>
+ *
+ * @see VersionMap
+ */
+@SuppressWarnings("unused")
+public final class VersionIntMap
+{
+    /**
+     * The default value of versions without a mapped value, unless otherwise specified.
+     */
+    public static final int NO_VALUE = -1;
+    
+    /**
+     * Creates a new builder for a map of the {@link KnownReleases#bundled() bundled} releases.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() { return builder(KnownReleases.bundled()); }
+    
+    /**
+     * Creates a new builder for a map of the provided releases.
+     *
+     * @param releases  the known releases
+     *
+     * @return a new builder
+     */
+    public static Builder builder(KnownReleases releases) { return new Builder(releases); }
+    
+    private final KnownReleases releases;
+    
+    // Indexed by ordinal plus one: the first slot is for versions older than every mapped release.
+    private final int[] values;
+    
+    private VersionIntMap(KnownReleases releases, int[] values)
+    {
+        this.releases = releases;
+        this.values = values;
+    }
+    
+    /**
+     * Gets the value of the release with the ordinal, or of versions
+     * older than every known release for {@link KnownReleases#UNKNOWN_ORDINAL}.
+     *
+     * @param ordinal   the release's ordinal
+     *
+     * @return the value
+     * @throws IndexOutOfBoundsException if the ordinal is out of range
+     */
+    public int byOrdinal(int ordinal) { return values[ordinal + 1]; }
+    
+    /**
+     * Gets the value of the packed version.
+     *
+     * @param packed    packed version
+     *
+     * @return the value
+     * @see MinecraftVersion#packed()
+     */
+    public int get(long packed) { return byOrdinal(releases.floorOrdinal(packed)); }
+    
+    /**
+     * Gets the value of the version.
+     *
+     * @param version   the version
+     *
+     * @return the value
+     */
+    public int get(MinecraftVersion version) { return byOrdinal(releases.floorOrdinal(version)); }
+    
+    /**
+     * Gets the value of the {@link MinecraftVersion#server() server's version}.
+     *
+     * @return the value
+     */
+    public int server() { return byOrdinal(releases.serverOrdinal()); }
+    
+    /**
+     * Gets the known releases this map is indexed by.
+     *
+     * @return the known releases
+     */
+    public KnownReleases releases() { return releases; }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("{<").append((releases.size() > 0) ? releases.release(0) : "*").append('=').append(values[0]);
+        
+        // Only lists releases where the value changes.
+        for (int i = 1; i < values.length; i++)
+        {
+            if (values[i] != values[i - 1]) { builder.append(", ").append(releases.release(i - 1)).append('=').append(values[i]); }
+        }
+        
+        return builder.append('}').toString();
+    }
+    
+    /**
+     * Builds version int maps.
+     */
+    public static final class Builder
+    {
+        private final KnownReleases releases;
+        private final int[] values;
+        private final boolean[] isMapped;
+        private int orElse = NO_VALUE;
+        
+        private Builder(KnownReleases releases)
+        {
+            this.releases = Objects.requireNonNull(releases, "releases");
+            this.values = new int[releases.size()];
+            this.isMapped = new boolean[releases.size()];
+        }
+        
+        /**
+         * Maps a release, and every later release until the next mapped one, to a value.
+         *
+         * @param since     the release
+         * @param value     the value
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the version isn't a known release
+         */
+        public Builder since(MinecraftVersion since, int value)
+        {
+            int ordinal = releases.ordinal(since);
+            if (ordinal == KnownReleases.UNKNOWN_ORDINAL) { throw new IllegalArgumentException("Unknown release: " + since); }
+            
+            values[ordinal] = value;
+            isMapped[ordinal] = true;
+            return this;
+        }
+        
+        /**
+         * Maps versions older than every mapped release to a value,
+         * rather than {@link #NO_VALUE}.
+         *
+         * @param value     the value
+         *
+         * @return this builder
+         */
+        public Builder orElse(int value)
+        {
+            this.orElse = value;
+            return this;
+        }
+        
+        /**
+         * Builds the map.
+         *
+         * @return a new immutable map
+         */
+        public VersionIntMap build()
+        {
+            int[] filled = new int[values.length + 1];
+            filled[0] = orElse;
+            
+            for (int i = 0; i < values.length; i++)
+            {
+                filled[i + 1] = (isMapped[i]) ? values[i] : filled[i];
+            }
+            
+            return new VersionIntMap(releases, filled);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * A bounded, lock-free flyweight cache of versions keyed by their packed representation.
+ *
+ * <p>The cache is direct-mapped: every key hashes to exactly one slot, and a colliding
+ * key simply replaces the previous occupant. Lookups never block, never allocate on a hit,
+ * and the footprint never grows past the fixed number of slots. Since the handful of
+ * versions an application actually sees rarely collide, they effectively resolve to
+ * one canonical instance each.</p>
+ *
+ * @param <V>   version type
+ */
+final class VersionInterner<V extends MinecraftVersion>
+{
+    private static final int DEFAULT_SLOTS = 256;
+    
+    private final AtomicReferenceArray<Optional<V>> slots;
+    private final int shift;
+    private final LongFunction<V> constructor;
+    
+    VersionInterner(LongFunction<V> constructor)
+    {
+        this(DEFAULT_SLOTS, constructor);
+    }
+    
+    VersionInterner(int slots, LongFunction<V> constructor)
+    {
+        if (slots <= 1 || Integer.bitCount(slots) != 1)
+        {
+            throw new IllegalArgumentException("slots must be a power of two greater than one: " + slots);
+        }
+        
+        this.slots = new AtomicReferenceArray<>(slots);
+        this.shift = Long.numberOfLeadingZeros(slots) + 1;
+        this.constructor = constructor;
+    }
+    
+    private int slot(long packed)
+    {
+        // Fibonacci hashing spreads the clustered low bits of version keys across all slots.
+        return (int) ((packed * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+    
+    /**
+     * Gets the canonical instance for the packed version wrapped in an optional.
+     *
+     * @param packed    valid packed version
+     *
+     * @return the canonical optional instance
+     */
+    Optional<V> optional(long packed)
+    {
+        int slot = slot(packed);
+        @NullOr Optional<V> existing = slots.getAcquire(slot);
+        
+        if (existing != null && existing.orElseThrow().packed() == packed) { return existing; }
+        
+        Optional<V> created = Optional.of(constructor.apply(packed));
+        slots.setRelease(slot, created);
+        return created;
+    }
+    
+    /**
+     * Gets the canonical instance for the packed version.
+     *
+     * @param packed    valid packed version
+     *
+     * @return the canonical instance
+     */
+    V intern(long packed)
+    {
+        return optional(packed).orElseThrow();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable map of releases to values, stored in a plain array
+ * indexed by {@link KnownReleases known release} ordinals.
+ *
+ * <p>A value mapped to a release also applies to every later release,
+ * until the next mapped release. Versions that aren't known releases,
+ * like future releases, get the value of the nearest known release
+ * below them. Looking up a version is a binary search for its ordinal,
+ * and looking up the {@link #server() server's} value is a single array
+ * access: neither allocates.</p>
+ *
+ * <p>Per-version tables, like packet IDs or feature flags, are usually
+ * much cheaper as a version map than as a {@code HashMap<MinecraftVersion, T>}.</p>
+ *
+ * @param <T>   value type
+ * @see VersionIntMap
+ */
+@SuppressWarnings("unused")
+public final class VersionMap<T>
+{
+    /**
+     * Creates a new builder for a map of the {@link KnownReleases#bundled() bundled} releases.
+     *
+     * @param <T>   value type
+     *
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder() { return builder(KnownReleases.bundled()); }
+    
+    /**
+     * Creates a new builder for a map of the provided releases.
+     *
+     * @param releases  the known releases
+     * @param <T>       value type
+     *
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder(KnownReleases releases) { return new Builder<>(releases); }
+    
+    private final KnownReleases releases;
+    
+    // Indexed by ordinal plus one: the first slot is for versions older than every mapped release.
+    private final Optional<T>[] values;
+    
+    private VersionMap(KnownReleases releases, Optional<T>[] values)
+    {
+        this.releases = releases;
+        this.values = values;
+    }
+    
+    /**
+     * Gets the value of the release with the ordinal, or of versions
+     * older than every known release for {@link KnownReleases#UNKNOWN_ORDINAL}.
+     *
+     * @param ordinal   the release's ordinal
+     *
+     * @return the value if one applies to the release, otherwise empty
+     * @throws IndexOutOfBoundsException if the ordinal is out of range
+     */
+    public Optional<T> byOrdinal(int ordinal) { return values[ordinal + 1]; }
+    
+    /**
+     * Gets the value of the packed version.
+     *
+     * @param packed    packed version
+     *
+     * @return the value if one applies to the version, otherwise {@code null}
+     * @see MinecraftVersion#packed()
+     */
+    public @NullOr T getOrNull(long packed) { return byOrdinal(releases.floorOrdinal(packed)).orElse(null); }
+    
+    /**
+     * Gets the value of the version.
+     *
+     * @param version   the version
+     *
+     * @return the value if one applies to the version, otherwise empty
+     */
+    public Optional<T> get(MinecraftVersion version) { return byOrdinal(releases.floorOrdinal(version)); }
+    
+    /**
+     * Gets the value of the {@link MinecraftVersion#server() server's version}.
+     *
+     * @return the value if one applies to the server, otherwise empty
+     */
+    public Optional<T> server() { return byOrdinal(releases.serverOrdinal()); }
+    
+    /**
+     * Gets the known releases this map is indexed by.
+     *
+     * @return the known releases
+     */
+    public KnownReleases releases() { return releases; }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("{");
+        @NullOr Optional<T> previous = null;
+        
+        // Only lists releases where the value changes.
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i] == previous || values[i].isEmpty()) { previous = values[i]; continue; }
+            if (builder.length() > 1) { builder.append(", "); }
+            builder.append((i == 0) ? "<" + releases.release(0) : releases.release(i - 1)).append('=').append(values[i].get());
+            previous = values[i];
+        }
+        
+        return builder.append('}').toString();
+    }
+    
+    /**
+     * Builds version maps.
+     *
+     * @param <T>   value type
+     */
+    public static final class Builder<T>
+    {
+        private final KnownReleases releases;
+        private final Object[] values;
+        private @NullOr Object orElse = null;
+        
+        private Builder(KnownReleases releases)
+        {
+            this.releases = Objects.requireNonNull(releases, "releases");
+            this.values = new Object[releases.size()];
+        }
+        
+        /**
+         * Maps a release, and every later release until the next mapped one, to a value.
+         *
+         * @param since     the release
+         * @param value     the value
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the version isn't a known release
+         */
+        public Builder<T> since(MinecraftVersion since, T value)
+        {
+            Objects.requireNonNull(value, "value");
+            
+            int ordinal = releases.ordinal(since);
+            if (ordinal == KnownReleases.UNKNOWN_ORDINAL) { throw new IllegalArgumentException("Unknown release: " + since); }
+            
+            values[ordinal] = value;
+            return this;
+        }
+        
+        /**
+         * Maps versions older than every mapped release to a value.
+         *
+         * @param value     the value
+         *
+         * @return this builder
+         */
+        public Builder<T> orElse(T value)
+        {
+            this.orElse = Objects.requireNonNull(value, "value");
+            return this;
+        }
+        
+        /**
+         * Builds the map.
+         *
+         * @return a new immutable map
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public VersionMap<T> build()
+        {
+            Optional<T>[] filled = new Optional[values.length + 1];
+            filled[0] = (Optional<T>) Optional.ofNullable(orElse);
+            
+            // Every release without its own value shares the previous release's optional.
+            for (int i = 0; i < values.length; i++)
+            {
+                filled[i + 1] = (values[i] == null) ? filled[i] : Optional.of((T) values[i]);
+            }
+            
+            return new VersionMap<>(releases, filled);
+        }
+    }
+}
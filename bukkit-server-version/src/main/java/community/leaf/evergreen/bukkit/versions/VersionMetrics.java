@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for version parsing, server version
+ * resolution, and versioned reflection (class and member lookups).
+ *
+ * <p>Metrics are disabled by default and cost nothing then: every update
+ * checks a {@code static final} flag, which the JIT folds away. Enable them
+ * by starting the JVM with {@code -Dcommunity.leaf.evergreen.versions.metrics=true}.
+ * Once enabled, updates are striped {@link LongAdder} increments, so
+ * concurrent threads don't contend.</p>
+ *
+ * <p>Metrics are readable with {@link #snapshot()}, and while a JDK Flight
+ * Recorder recording is running, as periodic {@code community.leaf.evergreen.VersionMetrics}
+ * events. Individual server resolutions and class and member lookups are
+ * also recorded as Flight Recorder events, whether or not metrics are
+ * enabled: those only cost anything while being recorded.</p>
+ */
+@SuppressWarnings("unused")
+public final class VersionMetrics
+{
+    /**
+     * The system property enabling metrics.
+     */
+    public static final String ENABLED_PROPERTY = "community.leaf.evergreen.versions.metrics";
+    
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    
+    private static final VersionMetrics GLOBAL = new VersionMetrics();
+    
+    static
+    {
+        if (ENABLED)
+        {
+            FlightRecorder.addPeriodicEvent(VersionEvents.Metrics.class, () -> new VersionEvents.Metrics().commit(GLOBAL.takeSnapshot()));
+        }
+    }
+    
+    /**
+     * Counted events.
+     */
+    public enum Counter
+    {
+        /**
+         * Versions parsed from text.
+         */
+        PARSES,
+        
+        /**
+         * Parsed texts that didn't contain a valid version.
+         */
+        PARSE_FAILURES,
+        
+        /**
+         * Class lookups answered by a cache.
+         */
+        CLASS_CACHE_HITS,
+        
+        /**
+         * Classes looked up by name (loaded or attempted).
+         */
+        CLASS_LOOKUPS,
+        
+        /**
+         * Class lookups that didn't find the class.
+         */
+        CLASS_LOOKUP_FAILURES,
+        
+        /**
+         * Member lookups answered by a cache.
+         */
+        MEMBER_CACHE_HITS,
+        
+        /**
+         * Members looked up, trying each of their names.
+         */
+        MEMBER_LOOKUPS,
+        
+        /**
+         * Member lookups that didn't find any of the member's names.
+         */
+        MEMBER_LOOKUP_FAILURES,
+        
+        /**
+         * Class or member names skipped as known misses of a {@link ResolutionCache}.
+         */
+        KNOWN_MISSES_SKIPPED,
+        
+        /**
+         * Class or member lookups answered by the {@link SharedRegistry}.
+         */
+        SHARED_REGISTRY_HITS
+    }
+    
+    /**
+     * Timed operations.
+     */
+    public enum Timer
+    {
+        /**
+         * Resolving a server version (which happens once per version type).
+         */
+        SERVER_RESOLUTION,
+        
+        /**
+         * Looking up a class that wasn't cached.
+         */
+        CLASS_LOOKUP,
+        
+        /**
+         * Looking up a member that wasn't cached.
+         */
+        MEMBER_LOOKUP
+    }
+    
+    /**
+     * Checks if metrics are enabled.
+     *
+     * @return {@code true} if enabled with the {@link #ENABLED_PROPERTY system property}
+     */
+    public static boolean isEnabled() { return ENABLED; }
+    
+    /**
+     * Takes a snapshot of all metrics. If metrics are disabled, everything is zero.
+     *
+     * @return a snapshot of the current metrics
+     */
+    public static Snapshot snapshot() { return GLOBAL.takeSnapshot(); }
+    
+    /**
+     * Resets all metrics to zero. Updates concurrent with resetting may be lost.
+     */
+    public static void reset() { GLOBAL.clear(); }
+    
+    static void increment(Counter counter)
+    {
+        if (ENABLED) { GLOBAL.count(counter); }
+    }
+    
+    static void parsed(long packed)
+    {
+        if (ENABLED)
+        {
+            GLOBAL.count(Counter.PARSES);
+            if (packed < 0) { GLOBAL.count(Counter.PARSE_FAILURES); }
+        }
+    }
+    
+    static long startTime()
+    {
+        return (ENABLED) ? System.nanoTime() : 0;
+    }
+    
+    static void stopTime(Timer timer, long startTime)
+    {
+        if (ENABLED) { GLOBAL.time(timer, System.nanoTime() - startTime); }
+    }
+    
+    // Durations under 2^i nanoseconds (but not under 2^(i - 1)) fall in bucket i; the last bucket is unbounded.
+    private static final int BUCKETS = 40;
+    
+    private static int bucket(long nanos)
+    {
+        return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+    }
+    
+    private final LongAdder[] counters = adders(Counter.values().length);
+    private final LongAdder[][] buckets = new LongAdder[Timer.values().length][];
+    private final LongAdder[] totalNanos = adders(Timer.values().length);
+    
+    private static LongAdder[] adders(int size)
+    {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) { adders[i] = new LongAdder(); }
+        return adders;
+    }
+    
+    VersionMetrics()
+    {
+        for (int i = 0; i < buckets.length; i++) { buckets[i] = adders(BUCKETS); }
+    }
+    
+    void count(Counter counter) { counters[counter.ordinal()].increment(); }
+    
+    void time(Timer timer, long nanos)
+    {
+        buckets[timer.ordinal()][bucket(nanos)].increment();
+        totalNanos[timer.ordinal()].add(nanos);
+    }
+    
+    void clear()
+    {
+        for (LongAdder counter : counters) { counter.reset(); }
+        for (LongAdder total : totalNanos) { total.reset(); }
+        for (LongAdder[] histogram : buckets) { for (LongAdder bucket : histogram) { bucket.reset(); } }
+    }
+    
+    Snapshot takeSnapshot()
+    {
+        Map<Counter, Long> counts = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) { counts.put(counter, counters[counter.ordinal()].sum()); }
+        
+        Map<Timer, Histogram> histograms = new EnumMap<>(Timer.class);
+        
+        for (Timer timer : Timer.values())
+        {
+            long[] counted = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) { counted[i] = buckets[timer.ordinal()][i].sum(); }
+            histograms.put(timer, new Histogram(counted, totalNanos[timer.ordinal()].sum()));
+        }
+        
+        return new Snapshot(counts, histograms);
+    }
+    
+    /**
+     * An immutable point-in-time copy of all metrics.
+     */
+    public static final class Snapshot
+    {
+        private final Map<Counter, Long> counts;
+        private final Map<Timer, Histogram> histograms;
+        
+        private Snapshot(Map<Counter, Long> counts, Map<Timer, Histogram> histograms)
+        {
+            this.counts = counts;
+            this.histograms = histograms;
+        }
+        
+        /**
+         * Gets a counter's value.
+         *
+         * @param counter   the counter
+         *
+         * @return the counter's value
+         */
+        public long count(Counter counter) { return counts.get(counter); }
+        
+        /**
+         * Gets a timer's latency histogram.
+         *
+         * @param timer     the timer
+         *
+         * @return the timer's histogram
+         */
+        public Histogram latency(Timer timer) { return histograms.get(timer); }
+        
+        @Override
+        public String toString()
+        {
+            return "VersionMetrics.Snapshot{counts=" + counts + ", latencies=" + histograms + "}";
+        }
+    }
+    
+    /**
+     * An immutable latency histogram with power-of-two nanosecond buckets.
+     */
+    public static final class Histogram
+    {
+        private final long[] buckets;
+        private final long totalNanos;
+        private final long count;
+        
+        private Histogram(long[] buckets, long totalNanos)
+        {
+            this.buckets = buckets;
+            this.totalNanos = totalNanos;
+            this.count = Arrays.stream(buckets).sum();
+        }
+        
+        /**
+         * Gets the number of timed operations.
+         *
+         * @return number of operations
+         */
+        public long count() { return count; }
+        
+        /**
+         * Gets the total time of all timed operations.
+         *
+         * @return total nanoseconds
+         */
+        public long totalNanos() { return totalNanos; }
+        
+        /**
+         * Gets the mean time of the timed operations.
+         *
+         * @return mean nanoseconds, or zero if nothing was timed
+         */
+        public double meanNanos() { return (count == 0) ? 0 : (double) totalNanos / count; }
+        
+        /**
+         * Gets the number of buckets.
+         *
+         * @return number of buckets
+         */
+        public int bucketCount() { return buckets.length; }
+        
+        /**
+         * Gets the number of operations in a bucket.
+         *
+         * @param bucket    bucket index
+         *
+         * @return number of operations that took less than
+         *         {@link #bucketUpperBoundNanos(int) the bucket's upper bound}
+         *         but at least the previous bucket's
+         */
+        public long bucket(int bucket) { return buckets[bucket]; }
+        
+        /**
+         * Gets the exclusive upper bound of a bucket.
+         *
+         * @param bucket    bucket index
+         *
+         * @return upper bound in nanoseconds, or {@link Long#MAX_VALUE} for the last bucket
+         */
+        public long bucketUpperBoundNanos(int bucket)
+        {
+            return (bucket >= buckets.length - 1) ? Long.MAX_VALUE : 1L << bucket;
+        }
+        
+        /**
+         * Estimates a percentile as the upper bound of the bucket containing it.
+         *
+         * @param percentile    percentile, from 0 to 100
+         *
+         * @return the estimated percentile in nanoseconds, or zero if nothing was timed
+         * @throws IllegalArgumentException if the percentile is out of range
+         */
+        public long percentileNanos(double percentile)
+        {
+            if (!(percentile >= 0 && percentile <= 100)) { throw new IllegalArgumentException("Invalid percentile: " + percentile); }
+            if (count == 0) { return 0; }
+            
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            
+            for (int i = 0; i < buckets.length; i++)
+            {
+                seen += buckets[i];
+                if (seen >= rank) { return bucketUpperBoundNanos(i); }
+            }
+            
+            return Long.MAX_VALUE;
+        }
+        
+        @Override
+        public String toString()
+        {
+            return "{count=" + count + ", meanNanos=" + (long) meanNanos() + ", p99Nanos<" + percentileNanos(99) + "}";
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static community.leaf.evergreen.bukkit.versions.VersionRangeMap.UNBOUNDED_END;
+import static community.leaf.evergreen.bukkit.versions.VersionRangeMap.UNBOUNDED_START;
+
+/**
+ * An immutable, non-empty, contiguous range of versions.
+ *
+ * <p>Ranges are stored as a pair of packed versions, so checking whether
+ * a range contains a version is two comparisons without allocating.</p>
+ *
+ * <p>Bounds follow the total order of versions, so a range starting
+ * from {@code 1.21} excludes {@code 1.21-pre1}, which comes before it.</p>
+ *
+ * @see VersionSet
+ */
+@SuppressWarnings("unused")
+public final class VersionRange
+{
+    private static final VersionRange ALL = new VersionRange(UNBOUNDED_START, UNBOUNDED_END);
+    
+    // Parsed in place of an interval bound that's left out.
+    private static final long BLANK = -3;
+    
+    // The packed version directly after another: inclusive upper bounds end just past it.
+    static long after(long packed) { return packed + 1; }
+    
+    static VersionRange of(long start, long end)
+    {
+        if (start >= end) { throw new IllegalArgumentException("Empty range: " + VersionRangeMap.rangeToString(start, end)); }
+        return new VersionRange(start, end);
+    }
+    
+    /**
+     * Gets the range of all versions.
+     *
+     * @return a range without bounds
+     */
+    public static VersionRange all() { return ALL; }
+    
+    /**
+     * Gets the range of exactly one version.
+     *
+     * @param version   the version
+     *
+     * @return a range containing only the version
+     */
+    public static VersionRange exactly(MinecraftVersion version)
+    {
+        return of(version.packed(), after(version.packed()));
+    }
+    
+    /**
+     * Gets the closed range of versions from {@code since} through {@code through}, both included.
+     *
+     * @param since     lowest version in the range (inclusive)
+     * @param through   highest version in the range (inclusive)
+     *
+     * @return a closed range
+     * @throws IllegalArgumentException if {@code since} is greater than {@code through}
+     */
+    public static VersionRange between(MinecraftVersion since, MinecraftVersion through)
+    {
+        return of(since.packed(), after(through.packed()));
+    }
+    
+    /**
+     * Gets the range of every version starting from {@code since}.
+     *
+     * @param since     lowest version in the range (inclusive)
+     *
+     * @return a range without an upper bound
+     */
+    public static VersionRange atLeast(MinecraftVersion since)
+    {
+        return of(since.packed(), UNBOUNDED_END);
+    }
+    
+    /**
+     * Gets the range of every version up to and including {@code through}.
+     *
+     * @param through   highest version in the range (inclusive)
+     *
+     * @return a range without a lower bound
+     */
+    public static VersionRange atMost(MinecraftVersion through)
+    {
+        return of(UNBOUNDED_START, after(through.packed()));
+    }
+    
+    /**
+     * Gets the range of every version up to but excluding {@code until}.
+     *
+     * @param until     version ending the range (exclusive)
+     *
+     * @return a range without a lower bound
+     * @throws IllegalArgumentException if the range would be empty
+     */
+    public static VersionRange lessThan(MinecraftVersion until)
+    {
+        return of(UNBOUNDED_START, until.packed());
+    }
+    
+    /**
+     * Parses the input text into a version range.
+     *
+     * <p>Valid ranges are:</p>
+     * <ul>
+     *     <li>Interval notation, where square brackets include and
+     *     parentheses exclude a bound, and either bound may be left out:
+     *     {@code [1.16.5,1.20.4]}, {@code [1.17,1.21)}, {@code [1.8,)}</li>
+     *     <li>A version followed by a plus, for that version and above: {@code 1.17+}</li>
+     *     <li>A single version, for exactly that version: {@code 1.12.2}</li>
+     * </ul>
+     *
+     * <p>Versions must be exact, like {@link MinecraftVersion#parseExactMinecraftVersion(CharSequence)},
+     * and surrounding whitespace is ignored. Note that {@code 1.17} means {@code 1.17.0}, so the
+     * range {@code [1.16,1.17]} excludes {@code 1.17.1}; write {@code [1.16,1.18)} for every 1.16
+     * and 1.17 release, which also includes the 1.18 snapshots and pre-releases since they come
+     * before {@code 1.18}. Snapshots, pre-releases, and release candidates are valid bounds too,
+     * like {@code [1.20.5-pre1,1.21)} or {@code 24w14a+}.</p>
+     *
+     * @param text  input text
+     *
+     * @return the parsed range if the entire text is a valid non-empty range, otherwise empty
+     */
+    public static Optional<VersionRange> parseVersionRange(CharSequence text)
+    {
+        Objects.requireNonNull(text, "text");
+        return Optional.ofNullable(parse(text, 0, text.length()));
+    }
+    
+    private static boolean isWhitespace(CharSequence text, int index) { return Character.isWhitespace(text.charAt(index)); }
+    
+    // Parses a version range spanning the text between the indices, or returns null if it isn't one.
+    static @NullOr VersionRange parse(CharSequence text, int start, int end)
+    {
+        while (start < end && isWhitespace(text, start)) { start++; }
+        while (end > start && isWhitespace(text, end - 1)) { end--; }
+        if (start >= end) { return null; }
+        
+        char open = text.charAt(start);
+        char close = text.charAt(end - 1);
+        
+        if (open == '[' || open == '(')
+        {
+            if (close != ']' && close != ')') { return null; }
+            
+            int comma = start + 1;
+            while (comma < end - 1 && text.charAt(comma) != ',') { comma++; }
+            if (comma >= end - 1) { return null; }
+            
+            long lower = bound(text, start + 1, comma);
+            long upper = bound(text, comma + 1, end - 1);
+            if (lower == VersionScanner.NO_MATCH || upper == VersionScanner.NO_MATCH) { return null; }
+            
+            long rangeStart = (lower == BLANK) ? UNBOUNDED_START : (open == '[') ? lower : after(lower);
+            long rangeEnd = (upper == BLANK) ? UNBOUNDED_END : (close == ']') ? after(upper) : upper;
+            
+            return (rangeStart < rangeEnd) ? new VersionRange(rangeStart, rangeEnd) : null;
+        }
+        
+        boolean isOpenEnded = close == '+';
+        long packed = VersionScanner.scanExactMinecraftVersion(text, start, (isOpenEnded) ? end - 1 : end);
+        if (packed < 0) { return null; }
+        
+        return new VersionRange(packed, (isOpenEnded) ? UNBOUNDED_END : after(packed));
+    }
+    
+    // Parses an interval bound: a packed version, BLANK if left out, or NO_MATCH.
+    private static long bound(CharSequence text, int start, int end)
+    {
+        while (start < end && isWhitespace(text, start)) { start++; }
+        while (end > start && isWhitespace(text, end - 1)) { end--; }
+        if (start >= end) { return BLANK; }
+        
+        long packed = VersionScanner.scanExactMinecraftVersion(text, start, end);
+        return (packed >= 0) ? packed : VersionScanner.NO_MATCH;
+    }
+    
+    private final long start;
+    private final long end;
+    
+    private VersionRange(long start, long end)
+    {
+        this.start = start;
+        this.end = end;
+    }
+    
+    long start() { return start; }
+    
+    long end() { return end; }
+    
+    /**
+     * Checks if the range contains the packed version.
+     *
+     * @param packed    packed version
+     *
+     * @return {@code true} if the range contains the version
+     * @see MinecraftVersion#packed()
+     */
+    public boolean contains(long packed) { return packed >= start && packed < end; }
+    
+    /**
+     * Checks if the range contains the version.
+     *
+     * @param version   the version
+     *
+     * @return {@code true} if the range contains the version
+     */
+    public boolean contains(MinecraftVersion version) { return contains(version.packed()); }
+    
+    /**
+     * Checks if the range contains every version of another range.
+     *
+     * @param range     the other range
+     *
+     * @return {@code true} if this range encloses the other range
+     */
+    public boolean encloses(VersionRange range) { return start <= range.start && range.end <= end; }
+    
+    /**
+     * Checks if the range shares any versions with another range.
+     *
+     * @param range     the other range
+     *
+     * @return {@code true} if the ranges intersect
+     */
+    public boolean intersects(VersionRange range) { return start < range.end && range.start < end; }
+    
+    /**
+     * Converts this range into a set.
+     *
+     * @return a set of the versions in this range
+     */
+    public VersionSet toSet() { return VersionSet.of(this); }
+    
+    @Override
+    public boolean equals(@NullOr Object o)
+    {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        VersionRange that = (VersionRange) o;
+        return start == that.start && end == that.end;
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return 31 * Long.hashCode(start) + Long.hashCode(end);
+    }
+    
+    /**
+     * Formats the range in interval notation, like
+     * {@code [1.16.5,1.20.4]}, which parses back into an equal range.
+     *
+     * @return the range in interval notation
+     */
+    @Override
+    public String toString()
+    {
+        return VersionRangeMap.rangeToString(start, end);
+    }
+}
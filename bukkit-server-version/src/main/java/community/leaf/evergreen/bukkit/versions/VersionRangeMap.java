@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable map of non-overlapping, half-open version ranges to values.
+ *
+ * <p>Ranges are stored as sorted arrays of packed versions, so looking up
+ * the value for any version is a binary search: {@code O(log n)} without
+ * allocating (except for the returned optional). Overlapping ranges, and
+ * unless explicitly allowed, gaps between ranges, are rejected when built.</p>
+ *
+ * @param <T>   value type
+ */
+@SuppressWarnings("unused")
+public final class VersionRangeMap<T>
+{
+    /**
+     * The lowest possible packed version, used for ranges without a lower bound.
+     */
+    static final long UNBOUNDED_START = 0;
+    
+    /**
+     * A packed key higher than any version, used for ranges without an upper bound.
+     */
+    static final long UNBOUNDED_END = Long.MAX_VALUE;
+    
+    /**
+     * Creates a new builder.
+     *
+     * @param <T>   value type
+     *
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder() { return new Builder<>(); }
+    
+    private final long[] starts;
+    private final long[] ends;
+    private final Object[] values;
+    
+    private VersionRangeMap(long[] starts, long[] ends, Object[] values)
+    {
+        this.starts = starts;
+        this.ends = ends;
+        this.values = values;
+    }
+    
+    // Index of the range containing the version, or -1.
+    private int indexOf(long packed)
+    {
+        int index = Arrays.binarySearch(starts, packed);
+        if (index < 0) { index = -index - 2; } // The range starting before the version, if any.
+        return (index >= 0 && packed < ends[index]) ? index : -1;
+    }
+    
+    /**
+     * Gets the value whose range contains the packed version.
+     *
+     * @param packed    packed version
+     *
+     * @return the value if a range contains the version, otherwise {@code null}
+     * @see MinecraftVersion#packed()
+     */
+    @SuppressWarnings("unchecked")
+    public @NullOr T getOrNull(long packed)
+    {
+        int index = indexOf(packed);
+        return (index >= 0) ? (T) values[index] : null;
+    }
+    
+    /**
+     * Gets the value whose range contains the version.
+     *
+     * @param version   the version
+     *
+     * @return the value if a range contains the version, otherwise empty
+     */
+    public Optional<T> get(MinecraftVersion version)
+    {
+        return Optional.ofNullable(getOrNull(version.packed()));
+    }
+    
+    /**
+     * Checks if any range contains the version.
+     *
+     * @param version   the version
+     *
+     * @return {@code true} if a range contains the version
+     */
+    public boolean contains(MinecraftVersion version)
+    {
+        return indexOf(version.packed()) >= 0;
+    }
+    
+    /**
+     * Gets the number of ranges.
+     *
+     * @return number of ranges
+     */
+    public int size() { return starts.length; }
+    
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("{");
+        
+        for (int i = 0; i < starts.length; i++)
+        {
+            if (i > 0) { builder.append(", "); }
+            builder.append(rangeToString(starts[i], ends[i])).append('=').append(values[i]);
+        }
+        
+        return builder.append('}').toString();
+    }
+    
+    // Bounds are versions or the keys directly after them, which print as the version they follow.
+    static String rangeToString(long start, long end)
+    {
+        String lower = (start == UNBOUNDED_START) ? "["
+            : (MinecraftVersion.isPacked(start)) ? "[" + MinecraftVersion.toString(start)
+            : "(" + MinecraftVersion.toString(start - 1);
+        
+        String upper = (end == UNBOUNDED_END) ? ")"
+            : (MinecraftVersion.isPacked(end)) ? MinecraftVersion.toString(end) + ")"
+            : MinecraftVersion.toString(end - 1) + "]";
+        
+        return lower + "," + upper;
+    }
+    
+    /**
+     * Builds version range maps.
+     *
+     * @param <T>   value type
+     */
+    public static final class Builder<T>
+    {
+        private static final class Entry<T>
+        {
+            final long start;
+            final long end;
+            final T value;
+            
+            Entry(long start, long end, T value)
+            {
+                this.start = start;
+                this.end = end;
+                this.value = value;
+            }
+        }
+        
+        private final List<Entry<T>> entries = new ArrayList<>();
+        private boolean allowGaps = false;
+        
+        private Builder() {}
+        
+        private Builder<T> add(long start, long end, T value)
+        {
+            Objects.requireNonNull(value, "value");
+            
+            if (start >= end)
+            {
+                throw new IllegalArgumentException("Empty range: " + rangeToString(start, end));
+            }
+            
+            entries.add(new Entry<>(start, end, value));
+            return this;
+        }
+        
+        /**
+         * Maps a half-open range of versions to a value:
+         * including {@code since}, up to but excluding {@code until}.
+         *
+         * @param since     lowest version in the range (inclusive)
+         * @param until     version ending the range (exclusive)
+         * @param value     the value
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the range is empty
+         */
+        public Builder<T> range(MinecraftVersion since, MinecraftVersion until, T value)
+        {
+            return add(since.packed(), until.packed(), value);
+        }
+        
+        /**
+         * Maps every version starting from {@code since} to a value.
+         *
+         * @param since     lowest version in the range (inclusive)
+         * @param value     the value
+         *
+         * @return this builder
+         */
+        public Builder<T> since(MinecraftVersion since, T value)
+        {
+            return add(since.packed(), UNBOUNDED_END, value);
+        }
+        
+        /**
+         * Maps every version up to but excluding {@code until} to a value.
+         *
+         * @param until     version ending the range (exclusive)
+         * @param value     the value
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the range is empty
+         */
+        public Builder<T> until(MinecraftVersion until, T value)
+        {
+            return add(UNBOUNDED_START, until.packed(), value);
+        }
+        
+        /**
+         * Allows gaps between ranges, which are otherwise rejected when built.
+         *
+         * @return this builder
+         */
+        public Builder<T> allowGaps()
+        {
+            this.allowGaps = true;
+            return this;
+        }
+        
+        /**
+         * Builds the map.
+         *
+         * @return a new immutable map
+         * @throws IllegalStateException if any ranges overlap,
+         *                               or if there are gaps between ranges that weren't allowed
+         */
+        public VersionRangeMap<T> build()
+        {
+            List<Entry<T>> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparingLong(entry -> entry.start));
+            
+            int size = sorted.size();
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            Object[] values = new Object[size];
+            
+            for (int i = 0; i < size; i++)
+            {
+                Entry<T> entry = sorted.get(i);
+                
+                if (i > 0 && ends[i - 1] != entry.start)
+                {
+                    boolean isOverlap = ends[i - 1] > entry.start;
+                    
+                    if (isOverlap || !allowGaps)
+                    {
+                        throw new IllegalStateException(
+                            ((isOverlap) ? "Overlapping ranges: " : "Gap between ranges: ") +
+                            rangeToString(starts[i - 1], ends[i - 1]) + " and " + rangeToString(entry.start, entry.end)
+                        );
+                    }
+                }
+                
+                starts[i] = entry.start;
+                ends[i] = entry.end;
+                values[i] = entry.value;
+            }
+            
+            return new VersionRangeMap<>(starts, ends, values);
+        }
+    }
+}
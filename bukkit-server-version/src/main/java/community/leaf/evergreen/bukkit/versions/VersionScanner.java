@@ -0,0 +1,467 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hand-written, allocation-free scanners for version text.
+ *
+ * <p>Each scanner mirrors a former regular expression exactly, including
+ * {@link java.util.regex.Matcher#find()} semantics: the first match anywhere
+ * in the input wins. Results are packed keys (see {@link MinecraftVersion#pack(int, int, int)})
+ * or one of the negative sentinels below.</p>
+ *
+ * <p>Minecraft versions may be followed by a snapshot, pre-release, or release
+ * candidate qualifier, in any of the forms Mojang has used: {@code -pre1},
+ * {@code -pre-1}, {@code -rc1}, {@code -snapshot-1}, {@code " Pre-Release 1"},
+ * or {@code " Release Candidate 1"}. Weekly snapshots, like {@code 24w14a},
+ * are placed before their release by {@link WeeklySnapshots}.</p>
+ */
+final class VersionScanner
+{
+    private VersionScanner() { throw new UnsupportedOperationException(); }
+    
+    /**
+     * The input does not contain a version.
+     */
+    static final long NO_MATCH = -1;
+    
+    /**
+     * The input contains a version, but one of its numbers exceeds {@link MinecraftVersion#MAX_COMPONENT}.
+     */
+    static final long OUT_OF_RANGE = -2;
+    
+    private static final String CRAFTBUKKIT_PACKAGE_PREFIX = "org.bukkit.craftbukkit.";
+    
+    // Numbers are capped just above the maximum so that long digit runs can't overflow.
+    private static final int CAPPED = MinecraftVersion.MAX_COMPONENT + 1;
+    
+    // Qualifier prefixes and the stage each introduces. Dashed prefixes may be followed by another dash.
+    private static final String[] STAGE_PREFIXES = {"-snapshot", "-pre", "-rc", " Pre-Release ", " Release Candidate "};
+    
+    private static final MinecraftVersion.Stage[] PREFIXED_STAGES = {
+        MinecraftVersion.Stage.SNAPSHOT,
+        MinecraftVersion.Stage.PRE_RELEASE,
+        MinecraftVersion.Stage.RELEASE_CANDIDATE,
+        MinecraftVersion.Stage.PRE_RELEASE,
+        MinecraftVersion.Stage.RELEASE_CANDIDATE
+    };
+    
+    private static final int RELEASE = MinecraftVersion.Stage.RELEASE.qualifier;
+    
+    // A qualifier whose number exceeds MinecraftVersion.MAX_STAGE_NUMBER.
+    private static final int QUALIFIER_OUT_OF_RANGE = -1;
+    
+    // The text isn't shaped like a weekly snapshot (as opposed to being an unknown one).
+    private static final long NOT_WEEKLY = -3;
+    
+    private static final int WEEKLY_LENGTH = 6;
+    
+    static boolean isDigit(char c) { return c >= '0' && c <= '9'; }
+    
+    private static boolean isDigitAt(CharSequence text, int index, int end)
+    {
+        return index < end && isDigit(text.charAt(index));
+    }
+    
+    // Returns the number in the upper half and the index after its last digit in the lower half.
+    private static long digits(CharSequence text, int index, int end)
+    {
+        int number = 0;
+        
+        for (; index < end; index++)
+        {
+            char c = text.charAt(index);
+            if (!isDigit(c)) { break; }
+            number = Math.min(number * 10 + (c - '0'), CAPPED);
+        }
+        
+        return ((long) number << 32) | index;
+    }
+    
+    private static int number(long digits) { return (int) (digits >>> 32); }
+    
+    private static int index(long digits) { return (int) digits; }
+    
+    private static long packOrOutOfRange(int major, int minor, int patch)
+    {
+        return packOrOutOfRange(major, minor, patch, RELEASE);
+    }
+    
+    private static long packOrOutOfRange(int major, int minor, int patch, int qualifier)
+    {
+        return (major >= CAPPED || minor >= CAPPED || patch >= CAPPED || qualifier == QUALIFIER_OUT_OF_RANGE)
+            ? OUT_OF_RANGE
+            : MinecraftVersion.packUnchecked(major, minor, patch, qualifier);
+    }
+    
+    private static long qualified(int qualifier, int index) { return ((long) qualifier << 32) | index; }
+    
+    private static int qualifierOf(long qualified) { return (int) (qualified >> 32); }
+    
+    private static long qualifier(MinecraftVersion.Stage stage, long digits)
+    {
+        int number = number(digits);
+        if (number > MinecraftVersion.MAX_STAGE_NUMBER) { return qualified(QUALIFIER_OUT_OF_RANGE, index(digits)); }
+        return qualified(stage.qualifier + number, index(digits));
+    }
+    
+    private static boolean startsWith(CharSequence text, int index, int end, String prefix)
+    {
+        if (end - index < prefix.length()) { return false; }
+        
+        for (int i = 0; i < prefix.length(); i++)
+        {
+            if (text.charAt(index + i) != prefix.charAt(i)) { return false; }
+        }
+        
+        return true;
+    }
+    
+    // Returns the qualifier in the upper half and the index after it in the lower half:
+    // a release and the unchanged index if there's no qualifier (or its number is zero).
+    private static long qualifier(CharSequence text, int index, int end)
+    {
+        for (int i = 0; i < STAGE_PREFIXES.length; i++)
+        {
+            String prefix = STAGE_PREFIXES[i];
+            if (!startsWith(text, index, end, prefix)) { continue; }
+            
+            int numberStart = index + prefix.length();
+            if (prefix.charAt(0) == '-' && numberStart < end && text.charAt(numberStart) == '-') { numberStart++; }
+            if (!isDigitAt(text, numberStart, end)) { continue; }
+            
+            long digits = digits(text, numberStart, end);
+            return (number(digits) == 0) ? qualified(RELEASE, index) : qualifier(PREFIXED_STAGES[i], digits);
+        }
+        
+        return qualified(RELEASE, index);
+    }
+    
+    // Packs a weekly snapshot, or returns NO_MATCH if it isn't in the table.
+    private static long weeklySnapshot(int year, int week, int letter)
+    {
+        int ordinal = WeeklySnapshots.ordinal(year, week, letter);
+        long release = (ordinal > 0) ? WeeklySnapshots.release(ordinal) : -1;
+        return (release < 0) ? NO_MATCH : MinecraftVersion.floor(release) | ordinal;
+    }
+    
+    private static int twoDigits(char tens, char ones) { return (tens - '0') * 10 + (ones - '0'); }
+    
+    // Matches "{year}w{week}{letter}" at the index.
+    private static long weeklySnapshotAt(CharSequence text, int index, int end)
+    {
+        if (end - index < WEEKLY_LENGTH) { return NOT_WEEKLY; }
+        
+        char letter = text.charAt(index + 5);
+        
+        if (!isDigit(text.charAt(index)) || !isDigit(text.charAt(index + 1)) || text.charAt(index + 2) != 'w'
+            || !isDigit(text.charAt(index + 3)) || !isDigit(text.charAt(index + 4)) || letter < 'a' || letter > 'z')
+        {
+            return NOT_WEEKLY;
+        }
+        
+        return weeklySnapshot(
+            twoDigits(text.charAt(index), text.charAt(index + 1)),
+            twoDigits(text.charAt(index + 3), text.charAt(index + 4)),
+            letter - 'a'
+        );
+    }
+    
+    /**
+     * Scans for the first {@code {major}(.{minor})?(.{patch})?{qualifier}?} version
+     * (or known weekly snapshot) in the text. Unknown weekly snapshots are skipped.
+     *
+     * @param text  input text
+     * @param start start index (inclusive)
+     * @param end   end index (exclusive)
+     *
+     * @return packed version, {@link #NO_MATCH}, or {@link #OUT_OF_RANGE}
+     */
+    static long scanMinecraftVersion(CharSequence text, int start, int end)
+    {
+        int index = start;
+        
+        while (true)
+        {
+            while (index < end && !isDigit(text.charAt(index))) { index++; }
+            if (index >= end) { return NO_MATCH; }
+            
+            // Unknown weekly snapshots (like ones newer than the table) are skipped, not matched.
+            long weekly = weeklySnapshotAt(text, index, end);
+            if (weekly == NOT_WEEKLY) { break; }
+            if (weekly != NO_MATCH) { return weekly; }
+            index += WEEKLY_LENGTH;
+        }
+        
+        long major = digits(text, index, end);
+        index = index(major);
+        
+        int minor = 0;
+        int patch = 0;
+        
+        if (index < end && text.charAt(index) == '.' && isDigitAt(text, index + 1, end))
+        {
+            long digits = digits(text, index + 1, end);
+            minor = number(digits);
+            index = index(digits);
+            
+            if (index < end && text.charAt(index) == '.' && isDigitAt(text, index + 1, end))
+            {
+                digits = digits(text, index + 1, end);
+                patch = number(digits);
+                index = index(digits);
+            }
+        }
+        
+        return packOrOutOfRange(number(major), minor, patch, qualifierOf(qualifier(text, index, end)));
+    }
+    
+    private static boolean isDigitAt(ByteBuffer bytes, int index, int end)
+    {
+        return index < end && isDigit((char) bytes.get(index));
+    }
+    
+    private static long digits(ByteBuffer bytes, int index, int end)
+    {
+        int number = 0;
+        
+        for (; index < end; index++)
+        {
+            int digit = bytes.get(index) - '0';
+            if (digit < 0 || digit > 9) { break; }
+            number = Math.min(number * 10 + digit, CAPPED);
+        }
+        
+        return ((long) number << 32) | index;
+    }
+    
+    private static boolean startsWith(ByteBuffer bytes, int index, int end, String prefix)
+    {
+        if (end - index < prefix.length()) { return false; }
+        
+        for (int i = 0; i < prefix.length(); i++)
+        {
+            if (bytes.get(index + i) != prefix.charAt(i)) { return false; }
+        }
+        
+        return true;
+    }
+    
+    private static long qualifier(ByteBuffer bytes, int index, int end)
+    {
+        for (int i = 0; i < STAGE_PREFIXES.length; i++)
+        {
+            String prefix = STAGE_PREFIXES[i];
+            if (!startsWith(bytes, index, end, prefix)) { continue; }
+            
+            int numberStart = index + prefix.length();
+            if (prefix.charAt(0) == '-' && numberStart < end && bytes.get(numberStart) == '-') { numberStart++; }
+            if (!isDigitAt(bytes, numberStart, end)) { continue; }
+            
+            long digits = digits(bytes, numberStart, end);
+            return (number(digits) == 0) ? qualified(RELEASE, index) : qualifier(PREFIXED_STAGES[i], digits);
+        }
+        
+        return qualified(RELEASE, index);
+    }
+    
+    private static long weeklySnapshotAt(ByteBuffer bytes, int index, int end)
+    {
+        if (end - index < WEEKLY_LENGTH) { return NOT_WEEKLY; }
+        
+        char letter = (char) bytes.get(index + 5);
+        
+        if (!isDigitAt(bytes, index, end) || !isDigitAt(bytes, index + 1, end) || bytes.get(index + 2) != 'w'
+            || !isDigitAt(bytes, index + 3, end) || !isDigitAt(bytes, index + 4, end) || letter < 'a' || letter > 'z')
+        {
+            return NOT_WEEKLY;
+        }
+        
+        return weeklySnapshot(
+            twoDigits((char) bytes.get(index), (char) bytes.get(index + 1)),
+            twoDigits((char) bytes.get(index + 3), (char) bytes.get(index + 4)),
+            letter - 'a'
+        );
+    }
+    
+    /**
+     * Scans for the first {@code {major}(.{minor})?(.{patch})?{qualifier}?} version
+     * (or known weekly snapshot) in ASCII-compatible bytes, exactly like
+     * {@link #scanMinecraftVersion(CharSequence, int, int)}.
+     * Bytes are read with absolute indexes, so the buffer's position is unaffected.
+     *
+     * @param bytes input bytes
+     * @param start start index (inclusive)
+     * @param end   end index (exclusive)
+     *
+     * @return packed version, {@link #NO_MATCH}, or {@link #OUT_OF_RANGE}
+     */
+    static long scanMinecraftVersion(ByteBuffer bytes, int start, int end)
+    {
+        int index = start;
+        
+        while (true)
+        {
+            while (index < end && !isDigitAt(bytes, index, end)) { index++; }
+            if (index >= end) { return NO_MATCH; }
+            
+            // Unknown weekly snapshots (like ones newer than the table) are skipped, not matched.
+            long weekly = weeklySnapshotAt(bytes, index, end);
+            if (weekly == NOT_WEEKLY) { break; }
+            if (weekly != NO_MATCH) { return weekly; }
+            index += WEEKLY_LENGTH;
+        }
+        
+        long major = digits(bytes, index, end);
+        index = index(major);
+        
+        int minor = 0;
+        int patch = 0;
+        
+        if (index < end && bytes.get(index) == '.' && isDigitAt(bytes, index + 1, end))
+        {
+            long digits = digits(bytes, index + 1, end);
+            minor = number(digits);
+            index = index(digits);
+            
+            if (index < end && bytes.get(index) == '.' && isDigitAt(bytes, index + 1, end))
+            {
+                digits = digits(bytes, index + 1, end);
+                patch = number(digits);
+                index = index(digits);
+            }
+        }
+        
+        return packOrOutOfRange(number(major), minor, patch, qualifierOf(qualifier(bytes, index, end)));
+    }
+    
+    /**
+     * Checks if the entire text region is exactly one {@code {major}(.{minor})?(.{patch})?{qualifier}?}
+     * version (or weekly snapshot).
+     *
+     * @param text  input text
+     * @param start start index (inclusive)
+     * @param end   end index (exclusive)
+     *
+     * @return packed version, {@link #NO_MATCH}, or {@link #OUT_OF_RANGE}
+     */
+    static long scanExactMinecraftVersion(CharSequence text, int start, int end)
+    {
+        if (!isDigitAt(text, start, end)) { return NO_MATCH; }
+        if (end - start == WEEKLY_LENGTH && text.charAt(start + 2) == 'w')
+        {
+            long weekly = weeklySnapshotAt(text, start, end);
+            return (weekly == NOT_WEEKLY) ? NO_MATCH : weekly;
+        }
+        
+        long major = digits(text, start, end);
+        int index = index(major);
+        int minor = 0;
+        int patch = 0;
+        
+        if (index < end && text.charAt(index) == '.')
+        {
+            if (!isDigitAt(text, index + 1, end)) { return NO_MATCH; }
+            long digits = digits(text, index + 1, end);
+            minor = number(digits);
+            index = index(digits);
+            
+            if (index < end && text.charAt(index) == '.')
+            {
+                if (!isDigitAt(text, index + 1, end)) { return NO_MATCH; }
+                digits = digits(text, index + 1, end);
+                patch = number(digits);
+                index = index(digits);
+            }
+        }
+        
+        long qualifier = qualifier(text, index, end);
+        return (index(qualifier) >= end) ? packOrOutOfRange(number(major), minor, patch, qualifierOf(qualifier)) : NO_MATCH;
+    }
+    
+    // Matches "{release}_{major}_R{revision}" directly after a 'v'.
+    private static long craftBukkitVersionAt(CharSequence text, int index, int end)
+    {
+        if (!isDigitAt(text, index, end)) { return NO_MATCH; }
+        long release = digits(text, index, end);
+        index = index(release);
+        
+        if (index >= end || text.charAt(index) != '_' || !isDigitAt(text, index + 1, end)) { return NO_MATCH; }
+        long major = digits(text, index + 1, end);
+        index = index(major);
+        
+        if (index + 1 >= end || text.charAt(index) != '_' || text.charAt(index + 1) != 'R') { return NO_MATCH; }
+        if (!isDigitAt(text, index + 2, end)) { return NO_MATCH; }
+        long revision = digits(text, index + 2, end);
+        
+        return packOrOutOfRange(number(release), number(major), number(revision));
+    }
+    
+    private static int craftBukkitVersionEnd(CharSequence text, int index, int end)
+    {
+        // Skips the three digit runs and their separators of an already matched version.
+        index = index(digits(text, index, end)) + 1;
+        index = index(digits(text, index, end)) + 2;
+        return index(digits(text, index, end));
+    }
+    
+    /**
+     * Scans for the first {@code v{release}_{major}_R{revision}} version in the text.
+     *
+     * @param text  input text
+     * @param start start index (inclusive)
+     * @param end   end index (exclusive)
+     *
+     * @return packed version, {@link #NO_MATCH}, or {@link #OUT_OF_RANGE}
+     */
+    static long scanCraftBukkitVersion(CharSequence text, int start, int end)
+    {
+        for (int index = start; index < end; index++)
+        {
+            if (text.charAt(index) != 'v') { continue; }
+            long packed = craftBukkitVersionAt(text, index + 1, end);
+            if (packed != NO_MATCH) { return packed; }
+        }
+        return NO_MATCH;
+    }
+    
+    /**
+     * Scans for the first {@code org.bukkit.craftbukkit.v{release}_{major}_R{revision}.} package in the text.
+     *
+     * @param text  input text
+     *
+     * @return packed version, {@link #NO_MATCH}, or {@link #OUT_OF_RANGE}
+     */
+    static long scanCraftBukkitPackage(String text)
+    {
+        int end = text.length();
+        int index = text.indexOf(CRAFTBUKKIT_PACKAGE_PREFIX);
+        
+        while (index >= 0)
+        {
+            int versionStart = index + CRAFTBUKKIT_PACKAGE_PREFIX.length();
+            
+            if (versionStart < end && text.charAt(versionStart) == 'v')
+            {
+                long packed = craftBukkitVersionAt(text, versionStart + 1, end);
+                
+                if (packed != NO_MATCH)
+                {
+                    int versionEnd = craftBukkitVersionEnd(text, versionStart + 1, end);
+                    if (versionEnd < end && text.charAt(versionEnd) == '.') { return packed; }
+                }
+            }
+            
+            index = text.indexOf(CRAFTBUKKIT_PACKAGE_PREFIX, index + 1);
+        }
+        
+        return NO_MATCH;
+    }
+}
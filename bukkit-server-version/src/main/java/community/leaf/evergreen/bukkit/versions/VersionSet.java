@@ -0,0 +1,384 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable set of versions, made up of any number of version ranges.
+ *
+ * <p>Sets are stored as one sorted array of packed range boundaries,
+ * where overlapping and adjacent ranges are merged. Checking whether a set
+ * contains a version is a binary search, {@code O(log n)}, and checking how
+ * two sets relate is a single merge of their boundaries: neither allocates.
+ * Combining sets only allocates the resulting set.</p>
+ *
+ * @see VersionRange
+ */
+@SuppressWarnings("unused")
+public final class VersionSet
+{
+    private static final VersionSet EMPTY = new VersionSet(new long[0]);
+    
+    private static final VersionSet ALL = of(VersionRange.all());
+    
+    /**
+     * Gets the set without any versions.
+     *
+     * @return an empty set
+     */
+    public static VersionSet empty() { return EMPTY; }
+    
+    /**
+     * Gets the set of all versions.
+     *
+     * @return a set containing every version
+     */
+    public static VersionSet all() { return ALL; }
+    
+    /**
+     * Creates a set of the provided ranges.
+     *
+     * @param ranges    the ranges
+     *
+     * @return a set of every version in any of the ranges
+     */
+    public static VersionSet of(VersionRange ... ranges)
+    {
+        return of(Arrays.asList(ranges));
+    }
+    
+    /**
+     * Creates a set of the provided ranges.
+     *
+     * @param ranges    the ranges
+     *
+     * @return a set of every version in any of the ranges
+     */
+    public static VersionSet of(List<VersionRange> ranges)
+    {
+        if (ranges.isEmpty()) { return EMPTY; }
+        
+        List<VersionRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(VersionRange::start));
+        
+        long[] boundaries = new long[sorted.size() * 2];
+        int size = 0;
+        
+        for (VersionRange range : sorted)
+        {
+            // Merges with the previous range if they overlap or touch.
+            if (size > 0 && range.start() <= boundaries[size - 1])
+            {
+                boundaries[size - 1] = Math.max(boundaries[size - 1], range.end());
+                continue;
+            }
+            
+            boundaries[size++] = range.start();
+            boundaries[size++] = range.end();
+        }
+        
+        return new VersionSet((size == boundaries.length) ? boundaries : Arrays.copyOf(boundaries, size));
+    }
+    
+    /**
+     * Creates a set of exactly the provided versions.
+     *
+     * @param versions  the versions
+     *
+     * @return a set of the versions
+     */
+    public static VersionSet of(MinecraftVersion ... versions)
+    {
+        List<VersionRange> ranges = new ArrayList<>(versions.length);
+        for (MinecraftVersion version : versions) { ranges.add(VersionRange.exactly(version)); }
+        return of(ranges);
+    }
+    
+    /**
+     * Parses the input text into a version set.
+     *
+     * <p>The text is a list of {@link VersionRange#parseVersionRange(CharSequence) ranges}
+     * separated by commas or whitespace, like: {@code 1.8.8, 1.12.2, [1.16.5,1.20.4], 1.21+}.
+     * Blank text is an empty set.</p>
+     *
+     * @param text  input text
+     *
+     * @return the parsed set if every range is valid, otherwise empty
+     */
+    public static Optional<VersionSet> parseVersionSet(CharSequence text)
+    {
+        Objects.requireNonNull(text, "text");
+        
+        List<VersionRange> ranges = new ArrayList<>();
+        int length = text.length();
+        int index = 0;
+        
+        while (index < length)
+        {
+            char c = text.charAt(index);
+            
+            if (c == ',' || Character.isWhitespace(c))
+            {
+                index++;
+                continue;
+            }
+            
+            int end = index;
+            
+            if (c == '[' || c == '(')
+            {
+                // Intervals contain a comma: the range ends where the interval closes.
+                while (end < length && text.charAt(end) != ']' && text.charAt(end) != ')') { end++; }
+                end = Math.min(end + 1, length);
+            }
+            else
+            {
+                while (end < length && text.charAt(end) != ',' && !Character.isWhitespace(text.charAt(end))) { end++; }
+            }
+            
+            @NullOr VersionRange range = VersionRange.parse(text, index, end);
+            if (range == null) { return Optional.empty(); }
+            
+            ranges.add(range);
+            index = end;
+        }
+        
+        return Optional.of(of(ranges));
+    }
+    
+    // Starts and ends of ranges, alternating: start inclusive, end exclusive.
+    private final long[] boundaries;
+    
+    private VersionSet(long[] boundaries)
+    {
+        this.boundaries = boundaries;
+    }
+    
+    /**
+     * Checks if the set contains the packed version.
+     *
+     * @param packed    packed version
+     *
+     * @return {@code true} if the set contains the version
+     * @see MinecraftVersion#packed()
+     */
+    public boolean contains(long packed)
+    {
+        int index = Arrays.binarySearch(boundaries, packed);
+        
+        // On a boundary, the version is contained if it starts a range.
+        // Otherwise, it's contained if it falls after a start (an odd insertion point).
+        return (index >= 0) ? (index & 1) == 0 : ((-index - 1) & 1) == 1;
+    }
+    
+    /**
+     * Checks if the set contains the version.
+     *
+     * @param version   the version
+     *
+     * @return {@code true} if the set contains the version
+     */
+    public boolean contains(MinecraftVersion version) { return contains(version.packed()); }
+    
+    /**
+     * Checks if the set contains every version of a range.
+     *
+     * @param range     the range
+     *
+     * @return {@code true} if the set contains every version of the range
+     */
+    public boolean containsAll(VersionRange range)
+    {
+        // Ranges are merged, so the whole range has to fall within a single one.
+        int index = Arrays.binarySearch(boundaries, range.start());
+        int start = (index >= 0) ? index : -index - 2;
+        return start >= 0 && (start & 1) == 0 && range.end() <= boundaries[start + 1];
+    }
+    
+    /**
+     * Checks if the set contains every version of another set.
+     *
+     * @param set   the other set
+     *
+     * @return {@code true} if the other set is a subset of this set
+     */
+    public boolean containsAll(VersionSet set)
+    {
+        long[] other = set.boundaries;
+        int i = 0;
+        
+        for (int j = 0; j < other.length; j += 2)
+        {
+            // Skips ranges ending before the other range starts.
+            while (i < boundaries.length && boundaries[i + 1] <= other[j]) { i += 2; }
+            if (i >= boundaries.length || boundaries[i] > other[j] || boundaries[i + 1] < other[j + 1]) { return false; }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Checks if the set shares any versions with a range.
+     *
+     * @param range     the range
+     *
+     * @return {@code true} if the set and range intersect
+     */
+    public boolean intersects(VersionRange range)
+    {
+        // The first range ending after the other range starts has to start before it ends.
+        int index = Arrays.binarySearch(boundaries, range.start());
+        int first = (index >= 0) ? index + ((index & 1) == 1 ? 1 : 0) : (-index - 1) & ~1;
+        return first < boundaries.length && boundaries[first] < range.end();
+    }
+    
+    /**
+     * Checks if the set shares any versions with another set.
+     *
+     * @param set   the other set
+     *
+     * @return {@code true} if the sets intersect
+     */
+    public boolean intersects(VersionSet set)
+    {
+        long[] other = set.boundaries;
+        int i = 0;
+        int j = 0;
+        
+        while (i < boundaries.length && j < other.length)
+        {
+            if (boundaries[i + 1] <= other[j]) { i += 2; }
+            else if (other[j + 1] <= boundaries[i]) { j += 2; }
+            else { return true; }
+        }
+        
+        return false;
+    }
+    
+    // Merges the boundaries of two sets, keeping versions in either (union) or both (intersection).
+    private static long[] combine(long[] a, long[] b, boolean isUnion)
+    {
+        long[] result = new long[a.length + b.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        boolean wasInside = false;
+        
+        while (i < a.length || j < b.length)
+        {
+            long boundary = (j >= b.length || (i < a.length && a[i] <= b[j])) ? a[i] : b[j];
+            
+            if (i < a.length && a[i] == boundary) { i++; }
+            if (j < b.length && b[j] == boundary) { j++; }
+            
+            // Past an odd number of boundaries is inside a range.
+            boolean isInsideA = (i & 1) == 1;
+            boolean isInsideB = (j & 1) == 1;
+            boolean isInside = (isUnion) ? isInsideA || isInsideB : isInsideA && isInsideB;
+            
+            if (isInside != wasInside)
+            {
+                result[size++] = boundary;
+                wasInside = isInside;
+            }
+        }
+        
+        return (size == result.length) ? result : Arrays.copyOf(result, size);
+    }
+    
+    /**
+     * Combines this set with another set.
+     *
+     * @param set   the other set
+     *
+     * @return a set of every version in either set
+     */
+    public VersionSet union(VersionSet set)
+    {
+        if (set.boundaries.length == 0 || containsAll(set)) { return this; }
+        if (boundaries.length == 0) { return set; }
+        return new VersionSet(combine(boundaries, set.boundaries, true));
+    }
+    
+    /**
+     * Intersects this set with another set.
+     *
+     * @param set   the other set
+     *
+     * @return a set of every version in both sets
+     */
+    public VersionSet intersect(VersionSet set)
+    {
+        if (!intersects(set)) { return EMPTY; }
+        if (set.containsAll(this)) { return this; }
+        return new VersionSet(combine(boundaries, set.boundaries, false));
+    }
+    
+    /**
+     * Checks if the set is empty.
+     *
+     * @return {@code true} if the set doesn't contain any versions
+     */
+    public boolean isEmpty() { return boundaries.length == 0; }
+    
+    /**
+     * Gets the ranges making up the set, in ascending order.
+     * Overlapping and adjacent ranges are merged.
+     *
+     * @return the set's ranges
+     */
+    public List<VersionRange> ranges()
+    {
+        List<VersionRange> ranges = new ArrayList<>(boundaries.length / 2);
+        for (int i = 0; i < boundaries.length; i += 2) { ranges.add(VersionRange.of(boundaries[i], boundaries[i + 1])); }
+        return List.copyOf(ranges);
+    }
+    
+    @Override
+    public boolean equals(@NullOr Object o)
+    {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+        VersionSet that = (VersionSet) o;
+        return Arrays.equals(boundaries, that.boundaries);
+    }
+    
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(boundaries);
+    }
+    
+    /**
+     * Formats the set as a list of ranges, closed at versions they include
+     * and open at versions they exclude, like {@code {[1.8.8,1.8.8], [1.16.5,1.20.5)}}.
+     *
+     * @return the set's ranges in interval notation
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("{");
+        
+        for (int i = 0; i < boundaries.length; i += 2)
+        {
+            if (i > 0) { builder.append(", "); }
+            builder.append(VersionRangeMap.rangeToString(boundaries[i], boundaries[i + 1]));
+        }
+        
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Selects one implementation out of several registered against version ranges,
+ * exactly once, instead of checking the version on every call.
+ *
+ * <pre>{@code
+ * private static final PacketSender SENDER = VersionSwitch.<PacketSender>builder()
+ *     .since(new MinecraftVersion(1, 17, 0), ModernPacketSender::new)
+ *     .range(new MinecraftVersion(1, 13, 0), new MinecraftVersion(1, 17, 0), FlatteningPacketSender::new)
+ *     .orElse(LegacyPacketSender::new)
+ *     .build()
+ *     .get();
+ * }</pre>
+ *
+ * <p>Only the selected implementation's supplier is ever called, so the
+ * other implementations (and any version-specific classes they reference)
+ * are never constructed. Storing the selection in a {@code static final}
+ * field leaves call sites with a single, monomorphic receiver.</p>
+ *
+ * @param <T>   implementation type
+ */
+@SuppressWarnings("unused")
+public final class VersionSwitch<T> implements Supplier<T>
+{
+    /**
+     * Creates a new builder.
+     *
+     * @param <T>   implementation type
+     *
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder() { return new Builder<>(); }
+    
+    private final MinecraftVersion version;
+    private final T selected;
+    
+    private VersionSwitch(MinecraftVersion version, T selected)
+    {
+        this.version = version;
+        this.selected = selected;
+    }
+    
+    /**
+     * Gets the version the implementation was selected for.
+     *
+     * @return the selected version
+     */
+    public MinecraftVersion version() { return version; }
+    
+    /**
+     * Gets the selected implementation.
+     *
+     * @return the selected implementation
+     */
+    @Override
+    public T get() { return selected; }
+    
+    @Override
+    public String toString()
+    {
+        return "VersionSwitch{version=" + version + ", selected=" + selected + "}";
+    }
+    
+    /**
+     * Builds version switches.
+     *
+     * @param <T>   implementation type
+     */
+    public static final class Builder<T>
+    {
+        private final VersionRangeMap.Builder<Supplier<? extends T>> ranges = VersionRangeMap.builder();
+        private @NullOr Supplier<? extends T> fallback;
+        
+        private Builder() {}
+        
+        /**
+         * Registers an implementation for a half-open range of versions:
+         * including {@code since}, up to but excluding {@code until}.
+         *
+         * @param since             lowest version in the range (inclusive)
+         * @param until             version ending the range (exclusive)
+         * @param implementation    supplies the implementation if selected
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the range is empty
+         */
+        public Builder<T> range(MinecraftVersion since, MinecraftVersion until, Supplier<? extends T> implementation)
+        {
+            ranges.range(since, until, implementation);
+            return this;
+        }
+        
+        /**
+         * Registers an implementation for every version starting from {@code since}.
+         *
+         * @param since             lowest version in the range (inclusive)
+         * @param implementation    supplies the implementation if selected
+         *
+         * @return this builder
+         */
+        public Builder<T> since(MinecraftVersion since, Supplier<? extends T> implementation)
+        {
+            ranges.since(since, implementation);
+            return this;
+        }
+        
+        /**
+         * Registers an implementation for every version up to but excluding {@code until}.
+         *
+         * @param until             version ending the range (exclusive)
+         * @param implementation    supplies the implementation if selected
+         *
+         * @return this builder
+         * @throws IllegalArgumentException if the range is empty
+         */
+        public Builder<T> until(MinecraftVersion until, Supplier<? extends T> implementation)
+        {
+            ranges.until(until, implementation);
+            return this;
+        }
+        
+        /**
+         * Registers an implementation for any version not covered by a range.
+         * Gaps between ranges are allowed once there is a fallback.
+         *
+         * @param implementation    supplies the implementation if selected
+         *
+         * @return this builder
+         */
+        public Builder<T> orElse(Supplier<? extends T> implementation)
+        {
+            this.fallback = Objects.requireNonNull(implementation, "implementation");
+            ranges.allowGaps();
+            return this;
+        }
+        
+        /**
+         * Selects the implementation for the provided version.
+         *
+         * @param version   the version to select an implementation for
+         *
+         * @return a switch holding the selected implementation
+         * @throws IllegalStateException if any ranges overlap or leave gaps without a fallback,
+         *                               or if no implementation matches the version
+         */
+        public VersionSwitch<T> build(MinecraftVersion version)
+        {
+            Objects.requireNonNull(version, "version");
+            
+            @NullOr Supplier<? extends T> implementation = ranges.build().getOrNull(version.packed());
+            if (implementation == null) { implementation = fallback; }
+            
+            if (implementation == null)
+            {
+                throw new IllegalStateException("No implementation for version: " + version);
+            }
+            
+            return new VersionSwitch<>(version, Objects.requireNonNull(implementation.get(), "implementation"));
+        }
+        
+        /**
+         * Selects the implementation for the server's version.
+         *
+         * @return a switch holding the selected implementation
+         * @throws IllegalStateException if any ranges overlap or leave gaps without a fallback,
+         *                               or if no implementation matches the server's version
+         * @see MinecraftVersion#server()
+         */
+        public VersionSwitch<T> build()
+        {
+            return build(MinecraftVersion.server());
+        }
+    }
+}
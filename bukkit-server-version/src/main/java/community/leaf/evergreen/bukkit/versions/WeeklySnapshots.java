@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.util.Arrays;
+
+/**
+ * Weekly snapshots, like {@code 24w14a}, and the releases they lead up to.
+ *
+ * <p>Weekly snapshot names don't include a version, so they're placed
+ * before their release from a table of every weekly snapshot series.
+ * The table is complete: since 26.1, snapshots are named after their
+ * release instead (like {@code 26.1-snapshot-1}).</p>
+ *
+ * <p>Snapshots are numbered by {@link #ordinal(int, int, int) ordinal}:
+ * ascending by year, week, and letter, starting from one. Ordinals
+ * are the qualifiers of packed snapshot versions.</p>
+ */
+final class WeeklySnapshots
+{
+    private WeeklySnapshots() { throw new UnsupportedOperationException(); }
+    
+    private static final int FIRST_YEAR = 11;
+    private static final int WEEKS = 53;
+    private static final int LETTERS = 26;
+    
+    // The last week of each series ({year}{week}) and its release, in order.
+    private static final int[] LAST_WEEKS = {
+        1150, 1208, 1230, 1242, 1250, 1310, 1311, 1326, 1343, 1349,
+        1434, 1607, 1615, 1621, 1644, 1718, 1822, 1914, 1946, 2022,
+        2030, 2120, 2144, 2219, 2224, 2246, 2307, 2318, 2335, 2346,
+        2414, 2421, 2440, 2446, 2510, 2521, 2537, 2546
+    };
+    
+    private static final long[] RELEASES = {
+        release(1, 1), release(1, 2, 1), release(1, 3, 1), release(1, 4, 2), release(1, 4, 6),
+        release(1, 5), release(1, 5, 1), release(1, 6, 1), release(1, 7, 2), release(1, 7, 4),
+        release(1, 8), release(1, 9), release(1, 9, 3), release(1, 10), release(1, 11),
+        release(1, 12), release(1, 13), release(1, 14), release(1, 15), release(1, 16),
+        release(1, 16, 2), release(1, 17), release(1, 18), release(1, 19), release(1, 19, 1),
+        release(1, 19, 3), release(1, 19, 4), release(1, 20), release(1, 20, 2), release(1, 20, 3),
+        release(1, 20, 5), release(1, 21), release(1, 21, 2), release(1, 21, 4), release(1, 21, 5),
+        release(1, 21, 6), release(1, 21, 9), release(1, 21, 11)
+    };
+    
+    // The first weekly snapshot was 11w47a.
+    private static final int FIRST_WEEK = 1147;
+    
+    private static long release(int major, int minor) { return MinecraftVersion.pack(major, minor); }
+    
+    private static long release(int major, int minor, int patch) { return MinecraftVersion.pack(major, minor, patch); }
+    
+    /**
+     * Gets the ordinal of a weekly snapshot.
+     *
+     * @param year      two-digit year
+     * @param week      week of the year
+     * @param letter    letter index, where {@code a} is zero
+     *
+     * @return the snapshot's ordinal, or {@code -1} if it's outside the table
+     */
+    static int ordinal(int year, int week, int letter)
+    {
+        int key = year * 100 + week;
+        if (key < FIRST_WEEK || key > LAST_WEEKS[LAST_WEEKS.length - 1] || week < 1 || week > WEEKS) { return -1; }
+        if (letter < 0 || letter >= LETTERS) { return -1; }
+        return 1 + ((year - FIRST_YEAR) * WEEKS + (week - 1)) * LETTERS + letter;
+    }
+    
+    static int year(int ordinal) { return FIRST_YEAR + (ordinal - 1) / LETTERS / WEEKS; }
+    
+    static int week(int ordinal) { return 1 + (ordinal - 1) / LETTERS % WEEKS; }
+    
+    static char letter(int ordinal) { return (char) ('a' + (ordinal - 1) % LETTERS); }
+    
+    /**
+     * Gets the packed release a weekly snapshot leads up to.
+     *
+     * @param ordinal   the snapshot's ordinal
+     *
+     * @return the packed release, or {@code -1} if the ordinal is outside the table
+     */
+    static long release(int ordinal)
+    {
+        if (ordinal < 1) { return -1; }
+        
+        int key = year(ordinal) * 100 + week(ordinal);
+        if (key < FIRST_WEEK) { return -1; }
+        
+        int index = Arrays.binarySearch(LAST_WEEKS, key);
+        if (index < 0) { index = -index - 1; }
+        return (index < RELEASES.length) ? RELEASES[index] : -1;
+    }
+    
+    /**
+     * Gets the name of a weekly snapshot, like {@code 24w14a}.
+     *
+     * @param ordinal   the snapshot's ordinal
+     *
+     * @return the snapshot's name
+     */
+    static String name(int ordinal)
+    {
+        int week = week(ordinal);
+        return year(ordinal) + ((week < 10) ? "w0" : "w") + week + letter(ordinal);
+    }
+}
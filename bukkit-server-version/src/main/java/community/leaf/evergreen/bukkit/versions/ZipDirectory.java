@@ -0,0 +1,282 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the central directory of a memory-mapped (possibly nested) ZIP file
+ * in place, so that wanted entries are found by name without decoding
+ * anything else.
+ *
+ * <p>Entries are addressed by the index of their central directory record,
+ * and their names by index and length: matching names compares bytes in
+ * place, without creating strings.</p>
+ */
+final class ZipDirectory
+{
+    private ZipDirectory() { throw new UnsupportedOperationException(); }
+    
+    private static final int END_OF_DIRECTORY = 0x06054B50;
+    private static final int END_OF_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_END_OF_DIRECTORY = 0x06064B50;
+    private static final int ZIP64_END_OF_DIRECTORY_SIZE = 56;
+    private static final int ZIP64_LOCATOR = 0x07064B50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int DIRECTORY_ENTRY = 0x02014B50;
+    private static final int DIRECTORY_ENTRY_SIZE = 46;
+    private static final int LOCAL_HEADER = 0x04034B50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+    
+    static byte[] ascii(String text) { return text.getBytes(StandardCharsets.US_ASCII); }
+    
+    /**
+     * Visits central directory entries.
+     */
+    @FunctionalInterface
+    interface EntryVisitor
+    {
+        /**
+         * Visits an entry.
+         *
+         * @param entry         index of the entry's central directory record
+         * @param name          index of the entry's name
+         * @param nameLength    length of the entry's name in bytes
+         *
+         * @return {@code true} to visit the next entry, or {@code false} to stop
+         * @throws IOException if the entry is malformed
+         */
+        boolean visit(int entry, int name, int nameLength) throws IOException;
+    }
+    
+    /**
+     * Memory-maps a ZIP file in little-endian order.
+     *
+     * @param file  the ZIP file
+     *
+     * @return the mapped file
+     * @throws IOException if the file cannot be read or is larger than 2 GiB
+     */
+    static ByteBuffer map(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) { throw new IOException("ZIP file is too large: " + file + " (" + size + " bytes)"); }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+    
+    static IOException malformed(String reason)
+    {
+        return new IOException("Malformed ZIP file: " + reason);
+    }
+    
+    private static int u16(ByteBuffer zip, int index) { return zip.getShort(index) & 0xFFFF; }
+    
+    private static long u32(ByteBuffer zip, int index) { return zip.getInt(index) & 0xFFFFFFFFL; }
+    
+    private static int offset(long offset, ByteBuffer zip) throws IOException
+    {
+        if (offset < 0 || offset > zip.limit()) { throw malformed("offset out of bounds: " + offset); }
+        return (int) offset;
+    }
+    
+    private static int endOfDirectory(ByteBuffer zip) throws IOException
+    {
+        // Searches backwards, past a comment of any length.
+        int last = zip.limit() - END_OF_DIRECTORY_SIZE;
+        int first = Math.max(0, last - MAX_COMMENT_SIZE);
+        
+        for (int index = last; index >= first; index--)
+        {
+            if (zip.getInt(index) == END_OF_DIRECTORY) { return index; }
+        }
+        
+        throw malformed("missing end of central directory");
+    }
+    
+    /**
+     * Visits every entry of the central directory, in order, until the visitor stops.
+     *
+     * @param zip       the ZIP file, in little-endian order
+     * @param visitor   visits entries
+     *
+     * @throws IOException if the central directory is malformed
+     */
+    static void forEachEntry(ByteBuffer zip, EntryVisitor visitor) throws IOException
+    {
+        int end = endOfDirectory(zip);
+        long count = u16(zip, end + 10);
+        long directory = u32(zip, end + 16);
+        
+        if (count == 0xFFFF || directory == 0xFFFFFFFFL)
+        {
+            int locator = end - ZIP64_LOCATOR_SIZE;
+            
+            if (locator >= 0 && zip.getInt(locator) == ZIP64_LOCATOR)
+            {
+                int zip64End = offset(zip.getLong(locator + 8), zip);
+                
+                if (zip64End + ZIP64_END_OF_DIRECTORY_SIZE > zip.limit() || zip.getInt(zip64End) != ZIP64_END_OF_DIRECTORY)
+                {
+                    throw malformed("missing zip64 end of central directory");
+                }
+                
+                count = zip.getLong(zip64End + 32);
+                directory = zip.getLong(zip64End + 48);
+            }
+        }
+        
+        int index = offset(directory, zip);
+        
+        for (long i = 0; i < count; i++)
+        {
+            if (index + DIRECTORY_ENTRY_SIZE > zip.limit() || zip.getInt(index) != DIRECTORY_ENTRY)
+            {
+                throw malformed("invalid central directory entry at " + index);
+            }
+            
+            int nameLength = u16(zip, index + 28);
+            int name = index + DIRECTORY_ENTRY_SIZE;
+            
+            if (name + nameLength > zip.limit()) { throw malformed("entry name out of bounds at " + name); }
+            
+            if (!visitor.visit(index, name, nameLength)) { return; }
+            
+            index = name + nameLength + u16(zip, index + 30) + u16(zip, index + 32);
+        }
+    }
+    
+    /**
+     * Gets the compression method of an entry.
+     *
+     * @param zip       the ZIP file
+     * @param entry     index of the entry's central directory record
+     *
+     * @return the compression method, like {@link #STORED} or {@link #DEFLATED}
+     */
+    static int method(ByteBuffer zip, int entry) { return u16(zip, entry + 10); }
+    
+    static boolean startsWith(ByteBuffer zip, int name, int length, byte[] prefix)
+    {
+        return length >= prefix.length && equals(zip, name, prefix.length, prefix);
+    }
+    
+    static boolean endsWith(ByteBuffer zip, int name, int length, byte[] suffix)
+    {
+        return length >= suffix.length && equals(zip, name + length - suffix.length, suffix.length, suffix);
+    }
+    
+    static boolean equals(ByteBuffer zip, int name, int length, byte[] expected)
+    {
+        if (length != expected.length) { return false; }
+        for (int i = 0; i < length; i++) { if (zip.get(name + i) != expected[i]) { return false; } }
+        return true;
+    }
+    
+    static String name(ByteBuffer zip, int name, int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) { bytes[i] = zip.get(name + i); }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Gets the (possibly compressed) data of an entry, in place.
+     *
+     * @param zip       the ZIP file
+     * @param entry     index of the entry's central directory record
+     *
+     * @return a slice of the entry's data
+     * @throws IOException if the entry is malformed
+     */
+    static ByteBuffer data(ByteBuffer zip, int entry) throws IOException
+    {
+        long size = u32(zip, entry + 20);
+        int header = offset(u32(zip, entry + 42), zip);
+        
+        if (header + LOCAL_HEADER_SIZE > zip.limit() || zip.getInt(header) != LOCAL_HEADER)
+        {
+            throw malformed("invalid local header at " + header);
+        }
+        
+        int start = header + LOCAL_HEADER_SIZE + u16(zip, header + 26) + u16(zip, header + 28);
+        if (start + size > zip.limit()) { throw malformed("entry data out of bounds at " + start); }
+        
+        return zip.duplicate().position(start).limit(start + (int) size).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    /**
+     * Decodes a stored or deflated entry whole.
+     *
+     * @param zip       the ZIP file
+     * @param entry     index of the entry's central directory record
+     * @param maxSize   the largest decoded size allowed, in bytes
+     *
+     * @return the entry's decoded bytes
+     * @throws IOException if the entry is malformed, larger than allowed, or uses another compression method
+     */
+    static byte[] decode(ByteBuffer zip, int entry, int maxSize) throws IOException
+    {
+        int method = method(zip, entry);
+        long size = u32(zip, entry + 24);
+        
+        if (size > maxSize) { throw malformed("entry is too large: " + size + " bytes"); }
+        
+        ByteBuffer data = data(zip, entry);
+        byte[] decoded = new byte[(int) size];
+        
+        if (method == STORED)
+        {
+            if (data.remaining() < decoded.length) { throw malformed("truncated entry"); }
+            data.get(decoded);
+            return decoded;
+        }
+        
+        if (method != DEFLATED) { throw malformed("unsupported compression method: " + method); }
+        
+        Inflater inflater = new Inflater(true);
+        
+        try
+        {
+            inflater.setInput(data);
+            int length = 0;
+            
+            while (length < decoded.length && !inflater.finished())
+            {
+                int inflated = inflater.inflate(decoded, length, decoded.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) { break; }
+                length += inflated;
+            }
+            
+            if (length != decoded.length) { throw malformed("truncated entry"); }
+            return decoded;
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Malformed ZIP file: invalid compressed data", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static community.leaf.evergreen.bukkit.versions.BulkVersionParser.NO_VERSION;
+import static org.assertj.core.api.Assertions.*;
+
+public class BulkVersionParserTests
+{
+    private static final String LINES =
+        "1.20.4-R0.1-SNAPSHOT\n" +
+        "This server is running Paper (MC: 1.20.4)\r\n" +
+        "\n" +
+        "no version here\n" +
+        "1.8\n" +
+        "99999.0.0\n" +
+        "é 1.12.2";
+    
+    private static final long[] EXPECTED = {
+        MinecraftVersion.pack(1, 20, 4),
+        MinecraftVersion.pack(1, 20, 4),
+        NO_VERSION,
+        NO_VERSION,
+        MinecraftVersion.pack(1, 8),
+        NO_VERSION,
+        MinecraftVersion.pack(1, 12, 2)
+    };
+    
+    private static byte[] bytes(String text) { return text.getBytes(StandardCharsets.UTF_8); }
+    
+    @Test
+    public void testParseLines()
+    {
+        assertThat(BulkVersionParser.parseLines(bytes(LINES))).containsExactly(EXPECTED);
+        assertThat(BulkVersionParser.parseLines(bytes(LINES + "\n"))).containsExactly(EXPECTED);
+        assertThat(BulkVersionParser.parseLines(new byte[0])).isEmpty();
+        assertThat(BulkVersionParser.parseLines(bytes("Running 25w99a on 1.21.4"))).containsExactly(MinecraftVersion.pack(1, 21, 4));
+        
+        // Matches parsing each line as a string.
+        String[] lines = LINES.split("\n");
+        long[] packed = BulkVersionParser.parseLines(bytes(LINES));
+        
+        for (int i = 0; i < lines.length; i++)
+        {
+            long expected = MinecraftVersion.parseMinecraftVersion(lines[i]).map(MinecraftVersion::packed).orElse(NO_VERSION);
+            assertThat(packed[i]).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    public void testBufferPositionAndLimit()
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes("ignored 1.7.10\n1.16.5\n1.17.1\nignored 1.19"));
+        buffer.position(15).limit(28);
+        
+        assertThat(BulkVersionParser.countLines(buffer)).isEqualTo(2);
+        assertThat(BulkVersionParser.parseLines(buffer))
+            .containsExactly(MinecraftVersion.pack(1, 16, 5), MinecraftVersion.pack(1, 17, 1));
+        assertThat(buffer.position()).isEqualTo(15);
+        
+        ByteBuffer direct = ByteBuffer.allocateDirect(LINES.length() * 2);
+        direct.put(bytes(LINES)).flip();
+        assertThat(BulkVersionParser.parseLines(direct)).containsExactly(EXPECTED);
+    }
+    
+    @Test
+    public void testParseIntoExistingArray()
+    {
+        long[] into = new long[5];
+        
+        assertThat(BulkVersionParser.parseLines(ByteBuffer.wrap(bytes(LINES)), into, 2)).isEqualTo(3);
+        assertThat(into).containsExactly(0, 0, EXPECTED[0], EXPECTED[1], EXPECTED[2]);
+        
+        assertThatThrownBy(() -> BulkVersionParser.parseLines(ByteBuffer.wrap(bytes(LINES)), into, 6))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+    
+    @Test
+    public void testForEachLine()
+    {
+        List<Long> lines = new ArrayList<>();
+        List<Long> packed = new ArrayList<>();
+        
+        BulkVersionParser.forEachLine(bytes(LINES), (line, version) -> {
+            lines.add(line);
+            packed.add(version);
+        });
+        
+        assertThat(lines).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(packed.stream().mapToLong(Long::longValue).toArray()).containsExactly(EXPECTED);
+    }
+    
+    @Test
+    public void testMappedFiles(@TempDir Path directory) throws IOException
+    {
+        Path file = Files.write(directory.resolve("versions.txt"), bytes(LINES));
+        
+        assertThat(BulkVersionParser.parseLines(file)).containsExactly(EXPECTED);
+        
+        // Small windows force lines to be carried over between mappings.
+        for (int windowSize : new int[] {8, 13, 64})
+        {
+            List<Long> lines = new ArrayList<>();
+            List<Long> packed = new ArrayList<>();
+            
+            BulkVersionParser.forEachLine(file, windowSize, (line, version) -> {
+                lines.add(line);
+                packed.add(version);
+            });
+            
+            assertThat(lines).as("window size: " + windowSize).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+            assertThat(packed.stream().mapToLong(Long::longValue).toArray()).containsExactly(EXPECTED);
+        }
+    }
+    
+    @Test
+    public void testParallel(@TempDir Path directory) throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+        
+        for (int i = 0; i < 5000; i++)
+        {
+            text.append((i % 7 == 0) ? "no version" : "MC: 1." + (i % 21) + "." + (i % 5)).append('\n');
+        }
+        
+        byte[] bytes = bytes(text.toString());
+        long[] expected = BulkVersionParser.parseLines(bytes);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try
+        {
+            for (int minChunkSize : new int[] {1, 100, 4096, Integer.MAX_VALUE})
+            {
+                assertThat(BulkVersionParser.parseLinesInParallel(ByteBuffer.wrap(bytes), pool, minChunkSize))
+                    .as("min chunk size: " + minChunkSize)
+                    .containsExactly(expected);
+            }
+            
+            Path file = Files.write(directory.resolve("versions.txt"), bytes);
+            assertThat(BulkVersionParser.parseLinesInParallel(file, pool)).containsExactly(expected);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testChunkBoundsEndOnLines()
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes("1.1\n1.2\n1.3\n1.4\n1.5\n1.6\n"));
+        int[] bounds = BulkVersionParser.chunkBounds(buffer, 0, buffer.limit(), 2, 1);
+        
+        assertThat(bounds[0]).isZero();
+        assertThat(bounds[bounds.length - 1]).isEqualTo(buffer.limit());
+        assertThat(bounds).isSorted().doesNotHaveDuplicates();
+        
+        for (int i = 1; i < bounds.length - 1; i++) { assertThat(buffer.get(bounds[i] - 1)).isEqualTo((byte) '\n'); }
+    }
+    
+    @Test
+    public void testUnpack()
+    {
+        assertThat(MinecraftVersion.unpack(MinecraftVersion.pack(1, 20, 4)))
+            .isEqualTo(new MinecraftVersion(1, 20, 4))
+            .isSameAs(MinecraftVersion.unpack(MinecraftVersion.pack(1, 20, 4)));
+        
+        assertThatThrownBy(() -> MinecraftVersion.unpack(NO_VERSION)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MinecraftVersion.unpack(1L << 48)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
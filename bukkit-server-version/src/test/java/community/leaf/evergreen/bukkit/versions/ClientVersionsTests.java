@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ClientVersionsTests
+{
+    private static final MinecraftVersion v1_8_9 = new MinecraftVersion(1, 8, 9);
+    private static final MinecraftVersion v1_20_2 = new MinecraftVersion(1, 20, 2);
+    private static final MinecraftVersion v1_20_4 = new MinecraftVersion(1, 20, 4);
+    
+    @Test
+    public void testPutGetRemove()
+    {
+        ClientVersions clients = new ClientVersions();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        
+        clients.put(alice, v1_20_4);
+        clients.put(bob, v1_8_9);
+        
+        assertThat(clients.size()).isEqualTo(2);
+        assertThat(clients.get(alice)).hasValue(v1_20_4);
+        assertThat(clients.getPacked(bob)).isEqualTo(v1_8_9.packed());
+        
+        assertThat(clients.atLeast(alice, v1_20_2)).isTrue();
+        assertThat(clients.atLeast(bob, v1_20_2)).isFalse();
+        assertThat(clients.lessThan(bob, v1_20_2)).isTrue();
+        assertThat(clients.in(alice, VersionRange.between(v1_8_9, v1_20_2))).isFalse();
+        assertThat(clients.in(alice, VersionRange.atLeast(v1_20_2))).isTrue();
+        
+        clients.put(bob, v1_20_2);
+        assertThat(clients.get(bob)).hasValue(v1_20_2);
+        assertThat(clients.size()).isEqualTo(2);
+        
+        assertThat(clients.remove(alice)).isTrue();
+        assertThat(clients.remove(alice)).isFalse();
+        assertThat(clients.contains(alice)).isFalse();
+        assertThat(clients.size()).isEqualTo(1);
+        
+        clients.clear();
+        assertThat(clients.size()).isZero();
+        assertThat(clients.get(bob)).isEmpty();
+    }
+    
+    @Test
+    public void testUnknownPlayers()
+    {
+        ClientVersions clients = new ClientVersions();
+        UUID unknown = UUID.randomUUID();
+        
+        assertThat(clients.getPacked(unknown)).isEqualTo(ClientVersions.UNKNOWN);
+        assertThat(clients.getPacked(unknown, v1_20_4.packed())).isEqualTo(v1_20_4.packed());
+        assertThat(clients.atLeast(unknown, MinecraftVersion.pack(0, 0))).isFalse();
+        assertThat(clients.lessThan(unknown, v1_20_4)).isFalse();
+        assertThat(clients.in(unknown, VersionRange.all())).isFalse();
+        
+        assertThatThrownBy(() -> clients.put(unknown, ClientVersions.UNKNOWN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientVersions(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testChurnKeepsEveryOtherPlayer()
+    {
+        // Few expected players, so stripes grow and removals shift colliding entries back.
+        ClientVersions clients = new ClientVersions(1);
+        List<UUID> players = new ArrayList<>();
+        Random random = new Random(20);
+        
+        for (int i = 0; i < 5000; i++)
+        {
+            UUID player = new UUID(random.nextLong(), random.nextLong());
+            players.add(player);
+            clients.put(player, MinecraftVersion.pack(1, i % 21, i % 5));
+        }
+        
+        for (int i = 0; i < players.size(); i += 2) { assertThat(clients.remove(players.get(i))).isTrue(); }
+        
+        assertThat(clients.size()).isEqualTo(2500);
+        
+        for (int i = 0; i < players.size(); i++)
+        {
+            long expected = (i % 2 == 0) ? ClientVersions.UNKNOWN : MinecraftVersion.pack(1, i % 21, i % 5);
+            assertThat(clients.getPacked(players.get(i))).as("player #" + i).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    public void testConcurrentJoinsAndQuits() throws Exception
+    {
+        ClientVersions clients = new ClientVersions();
+        int threads = 4;
+        int playersPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try
+        {
+            List<Future<List<UUID>>> stayed = new ArrayList<>();
+            
+            for (int t = 0; t < threads; t++)
+            {
+                stayed.add(executor.submit(() ->
+                {
+                    List<UUID> remaining = new ArrayList<>();
+                    
+                    for (int i = 0; i < playersPerThread; i++)
+                    {
+                        UUID player = UUID.randomUUID();
+                        clients.put(player, v1_20_4);
+                        assertThat(clients.atLeast(player, v1_20_2)).isTrue();
+                        
+                        if (i % 4 == 0) { remaining.add(player); }
+                        else { assertThat(clients.remove(player)).isTrue(); }
+                    }
+                    
+                    return remaining;
+                }));
+            }
+            
+            int remaining = 0;
+            
+            for (Future<List<UUID>> future : stayed)
+            {
+                for (UUID player : future.get(30, TimeUnit.SECONDS))
+                {
+                    assertThat(clients.get(player)).hasValue(v1_20_4);
+                    remaining++;
+                }
+            }
+            
+            assertThat(clients.size()).isEqualTo(remaining);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
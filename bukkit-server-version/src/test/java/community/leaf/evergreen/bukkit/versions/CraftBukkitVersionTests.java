@@ -21,6 +21,16 @@ public class CraftBukkitVersionTests
         
         assertThat(CraftBukkitVersion.parseCraftBukkitVersion("org.bukkit.craftbukkit.v1_8_R3.CraftServer"))
             .hasValue(new CraftBukkitVersion(1, 8, 3));
+        
+        assertThat(CraftBukkitVersion.parseCraftBukkitVersion("org.bukkit.craftbukkit.CraftServer")).isEmpty();
+    }
+    
+    @Test
+    public void testParseCanonical()
+    {
+        assertThat(CraftBukkitVersion.parseCraftBukkitVersion("v1_16_R3").orElseThrow())
+            .isSameAs(CraftBukkitVersion.parseCraftBukkitVersion("net.minecraft.server.v1_16_R3").orElseThrow())
+            .isNotSameAs(MinecraftVersion.parseMinecraftVersion("1.16.3").orElseThrow());
     }
     
     @Test
@@ -47,4 +57,88 @@ public class CraftBukkitVersionTests
         assertThat(v1_16_3.minecraftPackage()).isEqualTo("net.minecraft.server.v1_16_R3");
         assertThat(v1_16_3.minecraftClass("Demo")).isEqualTo("net.minecraft.server.v1_16_R3.Demo");
     }
+    
+    @Test
+    public void testFindClasses()
+    {
+        CraftBukkitVersion v1_16_3 = new CraftBukkitVersion(1, 16, 3);
+        
+        assertThat(v1_16_3.findCraftBukkitClass("entity.CraftPlayer"))
+            .hasValue(org.bukkit.craftbukkit.v1_16_R3.entity.CraftPlayer.class);
+        
+        assertThat(v1_16_3.findMinecraftClass("EntityPlayer"))
+            .hasValue(net.minecraft.server.v1_16_R3.EntityPlayer.class)
+            .isSameAs(v1_16_3.findMinecraftClass("EntityPlayer"));
+        
+        assertThat(v1_16_3.findMinecraftClass("DoesNotExist")).isEmpty();
+        assertThat(new CraftBukkitVersion(1, 16, 2).findCraftBukkitClass("entity.CraftPlayer")).isEmpty();
+    }
+    
+    @Test
+    public void testFindClassesWithFallbacks()
+    {
+        CraftBukkitVersion v1_17_1 = new CraftBukkitVersion(1, 17, 1);
+        
+        assertThat(v1_17_1.findMinecraftClass("server.level.EntityPlayer", "server.level.ServerPlayer"))
+            .hasValue(net.minecraft.server.level.ServerPlayer.class);
+        
+        assertThat(v1_17_1.findMinecraftClass("server.level.EntityPlayer", "server.level.EntityHuman")).isEmpty();
+    }
+    
+    @Test
+    public void testResolveUnrelocatedServer()
+    {
+        MinecraftVersion game = new MinecraftVersion(1, 20, 6);
+        
+        CraftBukkitVersion relocated = CraftBukkitVersion.resolveServer("org.bukkit.craftbukkit.v1_20_R3.CraftServer", () -> game);
+        assertThat(relocated).isEqualTo(new CraftBukkitVersion(1, 20, 3));
+        assertThat(relocated.isRelocated()).isTrue();
+        
+        CraftBukkitVersion unrelocated = CraftBukkitVersion.resolveServer("org.bukkit.craftbukkit.CraftServer", () -> game);
+        assertThat(unrelocated)
+            .isEqualTo(CraftBukkitVersion.unrelocated(game))
+            .hasSameHashCodeAs(CraftBukkitVersion.unrelocated(game))
+            .isNotEqualTo(new CraftBukkitVersion(game))
+            .hasToString("1.20.6");
+        assertThat(unrelocated.compareTo(new CraftBukkitVersion(game))).isZero();
+        assertThat(unrelocated.isRelocated()).isFalse();
+        assertThat(unrelocated.craftBukkitPackage()).isEqualTo("org.bukkit.craftbukkit");
+        assertThat(unrelocated.craftBukkitClass("entity.CraftPlayer")).isEqualTo("org.bukkit.craftbukkit.entity.CraftPlayer");
+        assertThat(unrelocated.minecraftPackage()).isEqualTo("net.minecraft");
+        
+        // Servers other than CraftBukkit (like test servers) keep the game version.
+        assertThat(CraftBukkitVersion.resolveServer("com.example.TestServer", () -> game).isRelocated()).isTrue();
+    }
+    
+    @Test
+    public void testResolveWithoutServer()
+    {
+        // No versioned package is made up from the game version.
+        assertThat(CraftBukkitVersion.resolveWithoutServer(new MinecraftVersion(1, 20, 6)))
+            .isEqualTo(CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 20, 6)));
+        
+        assertThatThrownBy(() -> CraftBukkitVersion.resolveWithoutServer(new MinecraftVersion(1, 20, 4)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("ServerJar#seedServer()");
+    }
+    
+    @Test
+    public void testUnrelocatedLegacyPackages()
+    {
+        CraftBukkitVersion unrelocated = CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 16, 5));
+        
+        assertThat(unrelocated.minecraftClass("MinecraftServer")).isEqualTo("net.minecraft.MinecraftServer");
+        assertThat(new CraftBukkitVersion(1, 16, 3).minecraftClass("MinecraftServer"))
+            .isEqualTo("net.minecraft.server.v1_16_R3.MinecraftServer");
+    }
+    
+    @Test
+    public void testMappedMinecraftClasses()
+    {
+        CraftBukkitVersion version = CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 20, 6));
+        
+        assertThat(version.minecraftClass("server.level.ServerPlayer", MappingIndex.empty()))
+            .isEqualTo("net.minecraft.server.level.ServerPlayer");
+        assertThat(version.findMinecraftClass("server.level.NonExistentPlayer", MappingIndex.empty())).isEmpty();
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class KnownReleasesTests
+{
+    @Test
+    public void testOrdinals()
+    {
+        KnownReleases releases = KnownReleases.of(
+            new MinecraftVersion(1, 20, 4), new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 16, 5), new MinecraftVersion(1, 8, 8)
+        );
+        
+        assertThat(releases.size()).isEqualTo(3);
+        assertThat(releases.releases()).containsExactly(
+            new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 16, 5), new MinecraftVersion(1, 20, 4)
+        );
+        
+        assertThat(releases.ordinal(new MinecraftVersion(1, 8, 8))).isEqualTo(0);
+        assertThat(releases.ordinal(new MinecraftVersion(1, 20, 4))).isEqualTo(2);
+        assertThat(releases.ordinal(new MinecraftVersion(1, 17, 0))).isEqualTo(KnownReleases.UNKNOWN_ORDINAL);
+        assertThat(releases.release(1)).isEqualTo(new MinecraftVersion(1, 16, 5));
+        assertThatThrownBy(() -> releases.release(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+    
+    @Test
+    public void testFloorOrdinals()
+    {
+        KnownReleases releases = KnownReleases.of(new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 16, 5), new MinecraftVersion(1, 20, 4));
+        
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 8, 0))).isEqualTo(KnownReleases.UNKNOWN_ORDINAL);
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 8, 8))).isEqualTo(0);
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 12, 2))).isEqualTo(0);
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 16, 5))).isEqualTo(1);
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 99, 0))).isEqualTo(2);
+        
+        // Pre-releases come before their release, so they floor to the release before it.
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 16, 5, MinecraftVersion.Stage.PRE_RELEASE, 1))).isEqualTo(0);
+        assertThat(releases.floorOrdinal(new MinecraftVersion(1, 8, 8, MinecraftVersion.Stage.RELEASE_CANDIDATE, 1))).isEqualTo(KnownReleases.UNKNOWN_ORDINAL);
+    }
+    
+    @Test
+    public void testBundled()
+    {
+        KnownReleases releases = KnownReleases.bundled();
+        List<MinecraftVersion> versions = releases.releases();
+        
+        assertThat(releases).isSameAs(KnownReleases.bundled());
+        assertThat(versions).isSorted().doesNotHaveDuplicates().contains(new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 20, 4));
+        assertThat(releases.size()).isEqualTo(ProtocolVersions.bundled().size());
+        
+        for (int ordinal = 0; ordinal < versions.size(); ordinal++)
+        {
+            assertThat(releases.ordinal(versions.get(ordinal))).isEqualTo(ordinal);
+        }
+    }
+}
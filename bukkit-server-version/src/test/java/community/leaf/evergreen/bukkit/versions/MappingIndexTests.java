@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MappingIndexTests
+{
+    private static final String PROGUARD =
+        "# comment\n" +
+        "net.minecraft.server.level.ServerPlayer -> aig:\n" +
+        "    net.minecraft.server.network.ServerGamePacketListenerImpl connection -> c\n" +
+        "    int lastSentExp -> cq\n" +
+        "    1:5:void tick() -> l\n" +
+        "    10:12:void sendSystemMessage(net.minecraft.network.chat.Component,boolean):30:32 -> a\n" +
+        "    void <init>() -> <init>\n" +
+        "net.minecraft.server.MinecraftServer -> net.minecraft.server.MinecraftServer:\n" +
+        "net.minecraft.world.entity.Entité -> bsr:\r\n" +
+        "    double getX() -> dr\n";
+    
+    private static final String TINY_V2 =
+        "tiny\t2\t0\tofficial\tintermediary\tnamed\n" +
+        "c\taig\tnet/minecraft/class_3222\tnet/minecraft/server/level/ServerPlayer\n" +
+        "\tc\tA comment\n" +
+        "\tf\tI\tcq\tfield_13978\tlastSentExp\n" +
+        "\tm\t(Lwn;Z)V\ta\tmethod_43224\tsendSystemMessage\n" +
+        "\t\tp\t1\t\t\tmessage\n" +
+        "\tm\t([[ILjava/lang/String;J)V\tb\tmethod_1\t\n" +
+        "c\twn\tnet/minecraft/class_2561\tnet/minecraft/network/chat/Component\n";
+    
+    private static final String TINY_V1 =
+        "v1\tofficial\tnamed\n" +
+        "CLASS\taig\tnet/minecraft/server/level/ServerPlayer\n" +
+        "CLASS\twn\tnet/minecraft/network/chat/Component\n" +
+        "FIELD\taig\tI\tcq\tlastSentExp\n" +
+        "METHOD\taig\t(Lwn;Z)V\ta\tsendSystemMessage\n";
+    
+    private static Path write(Path directory, String name, String contents) throws IOException
+    {
+        return Files.writeString(directory.resolve(name), contents);
+    }
+    
+    @Test
+    public void testProGuard(@TempDir Path directory) throws IOException
+    {
+        MappingIndex index = MappingIndex.load(write(directory, "mappings.txt", PROGUARD));
+        
+        assertThat(index.mapClass("net.minecraft.server.level.ServerPlayer")).hasValue("aig");
+        assertThat(index.remapClass("net.minecraft.server.level.ServerPlayer")).isEqualTo("aig");
+        assertThat(index.mapField("net.minecraft.server.level.ServerPlayer", "connection")).hasValue("c");
+        assertThat(index.mapField("net.minecraft.server.level.ServerPlayer", "lastSentExp")).hasValue("cq");
+        assertThat(index.mapMethod("net.minecraft.server.level.ServerPlayer", "tick")).hasValue("l");
+        assertThat(index.mapMethod(
+            "net.minecraft.server.level.ServerPlayer", "sendSystemMessage", "net.minecraft.network.chat.Component", "boolean"
+        )).hasValue("a");
+        assertThat(index.mapClass("net.minecraft.world.entity.Entité")).hasValue("bsr");
+        assertThat(index.mapMethod("net.minecraft.world.entity.Entité", "getX")).hasValue("dr");
+        
+        // Identity mappings aren't stored.
+        assertThat(index.mapClass("net.minecraft.server.MinecraftServer")).isEmpty();
+        assertThat(index.remapClass("net.minecraft.server.MinecraftServer")).isEqualTo("net.minecraft.server.MinecraftServer");
+        assertThat(index.mapMethod("net.minecraft.server.level.ServerPlayer", "<init>")).isEmpty();
+        assertThat(index.size()).isEqualTo(7);
+        
+        // Missing mappings.
+        assertThat(index.mapClass("aig")).isEmpty();
+        assertThat(index.mapClass("")).isEmpty();
+        assertThat(index.mapField("net.minecraft.server.level.ServerPlayer", "tick")).isEmpty();
+        assertThat(index.mapMethod("net.minecraft.server.level.ServerPlayer", "sendSystemMessage")).isEmpty();
+    }
+    
+    @Test
+    public void testTinyV2(@TempDir Path directory) throws IOException
+    {
+        Path file = write(directory, "mappings.tiny", TINY_V2);
+        
+        MappingIndex named = MappingIndex.loadTiny(file, "named", "official");
+        
+        assertThat(named.mapClass("net.minecraft.server.level.ServerPlayer")).hasValue("aig");
+        assertThat(named.mapField("net.minecraft.server.level.ServerPlayer", "lastSentExp")).hasValue("cq");
+        assertThat(named.mapMethod(
+            "net.minecraft.server.level.ServerPlayer", "sendSystemMessage", "net.minecraft.network.chat.Component", "boolean"
+        )).hasValue("a");
+        
+        // Unnamed members fall back to their name in the first namespace.
+        assertThat(named.mapMethod("net.minecraft.server.level.ServerPlayer", "b", "int[][]", "java.lang.String", "long")).isEmpty();
+        
+        MappingIndex official = MappingIndex.load(file);
+        
+        assertThat(official.mapClass("aig")).hasValue("net.minecraft.class_3222");
+        assertThat(official.mapMethod("aig", "a", "wn", "boolean")).hasValue("method_43224");
+        assertThat(official.mapMethod("aig", "b", "int[][]", "java.lang.String", "long")).hasValue("method_1");
+        
+        assertThatThrownBy(() -> MappingIndex.loadTiny(file, "named", "mojang"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testTinyV1(@TempDir Path directory) throws IOException
+    {
+        MappingIndex index = MappingIndex.loadTiny(write(directory, "mappings.tiny", TINY_V1), "named", "official");
+        
+        assertThat(index.mapClass("net.minecraft.network.chat.Component")).hasValue("wn");
+        assertThat(index.mapField("net.minecraft.server.level.ServerPlayer", "lastSentExp")).hasValue("cq");
+        assertThat(index.mapMethod(
+            "net.minecraft.server.level.ServerPlayer", "sendSystemMessage", "net.minecraft.network.chat.Component", "boolean"
+        )).hasValue("a");
+    }
+    
+    @Test
+    public void testDuplicatesAndOrdering(@TempDir Path directory) throws IOException
+    {
+        StringBuilder mappings = new StringBuilder();
+        
+        // Written in reverse order, with every class listed twice.
+        for (int i = 999; i >= 0; i--) { mappings.append("a.C").append(i).append(" -> b").append(i).append(":\n"); }
+        mappings.append("a.C5 -> duplicate:\n");
+        
+        MappingIndex index = MappingIndex.load(write(directory, "mappings.txt", mappings.toString()));
+        
+        assertThat(index.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) { assertThat(index.mapClass("a.C" + i)).hasValue("b" + i); }
+        assertThat(index.mapClass("a.C1000")).isEmpty();
+    }
+    
+    @Test
+    public void testMalformed(@TempDir Path directory) throws IOException
+    {
+        for (String mappings : new String[] {"a.B c:\n", "    int field -> a\n", "a.B -> c\n", "tiny\t2\t0\tofficial\n"})
+        {
+            Path file = write(directory, "mappings.txt", mappings);
+            assertThatThrownBy(() -> MappingIndex.load(file)).as(mappings).isInstanceOf(IllegalArgumentException.class);
+        }
+        
+        assertThat(MappingIndex.load(write(directory, "empty.txt", "")).size()).isZero();
+        assertThat(MappingIndex.empty().remapClass("a.B")).isEqualTo("a.B");
+    }
+}
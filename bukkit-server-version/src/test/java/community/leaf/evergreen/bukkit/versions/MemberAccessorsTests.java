@@ -0,0 +1,253 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import community.leaf.evergreen.bukkit.versions.encapsulated.Encapsulated;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.v1_16_R3.EntityPlayer;
+import org.bukkit.craftbukkit.v1_16_R3.entity.CraftPlayer;
+import org.junit.jupiter.api.Test;
+import pl.tlinkowski.annotation.basic.NullOr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MemberAccessorsTests
+{
+    private static final CraftBukkitVersion v1_16_3 = new CraftBukkitVersion(1, 16, 3);
+    
+    private static final CraftBukkitVersion v1_17_1 = new CraftBukkitVersion(1, 17, 1);
+    
+    private static final MemberDescriptor GET_HANDLE =
+        MemberDescriptor.method(MethodType.methodType(EntityPlayer.class), "getHandle");
+    
+    private static final MemberDescriptor GET_NAME =
+        MemberDescriptor.method(MethodType.methodType(String.class), "name", "getName");
+    
+    private static final MemberDescriptor PING =
+        MemberDescriptor.field(int.class, "ping");
+    
+    private static final MemberDescriptor LATENCY =
+        MemberDescriptor.field(int.class, "ping", "latency");
+    
+    private static Class<?> craftBukkitClass(CraftBukkitVersion version, String name)
+    {
+        return version.findCraftBukkitClass(name).orElseThrow();
+    }
+    
+    private static Class<?> minecraftClass(CraftBukkitVersion version, String name, String ... fallbacks)
+    {
+        return version.findMinecraftClass(name, fallbacks).orElseThrow();
+    }
+    
+    @Test
+    public void testMethodHandle() throws Throwable
+    {
+        EntityPlayer handle = new EntityPlayer(50, "Notch");
+        MethodHandle getHandle =
+            MemberAccessors.findHandle(craftBukkitClass(v1_16_3, "entity.CraftPlayer"), GET_HANDLE).orElseThrow();
+        
+        assertThat((EntityPlayer) getHandle.invoke(new CraftPlayer(handle))).isSameAs(handle);
+    }
+    
+    @Test
+    public void testPrivateMethodWithFallbackName() throws Throwable
+    {
+        MethodHandle getName = MemberAccessors.findHandle(minecraftClass(v1_16_3, "EntityPlayer"), GET_NAME).orElseThrow();
+        
+        assertThat((String) getName.invoke(new EntityPlayer(50, "Notch"))).isEqualTo("Notch");
+    }
+    
+    @Test
+    public void testStaticMembersAndConstructors() throws Throwable
+    {
+        Class<?> owner = minecraftClass(v1_16_3, "EntityPlayer");
+        
+        MethodHandle create = MemberAccessors.findHandle(owner, MemberDescriptor.staticMethod(
+            MethodType.methodType(EntityPlayer.class, String.class), "create"
+        )).orElseThrow();
+        
+        MethodHandle construct = MemberAccessors.findHandle(owner, MemberDescriptor.constructor(int.class, String.class))
+            .orElseThrow();
+        
+        MethodHandle maxPing = MemberAccessors.findHandle(owner, MemberDescriptor.staticField(int.class, "MAX_PING"))
+            .orElseThrow();
+        
+        assertThat(((EntityPlayer) create.invoke("jeb_")).ping).isZero();
+        assertThat(((EntityPlayer) construct.invoke(20, "Dinnerbone")).ping).isEqualTo(20);
+        assertThat((int) maxPing.invoke()).isEqualTo(EntityPlayer.MAX_PING);
+    }
+    
+    @Test
+    public void testFieldsAcrossVersions() throws Throwable
+    {
+        Class<?> legacy = minecraftClass(v1_16_3, "EntityPlayer");
+        Class<?> modern = minecraftClass(v1_17_1, "server.level.EntityPlayer", "server.level.ServerPlayer");
+        
+        ServerPlayer player = new ServerPlayer(75);
+        VarHandle latency = MemberAccessors.findVarHandle(modern, LATENCY).orElseThrow();
+        MethodHandle setLatency = MemberAccessors.findSetter(modern, LATENCY).orElseThrow();
+        
+        assertThat((int) latency.get(player)).isEqualTo(75);
+        setLatency.invoke(player, 100);
+        assertThat((int) latency.getVolatile(player)).isEqualTo(100);
+        
+        assertThat((int) MemberAccessors.findHandle(legacy, LATENCY).orElseThrow().invoke(new EntityPlayer(5, "")))
+            .isEqualTo(5);
+    }
+    
+    @Test
+    public void testFunctions()
+    {
+        EntityPlayer handle = new EntityPlayer(50, "Notch");
+        Class<?> craftPlayer = craftBukkitClass(v1_16_3, "entity.CraftPlayer");
+        Class<?> entityPlayer = minecraftClass(v1_16_3, "EntityPlayer");
+        
+        @SuppressWarnings("unchecked")
+        Function<Object, Object> getHandle =
+            MemberAccessors.findFunction(craftPlayer, GET_HANDLE, Function.class).orElseThrow();
+        
+        @SuppressWarnings("unchecked")
+        ToIntFunction<Object> getPing =
+            MemberAccessors.findFunction(entityPlayer, PING, ToIntFunction.class).orElseThrow();
+        
+        @SuppressWarnings("unchecked")
+        Function<Object, String> getName =
+            MemberAccessors.findFunction(entityPlayer, GET_NAME, Function.class).orElseThrow();
+        
+        @SuppressWarnings("unchecked")
+        BiFunction<Integer, String, Object> construct = MemberAccessors.findFunction(
+            entityPlayer, MemberDescriptor.constructor(int.class, String.class), BiFunction.class
+        ).orElseThrow();
+        
+        assertThat(getHandle.apply(new CraftPlayer(handle))).isSameAs(handle);
+        assertThat(getPing.applyAsInt(handle)).isEqualTo(50);
+        assertThat(getName.apply(handle)).isEqualTo("Notch");
+        assertThat(((EntityPlayer) construct.apply(10, "Grumm")).ping).isEqualTo(10);
+        
+        assertThatThrownBy(() -> MemberAccessors.findFunction(craftPlayer, GET_HANDLE, Supplier.class))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testMissingMembersAreCached()
+    {
+        Class<?> owner = minecraftClass(v1_16_3, "EntityPlayer");
+        MemberDescriptor missing = MemberDescriptor.method(MethodType.methodType(void.class), "doesNotExist");
+        
+        assertThat(MemberAccessors.findHandle(owner, missing))
+            .isEmpty()
+            .isSameAs(MemberAccessors.findHandle(owner, missing));
+        
+        assertThat(MemberAccessors.findHandle(owner, GET_NAME)).isSameAs(MemberAccessors.findHandle(owner, GET_NAME));
+        
+        assertThatThrownBy(() -> MemberAccessors.findVarHandle(owner, GET_NAME))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    // Loads the stand-in into its own named module, which exports its package without opening it.
+    private static Class<?> encapsulated() throws ClassNotFoundException
+    {
+        String module = "evergreen.encapsulated";
+        String className = Encapsulated.class.getName();
+        ClassLoader resources = MemberAccessorsTests.class.getClassLoader();
+        ModuleDescriptor descriptor = ModuleDescriptor.newModule(module).exports(Encapsulated.class.getPackageName()).build();
+        
+        ModuleReference reference = new ModuleReference(descriptor, null)
+        {
+            @Override
+            public ModuleReader open()
+            {
+                return new ModuleReader()
+                {
+                    @Override
+                    public Optional<URI> find(String name) throws IOException
+                    {
+                        @NullOr URL url = resources.getResource(name);
+                        try { return (url == null) ? Optional.empty() : Optional.of(url.toURI()); }
+                        catch (URISyntaxException e) { throw new IOException(e); }
+                    }
+                    
+                    @Override
+                    public Optional<InputStream> open(String name)
+                    {
+                        return Optional.ofNullable(resources.getResourceAsStream(name));
+                    }
+                    
+                    @Override
+                    public Stream<String> list() { return Stream.of(className.replace('.', '/') + ".class"); }
+                    
+                    @Override
+                    public void close() {}
+                };
+            }
+        };
+        
+        ModuleFinder finder = new ModuleFinder()
+        {
+            @Override
+            public Optional<ModuleReference> find(String name) { return Optional.of(reference).filter(r -> name.equals(module)); }
+            
+            @Override
+            public Set<ModuleReference> findAll() { return Set.of(reference); }
+        };
+        
+        ModuleLayer boot = ModuleLayer.boot();
+        Configuration configuration = boot.configuration().resolve(finder, ModuleFinder.of(), Set.of(module));
+        ModuleLayer layer = boot.defineModulesWithOneLoader(configuration, ClassLoader.getPlatformClassLoader());
+        return layer.findLoader(module).loadClass(className);
+    }
+    
+    @Test
+    public void testInaccessibleMembersFail() throws ClassNotFoundException
+    {
+        Class<?> encapsulated = encapsulated();
+        assertThat(encapsulated.getModule().isOpen(encapsulated.getPackageName())).isFalse();
+        
+        // The package isn't open to this library: the private field exists, but can't be accessed.
+        assertThatThrownBy(() -> MemberAccessors.findHandle(encapsulated, MemberDescriptor.field(int.class, "secret")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasCauseInstanceOf(IllegalAccessException.class);
+        
+        assertThat(MemberAccessors.findHandle(encapsulated, MemberDescriptor.field(int.class, "doesNotExist"))).isEmpty();
+    }
+    
+    public static class Constants
+    {
+        public final int answer = 42;
+    }
+    
+    @Test
+    public void testFinalFieldsHaveNoSetter()
+    {
+        MemberDescriptor answer = MemberDescriptor.field(int.class, "answer");
+        
+        assertThat(MemberAccessors.findHandle(Constants.class, answer)).isPresent();
+        assertThat(MemberAccessors.findSetter(Constants.class, answer)).isEmpty();
+    }
+}
@@ -30,6 +30,28 @@ public class MinecraftVersionTests
         
         assertThat(MinecraftVersion.parseMinecraftVersion("2"))
             .hasValue(new MinecraftVersion(2, 0, 0));
+        
+        assertThat(MinecraftVersion.parseMinecraftVersion(new StringBuilder("MC: 1.20.4)")))
+            .hasValue(new MinecraftVersion(1, 20, 4));
+        
+        assertThat(MinecraftVersion.parseMinecraftVersion("no version here")).isEmpty();
+        assertThat(MinecraftVersion.parseMinecraftVersion("1.99999")).isEmpty();
+    }
+    
+    @Test
+    public void testParseExact()
+    {
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.20.4")).hasValue(new MinecraftVersion(1, 20, 4));
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.17")).hasValue(new MinecraftVersion(1, 17, 0));
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.18.1-R0.1-SNAPSHOT")).isEmpty();
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("v1.17")).isEmpty();
+    }
+    
+    @Test
+    public void testParseCanonical()
+    {
+        assertThat(MinecraftVersion.parseMinecraftVersion("1.19.2-R0.1-SNAPSHOT").orElseThrow())
+            .isSameAs(MinecraftVersion.parseMinecraftVersion("1.19.2").orElseThrow());
     }
     
     @Test
@@ -57,6 +79,103 @@ public class MinecraftVersionTests
         assertThat(new MinecraftVersion(2,  0, 0).toString()).isEqualTo("2.0.0");
     }
     
+    @Test
+    public void testQualifiers()
+    {
+        assertThat(MinecraftVersion.parseMinecraftVersion("1.21-pre1-R0.1-SNAPSHOT"))
+            .hasValue(new MinecraftVersion(1, 21, 0, MinecraftVersion.Stage.PRE_RELEASE, 1));
+        
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.20.5-rc2"))
+            .hasValue(new MinecraftVersion(1, 20, 5, MinecraftVersion.Stage.RELEASE_CANDIDATE, 2));
+        
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("26.1-snapshot-1"))
+            .hasValue(new MinecraftVersion(26, 1, 0, MinecraftVersion.Stage.SNAPSHOT, 1));
+        
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.14 Pre-Release 3"))
+            .hasValue(new MinecraftVersion(1, 14, 0, MinecraftVersion.Stage.PRE_RELEASE, 3));
+        
+        MinecraftVersion snapshot = MinecraftVersion.parseExactMinecraftVersion("24w14a").orElseThrow();
+        
+        assertThat(snapshot.stage()).isEqualTo(MinecraftVersion.Stage.SNAPSHOT);
+        assertThat(snapshot.stageNumber()).isZero();
+        assertThat(snapshot.isRelease()).isFalse();
+        assertThat(snapshot.release()).isEqualTo(new MinecraftVersion(1, 20, 5));
+        
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("1.21-pre0")).isEmpty();
+        assertThat(MinecraftVersion.parseExactMinecraftVersion("99w01a")).isEmpty();
+    }
+    
+    @Test
+    public void testUnknownWeeklySnapshotsAreSkipped()
+    {
+        assertThat(MinecraftVersion.parseMinecraftVersion("Running 25w99a on 1.21.4")).hasValue(new MinecraftVersion(1, 21, 4));
+        assertThat(MinecraftVersion.parseMinecraftVersion("99w01a then 24w14a")).isEqualTo(MinecraftVersion.parseExactMinecraftVersion("24w14a"));
+        assertThat(MinecraftVersion.parseMinecraftVersion("25w99a")).isEmpty();
+    }
+    
+    @Test
+    public void testQualifiedOrdering()
+    {
+        MinecraftVersion v1_20_4 = new MinecraftVersion(1, 20, 4);
+        MinecraftVersion snapshot = MinecraftVersion.parseExactMinecraftVersion("24w14a").orElseThrow();
+        MinecraftVersion pre = new MinecraftVersion(1, 20, 5, MinecraftVersion.Stage.PRE_RELEASE, 1);
+        MinecraftVersion rc = new MinecraftVersion(1, 20, 5, MinecraftVersion.Stage.RELEASE_CANDIDATE, 1);
+        MinecraftVersion v1_20_5 = new MinecraftVersion(1, 20, 5);
+        
+        assertThat(v1_20_4).isLessThan(snapshot);
+        assertThat(snapshot).isLessThan(pre);
+        assertThat(pre).isLessThan(rc);
+        assertThat(rc).isLessThan(v1_20_5);
+        assertThat(pre.packed()).isLessThan(v1_20_5.packed());
+        
+        // Plain version numbers compare with the release.
+        assertThat(pre.atLeast(1, 20, 5)).isFalse();
+        assertThat(pre.compareTo(1, 20, 5)).isNegative();
+        assertThat(pre.atLeast(v1_20_5)).isFalse();
+        assertThat(pre.greaterThan(1, 20, 4)).isTrue();
+        assertThat(snapshot.lessThan(1, 20, 5)).isTrue();
+        assertThat(snapshot.atMost(1, 20, 4)).isFalse();
+        assertThat(rc.atMost(1, 20, 5)).isTrue();
+        assertThat(v1_20_5.compareTo(1, 20, 5)).isZero();
+    }
+    
+    @Test
+    public void testQualifiedRoundTrip()
+    {
+        for (String text : new String[] {"1.21.0-pre1", "1.20.5-rc2", "26.1.0-snapshot-1", "23w51b", "11w47a", "25w46a"})
+        {
+            MinecraftVersion version = MinecraftVersion.parseExactMinecraftVersion(text).orElseThrow();
+            
+            assertThat(version).hasToString(text);
+            assertThat(MinecraftVersion.unpack(version.packed())).isSameAs(version);
+        }
+        
+        assertThat(new MinecraftVersion(1, 14, 0, MinecraftVersion.Stage.PRE_RELEASE, 3)).hasToString("1.14.0-pre3");
+    }
+    
+    @Test
+    public void testInvalidQualifiers()
+    {
+        assertThatThrownBy(() -> MinecraftVersion.pack(1, 21, 0, MinecraftVersion.Stage.PRE_RELEASE, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> MinecraftVersion.pack(1, 21, 0, MinecraftVersion.Stage.RELEASE_CANDIDATE, MinecraftVersion.MAX_STAGE_NUMBER + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> MinecraftVersion.pack(1, 21, 0, MinecraftVersion.Stage.RELEASE, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        long release = MinecraftVersion.pack(1, 20, 5);
+        long weekly = MinecraftVersion.parseExactMinecraftVersion("24w14a").orElseThrow().packed();
+        
+        // Floors aren't versions, and weekly snapshots only lead up to their own release.
+        assertThatThrownBy(() -> MinecraftVersion.unpack(MinecraftVersion.floor(release)))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> MinecraftVersion.unpack(MinecraftVersion.floor(MinecraftVersion.pack(1, 21)) | MinecraftVersion.qualifier(weekly)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
     @Test
     public void testNegative()
     {
@@ -69,4 +188,58 @@ public class MinecraftVersionTests
         assertThatThrownBy(() -> new MinecraftVersion(0, 0, Integer.MIN_VALUE))
             .isInstanceOf(IllegalArgumentException.class);
     }
+    
+    @Test
+    public void testTooLarge()
+    {
+        assertThatThrownBy(() -> new MinecraftVersion(MinecraftVersion.MAX_COMPONENT + 1, 0, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> MinecraftVersion.pack(1, Integer.MAX_VALUE, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testPacked()
+    {
+        MinecraftVersion v1_17_1 = new MinecraftVersion(1, 17, 1);
+        
+        assertThat(v1_17_1.packed()).isEqualTo(MinecraftVersion.pack(1, 17, 1));
+        assertThat(MinecraftVersion.major(v1_17_1.packed())).isEqualTo(1);
+        assertThat(MinecraftVersion.minor(v1_17_1.packed())).isEqualTo(17);
+        assertThat(MinecraftVersion.patch(v1_17_1.packed())).isEqualTo(1);
+        
+        assertThat(MinecraftVersion.pack(1, 17)).isLessThan(v1_17_1.packed());
+        assertThat(MinecraftVersion.pack(1, 16, 5)).isLessThan(MinecraftVersion.pack(1, 17));
+        assertThat(MinecraftVersion.pack(1, MinecraftVersion.MAX_COMPONENT)).isLessThan(MinecraftVersion.pack(2));
+    }
+    
+    @Test
+    public void testOpenEndedBounds()
+    {
+        MinecraftVersion version = new MinecraftVersion(1, MinecraftVersion.MAX_COMPONENT, MinecraftVersion.MAX_COMPONENT);
+        
+        assertThat(version.atMost(1)).isTrue();
+        assertThat(version.lessThan(2)).isTrue();
+        assertThat(version.greaterThan(1, 17, Integer.MIN_VALUE)).isTrue();
+        assertThat(new MinecraftVersion(1, 20, 4).atMost(1, 20)).isTrue();
+        assertThat(new MinecraftVersion(1, 21, 0).atMost(1, 20)).isFalse();
+        
+        MinecraftVersion largest = new MinecraftVersion(MinecraftVersion.MAX_COMPONENT, 0, 0);
+        
+        assertThat(largest.atLeast(70000)).isFalse();
+        assertThat(largest.lessThan(70000)).isTrue();
+        assertThat(largest.compareTo(70000, 0, 0)).isNegative();
+        assertThat(largest.greaterThan(-1, 70000)).isTrue();
+    }
+    
+    @Test
+    public void testEqualsAndHashCode()
+    {
+        assertThat(new MinecraftVersion(1, 18, 2))
+            .isEqualTo(new MinecraftVersion(1, 18, 2))
+            .hasSameHashCodeAs(new MinecraftVersion(1, 18, 2))
+            .isNotEqualTo(new MinecraftVersion(1, 18, 1))
+            .isNotEqualTo(new CraftBukkitVersion(1, 18, 2));
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static community.leaf.evergreen.bukkit.versions.PluginJarTests.plugin;
+import static org.assertj.core.api.Assertions.*;
+
+public class PluginCompatibilityReportTests
+{
+    @Test
+    public void testScan(@TempDir Path directory) throws IOException
+    {
+        for (int i = 0; i < 40; i++)
+        {
+            plugin(directory, String.format("plugin-%02d.jar", i), "name: Plugin" + i + "\nversion: 1.0\napi-version: 1.16\n");
+        }
+        
+        plugin(directory, "upgraded.jar", "name: Upgraded\nversion: 3.0\napi-version: 1.20\n");
+        plugin(directory, "old.jar", "name: Old\nversion: 0.1\n");
+        Files.write(directory.resolve("broken.jar"), new byte[] { 'P', 'K', 0, 0 });
+        Files.write(directory.resolve("notes.txt"), new byte[0]);
+        Files.createDirectory(directory.resolve("Example"));
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PluginCompatibilityReport report;
+        
+        try { report = PluginCompatibilityReport.scan(directory, VersionRange.exactly(new MinecraftVersion(1, 19, 4)), pool); }
+        finally { pool.shutdown(); }
+        
+        assertThat(report.entries()).hasSize(43);
+        assertThat(report.entries().get(0).path().getFileName()).hasToString("broken.jar");
+        assertThat(report.entries(PluginCompatibility.COMPATIBLE)).hasSize(40);
+        assertThat(report.counts())
+            .containsEntry(PluginCompatibility.INCOMPATIBLE, 1)
+            .containsEntry(PluginCompatibility.LEGACY, 1)
+            .containsEntry(PluginCompatibility.UNREADABLE, 1)
+            .containsEntry(PluginCompatibility.PARTIAL, 0);
+        assertThat(report.loadsAll()).isFalse();
+        
+        PluginCompatibilityReport.Entry broken = report.entries(PluginCompatibility.UNREADABLE).get(0);
+        assertThat(broken.error()).isPresent();
+        assertThat(broken.plugin()).isEmpty();
+        
+        assertThat(report.toString())
+            .startsWith("Plugin compatibility with [1.19.4,1.19.4]: 40 COMPATIBLE, 1 LEGACY, 1 INCOMPATIBLE, 1 UNREADABLE")
+            .contains("INCOMPATIBLE: upgraded.jar (Upgraded 3.0, api-version: 1.20)")
+            .contains("LEGACY: old.jar (Old 0.1, api-version: none)");
+    }
+    
+    @Test
+    public void testEmptyDirectory(@TempDir Path directory) throws IOException
+    {
+        PluginCompatibilityReport report = PluginCompatibilityReport.scan(directory, new MinecraftVersion(1, 20, 4));
+        
+        assertThat(report.entries()).isEmpty();
+        assertThat(report.loadsAll()).isTrue();
+        assertThat(report.toString()).endsWith("no plugins");
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static community.leaf.evergreen.bukkit.versions.ServerJarTests.utf8;
+import static community.leaf.evergreen.bukkit.versions.ServerJarTests.zip;
+import static org.assertj.core.api.Assertions.*;
+
+public class PluginJarTests
+{
+    static Path plugin(Path directory, String fileName, Map<String, String> files) throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", utf8("Manifest-Version: 1.0\r\n\r\n"));
+        entries.put("com/example/ExamplePlugin.class", new byte[8]);
+        for (Map.Entry<String, String> file : files.entrySet()) { entries.put(file.getKey(), utf8(file.getValue())); }
+        return Files.write(directory.resolve(fileName), zip(entries, false, ""));
+    }
+    
+    static Path plugin(Path directory, String fileName, String pluginYml) throws IOException
+    {
+        return plugin(directory, fileName, Map.of("plugin.yml", pluginYml));
+    }
+    
+    @Test
+    public void testPluginYml(@TempDir Path directory) throws IOException
+    {
+        PluginJar plugin = PluginJar.read(plugin(directory, "example.jar",
+            "\uFEFFname: Example\r\n" +
+            "main: com.example.ExamplePlugin\r\n" +
+            "version: '2.1.0' # Quoted\r\n" +
+            "commands:\r\n" +
+            "  example:\r\n" +
+            "    api-version: 1.8\r\n" +
+            "api-version:   \"1.20\"\r\n"
+        ));
+        
+        assertThat(plugin.descriptor()).hasValue(PluginJar.Descriptor.PLUGIN_YML);
+        assertThat(plugin.name()).hasValue("Example");
+        assertThat(plugin.version()).hasValue("2.1.0");
+        
+        // Only top-level keys count.
+        assertThat(plugin.apiVersionText()).hasValue("1.20");
+        assertThat(plugin.apiVersion()).hasValue(new MinecraftVersion(1, 20, 0));
+    }
+    
+    @Test
+    public void testPaperPluginYmlTakesPrecedence(@TempDir Path directory) throws IOException
+    {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("plugin.yml", "name: Example\napi-version: 1.13\n");
+        files.put("paper-plugin.yml", "name: Example\napi-version: 1.20.6 # Paper\n");
+        
+        PluginJar plugin = PluginJar.read(plugin(directory, "example.jar", files));
+        
+        assertThat(plugin.descriptor()).hasValue(PluginJar.Descriptor.PAPER_PLUGIN_YML);
+        assertThat(plugin.apiVersion()).hasValue(new MinecraftVersion(1, 20, 6));
+    }
+    
+    @Test
+    public void testCompatibility(@TempDir Path directory) throws IOException
+    {
+        PluginJar modern = PluginJar.read(plugin(directory, "modern.jar", "name: Modern\napi-version: 1.20\n"));
+        PluginJar flattening = PluginJar.read(plugin(directory, "flattening.jar", "name: Flattening\napi-version: 1.13\n"));
+        PluginJar legacy = PluginJar.read(plugin(directory, "legacy.jar", "name: Legacy\n"));
+        PluginJar invalid = PluginJar.read(plugin(directory, "invalid.jar", "name: Invalid\napi-version: latest\n"));
+        PluginJar empty = PluginJar.read(plugin(directory, "empty.jar", Map.of()));
+        
+        MinecraftVersion v1_12_2 = new MinecraftVersion(1, 12, 2);
+        MinecraftVersion v1_19_4 = new MinecraftVersion(1, 19, 4);
+        MinecraftVersion v1_20_4 = new MinecraftVersion(1, 20, 4);
+        
+        assertThat(modern.compatibility(v1_20_4)).isEqualTo(PluginCompatibility.COMPATIBLE);
+        assertThat(modern.compatibility(v1_19_4)).isEqualTo(PluginCompatibility.INCOMPATIBLE);
+        assertThat(modern.compatibility(v1_12_2)).isEqualTo(PluginCompatibility.COMPATIBLE);
+        assertThat(modern.compatibility(VersionRange.between(v1_19_4, v1_20_4))).isEqualTo(PluginCompatibility.PARTIAL);
+        assertThat(modern.compatibility(VersionRange.between(new MinecraftVersion(1, 16, 5), v1_19_4))).isEqualTo(PluginCompatibility.INCOMPATIBLE);
+        
+        assertThat(flattening.compatibility(VersionRange.all())).isEqualTo(PluginCompatibility.COMPATIBLE);
+        assertThat(legacy.compatibility(v1_20_4)).isEqualTo(PluginCompatibility.LEGACY);
+        assertThat(legacy.compatibility(v1_12_2)).isEqualTo(PluginCompatibility.COMPATIBLE);
+        assertThat(invalid.compatibility(v1_20_4)).isEqualTo(PluginCompatibility.UNKNOWN);
+        assertThat(invalid.apiVersionText()).hasValue("latest");
+        assertThat(empty.descriptor()).isEmpty();
+        assertThat(empty.compatibility(v1_20_4)).isEqualTo(PluginCompatibility.UNREADABLE);
+    }
+    
+    @Test
+    public void testTruncatedStoredEntry(@TempDir Path directory) throws IOException
+    {
+        byte[] yml = utf8("name: Example\napi-version: 1.20\n");
+        ByteBuffer jar = ByteBuffer.wrap(zip(Map.of("plugin.yml", yml), true, "")).order(ByteOrder.LITTLE_ENDIAN);
+        
+        // Claim more uncompressed bytes in the central directory than the stored data holds.
+        for (int i = 0; i < jar.limit() - 4; i++)
+        {
+            if (jar.getInt(i) == 0x02014b50) { jar.putInt(i + 24, yml.length + 16); }
+        }
+        
+        Path file = Files.write(directory.resolve("truncated.jar"), Arrays.copyOf(jar.array(), jar.limit()));
+        
+        assertThatThrownBy(() -> PluginJar.read(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("truncated entry");
+    }
+    
+    @Test
+    public void testZip64EndOutOfBounds(@TempDir Path directory) throws IOException
+    {
+        // The comment ends the file with a zip64 end of central directory signature, but not its record.
+        byte[] zip = zip(Map.of("plugin.yml", utf8("name: Example\n")), false, "PK\u0006\u0006");
+        int end = zip.length - 22 - 4;
+        
+        ByteBuffer jar = ByteBuffer.allocate(zip.length + 20).order(ByteOrder.LITTLE_ENDIAN);
+        jar.put(zip, 0, end);
+        jar.putInt(0x07064b50).putInt(0).putLong(zip.length + 20 - 4).putInt(1);
+        jar.put(zip, end, zip.length - end);
+        jar.putShort(end + 20 + 10, (short) 0xFFFF);
+        
+        Path file = Files.write(directory.resolve("zip64.jar"), jar.array());
+        
+        assertThatThrownBy(() -> PluginJar.read(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("zip64");
+    }
+    
+    @Test
+    public void testEntryNameOutOfBounds(@TempDir Path directory) throws IOException
+    {
+        ByteBuffer jar = ByteBuffer.wrap(zip(Map.of("plugin.yml", utf8("name: Example\n")), false, "")).order(ByteOrder.LITTLE_ENDIAN);
+        
+        for (int i = 0; i < jar.limit() - 4; i++)
+        {
+            if (jar.getInt(i) == 0x02014b50) { jar.putShort(i + 28, (short) 0xFFFF); }
+        }
+        
+        Path file = Files.write(directory.resolve("name.jar"), jar.array());
+        
+        assertThatThrownBy(() -> PluginJar.read(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("name out of bounds");
+    }
+}
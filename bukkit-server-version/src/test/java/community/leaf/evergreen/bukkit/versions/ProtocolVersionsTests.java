@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static community.leaf.evergreen.bukkit.versions.ProtocolVersions.SNAPSHOT_PROTOCOL_BASE;
+import static community.leaf.evergreen.bukkit.versions.ProtocolVersions.UNKNOWN_PROTOCOL;
+import static community.leaf.evergreen.bukkit.versions.ProtocolVersions.UNKNOWN_VERSION;
+import static org.assertj.core.api.Assertions.*;
+
+public class ProtocolVersionsTests
+{
+    private static final MinecraftVersion v1_20_3 = new MinecraftVersion(1, 20, 3);
+    
+    private static final MinecraftVersion v1_20_4 = new MinecraftVersion(1, 20, 4);
+    
+    private static ProtocolVersions load(String table) throws IOException
+    {
+        return ProtocolVersions.load(new StringReader(table));
+    }
+    
+    @Test
+    public void testBundledReleases()
+    {
+        ProtocolVersions table = ProtocolVersions.bundled();
+        
+        assertThat(table).isSameAs(ProtocolVersions.bundled());
+        assertThat(table.version(47)).contains(new MinecraftVersion(1, 8, 9));
+        assertThat(table.version(340)).contains(new MinecraftVersion(1, 12, 2));
+        assertThat(table.version(763)).contains(new MinecraftVersion(1, 20, 1));
+        assertThat(table.version(765)).contains(v1_20_4);
+        assertThat(table.packedVersion(754)).isEqualTo(MinecraftVersion.pack(1, 16, 5));
+        assertThat(table.version(773)).contains(new MinecraftVersion(1, 21, 10));
+        assertThat(table.version(774)).contains(new MinecraftVersion(1, 21, 11));
+        assertThat(table.protocol(new MinecraftVersion(1, 21, 9))).isEqualTo(773);
+        
+        assertThat(table.protocol(v1_20_3)).isEqualTo(765);
+        assertThat(table.protocol(v1_20_4)).isEqualTo(765);
+        assertThat(table.findProtocol(new MinecraftVersion(1, 7, 10))).hasValue(5);
+        
+        assertThat(table.newestRelease()).isPresent();
+        assertThat(table.protocol(table.newestRelease().orElseThrow())).isNotEqualTo(UNKNOWN_PROTOCOL);
+    }
+    
+    @Test
+    public void testBundledProtocolsIncreaseWithVersions()
+    {
+        ProtocolVersions table = ProtocolVersions.bundled();
+        int previous = 0;
+        
+        for (int minor = 7; minor <= 21; minor++)
+        {
+            for (int patch = 0; patch <= 10; patch++)
+            {
+                int protocol = table.protocol(new MinecraftVersion(1, minor, patch));
+                if (protocol == UNKNOWN_PROTOCOL) { continue; }
+                
+                assertThat(protocol).as("1." + minor + "." + patch).isGreaterThanOrEqualTo(previous);
+                previous = protocol;
+            }
+        }
+    }
+    
+    @Test
+    public void testUnknown()
+    {
+        ProtocolVersions table = ProtocolVersions.bundled();
+        
+        for (int protocol : List.of(-5, 0, 6, 48, 0xFFFF, Integer.MAX_VALUE, Integer.MIN_VALUE, SNAPSHOT_PROTOCOL_BASE + 0xFFFF))
+        {
+            assertThat(table.version(protocol)).as("protocol: " + protocol).isEmpty();
+            assertThat(table.packedVersion(protocol)).as("protocol: " + protocol).isEqualTo(UNKNOWN_VERSION);
+        }
+        
+        assertThat(table.protocol(new MinecraftVersion(1, 20, 9))).isEqualTo(UNKNOWN_PROTOCOL);
+        assertThat(table.findProtocol(new MinecraftVersion(1, 6, 4))).isEmpty();
+    }
+    
+    @Test
+    public void testSnapshots() throws IOException
+    {
+        assertThat(ProtocolVersions.isSnapshot(SNAPSHOT_PROTOCOL_BASE + 1)).isTrue();
+        assertThat(ProtocolVersions.isSnapshot(765)).isFalse();
+        assertThat(ProtocolVersions.isSnapshot(-1)).isFalse();
+        
+        ProtocolVersions bundled = ProtocolVersions.bundled();
+        
+        assertThat(bundled.version(SNAPSHOT_PROTOCOL_BASE + 1)).contains(new MinecraftVersion(1, 16, 4, MinecraftVersion.Stage.PRE_RELEASE, 1));
+        assertThat(bundled.version(SNAPSHOT_PROTOCOL_BASE + 3)).contains(new MinecraftVersion(1, 16, 4, MinecraftVersion.Stage.RELEASE_CANDIDATE, 1));
+        
+        ProtocolVersions table = load("format 1\n765 1.20.4\nsnapshot 100-120 1.20.5\nsnapshot 200 1.21-pre1\n");
+        
+        assertThat(table.version(SNAPSHOT_PROTOCOL_BASE + 99)).isEmpty();
+        assertThat(table.version(SNAPSHOT_PROTOCOL_BASE + 100)).contains(new MinecraftVersion(1, 20, 5));
+        assertThat(table.version(SNAPSHOT_PROTOCOL_BASE + 120)).contains(new MinecraftVersion(1, 20, 5));
+        assertThat(table.version(SNAPSHOT_PROTOCOL_BASE + 121)).isEmpty();
+        assertThat(table.version(100)).isEmpty();
+        assertThat(table.version(SNAPSHOT_PROTOCOL_BASE + 200)).contains(new MinecraftVersion(1, 21, 0, MinecraftVersion.Stage.PRE_RELEASE, 1));
+    }
+    
+    @Test
+    public void testLookupsDoNotAllocate()
+    {
+        ProtocolVersions table = ProtocolVersions.bundled();
+        
+        assertThat(table.version(765)).isSameAs(table.version(765));
+        assertThat(table.version(9999)).isSameAs(table.version(-1));
+        assertThat(table.version(765).orElseThrow()).isSameAs(table.version(765).orElseThrow());
+    }
+    
+    @Test
+    public void testMalformedTables()
+    {
+        List<String> tables = List.of(
+            "",
+            "# only a comment",
+            "765 1.20.4",
+            "format 2\n765 1.20.4",
+            "format 1\n765",
+            "format 1\nabc 1.20.4",
+            "format 1\n765 1.20.x",
+            "format 1\n70000 1.20.4",
+            "format 1\n765 1.20.4\n766 1.20.4",
+            "format 1\nsnapshot 5 1.20.5 1.20.6",
+            "format 1\nsnapshot 5- 1.20.5",
+            "format 1\nsnapshot 5-4 1.20.5",
+            "format 1\nsnapshot 1-5 1.20.5\nsnapshot 5-6 1.20.6"
+        );
+        
+        for (String table : tables)
+        {
+            assertThatThrownBy(() -> load(table)).as(table).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
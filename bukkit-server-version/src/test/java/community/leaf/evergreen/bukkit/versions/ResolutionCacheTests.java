@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ResolutionCacheTests
+{
+    private static final CraftBukkitVersion v1_20_3 = new CraftBukkitVersion(1, 20, 3);
+    
+    private static final String MISSING_CLASS = ResolutionCache.classKey("org.bukkit.craftbukkit.v1_20_R3.Missing");
+    
+    private static final String FOUND_CLASS = ResolutionCache.classKey("org.bukkit.craftbukkit.v1_20_R3.CraftServer");
+    
+    public static class Fixture
+    {
+        public String name() { return "name"; }
+        
+        public String getName() { return "getName"; }
+    }
+    
+    // Separate from Fixture, whose member lookups are already cached in memory by another test.
+    public static class PluginFixture
+    {
+        public String name() { return "name"; }
+        
+        public String getName() { return "getName"; }
+    }
+    
+    private static Path jar(Path directory, String contents) throws IOException
+    {
+        return Files.writeString(directory.resolve("server.jar"), contents);
+    }
+    
+    @Test
+    public void testSaveAndReopen(@TempDir Path directory) throws IOException
+    {
+        Path file = directory.resolve("cache").resolve("resolutions.bin");
+        Path jar = jar(directory, "server contents");
+        
+        ResolutionCache cache = ResolutionCache.open(file, v1_20_3, jar);
+        assertThat(cache.size()).isZero();
+        
+        cache.record(MISSING_CLASS, false);
+        cache.record(FOUND_CLASS, true);
+        
+        assertThat(cache.isKnownMissing(MISSING_CLASS)).isTrue();
+        assertThat(cache.isKnownMissing(FOUND_CLASS)).isFalse();
+        assertThat(cache.hasUnsavedChanges()).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+        
+        cache.save();
+        
+        assertThat(file).exists();
+        assertThat(cache.hasUnsavedChanges()).isFalse();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.isKnownMissing(MISSING_CLASS)).isTrue();
+        
+        ResolutionCache reopened = ResolutionCache.open(file, v1_20_3, jar);
+        
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.hasUnsavedChanges()).isFalse();
+        assertThat(reopened.isKnownMissing(MISSING_CLASS)).isTrue();
+        assertThat(reopened.isKnownMissing(FOUND_CLASS)).isFalse();
+        assertThat(reopened.isKnownMissing(ResolutionCache.classKey("unknown"))).isFalse();
+        
+        // Recording what's already known doesn't need saving.
+        reopened.record(MISSING_CLASS, false);
+        assertThat(reopened.hasUnsavedChanges()).isFalse();
+        
+        // A name that now resolves replaces the known miss.
+        reopened.record(MISSING_CLASS, true);
+        assertThat(reopened.isKnownMissing(MISSING_CLASS)).isFalse();
+        assertThat(reopened.saveQuietly()).isTrue();
+        assertThat(ResolutionCache.open(file, v1_20_3, jar).isKnownMissing(MISSING_CLASS)).isFalse();
+    }
+    
+    @Test
+    public void testInvalidation(@TempDir Path directory) throws IOException
+    {
+        Path file = directory.resolve("resolutions.bin");
+        Path jar = jar(directory, "server contents");
+        
+        ResolutionCache cache = ResolutionCache.open(file, v1_20_3, jar);
+        cache.record(MISSING_CLASS, false);
+        cache.save();
+        
+        assertThat(ResolutionCache.open(file, new CraftBukkitVersion(1, 20, 2), jar).size()).isZero();
+        assertThat(ResolutionCache.open(file, CraftBukkitVersion.unrelocated(v1_20_3), jar).size()).isZero();
+        
+        jar(directory, "updated server contents");
+        assertThat(ResolutionCache.open(file, v1_20_3, jar).size()).isZero();
+        
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThat(ResolutionCache.open(file, v1_20_3, jar).size()).isZero();
+    }
+    
+    @Test
+    public void testMergesWhenSaving(@TempDir Path directory) throws IOException
+    {
+        Path file = directory.resolve("resolutions.bin");
+        Path jar = jar(directory, "server contents");
+        
+        ResolutionCache first = ResolutionCache.open(file, v1_20_3, jar);
+        ResolutionCache second = ResolutionCache.open(file, v1_20_3, jar);
+        
+        first.record(MISSING_CLASS, false);
+        second.record(FOUND_CLASS, true);
+        first.save();
+        second.save();
+        
+        ResolutionCache reopened = ResolutionCache.open(file, v1_20_3, jar);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.isKnownMissing(MISSING_CLASS)).isTrue();
+    }
+    
+    @Test
+    public void testLookupsSkipKnownMisses(@TempDir Path directory) throws Throwable
+    {
+        // The test's classes stand in for the server's.
+        ResolutionCache cache = ResolutionCache.open(directory.resolve("resolutions.bin"), v1_20_3, jar(directory, "jar"), getClass().getClassLoader());
+        
+        String descriptor = MethodType.methodType(String.class).toMethodDescriptorString();
+        cache.record(ResolutionCache.classKey("java.lang.String"), false);
+        cache.record(ResolutionCache.memberKey(Fixture.class, MemberDescriptor.Kind.METHOD, "name", descriptor), false);
+        
+        ResolutionCache.install(cache);
+        
+        try
+        {
+            assertThat(ResolutionCache.installed()).containsSame(cache);
+            
+            ClassCache classes = new ClassCache(UnaryOperator.identity(), getClass().getClassLoader());
+            assertThat(classes.find("java.lang.String")).isEmpty();
+            assertThat(classes.find("java.lang.Integer")).contains(Integer.class);
+            assertThat(cache.isKnownMissing(ResolutionCache.classKey("java.lang.Long"))).isFalse();
+            assertThat(classes.find("java.lang.NotAClass")).isEmpty();
+            assertThat(cache.isKnownMissing(ResolutionCache.classKey("java.lang.NotAClass"))).isTrue();
+            
+            // "name" exists, but is known to be missing: resolution goes straight to "getName".
+            MemberDescriptor member = MemberDescriptor.method(MethodType.methodType(String.class), "name", "getName");
+            MethodHandle handle = MemberAccessors.findHandle(Fixture.class, member).orElseThrow();
+            
+            assertThat((String) handle.invoke(new Fixture())).isEqualTo("getName");
+            assertThat(cache.isKnownMissing(ResolutionCache.memberKey(Fixture.class, MemberDescriptor.Kind.METHOD, "getName", descriptor)))
+                .isFalse();
+        }
+        finally
+        {
+            ResolutionCache.uninstall();
+        }
+        
+        assertThat(ResolutionCache.installed()).isEmpty();
+    }
+    
+    @Test
+    public void testPluginLookupsAreNotRecorded(@TempDir Path directory) throws Throwable
+    {
+        // A server with its own class loader: the test's classes stand in for a plugin's.
+        try (URLClassLoader server = new URLClassLoader(new URL[0], null))
+        {
+            ResolutionCache cache = ResolutionCache.open(directory.resolve("resolutions.bin"), v1_20_3, jar(directory, "jar"), server);
+            
+            String descriptor = MethodType.methodType(String.class).toMethodDescriptorString();
+            String name = ResolutionCache.memberKey(PluginFixture.class, MemberDescriptor.Kind.METHOD, "name", descriptor);
+            cache.record(name, false);
+            
+            assertThat(cache.covers(server)).isTrue();
+            assertThat(cache.covers(null)).isTrue();
+            assertThat(cache.covers(getClass().getClassLoader())).isFalse();
+            
+            ResolutionCache.install(cache);
+            
+            try
+            {
+                // A plugin update may have added the member: its recorded miss is ignored.
+                MemberDescriptor member = MemberDescriptor.method(MethodType.methodType(String.class), "name", "getName");
+                MethodHandle handle = MemberAccessors.findHandle(PluginFixture.class, member).orElseThrow();
+                
+                assertThat((String) handle.invoke(new PluginFixture())).isEqualTo("name");
+                
+                ClassCache classes = new ClassCache(UnaryOperator.identity(), getClass().getClassLoader());
+                assertThat(classes.find(PluginFixture.class.getName() + "Missing")).isEmpty();
+                assertThat(classes.find(PluginFixture.class.getName())).contains(PluginFixture.class);
+                
+                assertThat(cache.size()).isEqualTo(1);
+            }
+            finally
+            {
+                ResolutionCache.uninstall();
+            }
+        }
+    }
+}
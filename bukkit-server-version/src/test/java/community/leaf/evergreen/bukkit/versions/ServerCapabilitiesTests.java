@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ServerCapabilitiesTests
+{
+    @Test
+    public void testProbe()
+    {
+        Set<String> classes = Set.of(
+            "org.spigotmc.SpigotConfig",
+            "com.destroystokyo.paper.PaperConfig",
+            "net.kyori.adventure.audience.Audience"
+        );
+        
+        Set<String> probed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        
+        try
+        {
+            ServerCapabilities capabilities = ServerCapabilities.probe(className ->
+            {
+                probed.add(className);
+                return classes.contains(className);
+            }, executor);
+            
+            assertThat(capabilities.isSpigot()).isTrue();
+            assertThat(capabilities.isPaper()).isTrue();
+            assertThat(capabilities.hasAdventure()).isTrue();
+            assertThat(capabilities.isFolia()).isFalse();
+            assertThat(capabilities.isPurpur()).isFalse();
+            assertThat(capabilities.hasBrigadier()).isFalse();
+            assertThat(capabilities.toSet())
+                .containsExactlyInAnyOrder(ServerCapability.SPIGOT, ServerCapability.PAPER, ServerCapability.ADVENTURE);
+            assertThat(capabilities)
+                .isEqualTo(ServerCapabilities.of(ServerCapability.SPIGOT, ServerCapability.PAPER, ServerCapability.ADVENTURE));
+            
+            // Every capability was probed, trying fallbacks until one exists.
+            assertThat(probed).contains("io.papermc.paper.configuration.Configuration", "net.pl3x.purpur.PurpurConfig");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testProbeClassLoader()
+    {
+        // Test fixtures include Mojang-mapped server classes, but no server platform.
+        ServerCapabilities capabilities = ServerCapabilities.probe(getClass().getClassLoader());
+        
+        assertThat(capabilities.toSet()).containsExactly(ServerCapability.MOJANG_MAPPINGS);
+        assertThat(ServerCapabilities.probe(null).toSet()).isEmpty();
+    }
+    
+    @Test
+    public void testProbeFailure()
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        try
+        {
+            assertThatThrownBy(() -> ServerCapabilities.probe(className -> { throw new IllegalStateException("boom"); }, executor))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("boom");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testServer()
+    {
+        assertThat(ServerCapabilities.server()).isSameAs(ServerCapabilities.server());
+        assertThat(ServerCapabilities.of()).hasToString("ServerCapabilities[]");
+    }
+}
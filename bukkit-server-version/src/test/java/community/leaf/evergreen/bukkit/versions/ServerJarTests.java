@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ServerJarTests
+{
+    static final String VERSION_JSON =
+        "{\n  \"id\": \"1.20.4\",\n  \"name\": \"1.20.4\",\n  \"world_version\": 3700,\n  \"protocol_version\": 765,\n  \"stable\": true\n}";
+    
+    static byte[] zip(Map<String, byte[]> entries, boolean isStored, String comment) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        try (ZipOutputStream zip = new ZipOutputStream(bytes))
+        {
+            zip.setComment(comment);
+            
+            for (Map.Entry<String, byte[]> entry : entries.entrySet())
+            {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                
+                if (isStored)
+                {
+                    CRC32 crc = new CRC32();
+                    crc.update(entry.getValue());
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(entry.getValue().length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        
+        return bytes.toByteArray();
+    }
+    
+    static byte[] utf8(String text) { return text.getBytes(StandardCharsets.UTF_8); }
+    
+    @Test
+    public void testVersionJson(@TempDir Path directory) throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", utf8("Manifest-Version: 1.0\r\nImplementation-Version: 3961-Spigot (MC: 1.19.4)\r\n\r\n"));
+        entries.put("org/bukkit/craftbukkit/v1_20_R3/CraftServer.class", new byte[8]);
+        entries.put("org/bukkit/craftbukkit/v1_20_R3/entity/CraftPlayer.class", new byte[8]);
+        entries.put("version.json", utf8(VERSION_JSON));
+        
+        Path jar = Files.write(directory.resolve("spigot.jar"), zip(entries, false, "A comment, to skip past"));
+        ServerJar server = ServerJar.read(jar);
+        
+        // version.json takes precedence over the manifest.
+        assertThat(server.minecraftVersion()).hasValue(new MinecraftVersion(1, 20, 4));
+        assertThat(server.craftBukkitVersion()).hasValue(new CraftBukkitVersion(1, 20, 3));
+        assertThat(server.craftBukkitVersion().orElseThrow().isRelocated()).isTrue();
+        assertThat(server.protocolVersion()).hasValue(765);
+        assertThat(server.path()).isEqualTo(jar);
+    }
+    
+    @Test
+    public void testManifest(@TempDir Path directory) throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", utf8(
+            "Manifest-Version: 1.0\nImplementation-Version: git-Paper-496 (MC: 1.20.6)\nSpecification-Version: 1.20.6-R0.1-SNAPSHOT\n\n"
+        ));
+        entries.put("org/bukkit/craftbukkit/CraftServer.class", new byte[8]);
+        
+        ServerJar server = ServerJar.read(Files.write(directory.resolve("paper.jar"), zip(entries, true, "")));
+        
+        assertThat(server.minecraftVersion()).hasValue(new MinecraftVersion(1, 20, 6));
+        assertThat(server.protocolVersion()).isEmpty();
+        assertThat(server.craftBukkitVersion()).hasValueSatisfying(version ->
+        {
+            assertThat(version.isRelocated()).isFalse();
+            assertThat(version.craftBukkitPackage()).isEqualTo("org.bukkit.craftbukkit");
+            assertThat(version.packed()).isEqualTo(MinecraftVersion.pack(1, 20, 6));
+        });
+    }
+    
+    @Test
+    public void testPaperclip(@TempDir Path directory) throws IOException
+    {
+        Map<String, byte[]> nested = new LinkedHashMap<>();
+        nested.put("org/bukkit/craftbukkit/v1_20_R3/CraftServer.class", new byte[8]);
+        
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("io/papermc/paperclip/Paperclip.class", new byte[8]);
+        entries.put("version.json", utf8(VERSION_JSON));
+        entries.put("META-INF/versions/1.20.4/paper-1.20.4.jar", zip(nested, false, ""));
+        
+        ServerJar server = ServerJar.read(Files.write(directory.resolve("paperclip.jar"), zip(entries, true, "")));
+        
+        assertThat(server.minecraftVersion()).hasValue(new MinecraftVersion(1, 20, 4));
+        assertThat(server.craftBukkitVersion()).hasValue(new CraftBukkitVersion(1, 20, 3));
+    }
+    
+    @Test
+    public void testWeeklySnapshot(@TempDir Path directory) throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("org/bukkit/craftbukkit/CraftServer.class", new byte[8]);
+        entries.put("version.json", utf8("{\"id\": \"23w51b\", \"name\": \"23w51b\"}"));
+        
+        ServerJar server = ServerJar.read(Files.write(directory.resolve("snapshot.jar"), zip(entries, false, "")));
+        
+        assertThat(server.minecraftVersion()).hasValueSatisfying(version ->
+        {
+            assertThat(version).hasToString("23w51b");
+            assertThat(version.stage()).isEqualTo(MinecraftVersion.Stage.SNAPSHOT);
+            assertThat(version.release()).isEqualTo(new MinecraftVersion(1, 20, 5));
+        });
+        assertThat(server.craftBukkitVersion()).hasValueSatisfying(version -> assertThat(version.isRelocated()).isFalse());
+    }
+    
+    @Test
+    public void testWithoutVersions(@TempDir Path directory) throws IOException
+    {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("org/bukkit/craftbukkit/CraftServer.class", new byte[8]);
+        entries.put("version.json", utf8("{\"id\": \"99w01a\", \"name\": \"99w01a\"}"));
+        
+        ServerJar server = ServerJar.read(Files.write(directory.resolve("snapshot.jar"), zip(entries, false, "")));
+        
+        // Unrelocated CraftBukkit needs the game version.
+        assertThat(server.minecraftVersion()).isEmpty();
+        assertThat(server.craftBukkitVersion()).isEmpty();
+        assertThat(server.protocolVersion()).isEmpty();
+    }
+    
+    @Test
+    public void testNotZip(@TempDir Path directory) throws IOException
+    {
+        Path file = Files.write(directory.resolve("server.jar"), utf8("definitely not a zip file"));
+        
+        assertThatThrownBy(() -> ServerJar.read(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("end of central directory");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Seeds are tested as instances: the global server versions can't be reset between tests.
+public class ServerVersionSeedTests
+{
+    private static final String PACKAGE = ServerVersionSeedTests.class.getPackageName() + ".";
+    
+    // Loads a private copy of this library's classes, so its global server versions start out unknown.
+    static final class IsolatedLoader extends ClassLoader
+    {
+        IsolatedLoader() { super(ServerVersionSeedTests.class.getClassLoader()); }
+        
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+        {
+            if (!name.startsWith(PACKAGE)) { return super.loadClass(name, resolve); }
+            
+            synchronized (getClassLoadingLock(name))
+            {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) { return loaded; }
+                
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class"))
+                {
+                    if (in == null) { throw new ClassNotFoundException(name); }
+                    byte[] bytes = in.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                }
+                catch (IOException e)
+                {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+    
+    // The isolated copy is in another runtime package, so its package-private holder needs opening.
+    private static Object holder(Class<?> type) throws ReflectiveOperationException
+    {
+        Field server = Class.forName(type.getName() + "$ServerHolder", true, type.getClassLoader()).getDeclaredField("SERVER");
+        server.setAccessible(true);
+        return server.get(null);
+    }
+    
+    @Test
+    public void testSeed()
+    {
+        ServerVersionSeed<MinecraftVersion> seed = new ServerVersionSeed<>(MinecraftVersion.class);
+        MinecraftVersion seeded = new MinecraftVersion(1, 20, 4);
+        
+        seed.seed(seeded);
+        seed.seed(new MinecraftVersion(1, 20, 4));
+        
+        assertThat(seed.get(() -> { throw new AssertionError("Resolved despite the seed"); })).isSameAs(seeded);
+        
+        assertThatThrownBy(() -> seed.seed(new MinecraftVersion(1, 19, 4)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    public void testSeedAfterResolution()
+    {
+        ServerVersionSeed<CraftBukkitVersion> seed = new ServerVersionSeed<>(CraftBukkitVersion.class);
+        CraftBukkitVersion resolved = new CraftBukkitVersion(1, 20, 3);
+        
+        assertThat(seed.get(() -> resolved)).isSameAs(resolved);
+        
+        seed.seed(new CraftBukkitVersion(1, 20, 3));
+        
+        assertThatThrownBy(() -> seed.seed(new CraftBukkitVersion(1, 20, 2)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    public void testFailedResolutionIsRetried()
+    {
+        ServerVersionSeed<MinecraftVersion> seed = new ServerVersionSeed<>(MinecraftVersion.class);
+        MinecraftVersion resolved = new MinecraftVersion(1, 20, 4);
+        
+        assertThatThrownBy(() -> seed.get(() -> { throw new IllegalStateException("no server"); }))
+            .isInstanceOf(IllegalStateException.class);
+        
+        assertThat(seed.get(() -> resolved)).isSameAs(resolved);
+        assertThat(seed.get(() -> { throw new AssertionError("Resolved twice"); })).isSameAs(resolved);
+    }
+    
+    @Test
+    public void testServerHolderReturnsSeededVersion() throws ReflectiveOperationException
+    {
+        Class<?> type = new IsolatedLoader().loadClass(MinecraftVersion.class.getName());
+        Method server = type.getMethod("server");
+        
+        // No server is running: the failure mustn't reach (and poison) the holder.
+        assertThatThrownBy(() -> server.invoke(null))
+            .isInstanceOf(InvocationTargetException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+        
+        Object seeded = type.getConstructor(int.class, int.class, int.class).newInstance(1, 20, 4);
+        type.getMethod("seedServer", type).invoke(null, seeded);
+        
+        assertThat(server.invoke(null)).isSameAs(seeded);
+        assertThat(holder(type)).isSameAs(seeded);
+        assertThat(server.invoke(null)).isSameAs(seeded);
+    }
+    
+    @Test
+    public void testCraftBukkitServerHolderReturnsSeededVersion() throws ReflectiveOperationException
+    {
+        Class<?> type = new IsolatedLoader().loadClass(CraftBukkitVersion.class.getName());
+        Object seeded = type.getConstructor(int.class, int.class, int.class).newInstance(1, 20, 3);
+        
+        type.getMethod("seedServer", type).invoke(null, seeded);
+        
+        assertThat(type.getMethod("server").invoke(null)).isSameAs(seeded);
+        assertThat(holder(type)).isSameAs(seeded);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import net.minecraft.server.v1_16_R3.EntityPlayer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SharedRegistryTests
+{
+    @AfterEach
+    public void leave()
+    {
+        SharedRegistry.use(null, null);
+    }
+    
+    @Test
+    public void testFind()
+    {
+        ConcurrentMap<String, Object> registry = SharedRegistry.create();
+        ConcurrentMap<String, Object> incompatible = new ConcurrentHashMap<>(Map.of(SharedRegistry.MARKER_KEY, SharedRegistry.FORMAT + 1));
+        
+        assertThat(registry).containsEntry(SharedRegistry.MARKER_KEY, SharedRegistry.FORMAT);
+        assertThat(SharedRegistry.find(List.of(new ConcurrentHashMap<>(), incompatible, registry))).isSameAs(registry);
+        assertThat(SharedRegistry.find(List.of(new ConcurrentHashMap<>(), incompatible, "not a map"))).isNull();
+    }
+    
+    @Test
+    public void testSharedClasses()
+    {
+        ConcurrentMap<String, Object> registry = SharedRegistry.create();
+        SharedRegistry.use(registry, getClass().getClassLoader());
+        
+        assertThat(SharedRegistry.isJoined()).isTrue();
+        assertThat(SharedRegistry.isOwner()).isFalse();
+        
+        ClassCache first = new ClassCache(UnaryOperator.identity(), getClass().getClassLoader(), true);
+        assertThat(first.find("net.minecraft.server.v1_16_R3.EntityPlayer")).hasValue(EntityPlayer.class);
+        assertThat(first.find("net.minecraft.server.v1_16_R3.DoesNotExist")).isEmpty();
+        
+        assertThat(registry)
+            .containsEntry("c:net.minecraft.server.v1_16_R3.EntityPlayer", Optional.of(EntityPlayer.class))
+            .containsEntry("c:net.minecraft.server.v1_16_R3.DoesNotExist", Optional.empty());
+        
+        // Another copy reuses the shared lookup, even though its own class loader can't see the class.
+        ClassCache second = new ClassCache(UnaryOperator.identity(), null, true);
+        assertThat(second.find("net.minecraft.server.v1_16_R3.EntityPlayer")).hasValue(EntityPlayer.class);
+        
+        // Unshared caches never touch the registry.
+        new ClassCache(UnaryOperator.identity(), getClass().getClassLoader()).find("net.minecraft.server.v1_16_R3.EntityPlayer");
+        assertThat(registry).hasSize(3);
+    }
+    
+    @Test
+    public void testUnsharedPluginClasses()
+    {
+        ConcurrentMap<String, Object> registry = SharedRegistry.create();
+        
+        // The test's class loader isn't the "server's" class loader.
+        SharedRegistry.use(registry, ClassLoader.getPlatformClassLoader());
+        
+        ClassCache classes = new ClassCache(UnaryOperator.identity(), getClass().getClassLoader(), true);
+        assertThat(classes.find("net.minecraft.server.v1_16_R3.EntityPlayer")).hasValue(EntityPlayer.class);
+        assertThat(classes.find("java.lang.String")).hasValue(String.class);
+        
+        assertThat(registry)
+            .doesNotContainKey("c:net.minecraft.server.v1_16_R3.EntityPlayer")
+            .containsKey("c:java.lang.String");
+    }
+    
+    @Test
+    public void testSharedHandles() throws Throwable
+    {
+        ConcurrentMap<String, Object> registry = SharedRegistry.create();
+        SharedRegistry.use(registry, getClass().getClassLoader());
+        
+        MemberDescriptor latency = MemberDescriptor.field(int.class, "latency", "ping");
+        MethodHandle setter = MemberAccessors.findSetter(EntityPlayer.class, latency).orElseThrow();
+        
+        EntityPlayer player = new EntityPlayer(5, "");
+        setter.invoke(player, 50);
+        assertThat(player.ping).isEqualTo(50);
+        
+        assertThat(registry).containsValue(Optional.of(setter));
+        assertThat(registry.keySet()).anyMatch(key -> key.startsWith("s:") && key.contains(EntityPlayer.class.getName()));
+    }
+}
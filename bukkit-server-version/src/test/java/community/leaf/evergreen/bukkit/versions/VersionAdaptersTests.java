@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionAdaptersTests
+{
+    static final Set<String> INITIALIZED = ConcurrentHashMap.newKeySet();
+    
+    public interface Greeter
+    {
+        String greet();
+    }
+    
+    public static class Greeter_v1_16_R3 implements Greeter
+    {
+        static { INITIALIZED.add("v1_16_R3"); }
+        
+        @Override
+        public String greet() { return "hello from 1.16"; }
+    }
+    
+    public static class Greeter_v1_20_R3 implements Greeter
+    {
+        static { INITIALIZED.add("v1_20_R3"); }
+        
+        @Override
+        public String greet() { return "hello from 1.20"; }
+    }
+    
+    public static class Greeter_1_20_6 implements Greeter
+    {
+        static { INITIALIZED.add("1.20.6"); }
+        
+        @Override
+        public String greet() { return "hello from unrelocated 1.20.6"; }
+    }
+    
+    public static class Greeter_v1_21_R1 implements Greeter
+    {
+        @Override
+        public String greet() { return "hello from relocated 1.21.1"; }
+    }
+    
+    public static class Greeter_1_21_1 implements Greeter
+    {
+        @Override
+        public String greet() { return "hello from unrelocated 1.21.1"; }
+    }
+    
+    // Records every class it's asked to load, while delegating to the test's class loader.
+    static final class RecordingLoader extends URLClassLoader
+    {
+        final List<String> requested = new CopyOnWriteArrayList<>();
+        
+        RecordingLoader(Path resources) throws MalformedURLException
+        {
+            super(new URL[] { resources.toUri().toURL() }, VersionAdaptersTests.class.getClassLoader());
+        }
+        
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+        {
+            requested.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+    
+    private static RecordingLoader descriptor(Path directory, String ... lines) throws IOException
+    {
+        Path descriptor = directory.resolve(VersionAdapters.DESCRIPTOR_DIRECTORY + Greeter.class.getName());
+        Files.createDirectories(descriptor.getParent());
+        Files.write(descriptor, List.of(lines), StandardCharsets.UTF_8);
+        return new RecordingLoader(directory);
+    }
+    
+    private static RecordingLoader greeters(Path directory) throws IOException
+    {
+        return descriptor(directory,
+            "# Greeters, by server version",
+            "v1_16_R3 = " + Greeter_v1_16_R3.class.getName(),
+            "",
+            "v1_20_R3 = " + Greeter_v1_20_R3.class.getName() + "  # Latest relocated",
+            "1.20.6=" + Greeter_1_20_6.class.getName()
+        );
+    }
+    
+    @BeforeEach
+    public void clearInitialized()
+    {
+        INITIALIZED.clear();
+    }
+    
+    @Test
+    public void testOnlyServerAdapterIsLoaded(@TempDir Path directory) throws IOException
+    {
+        RecordingLoader loader = greeters(directory);
+        VersionAdapters<Greeter> adapters = new VersionAdapters<>(Greeter.class, loader, () -> new CraftBukkitVersion(1, 20, 3));
+        
+        assertThat(adapters.get().greet()).isEqualTo("hello from 1.20");
+        assertThat(adapters.server()).containsSame(adapters.get());
+        
+        assertThat(INITIALIZED).containsExactly("v1_20_R3");
+        assertThat(loader.requested)
+            .contains(Greeter_v1_20_R3.class.getName())
+            .doesNotContain(Greeter_v1_16_R3.class.getName(), Greeter_1_20_6.class.getName());
+    }
+    
+    @Test
+    public void testDeclarationsWithoutLoading(@TempDir Path directory) throws IOException
+    {
+        RecordingLoader loader = greeters(directory);
+        VersionAdapters<Greeter> adapters = new VersionAdapters<>(Greeter.class, loader, () -> new CraftBukkitVersion(1, 8, 3));
+        
+        assertThat(adapters.versions()).containsExactly(
+            new CraftBukkitVersion(1, 16, 3), new CraftBukkitVersion(1, 20, 3), CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 20, 6))
+        );
+        assertThat(adapters.supports(new CraftBukkitVersion(1, 16, 3))).isTrue();
+        assertThat(adapters.supports(new CraftBukkitVersion(1, 8, 3))).isFalse();
+        assertThat(adapters.adapterClassName(CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 20, 6))))
+            .hasValue(Greeter_1_20_6.class.getName());
+        
+        assertThat(adapters.server()).isEmpty();
+        assertThatThrownBy(adapters::get)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("v1_8_R3");
+        
+        assertThat(INITIALIZED).isEmpty();
+        assertThat(loader.requested).isEmpty();
+    }
+    
+    @Test
+    public void testUnrelocatedServer(@TempDir Path directory) throws IOException
+    {
+        VersionAdapters<Greeter> adapters = new VersionAdapters<>(
+            Greeter.class, greeters(directory), () -> CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 20, 6))
+        );
+        
+        assertThat(adapters.get().greet()).isEqualTo("hello from unrelocated 1.20.6");
+        assertThat(INITIALIZED).containsExactly("1.20.6");
+    }
+    
+    @Test
+    public void testRelocatedAndUnrelocatedVersionsAreDistinct(@TempDir Path directory) throws IOException
+    {
+        // v1_21_R1 is the package version of 1.21.1, so both pack the same numbers.
+        RecordingLoader loader = descriptor(directory,
+            "v1_21_R1 = " + Greeter_v1_21_R1.class.getName(),
+            "1.21.1 = " + Greeter_1_21_1.class.getName()
+        );
+        
+        CraftBukkitVersion relocated = new CraftBukkitVersion(1, 21, 1);
+        CraftBukkitVersion unrelocated = CraftBukkitVersion.unrelocated(new MinecraftVersion(1, 21, 1));
+        VersionAdapters<Greeter> adapters = new VersionAdapters<>(Greeter.class, loader, () -> unrelocated);
+        
+        assertThat(adapters.versions()).containsExactly(relocated, unrelocated);
+        assertThat(adapters.adapterClassName(relocated)).hasValue(Greeter_v1_21_R1.class.getName());
+        assertThat(adapters.adapterClassName(unrelocated)).hasValue(Greeter_1_21_1.class.getName());
+        assertThat(adapters.get().greet()).isEqualTo("hello from unrelocated 1.21.1");
+    }
+    
+    @Test
+    public void testInvalidDescriptors(@TempDir Path directory) throws IOException
+    {
+        assertThatThrownBy(() -> new VersionAdapters<>(Greeter.class, descriptor(directory.resolve("a"), "v1_20_R3"), CraftBukkitVersion::server).versions())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("line 1");
+        
+        assertThatThrownBy(() -> new VersionAdapters<>(Greeter.class, descriptor(directory.resolve("b"), "v1_20 = a.B"), CraftBukkitVersion::server).versions())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("invalid version");
+        
+        assertThatThrownBy(() -> new VersionAdapters<>(Greeter.class, descriptor(directory.resolve("c"), "v1_20_R3 = a..B"), CraftBukkitVersion::server).versions())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("invalid class name");
+        
+        assertThatThrownBy(() -> new VersionAdapters<>(Greeter.class, descriptor(directory.resolve("d"), "v1_20_R3 = a.B", "v1_20_R3 = a.C"), CraftBukkitVersion::server).versions())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("line 2")
+            .hasMessageContaining("already declared");
+    }
+    
+    @Test
+    public void testAdapterMustImplementService(@TempDir Path directory) throws IOException
+    {
+        RecordingLoader loader = descriptor(directory,
+            "v1_20_R3 = " + String.class.getName(),
+            "v1_19_R3 = community.leaf.evergreen.DoesNotExist"
+        );
+        
+        VersionAdapters<Greeter> adapters = new VersionAdapters<>(Greeter.class, loader, () -> new CraftBukkitVersion(1, 20, 3));
+        
+        assertThatThrownBy(adapters::get)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("is not a");
+        
+        assertThatThrownBy(() -> adapters.create(new CraftBukkitVersion(1, 19, 3)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasCauseInstanceOf(ClassNotFoundException.class);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionMapTests
+{
+    static final KnownReleases RELEASES = KnownReleases.of(
+        new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 12, 2), new MinecraftVersion(1, 16, 5),
+        new MinecraftVersion(1, 19, 4), new MinecraftVersion(1, 20, 4)
+    );
+    
+    @Test
+    public void testNearestLowerRelease()
+    {
+        VersionMap<String> map = VersionMap.<String>builder(RELEASES)
+            .since(new MinecraftVersion(1, 12, 2), "legacy")
+            .since(new MinecraftVersion(1, 19, 4), "modern")
+            .build();
+        
+        assertThat(map.get(new MinecraftVersion(1, 8, 8))).isEmpty();
+        assertThat(map.get(new MinecraftVersion(1, 12, 2))).hasValue("legacy");
+        assertThat(map.get(new MinecraftVersion(1, 16, 5))).hasValue("legacy");
+        assertThat(map.get(new MinecraftVersion(1, 18, 0))).hasValue("legacy");
+        assertThat(map.get(new MinecraftVersion(1, 20, 4))).hasValue("modern");
+        assertThat(map.get(new MinecraftVersion(1, 21, 8))).hasValue("modern");
+        assertThat(map.getOrNull(MinecraftVersion.pack(1, 7, 10))).isNull();
+        assertThat(map).hasToString("{1.12.2=legacy, 1.19.4=modern}");
+        
+        // Lookups don't allocate.
+        assertThat(map.get(new MinecraftVersion(1, 16, 5))).isSameAs(map.get(new MinecraftVersion(1, 12, 2)));
+    }
+    
+    @Test
+    public void testOrElse()
+    {
+        VersionMap<String> map = VersionMap.<String>builder(RELEASES)
+            .orElse("ancient")
+            .since(new MinecraftVersion(1, 16, 5), "current")
+            .build();
+        
+        assertThat(map.get(new MinecraftVersion(1, 0, 0))).hasValue("ancient");
+        assertThat(map.get(new MinecraftVersion(1, 12, 2))).hasValue("ancient");
+        assertThat(map.byOrdinal(KnownReleases.UNKNOWN_ORDINAL)).hasValue("ancient");
+        assertThat(map.byOrdinal(RELEASES.ordinal(new MinecraftVersion(1, 20, 4)))).hasValue("current");
+        assertThat(map).hasToString("{<1.8.8=ancient, 1.16.5=current}");
+    }
+    
+    @Test
+    public void testUnknownRelease()
+    {
+        assertThatThrownBy(() -> VersionMap.<String>builder(RELEASES).since(new MinecraftVersion(1, 17, 0), "unknown"))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> VersionIntMap.builder(RELEASES).since(new MinecraftVersion(1, 17, 0), 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testIntMap()
+    {
+        VersionIntMap map = VersionIntMap.builder(RELEASES)
+            .since(new MinecraftVersion(1, 8, 8), 0x2F)
+            .since(new MinecraftVersion(1, 16, 5), 0x3A)
+            .since(new MinecraftVersion(1, 20, 4), 0x3E)
+            .build();
+        
+        assertThat(map.get(new MinecraftVersion(1, 7, 10))).isEqualTo(VersionIntMap.NO_VALUE);
+        assertThat(map.get(new MinecraftVersion(1, 12, 2))).isEqualTo(0x2F);
+        assertThat(map.get(new MinecraftVersion(1, 19, 4))).isEqualTo(0x3A);
+        assertThat(map.get(MinecraftVersion.pack(1, 21))).isEqualTo(0x3E);
+        assertThat(map).hasToString("{<1.8.8=-1, 1.8.8=47, 1.16.5=58, 1.20.4=62}");
+        
+        VersionIntMap defaulted = VersionIntMap.builder(RELEASES).orElse(0).build();
+        assertThat(defaulted.get(new MinecraftVersion(1, 20, 4))).isZero();
+    }
+    
+    @Test
+    public void testBundledReleases()
+    {
+        VersionIntMap map = VersionIntMap.builder()
+            .since(new MinecraftVersion(1, 20, 2), 764)
+            .since(new MinecraftVersion(1, 20, 3), 765)
+            .build();
+        
+        assertThat(map.releases()).isSameAs(KnownReleases.bundled());
+        assertThat(map.get(new MinecraftVersion(1, 20, 4))).isEqualTo(765);
+        assertThat(map.get(new MinecraftVersion(1, 20, 2))).isEqualTo(764);
+        
+        // Every release leading on from a known weekly snapshot series is bundled.
+        VersionIntMap latest = VersionIntMap.builder()
+            .since(new MinecraftVersion(1, 21, 9), 773)
+            .since(new MinecraftVersion(1, 21, 11), 774)
+            .build();
+        
+        assertThat(latest.get(new MinecraftVersion(1, 21, 10))).isEqualTo(773);
+        assertThat(latest.get(new MinecraftVersion(1, 21, 11))).isEqualTo(774);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static community.leaf.evergreen.bukkit.versions.VersionMetrics.Counter;
+import static community.leaf.evergreen.bukkit.versions.VersionMetrics.Timer;
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionMetricsTests
+{
+    @Test
+    public void testDisabledByDefault()
+    {
+        assertThat(VersionMetrics.isEnabled()).isFalse();
+        
+        MinecraftVersion.parseMinecraftVersion("1.20.4");
+        VersionMetrics.Snapshot snapshot = VersionMetrics.snapshot();
+        
+        for (Counter counter : Counter.values()) { assertThat(snapshot.count(counter)).as(counter.name()).isZero(); }
+        for (Timer timer : Timer.values()) { assertThat(snapshot.latency(timer).count()).as(timer.name()).isZero(); }
+    }
+    
+    @Test
+    public void testCountersAndHistograms()
+    {
+        VersionMetrics metrics = new VersionMetrics();
+        
+        metrics.count(Counter.PARSES);
+        metrics.count(Counter.PARSES);
+        metrics.count(Counter.CLASS_LOOKUP_FAILURES);
+        
+        for (long nanos : new long[] {0, 1, 100, 100, 1000, 1_000_000}) { metrics.time(Timer.CLASS_LOOKUP, nanos); }
+        
+        VersionMetrics.Snapshot snapshot = metrics.takeSnapshot();
+        
+        assertThat(snapshot.count(Counter.PARSES)).isEqualTo(2);
+        assertThat(snapshot.count(Counter.CLASS_LOOKUP_FAILURES)).isEqualTo(1);
+        assertThat(snapshot.count(Counter.MEMBER_LOOKUPS)).isZero();
+        
+        VersionMetrics.Histogram latency = snapshot.latency(Timer.CLASS_LOOKUP);
+        
+        assertThat(latency.count()).isEqualTo(6);
+        assertThat(latency.totalNanos()).isEqualTo(1_001_201);
+        assertThat(latency.meanNanos()).isCloseTo(1_001_201 / 6.0, within(0.001));
+        assertThat(latency.bucket(0)).isEqualTo(1);
+        assertThat(latency.bucket(1)).isEqualTo(1);
+        assertThat(latency.bucket(7)).isEqualTo(2); // 64 <= 100 < 128
+        assertThat(latency.bucketUpperBoundNanos(7)).isEqualTo(128);
+        assertThat(latency.bucketUpperBoundNanos(latency.bucketCount() - 1)).isEqualTo(Long.MAX_VALUE);
+        
+        assertThat(latency.percentileNanos(50)).isEqualTo(128);
+        assertThat(latency.percentileNanos(100)).isEqualTo(1 << 20);
+        assertThat(latency.percentileNanos(0)).isEqualTo(1);
+        assertThat(snapshot.latency(Timer.MEMBER_LOOKUP).percentileNanos(99)).isZero();
+        assertThatThrownBy(() -> latency.percentileNanos(101)).isInstanceOf(IllegalArgumentException.class);
+        
+        // Snapshots are immutable copies.
+        metrics.count(Counter.PARSES);
+        assertThat(snapshot.count(Counter.PARSES)).isEqualTo(2);
+        
+        metrics.clear();
+        assertThat(metrics.takeSnapshot().count(Counter.PARSES)).isZero();
+        assertThat(metrics.takeSnapshot().latency(Timer.CLASS_LOOKUP).count()).isZero();
+    }
+    
+    @Test
+    public void testFlightRecorderEvents(@TempDir Path directory) throws Exception
+    {
+        Path dump = directory.resolve("recording.jfr");
+        
+        try (Recording recording = new Recording())
+        {
+            recording.enable("community.leaf.evergreen.ClassLookup");
+            recording.enable("community.leaf.evergreen.MemberLookup");
+            recording.start();
+            
+            ClassCache classes = new ClassCache(UnaryOperator.identity(), getClass().getClassLoader());
+            classes.find("java.lang.StringBuilder");
+            classes.find("java.lang.StringBuilder");
+            classes.find("java.lang.NotAClass");
+            
+            MemberAccessors.findHandle(StringBuilder.class, MemberDescriptor.method(
+                java.lang.invoke.MethodType.methodType(int.class), "length"
+            ));
+            
+            recording.stop();
+            recording.dump(dump);
+        }
+        
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        
+        assertThat(events)
+            .filteredOn(event -> event.getEventType().getName().equals("community.leaf.evergreen.ClassLookup"))
+            .extracting(event -> event.getString("className") + "=" + event.getBoolean("found"))
+            .containsExactly("java.lang.StringBuilder=true", "java.lang.NotAClass=false");
+        
+        assertThat(events)
+            .filteredOn(event -> event.getEventType().getName().equals("community.leaf.evergreen.MemberLookup"))
+            .singleElement()
+            .satisfies(event -> assertThat(event.getBoolean("found")).isTrue());
+    }
+    
+    private static String camelCase(Enum<?> constant)
+    {
+        String[] words = constant.name().toLowerCase(Locale.ROOT).split("_");
+        StringBuilder camel = new StringBuilder(words[0]);
+        for (int i = 1; i < words.length; i++) { camel.append(Character.toUpperCase(words[i].charAt(0))).append(words[i].substring(1)); }
+        return camel.toString();
+    }
+    
+    @Test
+    public void testMetricsEventCoversEveryMetric()
+    {
+        List<String> fields = EventType.getEventType(VersionEvents.Metrics.class).getFields().stream()
+            .map(ValueDescriptor::getName)
+            .collect(Collectors.toList());
+        
+        for (Counter counter : Counter.values()) { assertThat(fields).contains(camelCase(counter)); }
+        for (Timer timer : Timer.values()) { assertThat(fields).contains(camelCase(timer) + "MeanNanos"); }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionRangeMapTests
+{
+    private static final MinecraftVersion v1_8_0 = new MinecraftVersion(1, 8, 0);
+    private static final MinecraftVersion v1_13_0 = new MinecraftVersion(1, 13, 0);
+    private static final MinecraftVersion v1_17_0 = new MinecraftVersion(1, 17, 0);
+    
+    @Test
+    public void testLookup()
+    {
+        VersionRangeMap<String> map = VersionRangeMap.<String>builder()
+            .since(v1_17_0, "modern")
+            .range(v1_13_0, v1_17_0, "flattening")
+            .range(v1_8_0, v1_13_0, "legacy")
+            .build();
+        
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.get(new MinecraftVersion(1, 20, 4))).hasValue("modern");
+        assertThat(map.get(v1_17_0)).hasValue("modern");
+        assertThat(map.get(new MinecraftVersion(1, 16, 5))).hasValue("flattening");
+        assertThat(map.get(v1_13_0)).hasValue("flattening");
+        assertThat(map.get(new MinecraftVersion(1, 12, 2))).hasValue("legacy");
+        assertThat(map.get(v1_8_0)).hasValue("legacy");
+        assertThat(map.get(new MinecraftVersion(1, 7, 10))).isEmpty();
+        assertThat(map.contains(new MinecraftVersion(1, 7, 10))).isFalse();
+        assertThat(map.getOrNull(MinecraftVersion.pack(1, 18, 2))).isEqualTo("modern");
+    }
+    
+    @Test
+    public void testGaps()
+    {
+        VersionRangeMap.Builder<String> builder = VersionRangeMap.<String>builder()
+            .until(v1_8_0, "ancient")
+            .since(v1_13_0, "modern");
+        
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+        
+        VersionRangeMap<String> map = builder.allowGaps().build();
+        
+        assertThat(map.get(new MinecraftVersion(1, 7, 10))).hasValue("ancient");
+        assertThat(map.get(new MinecraftVersion(1, 12, 2))).isEmpty();
+        assertThat(map.get(v1_13_0)).hasValue("modern");
+    }
+    
+    @Test
+    public void testInvalidRanges()
+    {
+        assertThatThrownBy(() -> VersionRangeMap.<String>builder().range(v1_13_0, v1_8_0, "backwards"))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() -> VersionRangeMap.<String>builder().range(v1_8_0, v1_8_0, "empty"))
+            .isInstanceOf(IllegalArgumentException.class);
+        
+        assertThatThrownBy(() ->
+            VersionRangeMap.<String>builder()
+                .range(v1_8_0, v1_17_0, "wide")
+                .range(v1_13_0, v1_17_0, "narrow")
+                .build()
+        ).isInstanceOf(IllegalStateException.class);
+    }
+}
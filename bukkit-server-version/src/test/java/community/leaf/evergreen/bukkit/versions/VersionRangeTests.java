@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionRangeTests
+{
+    private static final MinecraftVersion v1_16_5 = new MinecraftVersion(1, 16, 5);
+    
+    private static final MinecraftVersion v1_17 = new MinecraftVersion(1, 17, 0);
+    
+    private static final MinecraftVersion v1_20_4 = new MinecraftVersion(1, 20, 4);
+    
+    private static VersionRange range(String text)
+    {
+        return VersionRange.parseVersionRange(text).orElseThrow(() -> new AssertionError("Invalid range: " + text));
+    }
+    
+    @Test
+    public void testParse()
+    {
+        assertThat(range("[1.16.5,1.20.4]")).isEqualTo(VersionRange.between(v1_16_5, v1_20_4));
+        assertThat(range(" [ 1.16.5 , 1.20.4 ] ")).isEqualTo(VersionRange.between(v1_16_5, v1_20_4));
+        assertThat(range("1.17+")).isEqualTo(VersionRange.atLeast(v1_17));
+        assertThat(range("[1.17,)")).isEqualTo(VersionRange.atLeast(v1_17));
+        assertThat(range("(,1.20.4]")).isEqualTo(VersionRange.atMost(v1_20_4));
+        assertThat(range("[,1.17)")).isEqualTo(VersionRange.lessThan(v1_17));
+        assertThat(range("1.16.5")).isEqualTo(VersionRange.exactly(v1_16_5));
+        assertThat(range("[,]")).isEqualTo(VersionRange.all());
+        
+        VersionRange open = range("(1.16.5,1.20.4)");
+        
+        assertThat(open.contains(v1_16_5)).isFalse();
+        assertThat(open.contains(new MinecraftVersion(1, 16, 6))).isTrue();
+        assertThat(open.contains(new MinecraftVersion(1, 20, 3))).isTrue();
+        assertThat(open.contains(v1_20_4)).isFalse();
+    }
+    
+    @Test
+    public void testParseInvalid()
+    {
+        for (String text : List.of("", " ", "1.17-", "[1.20.4,1.16.5]", "[1.17,1.17)", "(1.17,1.17]", "[1.17]", "[1.17,1.18", "1.17,1.18]", "v1.17", "1.17++", "[a,b]"))
+        {
+            assertThat(VersionRange.parseVersionRange(text)).as(text).isEmpty();
+        }
+    }
+    
+    @Test
+    public void testContains()
+    {
+        VersionRange range = range("[1.16.5,1.20.4]");
+        
+        assertThat(range.contains(v1_16_5)).isTrue();
+        assertThat(range.contains(v1_17)).isTrue();
+        assertThat(range.contains(v1_20_4)).isTrue();
+        assertThat(range.contains(new MinecraftVersion(1, 16, 4))).isFalse();
+        assertThat(range.contains(new MinecraftVersion(1, 20, 5))).isFalse();
+        assertThat(range.contains(MinecraftVersion.pack(1, 18, 2))).isTrue();
+        
+        assertThat(VersionRange.all().contains(new MinecraftVersion(0, 0, 0))).isTrue();
+        assertThat(range("1.17+").contains(new MinecraftVersion(MinecraftVersion.MAX_COMPONENT, 0, 0))).isTrue();
+    }
+    
+    @Test
+    public void testRelations()
+    {
+        VersionRange range = range("[1.16.5,1.20.4]");
+        
+        assertThat(range.intersects(range("1.20.4+"))).isTrue();
+        assertThat(range.intersects(range("[1.20.5,)"))).isFalse();
+        assertThat(range.intersects(range("(,1.16.5)"))).isFalse();
+        assertThat(range.encloses(range("[1.17,1.18)"))).isTrue();
+        assertThat(range.encloses(range("1.17+"))).isFalse();
+        assertThat(VersionRange.all().encloses(range)).isTrue();
+        
+        assertThatThrownBy(() -> VersionRange.between(v1_20_4, v1_16_5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> VersionRange.between(v1_16_5, new MinecraftVersion(1, 16, 5, MinecraftVersion.Stage.PRE_RELEASE, 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    public void testQualifiedBounds()
+    {
+        MinecraftVersion snapshot = MinecraftVersion.parseExactMinecraftVersion("24w14a").orElseThrow();
+        MinecraftVersion pre = new MinecraftVersion(1, 20, 5, MinecraftVersion.Stage.PRE_RELEASE, 1);
+        MinecraftVersion v1_20_5 = new MinecraftVersion(1, 20, 5);
+        
+        // Snapshots and pre-releases come after the previous release and before their own.
+        assertThat(range("1.20.5+").contains(snapshot)).isFalse();
+        assertThat(range("1.20.5").contains(pre)).isFalse();
+        assertThat(VersionRange.exactly(v1_20_5).contains(snapshot)).isFalse();
+        assertThat(range("[1.16.5,1.20.4]").contains(snapshot)).isFalse();
+        assertThat(range("(1.20.4,1.20.5)").contains(snapshot)).isTrue();
+        assertThat(VersionRange.lessThan(v1_20_5).contains(pre)).isTrue();
+        
+        VersionRange sincePre = range("[1.20.5-pre1,1.21)");
+        
+        assertThat(sincePre.contains(pre)).isTrue();
+        assertThat(sincePre.contains(v1_20_5)).isTrue();
+        assertThat(sincePre.contains(snapshot)).isFalse();
+        assertThat(VersionRange.exactly(pre).contains(new MinecraftVersion(1, 20, 5, MinecraftVersion.Stage.PRE_RELEASE, 2))).isFalse();
+        assertThat(VersionRange.lessThan(pre).contains(snapshot)).isTrue();
+        
+        for (String text : List.of("[1.20.5-pre1,1.21)", "24w14a+", "(,1.20.5-rc1]", "1.21.0-pre2"))
+        {
+            VersionRange range = range(text);
+            assertThat(range("" + range)).as(text).isEqualTo(range);
+        }
+        
+        assertThat(sincePre).hasToString("[1.20.5-pre1,1.21.0)");
+    }
+    
+    @Test
+    public void testToString()
+    {
+        for (String text : List.of("[1.16.5,1.20.4]", "(1.16.5,1.20.4)", "1.17+", "(,1.20.4)", "1.8.8", "[,]"))
+        {
+            VersionRange range = range(text);
+            assertThat(range("" + range)).as(text).isEqualTo(range);
+        }
+        
+        assertThat(range("[1.16.5,1.20.4]")).hasToString("[1.16.5,1.20.4]");
+        assertThat(range("(1.16.5,1.20.4)")).hasToString("(1.16.5,1.20.4)");
+        assertThat(range("1.17+")).hasToString("[1.17.0,)");
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionScannerTests
+{
+    // The regular expressions replaced by the scanners, kept as the reference behavior.
+    private static final Pattern MINECRAFT_PATTERN =
+        Pattern.compile("(?<major>\\d+)(\\.(?<minor>\\d+))?(\\.(?<patch>\\d+))?");
+    
+    private static final Pattern CRAFTBUKKIT_PATTERN =
+        Pattern.compile("v(?<release>\\d+)_(?<major>\\d+)_R(?<revision>\\d+)");
+    
+    private static final Pattern CRAFTBUKKIT_PACKAGE_PATTERN =
+        Pattern.compile("org\\.bukkit\\.craftbukkit\\.(?<version>" + CRAFTBUKKIT_PATTERN + ")\\.");
+    
+    private static int intOrZero(String input)
+    {
+        return (input == null) ? 0 : Integer.parseInt(input);
+    }
+    
+    private static long expected(Matcher matcher, String first, String second, String third)
+    {
+        return (matcher.find())
+            ? MinecraftVersion.pack(
+                intOrZero(matcher.group(first)),
+                intOrZero(matcher.group(second)),
+                intOrZero(matcher.group(third))
+            )
+            : VersionScanner.NO_MATCH;
+    }
+    
+    @Test
+    public void testMinecraftVersionMatchesPattern()
+    {
+        List<String> inputs = List.of(
+            "", "abc", "1", "1.", "1.2", "1.2.", "1.2.3", "1.2.3.4", "1..2", "1.x.3", ".1.2", "007.08.09",
+            "1.18.1-R0.1-SNAPSHOT", "git-Paper-196 (MC: 1.20.1)", "v1_18_R1", "version 1.20.4"
+        );
+        
+        for (String text : inputs)
+        {
+            assertThat(VersionScanner.scanMinecraftVersion(text, 0, text.length()))
+                .as(text)
+                .isEqualTo(expected(MINECRAFT_PATTERN.matcher(text), "major", "minor", "patch"));
+        }
+    }
+    
+    @Test
+    public void testExactMinecraftVersionMatchesPattern()
+    {
+        List<String> inputs = List.of(
+            "", "abc", "1", "1.", "1.2", "1.2.", "1.2.3", "1.2.3.4", "1..2", "1.x.3", ".1.2", "007.08.09",
+            " 1.2", "1.2 ", "1.18.1-R0.1-SNAPSHOT", "v1_18_R1"
+        );
+        
+        for (String text : inputs)
+        {
+            long expected = (MINECRAFT_PATTERN.matcher(text).matches())
+                ? expected(MINECRAFT_PATTERN.matcher(text), "major", "minor", "patch")
+                : VersionScanner.NO_MATCH;
+            
+            assertThat(VersionScanner.scanExactMinecraftVersion(text, 0, text.length()))
+                .as(text)
+                .isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    public void testCraftBukkitVersionMatchesPattern()
+    {
+        List<String> inputs = List.of(
+            "", "v", "v1", "v1_", "v1_18", "v1_18_", "v1_18_R", "v1_18_R1", "vv1_18_R1", "v1__18_R1", "1_18_R1",
+            "v1_18_Rx v1_17_R1", "xv01_016_R03y", "org.bukkit.craftbukkit.v1_18_R1.CraftServer"
+        );
+        
+        for (String text : inputs)
+        {
+            assertThat(VersionScanner.scanCraftBukkitVersion(text, 0, text.length()))
+                .as(text)
+                .isEqualTo(expected(CRAFTBUKKIT_PATTERN.matcher(text), "release", "major", "revision"));
+        }
+    }
+    
+    @Test
+    public void testCraftBukkitPackageMatchesPattern()
+    {
+        List<String> inputs = List.of(
+            "",
+            "org.bukkit.craftbukkit.CraftServer",
+            "org.bukkit.craftbukkit.v1_18_R1",
+            "org.bukkit.craftbukkit.v1_18_R1.CraftServer",
+            "org.bukkit.craftbukkit.v1_18_Rx.org.bukkit.craftbukkit.v1_17_R1.CraftServer",
+            "org.bukkit.craftbukkit.org.bukkit.craftbukkit.v1_8_R3.CraftServer"
+        );
+        
+        for (String text : inputs)
+        {
+            assertThat(VersionScanner.scanCraftBukkitPackage(text))
+                .as(text)
+                .isEqualTo(expected(CRAFTBUKKIT_PACKAGE_PATTERN.matcher(text), "release", "major", "revision"));
+        }
+    }
+    
+    @Test
+    public void testOutOfRange()
+    {
+        for (String text : List.of("65536", "1.65536", "1.2.99999999999999"))
+        {
+            assertThat(VersionScanner.scanMinecraftVersion(text, 0, text.length()))
+                .as(text)
+                .isEqualTo(VersionScanner.OUT_OF_RANGE);
+        }
+        
+        assertThat(VersionScanner.scanCraftBukkitVersion("v1_70000_R1", 0, 11))
+            .isEqualTo(VersionScanner.OUT_OF_RANGE);
+    }
+    
+    @Test
+    public void testQualifiers()
+    {
+        long pre = MinecraftVersion.pack(1, 21, 0, MinecraftVersion.Stage.PRE_RELEASE, 1);
+        long rc = MinecraftVersion.pack(1, 20, 5, MinecraftVersion.Stage.RELEASE_CANDIDATE, 2);
+        long snapshot = MinecraftVersion.pack(26, 1, 0, MinecraftVersion.Stage.SNAPSHOT, 1);
+        
+        List<String> inputs = List.of(
+            "1.21-pre1", "1.21-pre-1", "1.21 Pre-Release 1", "Paper (MC: 1.21-pre1)", "1.21-pre1-R0.1-SNAPSHOT",
+            "1.20.5-rc2", "1.20.5-rc-2", "1.20.5 Release Candidate 2", "26.1-snapshot-1", "26.1-snapshot1"
+        );
+        
+        List<Long> expected = List.of(pre, pre, pre, pre, pre, rc, rc, rc, snapshot, snapshot);
+        
+        for (int i = 0; i < inputs.size(); i++)
+        {
+            String text = inputs.get(i);
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            
+            assertThat(VersionScanner.scanMinecraftVersion(text, 0, text.length())).as(text).isEqualTo(expected.get(i));
+            assertThat(VersionScanner.scanMinecraftVersion(ByteBuffer.wrap(bytes), 0, bytes.length)).as(text).isEqualTo(expected.get(i));
+        }
+        
+        // Not qualifiers: the release is kept.
+        for (String text : List.of("1.21-pre", "1.21-pre0", "1.21-PRE1", "1.21-preview1", "1.21-R0.1-SNAPSHOT"))
+        {
+            assertThat(VersionScanner.scanMinecraftVersion(text, 0, text.length())).as(text).isEqualTo(MinecraftVersion.pack(1, 21));
+        }
+        
+        assertThat(VersionScanner.scanMinecraftVersion("1.21-pre2048", 0, 12)).isEqualTo(VersionScanner.OUT_OF_RANGE);
+        assertThat(VersionScanner.scanExactMinecraftVersion("1.21-pre1 ", 0, 10)).isEqualTo(VersionScanner.NO_MATCH);
+        assertThat(VersionScanner.scanExactMinecraftVersion("1.21-pre", 0, 8)).isEqualTo(VersionScanner.NO_MATCH);
+    }
+    
+    @Test
+    public void testWeeklySnapshots()
+    {
+        long v1_20_5 = MinecraftVersion.pack(1, 20, 5);
+        
+        for (String text : List.of("24w14a", "Paper 24w14a", "24w14a-R0.1-SNAPSHOT"))
+        {
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            long packed = VersionScanner.scanMinecraftVersion(text, 0, text.length());
+            
+            assertThat(MinecraftVersion.release(packed)).as(text).isEqualTo(v1_20_5);
+            assertThat(MinecraftVersion.isPacked(packed)).as(text).isTrue();
+            assertThat(VersionScanner.scanMinecraftVersion(ByteBuffer.wrap(bytes), 0, bytes.length)).as(text).isEqualTo(packed);
+        }
+        
+        // Shaped like a weekly snapshot, but not in the table.
+        assertThat(VersionScanner.scanMinecraftVersion("99w01a", 0, 6)).isEqualTo(VersionScanner.NO_MATCH);
+        assertThat(VersionScanner.scanExactMinecraftVersion("24w14", 0, 5)).isEqualTo(VersionScanner.NO_MATCH);
+        assertThat(VersionScanner.scanExactMinecraftVersion("24w14a+", 0, 7)).isEqualTo(VersionScanner.NO_MATCH);
+        
+        // Not shaped like one: versions are still found.
+        assertThat(VersionScanner.scanMinecraftVersion("124w14a", 0, 7)).isEqualTo(MinecraftVersion.pack(124));
+    }
+    
+    @Test
+    public void testRegion()
+    {
+        String text = "abc 1.18.1 def";
+        
+        assertThat(VersionScanner.scanMinecraftVersion(text, 4, 8)).isEqualTo(MinecraftVersion.pack(1, 18));
+        assertThat(VersionScanner.scanMinecraftVersion(text, 0, 3)).isEqualTo(VersionScanner.NO_MATCH);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionSetTests
+{
+    private static VersionSet set(String text)
+    {
+        return VersionSet.parseVersionSet(text).orElseThrow(() -> new AssertionError("Invalid set: " + text));
+    }
+    
+    private static VersionRange range(String text)
+    {
+        return VersionRange.parseVersionRange(text).orElseThrow();
+    }
+    
+    @Test
+    public void testParse()
+    {
+        VersionSet set = set("1.8.8, 1.12.2 [1.16.5,1.20.4], 1.21+");
+        
+        assertThat(set.ranges()).containsExactly(range("1.8.8"), range("1.12.2"), range("[1.16.5,1.20.4]"), range("1.21+"));
+        assertThat(set("")).isEqualTo(VersionSet.empty());
+        assertThat(set(" , ").isEmpty()).isTrue();
+        
+        assertThat(VersionSet.parseVersionSet("1.8.8, [1.16.5,1.20.4")).isEmpty();
+        assertThat(VersionSet.parseVersionSet("1.8.8, 1.x")).isEmpty();
+        
+        VersionSet documented = VersionSet.of(VersionRange.atLeast(new MinecraftVersion(1, 16, 5)))
+            .intersect(VersionSet.of(VersionRange.lessThan(new MinecraftVersion(1, 20, 5))))
+            .union(VersionSet.of(new MinecraftVersion(1, 8, 8)));
+        
+        assertThat(VersionSet.of(new MinecraftVersion(1, 8, 8))).hasToString("{[1.8.8,1.8.8]}");
+        assertThat(documented).hasToString("{[1.8.8,1.8.8], [1.16.5,1.20.5)}");
+    }
+    
+    @Test
+    public void testMergesRanges()
+    {
+        assertThat(set("[1.16,1.17) [1.17,1.18) [1.17.1,1.19)")).isEqualTo(set("[1.16,1.19)"));
+        assertThat(set("1.17+ 1.8 [1.19,1.20]")).isEqualTo(set("1.8 1.17+"));
+        assertThat(set("[1.16,1.17) [1.17,1.18)").ranges()).hasSize(1);
+        assertThat(set("[1.8.8,1.8.9-pre1) [1.8.9-pre1,1.8.9]")).isEqualTo(set("[1.8.8,1.8.9]"));
+        
+        // The 1.8.9 snapshots and pre-releases come between them.
+        assertThat(VersionSet.of(new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 8, 9)).ranges()).hasSize(2);
+    }
+    
+    @Test
+    public void testContains()
+    {
+        VersionSet set = set("1.8.8, 1.12.2, [1.16.5,1.20.4], 1.21+");
+        
+        assertThat(set.contains(new MinecraftVersion(1, 8, 8))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(1, 8, 9))).isFalse();
+        assertThat(set.contains(new MinecraftVersion(1, 12, 2))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(1, 16, 4))).isFalse();
+        assertThat(set.contains(new MinecraftVersion(1, 16, 5))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(1, 20, 4))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(1, 20, 5))).isFalse();
+        assertThat(set.contains(new MinecraftVersion(1, 21, 0))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(2, 0, 0))).isTrue();
+        assertThat(set.contains(new MinecraftVersion(1, 0, 0))).isFalse();
+        
+        assertThat(VersionSet.empty().contains(new MinecraftVersion(1, 0, 0))).isFalse();
+        assertThat(VersionSet.all().contains(new MinecraftVersion(0, 0, 0))).isTrue();
+    }
+    
+    @Test
+    public void testRelations()
+    {
+        VersionSet set = set("1.8.8, [1.16.5,1.20.4], 1.21+");
+        
+        assertThat(set.containsAll(range("[1.17,1.18)"))).isTrue();
+        assertThat(set.containsAll(range("[1.16.4,1.18)"))).isFalse();
+        assertThat(set.containsAll(range("[1.20,1.21]"))).isFalse();
+        assertThat(set.containsAll(range("1.22+"))).isTrue();
+        assertThat(set.containsAll(set("1.8.8 1.17 1.22"))).isTrue();
+        assertThat(set.containsAll(set("1.8.8 1.8.9"))).isFalse();
+        assertThat(set.containsAll(VersionSet.empty())).isTrue();
+        
+        assertThat(set.intersects(range("[1.9,1.16.5]"))).isTrue();
+        assertThat(set.intersects(range("[1.9,1.16.5)"))).isFalse();
+        assertThat(set.intersects(range("(1.20.4,1.21)"))).isFalse();
+        assertThat(set.intersects(range("(,1.8.8]"))).isTrue();
+        assertThat(set.intersects(set("1.12.2 1.20.5"))).isFalse();
+        assertThat(set.intersects(set("1.12.2 1.20.4"))).isTrue();
+        assertThat(set.intersects(VersionSet.empty())).isFalse();
+    }
+    
+    @Test
+    public void testUnionAndIntersect()
+    {
+        VersionSet a = set("1.8.8, [1.16.5,1.20.4]");
+        VersionSet b = set("[1.18,1.21)");
+        
+        assertThat(a.union(b)).isEqualTo(set("1.8.8, [1.16.5,1.21)"));
+        assertThat(a.intersect(b)).isEqualTo(set("[1.18,1.20.4]"));
+        assertThat(a.intersect(set("1.9"))).isSameAs(VersionSet.empty());
+        assertThat(a.union(VersionSet.empty())).isSameAs(a);
+        assertThat(a.intersect(VersionSet.all())).isSameAs(a);
+        assertThat(a.union(VersionSet.all())).isEqualTo(VersionSet.all());
+    }
+    
+    @Test
+    public void testSetOperationsMatchMembership()
+    {
+        Random random = new Random(12);
+        
+        for (int trial = 0; trial < 200; trial++)
+        {
+            VersionSet a = randomSet(random);
+            VersionSet b = randomSet(random);
+            VersionSet union = a.union(b);
+            VersionSet intersection = a.intersect(b);
+            
+            assertThat(a.intersects(b)).isEqualTo(!intersection.isEmpty());
+            assertThat(union.containsAll(a) && union.containsAll(b)).isTrue();
+            
+            for (int patch = 0; patch <= 20; patch++)
+            {
+                long packed = MinecraftVersion.pack(1, 0, patch);
+                assertThat(union.contains(packed)).isEqualTo(a.contains(packed) || b.contains(packed));
+                assertThat(intersection.contains(packed)).isEqualTo(a.contains(packed) && b.contains(packed));
+            }
+        }
+    }
+    
+    private static VersionSet randomSet(Random random)
+    {
+        List<VersionRange> ranges = new ArrayList<>();
+        
+        for (int i = random.nextInt(4); i > 0; i--)
+        {
+            int since = random.nextInt(18);
+            int through = since + random.nextInt(3);
+            ranges.add(VersionRange.between(new MinecraftVersion(1, 0, since), new MinecraftVersion(1, 0, through)));
+        }
+        
+        return VersionSet.of(ranges);
+    }
+}
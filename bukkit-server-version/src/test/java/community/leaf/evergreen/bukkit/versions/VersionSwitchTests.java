@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VersionSwitchTests
+{
+    private static final MinecraftVersion v1_13_0 = new MinecraftVersion(1, 13, 0);
+    private static final MinecraftVersion v1_17_0 = new MinecraftVersion(1, 17, 0);
+    
+    @Test
+    public void testOnlySelectedImplementationIsCreated()
+    {
+        List<String> created = new ArrayList<>();
+        
+        Supplier<String> modern = () -> { created.add("modern"); return "modern"; };
+        Supplier<String> flattening = () -> { created.add("flattening"); return "flattening"; };
+        Supplier<String> legacy = () -> { created.add("legacy"); return "legacy"; };
+        
+        VersionSwitch<String> selected = VersionSwitch.<String>builder()
+            .since(v1_17_0, modern)
+            .range(v1_13_0, v1_17_0, flattening)
+            .until(v1_13_0, legacy)
+            .build(new MinecraftVersion(1, 16, 5));
+        
+        assertThat(selected.get()).isEqualTo("flattening");
+        assertThat(selected.version()).isEqualTo(new MinecraftVersion(1, 16, 5));
+        assertThat(created).containsExactly("flattening");
+    }
+    
+    @Test
+    public void testFallback()
+    {
+        VersionSwitch.Builder<String> builder = VersionSwitch.<String>builder()
+            .since(v1_17_0, () -> "modern");
+        
+        assertThatThrownBy(() -> builder.build(new MinecraftVersion(1, 8, 8)))
+            .isInstanceOf(IllegalStateException.class);
+        
+        builder.orElse(() -> "fallback");
+        
+        assertThat(builder.build(new MinecraftVersion(1, 8, 8)).get()).isEqualTo("fallback");
+        assertThat(builder.build(new MinecraftVersion(1, 19, 0)).get()).isEqualTo("modern");
+    }
+}
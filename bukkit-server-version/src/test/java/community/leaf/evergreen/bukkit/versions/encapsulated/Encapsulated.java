@@ -0,0 +1,17 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.encapsulated;
+
+/**
+ * Test stand-in for a class in a package that's exported but not opened,
+ * which tests load into their own named module.
+ */
+public class Encapsulated
+{
+    private int secret = 42;
+}
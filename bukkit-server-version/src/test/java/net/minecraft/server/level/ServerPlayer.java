@@ -0,0 +1,21 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.minecraft.server.level;
+
+/**
+ * Test stand-in for an unversioned, Mojang-mapped NMS class (1.17 and above).
+ */
+public class ServerPlayer
+{
+    private int latency;
+    
+    public ServerPlayer(int latency)
+    {
+        this.latency = latency;
+    }
+}
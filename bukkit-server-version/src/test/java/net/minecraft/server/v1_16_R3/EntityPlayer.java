@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.minecraft.server.v1_16_R3;
+
+/**
+ * Test stand-in for a versioned NMS class (1.16 and below).
+ */
+public class EntityPlayer
+{
+    public static int MAX_PING = 1000;
+    
+    public int ping;
+    
+    private final String name;
+    
+    public EntityPlayer(int ping, String name)
+    {
+        this.ping = ping;
+        this.name = name;
+    }
+    
+    public int getPing() { return ping; }
+    
+    private String getName() { return name; }
+    
+    public static EntityPlayer create(String name) { return new EntityPlayer(0, name); }
+}
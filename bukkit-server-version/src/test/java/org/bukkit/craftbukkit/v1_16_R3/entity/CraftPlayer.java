@@ -0,0 +1,25 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.bukkit.craftbukkit.v1_16_R3.entity;
+
+import net.minecraft.server.v1_16_R3.EntityPlayer;
+
+/**
+ * Test stand-in for a relocated CraftBukkit class.
+ */
+public class CraftPlayer
+{
+    private final EntityPlayer handle;
+    
+    public CraftPlayer(EntityPlayer handle)
+    {
+        this.handle = handle;
+    }
+    
+    public EntityPlayer getHandle() { return handle; }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import community.leaf.evergreen.bukkit.versions.stubs.StubServer;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.J_Result;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Concurrent first access to caches: class lookups, the server's release
+ * ordinal, and metrics counters.
+ */
+public final class CacheStress
+{
+    private CacheStress() { throw new UnsupportedOperationException(); }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Looked up once, both threads see the same result")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "Duplicate or missing lookup results")
+    @State
+    public static class ClassLookups
+    {
+        final ClassCache classes = new ClassCache(UnaryOperator.identity(), ClassLookups.class.getClassLoader());
+        
+        Optional<Class<?>> first;
+        Optional<Class<?>> second;
+        
+        @Actor
+        public void actor1() { first = classes.find("org.bukkit.craftbukkit.v1_20_R3.CraftServer"); }
+        
+        @Actor
+        public void actor2() { second = classes.find("org.bukkit.craftbukkit.v1_20_R3.CraftServer"); }
+        
+        @Arbiter
+        public void arbiter(ZZ_Result result)
+        {
+            result.r1 = first == second;
+            result.r2 = first.isPresent();
+        }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "2, 2", expect = ACCEPTABLE, desc = "Both threads see the server's ordinal")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "A thread saw an unresolved or wrong ordinal")
+    @State
+    public static class ServerOrdinal
+    {
+        static { StubServer.install(); }
+        
+        // Racy single-check field, resolved lazily on first access.
+        final KnownReleases releases = KnownReleases.of(
+            new MinecraftVersion(1, 8, 8), new MinecraftVersion(1, 16, 5), new MinecraftVersion(1, 20, 4)
+        );
+        
+        @Actor
+        public void actor1(II_Result result) { result.r1 = releases.serverOrdinal(); }
+        
+        @Actor
+        public void actor2(II_Result result) { result.r2 = releases.serverOrdinal(); }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "2", expect = ACCEPTABLE, desc = "Both increments counted")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "Lost an increment")
+    @State
+    public static class MetricsCounters
+    {
+        final VersionMetrics metrics = new VersionMetrics();
+        
+        @Actor
+        public void actor1() { metrics.count(VersionMetrics.Counter.CLASS_LOOKUPS); }
+        
+        @Actor
+        public void actor2() { metrics.count(VersionMetrics.Counter.CLASS_LOOKUPS); }
+        
+        @Arbiter
+        public void arbiter(J_Result result)
+        {
+            result.r1 = metrics.takeSnapshot().count(VersionMetrics.Counter.CLASS_LOOKUPS);
+        }
+    }
+}
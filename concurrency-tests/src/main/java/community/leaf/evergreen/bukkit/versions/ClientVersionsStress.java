@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.J_Result;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import java.util.UUID;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Concurrent joins and quits: optimistic reads of the client version store
+ * must never see a partially written or shifted entry.
+ */
+public final class ClientVersionsStress
+{
+    private ClientVersionsStress() { throw new UnsupportedOperationException(); }
+    
+    static final long PACKED = MinecraftVersion.pack(1, 20, 4);
+    
+    // Both players land in the same stripe and slot, so they probe past each other.
+    static final UUID FIRST = new UUID(0, 1);
+    static final UUID SECOND = colliding(FIRST);
+    
+    private static UUID colliding(UUID player)
+    {
+        long hash = ClientVersions.hash(player.getMostSignificantBits(), player.getLeastSignificantBits());
+        
+        for (long least = player.getLeastSignificantBits() + 1; ; least++)
+        {
+            long other = ClientVersions.hash(0, least);
+            if ((other ^ hash) == ((other ^ hash) & 0xFFFFFF00_FFFFFF00L)) { return new UUID(0, least); }
+        }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "-1", expect = ACCEPTABLE, desc = "Read before the player joined")
+    @Outcome(id = "140780438190080", expect = ACCEPTABLE, desc = "Read after the player joined")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "Read a partially written entry")
+    @State
+    public static class JoinWhileReading
+    {
+        final ClientVersions clients = new ClientVersions(1);
+        
+        @Actor
+        public void join() { clients.put(SECOND, PACKED); }
+        
+        @Actor
+        public void read(J_Result result) { result.r1 = clients.getPacked(SECOND); }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "The remaining player's entry was shifted back intact")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "Lost the remaining player while another quit")
+    @State
+    public static class QuitWhileReading
+    {
+        final ClientVersions clients = new ClientVersions(1);
+        
+        {
+            clients.put(FIRST, PACKED);
+            clients.put(SECOND, PACKED);
+        }
+        
+        @Actor
+        public void quit(ZZ_Result result) { result.r1 = clients.remove(FIRST); }
+        
+        @Actor
+        public void read(ZZ_Result result) { result.r2 = clients.getPacked(SECOND) == PACKED; }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Both players joined")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "A concurrent join was lost")
+    @State
+    public static class ConcurrentJoins
+    {
+        final ClientVersions clients = new ClientVersions(1);
+        
+        @Actor
+        public void joinFirst() { clients.put(FIRST, PACKED); }
+        
+        @Actor
+        public void joinSecond() { clients.put(SECOND, PACKED); }
+        
+        @Arbiter
+        public void arbiter(ZZ_Result result)
+        {
+            result.r1 = clients.getPacked(FIRST) == PACKED;
+            result.r2 = clients.getPacked(SECOND) == PACKED;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZI_Result;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Concurrent first access to a server version.
+ *
+ * <p>{@code server()} reads the {@link ServerVersionSeed} until it holds the version
+ * (resolving it on a miss), so it's raced here with a fresh seed per test.</p>
+ */
+public final class ServerVersionSeedStress
+{
+    private ServerVersionSeedStress() { throw new UnsupportedOperationException(); }
+    
+    @JCStressTest
+    @Outcome(id = "true, 1", expect = ACCEPTABLE, desc = "Resolved once, both threads see the same version")
+    @Outcome(id = "true, 2", expect = ACCEPTABLE_INTERESTING, desc = "Both threads resolved, but only one version was published")
+    @Outcome(id = "false, .*", expect = FORBIDDEN, desc = "Threads see different versions")
+    @State
+    public static class ConcurrentResolution
+    {
+        final ServerVersionSeed<MinecraftVersion> seed = new ServerVersionSeed<>(MinecraftVersion.class);
+        final AtomicInteger resolutions = new AtomicInteger();
+        
+        MinecraftVersion first;
+        MinecraftVersion second;
+        
+        MinecraftVersion resolve()
+        {
+            resolutions.incrementAndGet();
+            return new MinecraftVersion(1, 20, 4);
+        }
+        
+        @Actor
+        public void actor1() { first = seed.get(this::resolve); }
+        
+        @Actor
+        public void actor2() { second = seed.get(this::resolve); }
+        
+        @Arbiter
+        public void arbiter(ZI_Result result)
+        {
+            result.r1 = first == second;
+            result.r2 = resolutions.get();
+        }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Seeded first: resolution returns the seeded version")
+    @Outcome(id = "false, false", expect = ACCEPTABLE, desc = "Resolved first: seeding a different version is rejected")
+    @Outcome(id = "true, false", expect = FORBIDDEN, desc = "Seeding succeeded, but resolution ignored it")
+    @Outcome(id = "false, true", expect = FORBIDDEN, desc = "Seeding was rejected, but resolution returned it")
+    @State
+    public static class SeedVersusResolution
+    {
+        static final MinecraftVersion SEEDED = new MinecraftVersion(1, 20, 4);
+        static final MinecraftVersion RESOLVED = new MinecraftVersion(1, 19, 4);
+        
+        final ServerVersionSeed<MinecraftVersion> seed = new ServerVersionSeed<>(MinecraftVersion.class);
+        
+        @Actor
+        public void seeder(ZZ_Result result)
+        {
+            try
+            {
+                seed.seed(SEEDED);
+                result.r1 = true;
+            }
+            catch (IllegalStateException e)
+            {
+                result.r1 = false;
+            }
+        }
+        
+        @Actor
+        public void resolver(ZZ_Result result)
+        {
+            result.r2 = seed.get(() -> RESOLVED) == SEEDED;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Concurrent interning: racing threads may create duplicate instances
+ * (the interner is lock-free), but must never get the wrong version.
+ */
+public final class VersionInternerStress
+{
+    private VersionInternerStress() { throw new UnsupportedOperationException(); }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Same canonical instance")
+    @Outcome(id = "true, false", expect = ACCEPTABLE_INTERESTING, desc = "Equal duplicate instances, from racing creation")
+    @Outcome(id = "false, .*", expect = FORBIDDEN, desc = "Interned the wrong version")
+    @State
+    public static class SameVersion
+    {
+        static final long PACKED = MinecraftVersion.pack(1, 20, 4);
+        
+        final VersionInterner<MinecraftVersion> interner = new VersionInterner<>(MinecraftVersion::new);
+        
+        MinecraftVersion first;
+        MinecraftVersion second;
+        
+        @Actor
+        public void actor1() { first = interner.intern(PACKED); }
+        
+        @Actor
+        public void actor2() { second = interner.intern(PACKED); }
+        
+        @Arbiter
+        public void arbiter(ZZ_Result result)
+        {
+            result.r1 = first.packed() == PACKED && second.packed() == PACKED;
+            result.r2 = first == second;
+        }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Both threads got the versions they asked for")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "A thread got a colliding version")
+    @State
+    public static class CollidingVersions
+    {
+        // Only two slots, so different versions collide and replace each other.
+        final VersionInterner<MinecraftVersion> interner = new VersionInterner<>(2, MinecraftVersion::new);
+        
+        @Actor
+        public void actor1(ZZ_Result result)
+        {
+            long packed = MinecraftVersion.pack(1, 20, 4);
+            result.r1 = interner.intern(packed).packed() == packed;
+        }
+        
+        @Actor
+        public void actor2(ZZ_Result result)
+        {
+            long packed = MinecraftVersion.pack(1, 19, 4);
+            result.r2 = interner.intern(packed).packed() == packed;
+        }
+    }
+}
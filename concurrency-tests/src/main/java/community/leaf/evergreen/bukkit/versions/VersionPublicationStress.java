@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Publication of versions through data races: versions are immutable,
+ * so even racy publication must never expose a partially constructed one.
+ */
+public final class VersionPublicationStress
+{
+    private VersionPublicationStress() { throw new UnsupportedOperationException(); }
+    
+    static final long PACKED = MinecraftVersion.pack(1, 20, 3);
+    
+    @JCStressTest
+    @Outcome(id = "0", expect = ACCEPTABLE, desc = "Not published yet")
+    @Outcome(id = "1", expect = ACCEPTABLE, desc = "Published and fully constructed")
+    @Outcome(id = "2", expect = FORBIDDEN, desc = "Published, but torn")
+    @State
+    public static class RacyPublication
+    {
+        CraftBukkitVersion version;
+        
+        @Actor
+        public void writer() { version = new CraftBukkitVersion(PACKED); }
+        
+        @Actor
+        public void reader(I_Result result)
+        {
+            CraftBukkitVersion read = version;
+            result.r1 = (read == null) ? 0 : (read.packed() == PACKED && read.isRelocated()) ? 1 : 2;
+        }
+    }
+    
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "Both threads see the complete package name")
+    @Outcome(id = ".*", expect = FORBIDDEN, desc = "A thread saw an incomplete package name")
+    @State
+    public static class LazyPackageNames
+    {
+        static final String EXPECTED = "org.bukkit.craftbukkit.v1_20_R3";
+        
+        // Racy single-check fields, built lazily on first access.
+        final CraftBukkitVersion version = new CraftBukkitVersion(PACKED);
+        
+        @Actor
+        public void actor1(ZZ_Result result) { result.r1 = EXPECTED.equals(version.craftBukkitPackage()); }
+        
+        @Actor
+        public void actor2(ZZ_Result result) { result.r2 = EXPECTED.equals(version.craftBukkitPackage()); }
+    }
+}
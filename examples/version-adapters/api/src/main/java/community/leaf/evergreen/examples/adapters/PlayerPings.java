@@ -0,0 +1,22 @@
+package community.leaf.evergreen.examples.adapters;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Gets players' pings, which every server version exposes differently.
+ *
+ * <p>Implementations ("adapters") live in one module per server version,
+ * compiled against that version, and are declared in a descriptor named
+ * {@code META-INF/evergreen/adapters/community.leaf.evergreen.examples.adapters.PlayerPings}.</p>
+ */
+public interface PlayerPings
+{
+    /**
+     * Gets a player's ping: their connection's latency.
+     *
+     * @param player    the player
+     *
+     * @return the player's ping in milliseconds
+     */
+    int ping(Player player);
+}
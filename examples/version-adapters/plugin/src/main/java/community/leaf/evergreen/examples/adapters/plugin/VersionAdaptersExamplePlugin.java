@@ -0,0 +1,46 @@
+package community.leaf.evergreen.examples.adapters.plugin;
+
+import community.leaf.evergreen.bukkit.versions.CraftBukkitVersion;
+import community.leaf.evergreen.bukkit.versions.VersionAdapters;
+import community.leaf.evergreen.examples.adapters.PlayerPings;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Shows players their ping, with whichever {@link PlayerPings} adapter
+ * matches the server. Adapters of other versions are never loaded.
+ */
+public final class VersionAdaptersExamplePlugin extends JavaPlugin
+{
+    private static final VersionAdapters<PlayerPings> PINGS = VersionAdapters.of(PlayerPings.class);
+    
+    @Override
+    public void onEnable()
+    {
+        // Only reads the descriptor: nothing is loaded yet.
+        if (!PINGS.supports(CraftBukkitVersion.server()))
+        {
+            getLogger().severe("Unsupported server version " + CraftBukkitVersion.server() + ", supports: " + PINGS.versions());
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        
+        // Loads the matching adapter (and nothing else).
+        getLogger().info("Using adapter: " + PINGS.get().getClass().getName());
+    }
+    
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args)
+    {
+        if (!(sender instanceof Player))
+        {
+            sender.sendMessage("Only players have a ping.");
+            return true;
+        }
+        
+        sender.sendMessage("Your ping: " + PINGS.get().ping((Player) sender) + "ms");
+        return true;
+    }
+}
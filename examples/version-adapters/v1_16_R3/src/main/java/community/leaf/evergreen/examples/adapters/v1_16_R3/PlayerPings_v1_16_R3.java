@@ -0,0 +1,40 @@
+package community.leaf.evergreen.examples.adapters.v1_16_R3;
+
+import community.leaf.evergreen.bukkit.versions.CraftBukkitVersion;
+import community.leaf.evergreen.bukkit.versions.MemberAccessors;
+import community.leaf.evergreen.bukkit.versions.MemberDescriptor;
+import community.leaf.evergreen.examples.adapters.PlayerPings;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+/**
+ * Reads the {@code ping} field of the player's NMS handle, since
+ * 1.16 doesn't expose pings in its API.
+ *
+ * <p>The handles are resolved when this class is initialized, which only
+ * happens on a 1.16 server: on any other server this class is never loaded.</p>
+ */
+public final class PlayerPings_v1_16_R3 implements PlayerPings
+{
+    private static final Class<?> ENTITY_PLAYER =
+        CraftBukkitVersion.server().findMinecraftClass("EntityPlayer").orElseThrow();
+    
+    private static final MethodHandle GET_HANDLE =
+        CraftBukkitVersion.server().findCraftBukkitClass("entity.CraftPlayer")
+            .flatMap(owner -> MemberAccessors.findHandle(owner, MemberDescriptor.method(
+                MethodType.methodType(ENTITY_PLAYER), "getHandle"
+            )))
+            .orElseThrow();
+    
+    private static final MethodHandle GET_PING =
+        MemberAccessors.findHandle(ENTITY_PLAYER, MemberDescriptor.field(int.class, "ping")).orElseThrow();
+    
+    @Override
+    public int ping(Player player)
+    {
+        try { return (int) GET_PING.invoke(GET_HANDLE.invoke(player)); }
+        catch (Throwable e) { throw new IllegalStateException("Could not get ping of: " + player.getName(), e); }
+    }
+}
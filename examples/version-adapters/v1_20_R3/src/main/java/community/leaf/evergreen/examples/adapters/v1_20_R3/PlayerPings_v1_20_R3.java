@@ -0,0 +1,15 @@
+package community.leaf.evergreen.examples.adapters.v1_20_R3;
+
+import community.leaf.evergreen.examples.adapters.PlayerPings;
+import org.bukkit.entity.Player;
+
+/**
+ * Uses {@code Player#getPing()}, which only exists in the API since 1.17:
+ * loading this class on an older server would fail to link, but on any
+ * other server this class is never loaded.
+ */
+public final class PlayerPings_v1_20_R3 implements PlayerPings
+{
+    @Override
+    public int ping(Player player) { return player.getPing(); }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package community.leaf.evergreen.bukkit.versions.stubs;
+
+import org.bukkit.Bukkit;
+import org.bukkit.craftbukkit.v1_20_R3.CraftServer;
+
+/**
+ * Installs the stubbed server, which has to happen before any
+ * version is resolved from it in the benchmark or test's JVM.
+ */
+public final class StubServer
+{
+    private StubServer() { throw new UnsupportedOperationException(); }
+    
+    public static synchronized void install()
+    {
+        if (Bukkit.getServer() == null) { Bukkit.setServer(new CraftServer()); }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.bukkit;
+
+import pl.tlinkowski.annotation.basic.NullOr;
+
+/**
+ * Stub of Bukkit's static server accessor: only what Evergreen calls.
+ */
+public final class Bukkit
+{
+    private Bukkit() { throw new UnsupportedOperationException(); }
+    
+    private static volatile @NullOr Server server;
+    
+    public static @NullOr Server getServer() { return server; }
+    
+    public static void setServer(Server server)
+    {
+        if (Bukkit.server != null) { throw new UnsupportedOperationException("Cannot redefine singleton Server"); }
+        Bukkit.server = server;
+    }
+    
+    public static String getBukkitVersion()
+    {
+        @NullOr Server current = server;
+        if (current == null) { throw new IllegalStateException("No server"); }
+        return current.getBukkitVersion();
+    }
+}
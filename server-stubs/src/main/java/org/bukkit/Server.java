@@ -0,0 +1,16 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.bukkit;
+
+/**
+ * Stub of Bukkit's server: only what Evergreen calls.
+ */
+public interface Server
+{
+    String getBukkitVersion();
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.bukkit.craftbukkit.v1_20_R3;
+
+import org.bukkit.Server;
+
+/**
+ * Stub of a 1.20.4 server, living in the CraftBukkit package
+ * real servers use so the CraftBukkit version resolves from its class name.
+ */
+public final class CraftServer implements Server
+{
+    public static final String BUKKIT_VERSION = "1.20.4-R0.1-SNAPSHOT";
+    
+    @Override
+    public String getBukkitVersion() { return BUKKIT_VERSION; }
+}
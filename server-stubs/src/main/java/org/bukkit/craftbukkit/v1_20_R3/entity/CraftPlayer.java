@@ -0,0 +1,13 @@
+/*
+ * Copyright © 2022-2023, RezzedUp <https://github.com/LeafCommunity/Evergreen>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.bukkit.craftbukkit.v1_20_R3.entity;
+
+/**
+ * Stub of a CraftBukkit class to look up.
+ */
+public final class CraftPlayer {}